@@ -0,0 +1,92 @@
+package net.vivialconnect.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.util.CryptoUtils;
+import net.vivialconnect.util.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The text encodings applied to every request: escaping of the non-ASCII characters of a message body and hex encoding
+ * of digests and signatures.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+
+    @State(Scope.Thread)
+    public static class MessageBody {
+
+        /**
+         * Message bodies: plain ASCII, accented Latin, and emoji, which take two chars each
+         */
+        @Param({"ascii", "latin", "emoji"})
+        public String text;
+
+        private String body;
+
+
+        @Setup
+        public void prepareBody() {
+            String sample;
+            if (text.equals("ascii")) {
+                sample = "Your appointment is confirmed for Tuesday at 10am. ";
+            } else if (text.equals("latin")) {
+                sample = "Votre rendez-vous est confirmé pour mardi à 10h. ";
+            } else {
+                sample = "See you soon \uD83D\uDE00\uD83D\uDC4D ";
+            }
+
+            StringBuilder builder = new StringBuilder();
+            while (builder.length() < 160) {
+                builder.append(sample);
+            }
+            body = builder.toString();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Content {
+
+        /**
+         * Bytes to hex encode: a SHA-256 digest, and a larger buffer
+         */
+        @Param({"32", "1024"})
+        public int bytes;
+
+        private byte[] content;
+
+
+        @Setup
+        public void prepareContent() {
+            content = new byte[bytes];
+            new Random(42).nextBytes(content);
+        }
+    }
+
+
+    @Benchmark
+    public String escapeNonAsciiCharacters(MessageBody messageBody) {
+        return StringUtils.escapeNonAsciiCharacters(messageBody.body);
+    }
+
+
+    @Benchmark
+    public String toHex(Content content) {
+        return CryptoUtils.toHex(content.content);
+    }
+}
@@ -0,0 +1,37 @@
+package net.vivialconnect.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Loads the API payloads shared with the SDK tests.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+
+    static byte[] load(String name) throws IOException {
+        InputStream inputStream = Fixtures.class.getClassLoader().getResourceAsStream(name);
+        if (inputStream == null) {
+            throw new FileNotFoundException(name);
+        }
+
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+
+            int read;
+            while ((read = inputStream.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+
+            return buffer.toByteArray();
+        } finally {
+            inputStream.close();
+        }
+    }
+}
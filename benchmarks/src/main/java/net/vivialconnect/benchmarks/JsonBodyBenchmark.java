@@ -0,0 +1,83 @@
+package net.vivialconnect.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.model.format.JsonBodyBuilder;
+import net.vivialconnect.model.message.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request bodies built with {@link JsonBodyBuilder} the way <code>Message.send()</code> and
+ * <code>BulkMessage.send()</code> build them, the bulk one for a growing number of recipients.
+ * <p>
+ * Run with <code>java -jar target/benchmarks.jar JsonBodyBenchmark -prof gc</code> to see the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBodyBenchmark {
+
+    private static final String FROM_NUMBER = "+19132597591";
+    private static final String BODY = "Hello, from Vivial Connect!";
+    private static final List<String> MEDIA_URLS = Arrays.asList("https://media.vivialconnect.net/1.jpg");
+
+    @State(Scope.Thread)
+    public static class Recipients {
+
+        /**
+         * Recipients of the bulk message
+         */
+        @Param({"1", "100", "1000"})
+        public int recipients;
+
+        private List<String> toNumbers;
+
+
+        @Setup
+        public void prepareRecipients() {
+            toNumbers = new ArrayList<String>(recipients);
+            for (int i = 0; i < recipients; i++) {
+                toNumbers.add(String.format("+1913%07d", i));
+            }
+        }
+    }
+
+
+    @Benchmark
+    public String messageBody() {
+        return JsonBodyBuilder.forClass(Message.class)
+                .addParamPair("media_urls", MEDIA_URLS)
+                .addParamPair("connector_id", 42)
+                .addParamPair("from_number", FROM_NUMBER)
+                .addParamPair("to_number", "+11234567890")
+                .addParamPair("body", BODY)
+                .build();
+    }
+
+
+    @Benchmark
+    public String bulkMessageBody(Recipients recipients) {
+        return JsonBodyBuilder.emptyJson()
+                .addParamPair("from_number", FROM_NUMBER)
+                .addParamPair("body", BODY)
+                .addParamPair("connector_id", 42)
+                .addParamPair("to_numbers", recipients.toNumbers)
+                .addParamPair("media_urls", MEDIA_URLS)
+                .build();
+    }
+}
@@ -0,0 +1,555 @@
+package net.vivialconnect.benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.FaultInjectingTransport;
+import net.vivialconnect.http.LatencyHistogram;
+import net.vivialconnect.http.PooledTransport;
+import net.vivialconnect.http.RecordingTransport;
+import net.vivialconnect.http.ReplayTransport;
+import net.vivialconnect.http.TrafficArchive;
+import net.vivialconnect.http.Transport;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.message.BulkMessage;
+import net.vivialconnect.model.message.Message;
+import net.vivialconnect.tests.stub.ApiStubServer;
+
+/**
+ * Drives sustained traffic through the SDK against the API stub and reports what a sender can expect from it:
+ * throughput, latency percentiles, allocations of the calling threads and errors by exception class.
+ * <p>
+ * With <code>--rate</code>, requests are started on a fixed schedule whatever the response times, and their latency
+ * is measured from the time they were due, so that a slow response delays the report rather than the load. Without
+ * it, <code>--concurrency</code> callers send requests back to back.
+ * <pre>
+ * java -cp target/benchmarks.jar net.vivialconnect.benchmarks.LoadGenerator --rate=500 --duration=60 \
+ *     --mix=send:80,bulk:5,read:15 --server-latency=20-80 --throttled-ratio=0.02
+ * </pre>
+ * <code>--faults</code> injects client-side faults into every route, with the ratios of
+ * <code>reset</code>, <code>truncated</code>, <code>no-content</code> and <code>error</code> (500), 429 bursts as
+ * <code>throttled:RATIOxLENGTH</code> and latency spikes as <code>spike:RATIOxMILLIS</code>, e.g.
+ * <code>--faults=reset:0.01,throttled:0.005x10,spike:0.01x500 --seed=42</code>.
+ * <p>
+ * <code>--record=FILE</code> writes the traffic of the run to a {@link TrafficArchive}, and
+ * <code>--replay=FILE</code> answers from one instead of a server, at the recorded timing scaled by
+ * <code>--replay-speed</code> (1 by default, 0 for no latency).
+ * <p>
+ * The stub runs in process unless <code>--base-url</code> points to another one, with the credentials given by
+ * <code>--account-id</code>, <code>--api-key</code> and <code>--api-secret</code>.
+ */
+public final class LoadGenerator {
+
+    private static final String FROM_NUMBER = "+19132597591";
+    private static final int BULK_RECIPIENTS = 100;
+
+    /**
+     * Calls made by the generator
+     */
+    enum Operation {
+        SEND, BULK, READ
+    }
+
+    private final Options options;
+    private final List<String> bulkRecipients = new ArrayList<String>();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private volatile int[] messageIds;
+
+
+    private LoadGenerator(Options options) {
+        this.options = options;
+
+        for (int i = 0; i < BULK_RECIPIENTS; i++) {
+            bulkRecipients.add(String.format("+1913%07d", i));
+        }
+    }
+
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        ApiStubServer stub = null;
+        String baseUrl = options.baseUrl;
+        if (options.replay != null) {
+            baseUrl = "http://replay.invalid/api/v1.0";
+        } else if (baseUrl == null) {
+            stub = new ApiStubServer(options.accountId, options.apiKey, options.apiSecret).start();
+            stub.setLatency(options.minServerLatency, options.maxServerLatency, TimeUnit.MILLISECONDS);
+            stub.setThrottledRatio(options.throttledRatio);
+            baseUrl = stub.getBaseUrl();
+        }
+
+        VivialConnectClient.init(options.accountId, options.apiKey, options.apiSecret);
+        VivialConnectClient.overrideApiBaseUrl(baseUrl);
+        if (!options.retries) {
+            VivialConnectClient.setRetryPolicy(RetryPolicy.none());
+        }
+
+        Transport transport = new PooledTransport();
+        if (options.replay != null) {
+            transport = new ReplayTransport(TrafficArchive.read(Paths.get(options.replay)), options.replaySpeed);
+        } else if (options.record != null) {
+            transport = new RecordingTransport(transport, Paths.get(options.record));
+        }
+
+        FaultInjectingTransport faults = null;
+        if (options.faults != null) {
+            faults = FaultInjectingTransport.builder(transport)
+                    .seed(options.seed)
+                    .defaultFaults(options.faults)
+                    .build();
+            transport = faults;
+        }
+        VivialConnectClient.setTransport(transport);
+
+        try {
+            new LoadGenerator(options).run(stub);
+
+            if (faults != null) {
+                System.out.println("Injected faults:");
+                for (FaultInjectingTransport.Fault fault : FaultInjectingTransport.Fault.values()) {
+                    System.out.printf("  %-40s %d%n", fault, faults.getInjectedCount(fault));
+                }
+            }
+        } finally {
+            transport.close();
+            if (stub != null) {
+                stub.close();
+            }
+        }
+    }
+
+
+    private void run(ApiStubServer stub) throws Exception {
+        List<Message> messages = Message.getMessages();
+        messageIds = new int[messages.size()];
+        for (int i = 0; i < messageIds.length; i++) {
+            messageIds[i] = messages.get(i).getId();
+        }
+
+        System.out.printf("Warming up for %ds%n", options.warmupSeconds);
+        runPhase(options.warmupSeconds, new Stats());
+
+        long stubRequests = stub == null ? 0 : stub.getRequestCount();
+        long stubThrottled = stub == null ? 0 : stub.getThrottledCount();
+
+        System.out.printf("Measuring for %ds%n", options.durationSeconds);
+        Stats stats = new Stats();
+        long gcCount = gcCount();
+        long gcTime = gcTime();
+
+        long elapsed = runPhase(options.durationSeconds, stats);
+
+        stats.report(options, elapsed, gcCount() - gcCount, gcTime() - gcTime);
+
+        if (stub != null) {
+            System.out.printf("Stub: %d requests, %d throttled%n",
+                    stub.getRequestCount() - stubRequests, stub.getThrottledCount() - stubThrottled);
+        }
+    }
+
+    /**
+     * @return the time from the start of the phase until its last call completed, in nanoseconds
+     */
+    private long runPhase(int seconds, Stats stats) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService callers = new ThreadPoolExecutor(options.concurrency, options.concurrency, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), runnable -> {
+            Thread thread = new Thread(() -> {
+                long allocated = allocatedBytes();
+                runnable.run();
+                stats.allocated(allocatedBytes() - allocated);
+            }, "load-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (options.rate > 0) {
+            long interval = TimeUnit.SECONDS.toNanos(1) / options.rate;
+            for (long due = start; due < deadline; due += interval) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                final long scheduled = due;
+                callers.execute(() -> call(stats, scheduled));
+            }
+        } else {
+            for (int i = 0; i < options.concurrency; i++) {
+                callers.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        call(stats, System.nanoTime());
+                    }
+                });
+            }
+        }
+
+        callers.shutdown();
+        callers.awaitTermination(1, TimeUnit.HOURS);
+
+        return System.nanoTime() - start;
+    }
+
+
+    private void call(Stats stats, long scheduled) {
+        Operation operation = options.nextOperation();
+        try {
+            switch (operation) {
+                case SEND:
+                    send();
+                    break;
+                case BULK:
+                    sendBulk();
+                    break;
+                default:
+                    read();
+            }
+
+            stats.record(operation, System.nanoTime() - scheduled, null);
+        } catch (Exception e) {
+            stats.record(operation, System.nanoTime() - scheduled, e);
+        }
+    }
+
+
+    private void send() throws Exception {
+        Message message = new Message();
+        message.setFromNumber(FROM_NUMBER);
+        message.setToNumber("+11234567890");
+        message.setBody("Your appointment is confirmed for Tuesday at 10am.");
+        message.send();
+    }
+
+
+    private void sendBulk() throws Exception {
+        BulkMessage bulk = new BulkMessage();
+        bulk.setFromNumber(FROM_NUMBER);
+        bulk.setToNumbers(bulkRecipients);
+        bulk.setBody("Our offices are closed on Monday.");
+        bulk.send();
+    }
+
+    /**
+     * One of the reads a sender typically makes, at random.
+     */
+    private void read() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (random.nextInt(4)) {
+            case 0:
+                Account.getAccount();
+                break;
+            case 1:
+                Message.getMessages();
+                break;
+            case 2:
+                Message.count();
+                break;
+            default:
+                Message.getMessageById(messageIds[random.nextInt(messageIds.length)]);
+        }
+    }
+
+    /**
+     * @return the bytes allocated so far by the current thread, -1 if the runtime does not tell
+     */
+    private long allocatedBytes() {
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+
+        return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(collector.getCollectionCount(), 0);
+        }
+
+        return count;
+    }
+
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(collector.getCollectionTime(), 0);
+        }
+
+        return time;
+    }
+
+    /**
+     * Results of a phase, recorded from any number of threads.
+     */
+    private static final class Stats {
+
+        private final Map<Operation, LatencyHistogram> latencies = new EnumMap<Operation, LatencyHistogram>(Operation.class);
+        private final LatencyHistogram overall = new LatencyHistogram();
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<String, LongAdder>();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private volatile boolean allocationUnknown;
+
+
+        private Stats() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new LatencyHistogram());
+            }
+        }
+
+
+        private void record(Operation operation, long nanos, Exception failure) {
+            latencies.get(operation).record(nanos);
+            overall.record(nanos);
+
+            if (failure != null) {
+                errors.computeIfAbsent(failure.getClass().getSimpleName(), name -> new LongAdder()).increment();
+            }
+        }
+
+
+        private void allocated(long bytes) {
+            if (bytes < 0) {
+                allocationUnknown = true;
+            } else {
+                allocatedBytes.add(bytes);
+            }
+        }
+
+
+        private void report(Options options, long elapsedNanos, long gcCount, long gcMillis) {
+            double seconds = (double) elapsedNanos / TimeUnit.SECONDS.toNanos(1);
+            LatencyHistogram.Snapshot all = overall.snapshot();
+
+            System.out.println();
+            System.out.printf("Throughput: %.1f calls/s%s%n", all.getCount() / seconds,
+                    options.rate > 0 ? String.format(" (target %d/s)", options.rate) : String.format(" (%d callers)", options.concurrency));
+
+            System.out.printf("%-8s %10s %10s %10s %10s %10s %10s%n", "Latency", "calls", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (Map.Entry<Operation, LatencyHistogram> latency : latencies.entrySet()) {
+                printLatency(latency.getKey().name().toLowerCase(), latency.getValue().snapshot());
+            }
+            printLatency("all", all);
+
+            if (!allocationUnknown && all.getCount() > 0) {
+                long allocated = allocatedBytes.sum();
+                System.out.printf("Allocation: %.1f MB/s, %.1f KB per call on the calling threads%n",
+                        allocated / seconds / (1024 * 1024), (double) allocated / all.getCount() / 1024);
+            }
+            System.out.printf("GC: %d collections, %d ms%n", gcCount, gcMillis);
+
+            long errorCount = 0;
+            Map<String, Long> sortedErrors = new TreeMap<String, Long>();
+            for (Map.Entry<String, LongAdder> error : errors.entrySet()) {
+                sortedErrors.put(error.getKey(), error.getValue().sum());
+                errorCount += error.getValue().sum();
+            }
+
+            System.out.printf("Errors: %d (%.2f%%)%n", errorCount, all.getCount() == 0 ? 0 : 100.0 * errorCount / all.getCount());
+            for (Map.Entry<String, Long> error : sortedErrors.entrySet()) {
+                System.out.printf("  %-40s %d%n", error.getKey(), error.getValue());
+            }
+        }
+
+
+        private static void printLatency(String name, LatencyHistogram.Snapshot snapshot) {
+            if (snapshot.getCount() == 0) {
+                return;
+            }
+
+            System.out.printf("%-8s %10d %10.2f %10.2f %10.2f %10.2f %10.2f%n", name, snapshot.getCount(),
+                    toMillis(snapshot.getValueAtPercentile(50)), toMillis(snapshot.getValueAtPercentile(90)),
+                    toMillis(snapshot.getValueAtPercentile(99)), toMillis(snapshot.getValueAtPercentile(99.9)),
+                    toMillis(snapshot.getMax()));
+        }
+
+
+        private static double toMillis(long nanos) {
+            return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    /**
+     * Command line options, as <code>--name=value</code>.
+     */
+    private static final class Options {
+
+        private int rate;
+        private int concurrency = 16;
+        private int durationSeconds = 30;
+        private int warmupSeconds = 5;
+        private final int[] mix = {70, 5, 25};
+        private long minServerLatency;
+        private long maxServerLatency;
+        private double throttledRatio;
+        private boolean retries = true;
+        private FaultInjectingTransport.Faults faults;
+        private long seed;
+        private String record;
+        private String replay;
+        private double replaySpeed = 1;
+        private String baseUrl;
+        private int accountId = 10130;
+        private String apiKey = "load-test-key";
+        private String apiSecret = "load-test-secret";
+
+
+        private static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                int equals = arg.indexOf('=');
+                if (!arg.startsWith("--") || equals < 0) {
+                    throw new IllegalArgumentException("Expected --name=value, got " + arg);
+                }
+
+                String name = arg.substring(2, equals);
+                String value = arg.substring(equals + 1);
+                switch (name) {
+                    case "rate":
+                        options.rate = Integer.parseInt(value);
+                        break;
+                    case "concurrency":
+                        options.concurrency = Integer.parseInt(value);
+                        break;
+                    case "duration":
+                        options.durationSeconds = Integer.parseInt(value);
+                        break;
+                    case "warmup":
+                        options.warmupSeconds = Integer.parseInt(value);
+                        break;
+                    case "mix":
+                        options.parseMix(value);
+                        break;
+                    case "server-latency":
+                        String[] bounds = value.split("-");
+                        options.minServerLatency = Long.parseLong(bounds[0]);
+                        options.maxServerLatency = Long.parseLong(bounds[bounds.length - 1]);
+                        break;
+                    case "throttled-ratio":
+                        options.throttledRatio = Double.parseDouble(value);
+                        break;
+                    case "retries":
+                        options.retries = Boolean.parseBoolean(value);
+                        break;
+                    case "faults":
+                        options.faults = parseFaults(value);
+                        break;
+                    case "seed":
+                        options.seed = Long.parseLong(value);
+                        break;
+                    case "record":
+                        options.record = value;
+                        break;
+                    case "replay":
+                        options.replay = value;
+                        break;
+                    case "replay-speed":
+                        options.replaySpeed = Double.parseDouble(value);
+                        break;
+                    case "base-url":
+                        options.baseUrl = value;
+                        break;
+                    case "account-id":
+                        options.accountId = Integer.parseInt(value);
+                        break;
+                    case "api-key":
+                        options.apiKey = value;
+                        break;
+                    case "api-secret":
+                        options.apiSecret = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option --" + name);
+                }
+            }
+
+            return options;
+        }
+
+
+        private void parseMix(String value) {
+            Arrays.fill(mix, 0);
+            for (String weight : value.split(",")) {
+                String[] pair = weight.split(":");
+                mix[Operation.valueOf(pair[0].toUpperCase()).ordinal()] = Integer.parseInt(pair[1]);
+            }
+        }
+
+
+        private static FaultInjectingTransport.Faults parseFaults(String value) {
+            FaultInjectingTransport.Faults.Builder faults = FaultInjectingTransport.Faults.builder();
+            for (String fault : value.split(",")) {
+                String[] pair = fault.split(":");
+                String[] amount = pair[1].split("x");
+                double ratio = Double.parseDouble(amount[0]);
+
+                switch (pair[0]) {
+                    case "reset":
+                        faults.connectionResets(ratio);
+                        break;
+                    case "truncated":
+                        faults.truncatedBodies(ratio);
+                        break;
+                    case "no-content":
+                        faults.unexpectedNoContent(ratio);
+                        break;
+                    case "error":
+                        faults.serverErrors(ratio);
+                        break;
+                    case "throttled":
+                        faults.throttlingBursts(ratio, amount.length > 1 ? Integer.parseInt(amount[1]) : 1);
+                        break;
+                    case "spike":
+                        faults.latencySpikes(ratio, Duration.ofMillis(Long.parseLong(amount[1])));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown fault " + pair[0]);
+                }
+            }
+
+            return faults.build();
+        }
+
+
+        private Operation nextOperation() {
+            int total = 0;
+            for (int weight : mix) {
+                total += weight;
+            }
+
+            int draw = ThreadLocalRandom.current().nextInt(total);
+            for (Operation operation : Operation.values()) {
+                draw -= mix[operation.ordinal()];
+                if (draw < 0) {
+                    return operation;
+                }
+            }
+
+            return Operation.READ;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package net.vivialconnect.benchmarks;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.format.JsonMapperRegistry;
+import net.vivialconnect.model.message.MessageCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of mapping a response with a freshly configured <code>ObjectMapper</code>, as every request used to do,
+ * against the shared readers of {@link JsonMapperRegistry}.
+ * <p>
+ * Run with <code>java -jar target/benchmarks.jar ObjectReaderBenchmark -prof gc</code> to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectReaderBenchmark {
+
+    /**
+     * messages.json maps to a collection without a root property, account.json to an unwrapped entity.
+     */
+    @Param({"messages.json", "account.json"})
+    public String fixture;
+
+    private byte[] payload;
+    private Class<?> responseClass;
+    private boolean unwrapRoot;
+    private Map<String, String> userAgent;
+
+
+    @Setup
+    public void loadFixture() throws IOException {
+        payload = Fixtures.load(fixture);
+
+        unwrapRoot = fixture.equals("account.json");
+        responseClass = unwrapRoot ? Account.class : MessageCollection.class;
+
+        userAgent = new HashMap<String, String>();
+        userAgent.put("client_version", "0.1.7");
+        userAgent.put("lang", "Java");
+        userAgent.put("lang_version", System.getProperty("java.version"));
+        userAgent.put("publisher", "vivialconnect");
+    }
+
+
+    @Benchmark
+    public Object readWithNewMapper() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        if (unwrapRoot) {
+            mapper.enable(DeserializationFeature.UNWRAP_ROOT_VALUE);
+        }
+
+        return mapper.reader().forType(responseClass).readValue(payload);
+    }
+
+
+    @Benchmark
+    public Object readWithCachedReader() throws IOException {
+        return JsonMapperRegistry.getReader(responseClass, unwrapRoot).readValue(payload);
+    }
+
+
+    @Benchmark
+    public String writeWithNewMapper() throws IOException {
+        return new ObjectMapper().writeValueAsString(userAgent);
+    }
+
+
+    @Benchmark
+    public String writeWithSharedWriter() throws IOException {
+        return JsonMapperRegistry.getWriter().writeValueAsString(userAgent);
+    }
+}
@@ -0,0 +1,89 @@
+package net.vivialconnect.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.model.message.Message;
+import net.vivialconnect.tests.stub.ApiStubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Whole calls through the SDK, from building the request to the mapped response, against the API stub served in
+ * process over loopback. The stub answers immediately, so the results are the client overhead, signing, the
+ * connection pool, the HTTP exchange and unmarshalling, plus the stub verifying the signature and writing the response.
+ * <p>
+ * Run with <code>java -jar target/benchmarks.jar RoundTripBenchmark -prof gc</code>, and with <code>-t 8</code> to
+ * see how the client scales with concurrent callers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundTripBenchmark {
+
+    private static final int ACCOUNT_ID = 10130;
+    private static final String API_KEY = "fake-api-key";
+    private static final String API_SECRET = "fake-api-secret";
+
+    private ApiStubServer stub;
+    private String originalBaseUrl;
+
+
+    @Setup
+    public void startStub() throws IOException {
+        stub = new ApiStubServer(ACCOUNT_ID, API_KEY, API_SECRET).start();
+
+        originalBaseUrl = VivialConnectClient.getApiBaseUrl();
+        VivialConnectClient.init(ACCOUNT_ID, API_KEY, API_SECRET);
+        VivialConnectClient.overrideApiBaseUrl(stub.getBaseUrl());
+        VivialConnectClient.setRetryPolicy(RetryPolicy.none());
+    }
+
+
+    @TearDown
+    public void stopStub() {
+        VivialConnectClient.setRetryPolicy(RetryPolicy.defaultPolicy());
+        VivialConnectClient.overrideApiBaseUrl(originalBaseUrl);
+        stub.close();
+    }
+
+
+    @Benchmark
+    public Account getAccount() throws VivialConnectException {
+        return Account.getAccount();
+    }
+
+
+    @Benchmark
+    public List<Message> getMessages() throws VivialConnectException {
+        return Message.getMessages();
+    }
+
+
+    @Benchmark
+    public Message sendMessage() throws VivialConnectException {
+        Message message = new Message();
+        message.setFromNumber("+19132597591");
+        message.setToNumber("+11234567890");
+        message.setBody("Hello, from Vivial Connect!");
+
+        return message.send();
+    }
+}
@@ -0,0 +1,224 @@
+package net.vivialconnect.benchmarks;
+
+import java.net.URL;
+import java.net.URLEncoder;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import net.vivialconnect.http.CanonicalRequestBuilder;
+import net.vivialconnect.http.RequestSigner;
+import net.vivialconnect.util.CryptoUtils;
+import net.vivialconnect.util.UrlEncoding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request signing as done by the SDK, against a copy of the original implementation that created a
+ * <code>Mac</code>, a <code>MessageDigest</code> and several intermediate strings and collections per request.
+ * <p>
+ * Run with <code>java -jar target/benchmarks.jar SigningBenchmark -prof gc</code> to compare allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SigningBenchmark {
+
+    private static final String API_KEY = "fake-api-key";
+    private static final String API_SECRET = "fake-api-secret";
+    private static final String TIMESTAMP = "20170705T224613Z";
+
+    private URL endpoint;
+    private String body;
+    private byte[] bodyBytes;
+    private Map<String, String> headers;
+    private Map<String, String> queryParams;
+    private String canonicalRequest;
+    private byte[] hash;
+
+    private RequestSigner signer;
+
+
+    @Setup
+    public void prepareRequest() throws Exception {
+        endpoint = new URL("https://api.vivialconnect.net/api/v1.0/accounts/10130/messages.json");
+        body = "{\"message\":{\"body\":\"Hello, from Vivial Connect!\",\"from_number\":\"+19132597591\",\"to_number\":\"+11234567890\"}}";
+        bodyBytes = body.getBytes("UTF-8");
+
+        headers = new HashMap<String, String>();
+        headers.put("Date", "Wed, 05 Jul 2017 22:46:13 GMT");
+        headers.put("Host", endpoint.getHost());
+        headers.put("Accept", "application/json");
+        headers.put("Content-Type", "application/json");
+
+        queryParams = new HashMap<String, String>();
+        queryParams.put("limit", "50");
+        queryParams.put("order", "sent desc");
+        queryParams.put("page", "3");
+
+        signer = new RequestSigner(API_KEY, API_SECRET);
+        canonicalRequest = newBuilder().build();
+        hash = MessageDigest.getInstance("SHA-256").digest(bodyBytes);
+    }
+
+
+    private CanonicalRequestBuilder newBuilder() {
+        return new CanonicalRequestBuilder()
+                .endpoint(endpoint)
+                .requestTimestamp(TIMESTAMP)
+                .body(body)
+                .bodyBytes(bodyBytes)
+                .method("POST")
+                .headers(headers)
+                .canonicalQuery(UrlEncoding.encodeQuery(queryParams));
+    }
+
+
+    @Benchmark
+    public String signRequest() {
+        CanonicalRequestBuilder builder = newBuilder();
+        return signer.createAuthorizationHeader(signer.sign(builder)) + builder.getCanonicalizedHeaderNames();
+    }
+
+
+    @Benchmark
+    public String signRequestLegacy() throws Exception {
+        LegacyCanonicalRequest legacy = new LegacyCanonicalRequest();
+        String signature = legacyCreateSignature(legacy.build());
+
+        return "HMAC " + API_KEY + ":" + signature + legacy.getCanonicalizedHeaderNames();
+    }
+
+
+    @Benchmark
+    public String buildCanonicalRequest() throws Exception {
+        return newBuilder().build();
+    }
+
+
+    @Benchmark
+    public String createSignature() {
+        return signer.createSignature(canonicalRequest);
+    }
+
+
+    @Benchmark
+    public String toHex() {
+        return CryptoUtils.toHex(hash);
+    }
+
+
+    @Benchmark
+    public String toHexLegacy() {
+        return legacyToHex(hash);
+    }
+
+    private static String legacyCreateSignature(String canonicalRequest) throws Exception {
+        Mac hmac = Mac.getInstance("HmacSHA256");
+        hmac.init(new SecretKeySpec(API_SECRET.getBytes(), "HmacSHA256"));
+
+        return legacyToHex(hmac.doFinal(canonicalRequest.getBytes("UTF-8")));
+    }
+
+    private static String legacyToHex(byte[] content) {
+        StringBuilder hexBuilder = new StringBuilder(content.length * 2);
+        for (int i = 0; i < content.length; i++) {
+            String hex = Integer.toHexString(content[i]);
+            if (hex.length() == 1) {
+                hexBuilder.append("0");
+            } else if (hex.length() == 8) {
+                hex = hex.substring(6);
+            }
+
+            hexBuilder.append(hex);
+        }
+
+        return hexBuilder.toString().toLowerCase(Locale.getDefault());
+    }
+
+    /**
+     * The signing code as it was before {@link RequestSigner}.
+     */
+    private class LegacyCanonicalRequest {
+
+        String build() throws Exception {
+            StringBuilder builder = new StringBuilder();
+            builder.append("POST").append("\n").append(TIMESTAMP).append("\n");
+
+            builder.append(urlEncode(endpoint.getPath(), true)).append("\n")
+                    .append(getCanonicalizedQueryParameters()).append("\n")
+                    .append(getCanonicalizedHeaders()).append("\n")
+                    .append(getCanonicalizedHeaderNames()).append("\n");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(body.getBytes("UTF-8"));
+            builder.append(legacyToHex(digest.digest()));
+
+            return builder.toString();
+        }
+
+        String getCanonicalizedHeaderNames() {
+            StringBuilder builder = new StringBuilder();
+            for (String header : getSortedHeaders()) {
+                builder.append(header.toLowerCase()).append(";");
+            }
+
+            return builder.deleteCharAt(builder.length() - 1).toString();
+        }
+
+        private String getCanonicalizedHeaders() {
+            StringBuilder builder = new StringBuilder();
+            for (String headerName : getSortedHeaders()) {
+                builder.append(headerName.toLowerCase()).append(":").append(headers.get(headerName)).append("\n");
+            }
+
+            return builder.deleteCharAt(builder.length() - 1).toString();
+        }
+
+        private List<String> getSortedHeaders() {
+            List<String> sortedHeaders = new ArrayList<String>(headers.keySet());
+            Collections.sort(sortedHeaders, String.CASE_INSENSITIVE_ORDER);
+
+            return sortedHeaders;
+        }
+
+        private String getCanonicalizedQueryParameters() throws Exception {
+            SortedMap<String, String> sortedParameters = new TreeMap<String, String>();
+            for (String key : queryParams.keySet()) {
+                sortedParameters.put(urlEncode(key, false), urlEncode(queryParams.get(key), false));
+            }
+
+            StringBuilder builder = new StringBuilder();
+            for (String encodedKey : sortedParameters.keySet()) {
+                builder.append(encodedKey).append("=").append(sortedParameters.get(encodedKey)).append("&");
+            }
+
+            return builder.deleteCharAt(builder.length() - 1).toString();
+        }
+
+        private String urlEncode(String url, boolean keepSlash) throws Exception {
+            String encoded = URLEncoder.encode(url, "UTF-8");
+            return keepSlash ? encoded.replace("%2F", "/") : encoded;
+        }
+    }
+}
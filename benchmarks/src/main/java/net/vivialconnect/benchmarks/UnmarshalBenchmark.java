@@ -0,0 +1,103 @@
+package net.vivialconnect.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import net.vivialconnect.model.account.TransactionResponse;
+import net.vivialconnect.model.format.JsonMapperRegistry;
+import net.vivialconnect.model.log.LogCollection;
+import net.vivialconnect.model.message.MessageCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Response unmarshalling as done by the SDK, a UTF-8 reader over the response stream mapped by a shared reader, for
+ * list responses of growing size. The payloads repeat the items of the fixtures up to the requested count.
+ * <p>
+ * Run with <code>java -jar target/benchmarks.jar UnmarshalBenchmark -prof gc</code> to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnmarshalBenchmark {
+
+    @Param({"messages.json", "logs.json", "transactions.json"})
+    public String fixture;
+
+    /**
+     * Items in the list of the response
+     */
+    @Param({"10", "1000", "10000"})
+    public int items;
+
+    private byte[] payload;
+    private Class<?> responseClass;
+
+
+    @Setup
+    public void buildPayload() throws IOException {
+        if (fixture.equals("messages.json")) {
+            responseClass = MessageCollection.class;
+        } else if (fixture.equals("logs.json")) {
+            responseClass = LogCollection.class;
+        } else {
+            responseClass = TransactionResponse.class;
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode response = (ObjectNode) mapper.readTree(Fixtures.load(fixture));
+        resize(response, items);
+
+        payload = mapper.writeValueAsBytes(response);
+    }
+
+    /**
+     * Repeats the items of the list of a response until it holds the given count.
+     */
+    private static void resize(ObjectNode response, int count) {
+        Iterator<Map.Entry<String, JsonNode>> fields = response.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isArray()) {
+                ArrayNode fixtureItems = (ArrayNode) field.getValue();
+                ArrayNode resized = response.arrayNode(count);
+                for (int i = 0; i < count; i++) {
+                    resized.add(fixtureItems.get(i % fixtureItems.size()).deepCopy());
+                }
+
+                field.setValue(resized);
+                return;
+            }
+        }
+
+        throw new IllegalArgumentException("Response without a list");
+    }
+
+
+    @Benchmark
+    public Object unmarshallResponse() throws IOException {
+        InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8);
+        return JsonMapperRegistry.getReader(responseClass, false).readValue(reader);
+    }
+}
@@ -1,6 +1,29 @@
 package net.vivialconnect.client;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.net.Proxy;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.http.CircuitBreakers;
+import net.vivialconnect.http.ConcurrencyLimiter;
+import net.vivialconnect.http.ConnectionPool;
+import net.vivialconnect.http.HedgePolicy;
+import net.vivialconnect.http.PooledTransport;
+import net.vivialconnect.http.RequestClock;
+import net.vivialconnect.http.RequestListener;
+import net.vivialconnect.http.RequestSigner;
+import net.vivialconnect.http.RateLimits;
+import net.vivialconnect.http.RequestCoalescer;
+import net.vivialconnect.http.ResponseCache;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.http.Transport;
+import net.vivialconnect.model.WarmUp;
+import net.vivialconnect.util.DaemonThreadFactory;
 
 /**
  * Requests to the Vivial Connect API may be authenticated using a hash-based message authentication code (HMAC) signature
@@ -10,45 +33,304 @@ import java.net.Proxy;
  * to prevent malicous third parties from tampering with your requests.
  * <p>
  * This class handles a Vivial Connect's account credentials for process requests to the API.
+ * <p>
+ * The static methods configure the default client, which every request uses unless another client is bound to the
+ * calling thread. Applications working for several accounts at once build a client for each, with its own
+ * credentials, transport, connection pool and limits:
+ * <pre>
+ * VivialConnectClient client = VivialConnectClient.builder()
+ *         .credentials(accountId, apiKey, apiSecret)
+ *         .build();
+ *
+ * try (VivialConnectClient.Scope scope = client.use()) {
+ *     message.send();
+ * }
+ * </pre>
  */
-public final class VivialConnectClient {
+public final class VivialConnectClient implements Closeable {
+
+    /**
+     * Asynchronous operations the default executor queues while all its threads are busy
+     */
+    public static final int DEFAULT_EXECUTOR_QUEUE_SIZE = 1000;
+
+    /**
+     * Executor shared by the clients that were not given one
+     */
+    private static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+
+    /**
+     * Connections opened by {@link #warmUp()}
+     */
+    public static final int DEFAULT_WARM_UP_CONNECTIONS = 2;
 
     /**
-     * User's account ID
+     * Client behind the static methods
      */
-    private static int accountId;
+    private static final VivialConnectClient DEFAULT = new VivialConnectClient();
 
     /**
-     * API key
+     * Client the requests of each thread are made with, when not the default one
      */
-    private static String apiKey;
+    private static final ThreadLocal<VivialConnectClient> CURRENT = new ThreadLocal<VivialConnectClient>();
 
     /**
-     * API secret
+     * Account ID, API key and API secret, replaced together
      */
-    private static String apiSecret;
+    private volatile Credentials credentials = new Credentials(0, null, null);
 
     /**
      * API base URL
      */
-    private static String apiBaseUrl = "https://api.vivialconnect.net/api/v1.0";
+    private volatile String apiBaseUrl = "https://api.vivialconnect.net/api/v1.0";
 
     /**
      * Proxy
      */
-    private static Proxy proxy = null;
+    private volatile Proxy proxy = null;
+
+    /**
+     * Transport used to send requests
+     */
+    private volatile Transport transport = new PooledTransport();
+
+    /**
+     * Executor running the asynchronous operations
+     */
+    private volatile Executor executor = DEFAULT_EXECUTOR;
+
+    /**
+     * Policy deciding which failed requests are retried
+     */
+    private volatile RetryPolicy retryPolicy = RetryPolicy.defaultPolicy();
+
+    /**
+     * Client-side rate limits applied before requests are sent
+     */
+    private volatile RateLimits rateLimits = RateLimits.none();
+
+    /**
+     * Adaptive limit on the requests in flight
+     */
+    private volatile ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.none();
+
+    /**
+     * Circuit breakers of the API resources
+     */
+    private volatile CircuitBreakers circuitBreakers = CircuitBreakers.none();
+
+    /**
+     * Policy deciding which reads are hedged
+     */
+    private volatile HedgePolicy hedgePolicy = HedgePolicy.none();
+
+    /**
+     * Cache of the responses of read-mostly resources
+     */
+    private volatile ResponseCache responseCache = ResponseCache.none();
+
+    /**
+     * Coalescing of identical concurrent GET requests
+     */
+    private volatile RequestCoalescer requestCoalescer = RequestCoalescer.none();
+
+    /**
+     * Listener receiving the measurements of every call
+     */
+    private volatile RequestListener requestListener = RequestListener.none();
+
+    /**
+     * Clock providing the request timestamps
+     */
+    private final RequestClock requestClock = new RequestClock();
 
     private VivialConnectClient() {
 
     }
 
+
+    private VivialConnectClient(Builder builder) {
+        this.credentials = new Credentials(builder.accountId, builder.apiKey, builder.apiSecret);
+        this.apiBaseUrl = builder.apiBaseUrl;
+        this.proxy = builder.proxy;
+        this.transport = builder.transport != null ? builder.transport : new PooledTransport();
+        this.executor = builder.executor;
+        this.retryPolicy = builder.retryPolicy;
+        this.rateLimits = builder.rateLimits;
+        this.concurrencyLimiter = builder.concurrencyLimiter;
+        this.circuitBreakers = builder.circuitBreakers;
+        this.hedgePolicy = builder.hedgePolicy;
+        this.responseCache = builder.responseCache;
+        this.requestCoalescer = builder.requestCoalescer;
+        this.requestListener = builder.requestListener;
+    }
+
+    /**
+     * Starts building a client of its own, for instance to make requests for several accounts at once. Such a client
+     * has its own credentials, transport, connection pool and limits, and is used through {@link #use()}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Client configured through the static methods of this class.
+     *
+     * @return the default client
+     */
+    public static VivialConnectClient defaultClient() {
+        return DEFAULT;
+    }
+
+    /**
+     * Client the requests made on this thread are sent with.
+     *
+     * @return the client bound by {@link #use()}, or the default client
+     */
+    public static VivialConnectClient current() {
+        VivialConnectClient client = CURRENT.get();
+        return client != null ? client : DEFAULT;
+    }
+
+    /**
+     * Makes the resource operations called on this thread, including the asynchronous ones started from it, run
+     * against this client until the scope is closed:
+     * <pre>
+     * try (VivialConnectClient.Scope scope = client.use()) {
+     *     message.send();
+     * }
+     * </pre>
+     *
+     * @return the scope, to close once the calls are done
+     */
+    public Scope use() {
+        return new Scope(this);
+    }
+
+
+    public int accountId() {
+        return credentials.accountId;
+    }
+
+
+    public String apiKey() {
+        return credentials.apiKey;
+    }
+
+
+    public String apiSecret() {
+        return credentials.apiSecret;
+    }
+
+
+    public String apiBaseUrl() {
+        return apiBaseUrl;
+    }
+
+
+    public Proxy proxy() {
+        return proxy;
+    }
+
+
+    public Transport transport() {
+        return transport;
+    }
+
+
+    public Executor executor() {
+        return executor;
+    }
+
+
+    public RetryPolicy retryPolicy() {
+        return retryPolicy;
+    }
+
+
+    public RateLimits rateLimits() {
+        return rateLimits;
+    }
+
+
+    public ConcurrencyLimiter concurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+
+    public CircuitBreakers circuitBreakers() {
+        return circuitBreakers;
+    }
+
+
+    public HedgePolicy hedgePolicy() {
+        return hedgePolicy;
+    }
+
+
+    public ResponseCache responseCache() {
+        return responseCache;
+    }
+
+
+    public RequestCoalescer requestCoalescer() {
+        return requestCoalescer;
+    }
+
+
+    public RequestListener requestListener() {
+        return requestListener;
+    }
+
+
+    public RequestClock requestClock() {
+        return requestClock;
+    }
+
+    /**
+     * Signer for the credentials of this client, created the first time it is needed after they were set.
+     *
+     * @return the request signer
+     * @throws GeneralSecurityException if HMAC-SHA256 is not available
+     */
+    public RequestSigner requestSigner() throws GeneralSecurityException {
+        return credentials.getSigner();
+    }
+
+    /**
+     * Warms up this client, as {@link #warmUp()} does for the client in use.
+     *
+     * @param connections number of connections to open to the API, at most the limit of the connection pool
+     * @return the outcome and time of each step
+     * @see Builder#warmUp(int)
+     */
+    public WarmUp warmUp(int connections) {
+        if (connections < 0) {
+            throw createIllegalArgumentException("connections");
+        }
+
+        try (Scope scope = use()) {
+            return WarmUp.run(connections);
+        }
+    }
+
+    /**
+     * Closes the transport of this client, and its pooled connections.
+     */
+    @Override
+    public void close() throws IOException {
+        transport.close();
+    }
+
     /**
      * Account API key
      *
      * @return API key value
      */
     public static String getApiKey() {
-        return apiKey;
+        return DEFAULT.apiKey();
     }
 
     /**
@@ -57,7 +339,7 @@ public final class VivialConnectClient {
      * @return API secret value
      */
     public static String getApiSecret() {
-        return apiSecret;
+        return DEFAULT.apiSecret();
     }
 
     /**
@@ -66,7 +348,7 @@ public final class VivialConnectClient {
      * @return account ID value
      */
     public static int getAccountId() {
-        return accountId;
+        return DEFAULT.accountId();
     }
 
     /**
@@ -75,7 +357,7 @@ public final class VivialConnectClient {
      * @return API base URL
      */
     public static String getApiBaseUrl() {
-        return apiBaseUrl;
+        return DEFAULT.apiBaseUrl;
     }
 
     /**
@@ -87,7 +369,7 @@ public final class VivialConnectClient {
      * @param apiBaseUrl the URL the client will use for requests
      */
     public static void overrideApiBaseUrl(String apiBaseUrl) {
-        VivialConnectClient.apiBaseUrl = apiBaseUrl;
+        DEFAULT.apiBaseUrl = apiBaseUrl;
     }
 
     /**
@@ -101,9 +383,24 @@ public final class VivialConnectClient {
     public static void init(int accountId, String apiKey, String apiSecret) {
         validateInitialArguments(accountId, apiKey, apiSecret);
 
-        VivialConnectClient.accountId = accountId;
-        VivialConnectClient.apiKey = apiKey;
-        VivialConnectClient.apiSecret = apiSecret;
+        /* Requests in flight keep signing with the previous credentials, never with a mix of both */
+        DEFAULT.credentials = new Credentials(accountId, apiKey, apiSecret);
+    }
+
+    /**
+     * Warms up the client in use on this thread, once initialized, so that its first request does not pay for the
+     * loading of the SDK and the connection to the API. Opens {@value #DEFAULT_WARM_UP_CONNECTIONS} connections.
+     * <pre>
+     * VivialConnectClient.init(accountId, apiKey, apiSecret);
+     * WarmUp warmUp = VivialConnectClient.warmUp();
+     * log.info("VivialConnect client warmed up: {}", warmUp);
+     * </pre>
+     * Nothing is sent to the API, and a step that fails is only reported.
+     *
+     * @return the outcome and time of each step
+     */
+    public static WarmUp warmUp() {
+        return current().warmUp(DEFAULT_WARM_UP_CONNECTIONS);
     }
 
     private static void validateInitialArguments(int accountId, String apiKey, String apiSecret) {
@@ -142,7 +439,7 @@ public final class VivialConnectClient {
      * @param proxy proxy object
      */
     public static void setProxy(Proxy proxy) {
-        VivialConnectClient.proxy = proxy;
+        DEFAULT.proxy = proxy;
     }
 
     /**
@@ -151,6 +448,517 @@ public final class VivialConnectClient {
      * @return proxy object
      */
     public static Proxy getProxy() {
-        return proxy;
+        return DEFAULT.proxy;
+    }
+
+    /**
+     * Transport used to send requests to the API. By default this is a {@link PooledTransport}
+     * that keeps persistent connections to the API host.
+     *
+     * @return transport
+     */
+    public static Transport getTransport() {
+        return DEFAULT.transport;
+    }
+
+    /**
+     * Replaces the transport used to send requests to the API, for instance with a {@link PooledTransport}
+     * created with a differently sized {@link net.vivialconnect.http.ConnectionPool}. The previous transport
+     * is closed.
+     *
+     * @param transport the new transport
+     * @throws IllegalArgumentException if the transport is null
+     */
+    public static void setTransport(Transport transport) {
+        if (transport == null) {
+            throw createIllegalArgumentException("transport");
+        }
+
+        Transport previous = DEFAULT.transport;
+        DEFAULT.transport = transport;
+
+        if (previous != transport) {
+            closeQuietly(previous);
+        }
+    }
+
+
+    /**
+     * Executor that runs the asynchronous variants of the resource operations, such as
+     * {@link net.vivialconnect.model.message.Message#sendAsync()}.
+     * <p>
+     * By default this is a pool of {@value net.vivialconnect.http.ConnectionPool#DEFAULT_MAX_PER_ROUTE} daemon threads,
+     * matching the default connection pool size. Operations submitted while every thread is busy wait in a queue of
+     * {@value #DEFAULT_EXECUTOR_QUEUE_SIZE}; once it is full, the futures of further operations complete
+     * exceptionally with an <code>ApiRequestException</code> rather than piling up. Set an executor of your own to
+     * queue more, or to apply another policy.
+     *
+     * @return executor for asynchronous operations
+     */
+    public static Executor getExecutor() {
+        return DEFAULT.executor;
+    }
+
+    /**
+     * Sets the executor that runs the asynchronous operations. Its size bounds how many blocking requests
+     * are in flight at once, so it should be sized together with the {@link ConnectionPool}.
+     *
+     * @param executor the new executor
+     * @throws IllegalArgumentException if the executor is null
+     */
+    public static void setExecutor(Executor executor) {
+        if (executor == null) {
+            throw createIllegalArgumentException("executor");
+        }
+
+        DEFAULT.executor = executor;
+    }
+
+    /**
+     * Policy deciding which failed requests are sent again. By default, idempotent requests are retried up to twice
+     * on connection failures and 429, 500, 502, 503 and 504 responses, and POST requests only when they could not
+     * have reached the API. See {@link RetryPolicy} for the details.
+     *
+     * @return the retry policy
+     */
+    public static RetryPolicy getRetryPolicy() {
+        return DEFAULT.retryPolicy;
+    }
+
+    /**
+     * Sets the policy deciding which failed requests are sent again. Use {@link RetryPolicy#none()} to disable retries.
+     *
+     * @param retryPolicy the new retry policy
+     * @throws IllegalArgumentException if the retry policy is null
+     */
+    public static void setRetryPolicy(RetryPolicy retryPolicy) {
+        if (retryPolicy == null) {
+            throw createIllegalArgumentException("retryPolicy");
+        }
+
+        DEFAULT.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Rate limits applied by the client before sending each request, retries included. By default requests are not
+     * limited.
+     *
+     * @return the rate limits
+     */
+    public static RateLimits getRateLimits() {
+        return DEFAULT.rateLimits;
+    }
+
+    /**
+     * Sets the rate limits applied before sending each request. Use {@link RateLimits#none()} to disable them.
+     *
+     * @param rateLimits the new rate limits
+     * @throws IllegalArgumentException if the rate limits are null
+     */
+    public static void setRateLimits(RateLimits rateLimits) {
+        if (rateLimits == null) {
+            throw createIllegalArgumentException("rateLimits");
+        }
+
+        DEFAULT.rateLimits = rateLimits;
+    }
+
+    /**
+     * Adaptive limit on the number of requests in flight. By default requests are not limited.
+     *
+     * @return the concurrency limiter
+     */
+    public static ConcurrencyLimiter getConcurrencyLimiter() {
+        return DEFAULT.concurrencyLimiter;
+    }
+
+    /**
+     * Sets the adaptive limit on the number of requests in flight. Use {@link ConcurrencyLimiter#none()} to disable it.
+     *
+     * @param concurrencyLimiter the new concurrency limiter
+     * @throws IllegalArgumentException if the concurrency limiter is null
+     */
+    public static void setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+        if (concurrencyLimiter == null) {
+            throw createIllegalArgumentException("concurrencyLimiter");
+        }
+
+        DEFAULT.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Circuit breakers that stop sending requests to a resource after consecutive server errors or timeouts. By
+     * default circuits never open.
+     *
+     * @return the circuit breakers, with the state of each circuit
+     */
+    public static CircuitBreakers getCircuitBreakers() {
+        return DEFAULT.circuitBreakers;
+    }
+
+    /**
+     * Sets the circuit breakers of the API resources. Use {@link CircuitBreakers#none()} to disable them.
+     *
+     * @param circuitBreakers the new circuit breakers
+     * @throws IllegalArgumentException if the circuit breakers are null
+     */
+    public static void setCircuitBreakers(CircuitBreakers circuitBreakers) {
+        if (circuitBreakers == null) {
+            throw createIllegalArgumentException("circuitBreakers");
+        }
+
+        DEFAULT.circuitBreakers = circuitBreakers;
+    }
+
+    /**
+     * Policy deciding which GET requests are hedged with a second request when slow. By default no request is.
+     *
+     * @return the hedge policy
+     */
+    public static HedgePolicy getHedgePolicy() {
+        return DEFAULT.hedgePolicy;
+    }
+
+    /**
+     * Sets the policy deciding which GET requests are hedged. Use {@link HedgePolicy#none()} to disable hedging.
+     *
+     * @param hedgePolicy the new hedge policy
+     * @throws IllegalArgumentException if the hedge policy is null
+     */
+    public static void setHedgePolicy(HedgePolicy hedgePolicy) {
+        if (hedgePolicy == null) {
+            throw createIllegalArgumentException("hedgePolicy");
+        }
+
+        DEFAULT.hedgePolicy = hedgePolicy;
+    }
+
+    /**
+     * Cache of the responses to GET requests of the resources given a time to live. By default nothing is cached.
+     *
+     * @return the response cache
+     */
+    public static ResponseCache getResponseCache() {
+        return DEFAULT.responseCache;
+    }
+
+    /**
+     * Sets the cache of the responses to GET requests. Use {@link ResponseCache#none()} to disable caching.
+     *
+     * @param responseCache the new response cache
+     * @throws IllegalArgumentException if the response cache is null
+     */
+    public static void setResponseCache(ResponseCache responseCache) {
+        if (responseCache == null) {
+            throw createIllegalArgumentException("responseCache");
+        }
+
+        DEFAULT.responseCache = responseCache;
+    }
+
+    /**
+     * Coalescing of identical concurrent GET requests. By default every request is sent.
+     *
+     * @return the request coalescer
+     */
+    public static RequestCoalescer getRequestCoalescer() {
+        return DEFAULT.requestCoalescer;
+    }
+
+    /**
+     * Sets the coalescing of identical concurrent GET requests. Use {@link RequestCoalescer#create()} to send identical
+     * requests in flight at the same time once, or {@link RequestCoalescer#none()} to send every request.
+     *
+     * @param requestCoalescer the new request coalescer
+     * @throws IllegalArgumentException if the request coalescer is null
+     */
+    public static void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        if (requestCoalescer == null) {
+            throw createIllegalArgumentException("requestCoalescer");
+        }
+
+        DEFAULT.requestCoalescer = requestCoalescer;
+    }
+
+    /**
+     * Listener receiving the measurements of every call: route, status, exception, bytes and the time spent in each
+     * phase. By default calls are not measured.
+     *
+     * @return the request listener
+     */
+    public static RequestListener getRequestListener() {
+        return DEFAULT.requestListener;
+    }
+
+    /**
+     * Sets the listener receiving the measurements of every call, for instance an
+     * {@link net.vivialconnect.http.InMemoryMetrics}. Use {@link RequestListener#none()} to stop measuring.
+     *
+     * @param requestListener the new request listener
+     * @throws IllegalArgumentException if the request listener is null
+     */
+    public static void setRequestListener(RequestListener requestListener) {
+        if (requestListener == null) {
+            throw createIllegalArgumentException("requestListener");
+        }
+
+        DEFAULT.requestListener = requestListener;
+    }
+
+    /**
+     * Clock that timestamps every signed request. Set its clock skew to correct a local clock that drifted from the
+     * API servers.
+     *
+     * @return the request clock
+     */
+    public static RequestClock getRequestClock() {
+        return DEFAULT.requestClock;
+    }
+
+
+    private static Executor createDefaultExecutor() {
+        int threads = ConnectionPool.DEFAULT_MAX_PER_ROUTE;
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(DEFAULT_EXECUTOR_QUEUE_SIZE), new DaemonThreadFactory("vivialconnect-async"),
+                new ThreadPoolExecutor.AbortPolicy());
+        threadPool.allowCoreThreadTimeOut(true);
+
+        return threadPool;
+    }
+
+
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (IOException e) {
+            /* The transport is no longer used */
+        }
+    }
+
+
+    /**
+     * Credentials of a client, with the signer created from them.
+     */
+    private static final class Credentials {
+
+        final int accountId;
+        final String apiKey;
+        final String apiSecret;
+
+        private volatile RequestSigner signer;
+
+
+        Credentials(int accountId, String apiKey, String apiSecret) {
+            this.accountId = accountId;
+            this.apiKey = apiKey;
+            this.apiSecret = apiSecret;
+        }
+
+
+        RequestSigner getSigner() throws GeneralSecurityException {
+            /* Threads racing on the first request create equivalent signers, whichever is kept does not matter */
+            RequestSigner requestSigner = signer;
+            if (requestSigner == null) {
+                requestSigner = new RequestSigner(apiKey, apiSecret);
+                signer = requestSigner;
+            }
+
+            return requestSigner;
+        }
+    }
+
+    /**
+     * Binding of a client to the current thread.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final VivialConnectClient client;
+        private final VivialConnectClient previous;
+
+
+        private Scope(VivialConnectClient client) {
+            this.client = client;
+            this.previous = CURRENT.get();
+            CURRENT.set(client);
+        }
+
+        /**
+         * Restores the client that was in use before this scope.
+         */
+        @Override
+        public void close() {
+            if (CURRENT.get() == client) {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds a {@link VivialConnectClient}. Only the credentials are required; by default the client has a transport
+     * of its own, runs its asynchronous operations on the default executor, retries with
+     * {@link RetryPolicy#defaultPolicy()} and applies no limits.
+     */
+    public static final class Builder {
+
+        private int accountId;
+        private String apiKey;
+        private String apiSecret;
+        private String apiBaseUrl = DEFAULT.apiBaseUrl;
+        private Proxy proxy;
+        private Transport transport;
+        private Executor executor = DEFAULT_EXECUTOR;
+        private RetryPolicy retryPolicy = RetryPolicy.defaultPolicy();
+        private RateLimits rateLimits = RateLimits.none();
+        private ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.none();
+        private CircuitBreakers circuitBreakers = CircuitBreakers.none();
+        private HedgePolicy hedgePolicy = HedgePolicy.none();
+        private ResponseCache responseCache = ResponseCache.none();
+        private RequestCoalescer requestCoalescer = RequestCoalescer.none();
+        private RequestListener requestListener = RequestListener.none();
+        private int warmUpConnections = -1;
+
+
+        private Builder() {
+        }
+
+        /**
+         * @param accountId the VivialConnect account ID
+         * @param apiKey    the VivialConnect API key
+         * @param apiSecret the VivialConnect API secret
+         * @return this builder
+         * @throws IllegalArgumentException if any of the arguments are invalid (ie, null or empty)
+         */
+        public Builder credentials(int accountId, String apiKey, String apiSecret) {
+            validateInitialArguments(accountId, apiKey, apiSecret);
+
+            this.accountId = accountId;
+            this.apiKey = apiKey;
+            this.apiSecret = apiSecret;
+            return this;
+        }
+
+        /**
+         * @param apiBaseUrl the URL the client will use for requests, the one of the default client if not set
+         * @return this builder
+         */
+        public Builder apiBaseUrl(String apiBaseUrl) {
+            validateStringArg(apiBaseUrl, "apiBaseUrl");
+
+            this.apiBaseUrl = apiBaseUrl;
+            return this;
+        }
+
+
+        public Builder proxy(Proxy proxy) {
+            this.proxy = proxy;
+            return this;
+        }
+
+        /**
+         * @param transport transport of the client, closed with it. A new {@link PooledTransport} if not set
+         * @return this builder
+         */
+        public Builder transport(Transport transport) {
+            this.transport = requireArg(transport, "transport");
+            return this;
+        }
+
+
+        public Builder executor(Executor executor) {
+            this.executor = requireArg(executor, "executor");
+            return this;
+        }
+
+
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = requireArg(retryPolicy, "retryPolicy");
+            return this;
+        }
+
+
+        public Builder rateLimits(RateLimits rateLimits) {
+            this.rateLimits = requireArg(rateLimits, "rateLimits");
+            return this;
+        }
+
+
+        public Builder concurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+            this.concurrencyLimiter = requireArg(concurrencyLimiter, "concurrencyLimiter");
+            return this;
+        }
+
+
+        public Builder circuitBreakers(CircuitBreakers circuitBreakers) {
+            this.circuitBreakers = requireArg(circuitBreakers, "circuitBreakers");
+            return this;
+        }
+
+
+        public Builder hedgePolicy(HedgePolicy hedgePolicy) {
+            this.hedgePolicy = requireArg(hedgePolicy, "hedgePolicy");
+            return this;
+        }
+
+
+        public Builder responseCache(ResponseCache responseCache) {
+            this.responseCache = requireArg(responseCache, "responseCache");
+            return this;
+        }
+
+
+        public Builder requestCoalescer(RequestCoalescer requestCoalescer) {
+            this.requestCoalescer = requireArg(requestCoalescer, "requestCoalescer");
+            return this;
+        }
+
+
+        public Builder requestListener(RequestListener requestListener) {
+            this.requestListener = requireArg(requestListener, "requestListener");
+            return this;
+        }
+
+        /**
+         * Makes {@link #build()} warm up the client before returning it. A step that fails does not fail the build.
+         *
+         * @param connections number of connections to open to the API
+         * @return this builder
+         * @see VivialConnectClient#warmUp(int)
+         */
+        public Builder warmUp(int connections) {
+            if (connections < 0) {
+                throw createIllegalArgumentException("connections");
+            }
+
+            this.warmUpConnections = connections;
+            return this;
+        }
+
+        /**
+         * @return a new client
+         * @throws IllegalArgumentException if the credentials were not set
+         */
+        public VivialConnectClient build() {
+            validateInitialArguments(accountId, apiKey, apiSecret);
+
+            VivialConnectClient client = new VivialConnectClient(this);
+            if (warmUpConnections >= 0) {
+                client.warmUp(warmUpConnections);
+            }
+
+            return client;
+        }
+
+
+        private static <T> T requireArg(T arg, String argName) {
+            if (arg == null) {
+                throw createIllegalArgumentException(argName);
+            }
+
+            return arg;
+        }
     }
 }
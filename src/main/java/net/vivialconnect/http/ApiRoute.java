@@ -0,0 +1,193 @@
+package net.vivialconnect.http;
+
+/**
+ * Class of API requests, made of the account, the HTTP method and the resource, e.g. <code>POST messages</code> or
+ * <code>GET numbers</code> for account 10130. Requests to <code>/accounts/10130/messages/42.json</code> and
+ * <code>/accounts/10130/messages.json</code> belong to the same route.
+ */
+public final class ApiRoute {
+
+    private static final String ACCOUNTS_SEGMENT = "/accounts/";
+    private static final String ACCOUNT_RESOURCE = "account";
+
+    private final int accountId;
+    private final String method;
+    private final String resource;
+
+
+    public ApiRoute(int accountId, String method, String resource) {
+        this.accountId = accountId;
+        this.method = method;
+        this.resource = resource;
+    }
+
+    /**
+     * Finds the route of a request from its URL, e.g.
+     * <code>https://api.vivialconnect.net/api/v1.0/accounts/10130/messages/42.json</code>.
+     *
+     * @param method HTTP method
+     * @param url    request URL, with or without query
+     * @return the route of the request. URLs outside of an account get an account id of 0.
+     */
+    public static ApiRoute of(String method, String url) {
+        int end = url.indexOf('?');
+        if (end < 0) {
+            end = url.length();
+        }
+
+        int accountStart = url.indexOf(ACCOUNTS_SEGMENT);
+        if (accountStart < 0) {
+            return new ApiRoute(0, method, lastSegment(url, end));
+        }
+
+        accountStart += ACCOUNTS_SEGMENT.length();
+        int accountEnd = accountStart;
+        while (accountEnd < end && Character.isDigit(url.charAt(accountEnd))) {
+            accountEnd++;
+        }
+
+        int accountId = accountEnd > accountStart ? parseAccountId(url.substring(accountStart, accountEnd)) : 0;
+
+        if (accountEnd >= end || url.charAt(accountEnd) != '/') {
+            /* /accounts/10130.json */
+            return new ApiRoute(accountId, method, ACCOUNT_RESOURCE);
+        }
+
+        int resourceStart = accountEnd + 1;
+        int resourceEnd = url.indexOf('/', resourceStart);
+        if (resourceEnd < 0 || resourceEnd > end) {
+            resourceEnd = end;
+        }
+
+        return new ApiRoute(accountId, method, stripExtension(url.substring(resourceStart, resourceEnd)));
+    }
+
+
+    /**
+     * Finds the path of a request relative to its account, with the ids replaced by a placeholder, e.g.
+     * <code>messages/{id}.json</code> for <code>https://api.vivialconnect.net/api/v1.0/accounts/10130/messages/42.json</code>
+     * and <code>account.json</code> for the account itself.
+     *
+     * @param url request URL, with or without query
+     * @return the route template of the request
+     */
+    public static String templateOf(String url) {
+        int end = url.indexOf('?');
+        if (end < 0) {
+            end = url.length();
+        }
+
+        int start = url.indexOf(ACCOUNTS_SEGMENT);
+        if (start < 0) {
+            start = url.lastIndexOf('/', end - 1) + 1;
+        } else {
+            start += ACCOUNTS_SEGMENT.length();
+            while (start < end && Character.isDigit(url.charAt(start))) {
+                start++;
+            }
+
+            if (start >= end || url.charAt(start) != '/') {
+                return ACCOUNT_RESOURCE + ".json";
+            }
+            start++;
+        }
+
+        StringBuilder template = new StringBuilder(end - start);
+        int segmentStart = start;
+        while (segmentStart <= end) {
+            int segmentEnd = url.indexOf('/', segmentStart);
+            if (segmentEnd < 0 || segmentEnd > end) {
+                segmentEnd = end;
+            }
+
+            if (segmentStart > start) {
+                template.append('/');
+            }
+
+            String segment = url.substring(segmentStart, segmentEnd);
+            String name = stripExtension(segment);
+            if (!name.isEmpty() && isDigits(name)) {
+                template.append("{id}").append(segment, name.length(), segment.length());
+            } else {
+                template.append(segment);
+            }
+
+            segmentStart = segmentEnd + 1;
+        }
+
+        return template.toString();
+    }
+
+
+    private static boolean isDigits(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    private static int parseAccountId(String digits) {
+        try {
+            return Integer.parseInt(digits);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+
+    private static String lastSegment(String url, int end) {
+        int start = url.lastIndexOf('/', end - 1) + 1;
+        return stripExtension(url.substring(start, end));
+    }
+
+
+    private static String stripExtension(String segment) {
+        return segment.endsWith(".json") ? segment.substring(0, segment.length() - 5) : segment;
+    }
+
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+
+    public String getMethod() {
+        return method;
+    }
+
+
+    public String getResource() {
+        return resource;
+    }
+
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof ApiRoute)) {
+            return false;
+        }
+
+        ApiRoute route = (ApiRoute) other;
+        return accountId == route.accountId && method.equals(route.method) && resource.equals(route.resource);
+    }
+
+
+    @Override
+    public int hashCode() {
+        return (31 * accountId + method.hashCode()) * 31 + resource.hashCode();
+    }
+
+
+    @Override
+    public String toString() {
+        return method + " " + resource + " (account " + accountId + ")";
+    }
+}
@@ -0,0 +1,22 @@
+package net.vivialconnect.http;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link Transport} able to send requests without blocking the calling thread.
+ * <p>
+ * The asynchronous resource operations, such as {@link net.vivialconnect.model.message.Message#sendAsync()}, use
+ * {@link #executeAsync(HttpRequest)} when the configured transport implements this interface, instead of running
+ * the blocking {@link #execute(HttpRequest)} on the client executor.
+ */
+public interface AsyncTransport extends Transport {
+
+    /**
+     * Sends the request. The returned future completes once the whole response was received, or completes
+     * exceptionally with an {@link java.io.IOException} if the exchange failed.
+     *
+     * @param request request to send
+     * @return future completed with the response, which the caller must close
+     */
+    CompletableFuture<HttpResponse> executeAsync(HttpRequest request);
+}
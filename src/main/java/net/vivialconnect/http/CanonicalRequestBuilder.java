@@ -2,25 +2,28 @@ package net.vivialconnect.http;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URL;
-import java.net.URLEncoder;
-import java.security.MessageDigest;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import net.vivialconnect.util.CryptoUtils;
+import net.vivialconnect.util.UrlEncoding;
 
 public class CanonicalRequestBuilder{
 
+    /* Hex SHA-256 of an empty body, which every GET and DELETE signs */
+    private static final String EMPTY_BODY_HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
     private URL endpoint;
 
     private String method;
     private String body;
+    private byte[] bodyBytes;
     private String requestTimestamp;
+    private String canonicalQuery;
+    private String canonicalizedHeaderNames;
 
     private Map<String, String>	headers;
     private Map<String, String>	queryParams;
@@ -49,6 +52,17 @@ public class CanonicalRequestBuilder{
         return this;
     }
 
+    /**
+     * Sets the body as the bytes sent on the wire, sparing a second UTF-8 encoding of {@link #body(String)}.
+     *
+     * @param bodyBytes UTF-8 encoded body, may be null
+     * @return this builder
+     */
+    public CanonicalRequestBuilder bodyBytes(byte[] bodyBytes){
+        this.bodyBytes = bodyBytes;
+        return this;
+    }
+
 
     public CanonicalRequestBuilder requestTimestamp(String requestTimestamp){
         this.requestTimestamp = requestTimestamp;
@@ -58,166 +72,149 @@ public class CanonicalRequestBuilder{
 
     public CanonicalRequestBuilder headers(Map<String, String> headers){
         this.headers = headers;
+        this.canonicalizedHeaderNames = null;
         return this;
     }
 
 
     public CanonicalRequestBuilder addHeader(String name, String value){
         this.headers.put(name, value);
+        this.canonicalizedHeaderNames = null;
         return this;
     }
 
 
     public CanonicalRequestBuilder queryParams(Map<String, String> queryParams){
         this.queryParams = queryParams;
+        this.canonicalQuery = null;
         return this;
     }
 
 
     public CanonicalRequestBuilder addQueryParam(String name, String value){
         this.queryParams.put(name, value);
+        this.canonicalQuery = null;
+        return this;
+    }
+
+    /**
+     * Sets the query parameters already encoded by {@link UrlEncoding#encodeQuery(Map)}, so that the request URL and
+     * the signature share one encoding.
+     *
+     * @param canonicalQuery encoded and sorted query string
+     * @return this builder
+     */
+    public CanonicalRequestBuilder canonicalQuery(String canonicalQuery){
+        this.canonicalQuery = canonicalQuery;
         return this;
     }
 
 
     public String build() throws NoSuchAlgorithmException, UnsupportedEncodingException{
-        StringBuilder builder = new StringBuilder();
+        return build(new StringBuilder(512)).toString();
+    }
 
-        /* Append HTTP verb and request timestamp */
-        builder.append(method).append("\n").append(requestTimestamp).append("\n");
+    /**
+     * Writes the canonical request into the given buffer in a single pass.
+     *
+     * @param builder buffer the canonical request is appended to
+     * @return the same buffer
+     */
+    public StringBuilder build(StringBuilder builder){
+        String[] sortedHeaders = getSortedHeaders();
 
-        String canonicalizedResourcePath = this.getCanonicalizedResourcePath();
-        String canonicalizedQueryParameters = this.getCanonicalizedQueryParameters();
-        String canonicalizedHeaders = this.getCanonicalizedHeaders();
-        String canonicalizedHeaderNames = this.getCanonicalizedHeaderNames();
+        /* Append HTTP verb and request timestamp */
+        builder.append(method).append('\n').append(requestTimestamp).append('\n');
 
         /* Append canonicalized resource path, query parameters */
-        builder.append(canonicalizedResourcePath).append("\n")
-               .append(canonicalizedQueryParameters).append("\n")
-               .append(canonicalizedHeaders).append("\n")
-               .append(canonicalizedHeaderNames).append("\n");
+        builder.append(getCanonicalizedResourcePath()).append('\n')
+               .append(getCanonicalizedQueryParameters()).append('\n');
 
-        if (bodyIsNull()){
-            this.body = "";
+        /* Append canonicalized headers, each one ending with a new line, and their names */
+        StringBuilder headerNames = new StringBuilder(sortedHeaders.length * 12);
+        for (String headerName : sortedHeaders){
+            String lowerCaseName = headerName.toLowerCase(Locale.ROOT);
+            builder.append(lowerCaseName)
+                   .append(':')
+                   .append(headers.get(headerName))
+                   .append('\n');
+
+            if (headerNames.length() > 0){
+                headerNames.append(';');
+            }
+            headerNames.append(lowerCaseName);
         }
 
-        hashBody(builder);
-        
-        return builder.toString();
-    }
-
+        canonicalizedHeaderNames = headerNames.toString();
+        builder.append(canonicalizedHeaderNames).append('\n');
 
-    private void hashBody(StringBuilder builder) throws NoSuchAlgorithmException, UnsupportedEncodingException{
-        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-        digest.update(this.body.getBytes("UTF-8"));
+        appendBodyHash(builder);
 
-        String hashedBodyInHex = CryptoUtils.toHex(digest.digest());
-        builder.append(hashedBodyInHex);
+        return builder;
     }
 
 
-    public String getCanonicalizedHeaderNames(){
-        List<String> sortedHeaders = getSortedHeaders();
-
-        StringBuilder builder = new StringBuilder();
-        for (String header : sortedHeaders){
-            builder.append(header.toLowerCase()).append(";");
+    private void appendBodyHash(StringBuilder builder){
+        byte[] content = bodyBytes;
+        if (content == null && body != null){
+            content = body.getBytes(StandardCharsets.UTF_8);
         }
 
-        return builder.deleteCharAt(builder.length() - 1).toString();
+        if (content == null || content.length == 0){
+            builder.append(EMPTY_BODY_HASH);
+        }else{
+            CryptoUtils.appendHex(builder, CryptoUtils.sha256(content));
+        }
     }
 
 
-    private String getCanonicalizedHeaders(){
-        List<String> sortedHeaders = getSortedHeaders();
+    public String getCanonicalizedHeaderNames(){
+        if (canonicalizedHeaderNames == null){
+            StringBuilder builder = new StringBuilder();
+            for (String header : getSortedHeaders()){
+                if (builder.length() > 0){
+                    builder.append(';');
+                }
+                builder.append(header.toLowerCase(Locale.ROOT));
+            }
 
-        StringBuilder builder = new StringBuilder();
-        for (String headerName : sortedHeaders){
-            String headerValue = headers.get(headerName);
-            builder.append(headerName.toLowerCase())
-                   .append(":")
-                   .append(headerValue)
-                   .append("\n");
+            canonicalizedHeaderNames = builder.toString();
         }
 
-        return builder.deleteCharAt(builder.length() - 1).toString();
+        return canonicalizedHeaderNames;
     }
 
 
-    private List<String> getSortedHeaders(){
-        List<String> sortedHeaders = new ArrayList<String>();
-        sortedHeaders.addAll(headers.keySet());
-
-        Collections.sort(sortedHeaders, String.CASE_INSENSITIVE_ORDER);
+    private String[] getSortedHeaders(){
+        String[] sortedHeaders = headers.keySet().toArray(new String[headers.size()]);
+        Arrays.sort(sortedHeaders, String.CASE_INSENSITIVE_ORDER);
 
         return sortedHeaders;
     }
 
 
-    private String getCanonicalizedQueryParameters() throws UnsupportedEncodingException{
-        if (!hasQueryParameters()){
-            return "";
-        }
-
-        SortedMap<String, String> sortedParameters = new TreeMap<String, String>();
-        for (String key : queryParams.keySet()){
-            String value = queryParams.get(key);
-
-            String encondedKey = urlEncode(key, false);
-            String encondedValue = urlEncode(value, false);
-
-            sortedParameters.put(encondedKey, encondedValue);
+    private String getCanonicalizedQueryParameters(){
+        if (canonicalQuery == null){
+            canonicalQuery = UrlEncoding.encodeQuery(queryParams);
         }
 
-        StringBuilder builder = new StringBuilder();
-        for (String encodedKey : sortedParameters.keySet()){
-            String encodedValue = sortedParameters.get(encodedKey);
-            builder.append(encodedKey)
-                   .append("=")
-                   .append(encodedValue)
-                   .append("&");
-        }
-
-        return builder.deleteCharAt(builder.length() - 1).toString();
-    }
-
-
-    private boolean hasQueryParameters(){
-        return this.queryParams != null && !queryParams.isEmpty();
+        return canonicalQuery;
     }
 
 
-    private String getCanonicalizedResourcePath() throws UnsupportedEncodingException{
-        String defaultCanonicalizedResourcePath = "/";
-
+    private String getCanonicalizedResourcePath(){
         if (endpoint != null){
             String path = endpoint.getPath();
             if (path != null && !path.isEmpty()){
-                String encodedPath = this.urlEncode(path, true);
+                String encodedPath = UrlEncoding.encodePath(path);
                 if (encodedPath.startsWith("/")){
                     return encodedPath;
                 }else{
-                    return defaultCanonicalizedResourcePath.concat(encodedPath);
+                    return "/".concat(encodedPath);
                 }
             }
         }
 
-        return defaultCanonicalizedResourcePath;
-    }
-
-
-    private String urlEncode(String url, boolean keepSlash) throws UnsupportedEncodingException{
-        String encoded = URLEncoder.encode(url, "UTF-8");
-
-        if (keepSlash){
-            encoded = encoded.replace("%2F", "/");
-        }
-
-        return encoded;
-    }
-
-
-    private boolean bodyIsNull(){
-        return this.body == null;
+        return "/";
     }
-}
\ No newline at end of file
+}
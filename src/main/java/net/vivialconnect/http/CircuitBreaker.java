@@ -0,0 +1,172 @@
+package net.vivialconnect.http;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Circuit breaker of a single route.
+ * <p>
+ * While <code>CLOSED</code>, requests go through and consecutive failures are counted. Reaching the failure threshold
+ * opens the circuit. While <code>OPEN</code>, requests are refused without being sent, sparing the threads that would
+ * otherwise wait on a degraded API. Once the open duration has passed, the circuit is <code>HALF_OPEN</code> and lets
+ * a few probe requests through: if they all succeed the circuit closes, and a single failure opens it again.
+ * <p>
+ * Requests report their outcome with the permit returned by {@link #tryAcquire()}. Outcomes of requests admitted
+ * before the last change of state are disregarded, so a slow request started before the circuit opened cannot close
+ * it, nor reopen it once it recovered.
+ *
+ * @see CircuitBreakers
+ */
+public final class CircuitBreaker {
+
+    /**
+     * State of a circuit.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /* Shared by the routes without a circuit breaker */
+    static final CircuitBreaker DISABLED = new CircuitBreaker(0, 0, 0);
+
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int probes;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    /* Changed under this, together with the generation */
+    private volatile State state = State.CLOSED;
+    private volatile long generation;
+
+    /* Guarded by this */
+    private long openedAt;
+    private int probesLeft;
+    private int probeSuccesses;
+
+
+    CircuitBreaker(int failureThreshold, long openNanos, int probes) {
+        this.enabled = failureThreshold > 0;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openNanos;
+        this.probes = probes;
+    }
+
+    /**
+     * Asks to send a request.
+     *
+     * @return a permit to report the outcome with, or -1 if the circuit refuses the request
+     */
+    public long tryAcquire() {
+        if (!enabled) {
+            return 0;
+        }
+
+        long permit = generation;
+        if (state == State.CLOSED) {
+            return permit;
+        }
+
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return -1;
+                }
+
+                transition(State.HALF_OPEN);
+                probesLeft = probes;
+                probeSuccesses = 0;
+            }
+
+            if (state == State.HALF_OPEN) {
+                if (probesLeft == 0) {
+                    return -1;
+                }
+                probesLeft--;
+            }
+
+            return generation;
+        }
+    }
+
+    /**
+     * The API answered without a server error.
+     *
+     * @param permit permit returned by {@link #tryAcquire()}
+     */
+    public void onSuccess(long permit) {
+        if (!enabled || permit != generation) {
+            return;
+        }
+
+        if (state == State.CLOSED) {
+            if (consecutiveFailures.get() != 0) {
+                consecutiveFailures.set(0);
+            }
+            return;
+        }
+
+        synchronized (this) {
+            if (permit == generation && state == State.HALF_OPEN && ++probeSuccesses >= probes) {
+                transition(State.CLOSED);
+            }
+        }
+    }
+
+    /**
+     * The API answered with a server error, or did not answer in time.
+     *
+     * @param permit permit returned by {@link #tryAcquire()}
+     */
+    public void onFailure(long permit) {
+        if (!enabled || permit != generation) {
+            return;
+        }
+
+        if (state == State.CLOSED && consecutiveFailures.incrementAndGet() < failureThreshold) {
+            return;
+        }
+
+        synchronized (this) {
+            if (permit == generation && state != State.OPEN) {
+                transition(State.OPEN);
+                openedAt = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * The request was not sent, or failed for reasons that say nothing about the health of the API. A probe slot
+     * taken by the request is given back.
+     *
+     * @param permit permit returned by {@link #tryAcquire()}
+     */
+    public void onIgnored(long permit) {
+        if (!enabled || permit != generation || state != State.HALF_OPEN) {
+            return;
+        }
+
+        synchronized (this) {
+            if (permit == generation && state == State.HALF_OPEN) {
+                probesLeft++;
+            }
+        }
+    }
+
+
+    private void transition(State newState) {
+        consecutiveFailures.set(0);
+        generation++;
+        state = newState;
+    }
+
+
+    public State getState() {
+        return state;
+    }
+
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+}
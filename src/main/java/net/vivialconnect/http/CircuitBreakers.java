@@ -0,0 +1,147 @@
+package net.vivialconnect.http;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Circuit breakers keyed by account and resource, so that a degraded resource such as <code>messages</code> does not
+ * stop requests to <code>numbers</code> or <code>logs</code>. Every HTTP method of a resource shares its circuit.
+ * <p>
+ * A circuit opens after consecutive 5xx responses or timeouts, refuses requests with a
+ * <code>CircuitBreakerOpenException</code> while open, then lets probe requests through:
+ * <pre>
+ * VivialConnectClient.setCircuitBreakers(CircuitBreakers.builder()
+ *         .failureThreshold(5)
+ *         .openDuration(Duration.ofSeconds(30))
+ *         .halfOpenProbes(3)
+ *         .build());
+ * </pre>
+ *
+ * @see CircuitBreaker
+ */
+public final class CircuitBreakers {
+
+    private static final CircuitBreakers NONE = new CircuitBreakers(null);
+
+    private static final String ANY_METHOD = "*";
+
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int probes;
+
+    private final ConcurrentMap<ApiRoute, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<ApiRoute, CircuitBreaker>();
+
+
+    private CircuitBreakers(Builder builder) {
+        this.enabled = builder != null;
+        this.failureThreshold = enabled ? builder.failureThreshold : 0;
+        this.openNanos = enabled ? builder.openNanos : 0;
+        this.probes = enabled ? builder.probes : 0;
+    }
+
+    /**
+     * @return circuit breakers that never open
+     */
+    public static CircuitBreakers none() {
+        return NONE;
+    }
+
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the circuit breaker of the resource of a route, creating it on first use.
+     *
+     * @param route route of a request
+     * @return the circuit breaker of the route, a breaker that never opens if these circuit breakers are disabled
+     */
+    public CircuitBreaker getCircuitBreaker(ApiRoute route) {
+        if (!enabled) {
+            return CircuitBreaker.DISABLED;
+        }
+
+        ApiRoute key = new ApiRoute(route.getAccountId(), ANY_METHOD, route.getResource());
+
+        CircuitBreaker circuitBreaker = circuitBreakers.get(key);
+        if (circuitBreaker == null) {
+            circuitBreaker = circuitBreakers.computeIfAbsent(key, k -> new CircuitBreaker(failureThreshold, openNanos, probes));
+        }
+
+        return circuitBreaker;
+    }
+
+    /**
+     * Snapshot of the state of every circuit used so far, keyed by route with a method of <code>*</code>.
+     *
+     * @return the states of the circuits
+     */
+    public Map<ApiRoute, CircuitBreaker.State> getStates() {
+        Map<ApiRoute, CircuitBreaker.State> states = new HashMap<ApiRoute, CircuitBreaker.State>();
+        for (Map.Entry<ApiRoute, CircuitBreaker> entry : circuitBreakers.entrySet()) {
+            states.put(entry.getKey(), entry.getValue().getState());
+        }
+
+        return states;
+    }
+
+    /**
+     * Builds {@link CircuitBreakers}. By default a circuit opens after 5 consecutive failures, stays open for 30
+     * seconds, then closes after 3 successful probes.
+     */
+    public static final class Builder {
+
+        private int failureThreshold = 5;
+        private long openNanos = Duration.ofSeconds(30).toNanos();
+        private int probes = 3;
+
+
+        private Builder() {
+        }
+
+        /**
+         * @param failureThreshold consecutive failures that open the circuit
+         * @return this builder
+         */
+        public Builder failureThreshold(int failureThreshold) {
+            if (failureThreshold < 1) {
+                throw new IllegalArgumentException("Failure threshold must be at least 1");
+            }
+
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * @param openDuration time during which an open circuit refuses every request
+         * @return this builder
+         */
+        public Builder openDuration(Duration openDuration) {
+            this.openNanos = openDuration.toNanos();
+            return this;
+        }
+
+        /**
+         * @param probes requests let through a half-open circuit, all of which must succeed to close it
+         * @return this builder
+         */
+        public Builder halfOpenProbes(int probes) {
+            if (probes < 1) {
+                throw new IllegalArgumentException("At least one probe is needed");
+            }
+
+            this.probes = probes;
+            return this;
+        }
+
+
+        public CircuitBreakers build() {
+            return new CircuitBreakers(this);
+        }
+    }
+}
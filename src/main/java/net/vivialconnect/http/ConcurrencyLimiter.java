@@ -0,0 +1,369 @@
+package net.vivialconnect.http;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive limit on the number of requests in flight, found by additive increase and multiplicative decrease (AIMD).
+ * <p>
+ * While responses come back without errors and their latency stays close to its long-term average, the limit grows
+ * by about one request per round trip. It is cut by the backoff ratio, by half by default, when the API answers
+ * 429 Too Many Requests or a 5xx status, when a request times out, or when the recent latency rises above the
+ * long-term average by the latency tolerance. A cut only counts requests started after the previous one, so a burst
+ * of failures from the same overload lowers the limit once.
+ * <p>
+ * Requests beyond the limit wait for a request in flight to finish, for at most the configured time. They then fail
+ * with a <code>ClientRateLimitException</code>. The current limit and the requests in flight can be read from
+ * {@link #getLimit()} and {@link #getInFlight()}:
+ * <pre>
+ * ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+ *         .initialLimit(10)
+ *         .maxLimit(100)
+ *         .build();
+ * VivialConnectClient.setConcurrencyLimiter(limiter);
+ * </pre>
+ */
+public final class ConcurrencyLimiter {
+
+    private static final double SHORT_LATENCY_WEIGHT = 0.1;
+    private static final double LONG_LATENCY_WEIGHT = 0.01;
+
+    private static final ConcurrencyLimiter NONE = new ConcurrencyLimiter(null);
+    private static final Permit UNLIMITED_PERMIT = new Permit(null, 0, 0);
+
+    private final boolean unlimited;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final long maxWaitNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Object lock = new Object();
+
+    /* Read without the lock when acquiring, updated under it */
+    private volatile int limit;
+
+    /* Guarded by lock */
+    private double exactLimit;
+    private double shortLatency;
+    private double longLatency;
+    private long lastDecrease;
+
+
+    private ConcurrencyLimiter(Builder builder) {
+        this.unlimited = builder == null;
+        this.minLimit = unlimited ? Integer.MAX_VALUE : builder.minLimit;
+        this.maxLimit = unlimited ? Integer.MAX_VALUE : builder.maxLimit;
+        this.backoffRatio = unlimited ? 1 : builder.backoffRatio;
+        this.latencyTolerance = unlimited ? 0 : builder.latencyTolerance;
+        this.maxWaitNanos = unlimited ? 0 : builder.maxWaitNanos;
+
+        this.exactLimit = unlimited ? Integer.MAX_VALUE : Math.max(minLimit, Math.min(maxLimit, builder.initialLimit));
+        this.limit = (int) exactLimit;
+        this.lastDecrease = System.nanoTime();
+    }
+
+    /**
+     * @return a limiter that lets every request through
+     */
+    public static ConcurrencyLimiter none() {
+        return NONE;
+    }
+
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Takes a slot for a request, waiting for one to free up if the limit is reached.
+     *
+     * @return the permit to complete when the request finishes, or null if no slot freed up in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Permit acquire() throws InterruptedException {
+        return acquire(Long.MAX_VALUE);
+    }
+
+    /**
+     * Takes a slot for a request, waiting no longer than the configured time nor the given one.
+     *
+     * @param maxWaitNanos longest wait the caller accepts, e.g. the time left before its deadline
+     * @return the permit to complete when the request finishes, or null if no slot freed up in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Permit acquire(long maxWaitNanos) throws InterruptedException {
+        if (unlimited) {
+            return UNLIMITED_PERMIT;
+        }
+
+        maxWaitNanos = Math.min(this.maxWaitNanos, maxWaitNanos);
+
+        int taken = tryIncrement();
+        if (taken >= 0 || maxWaitNanos == 0) {
+            return taken >= 0 ? new Permit(this, System.nanoTime(), taken) : null;
+        }
+
+        long deadline = System.nanoTime() + maxWaitNanos;
+        synchronized (lock) {
+            waiting.incrementAndGet();
+            try {
+                while ((taken = tryIncrement()) < 0) {
+                    if (maxWaitNanos == Long.MAX_VALUE) {
+                        lock.wait();
+                        continue;
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                }
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+
+        return new Permit(this, System.nanoTime(), taken);
+    }
+
+
+    /**
+     * @return the requests in flight after taking a slot, or -1 if the limit is reached
+     */
+    private int tryIncrement() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return -1;
+            }
+
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+
+    private void release(Permit permit, Outcome outcome) {
+        long now = System.nanoTime();
+
+        if (outcome != Outcome.IGNORED) {
+            synchronized (lock) {
+                if (outcome == Outcome.DROPPED) {
+                    decrease(permit.start, now);
+                } else {
+                    onLatency(permit, now);
+                }
+            }
+        }
+
+        inFlight.decrementAndGet();
+        if (waiting.get() > 0) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+
+    private void onLatency(Permit permit, long now) {
+        double latency = permit.latency >= 0 ? permit.latency : now - permit.start;
+        if (longLatency == 0) {
+            shortLatency = latency;
+            longLatency = latency;
+        } else {
+            shortLatency += (latency - shortLatency) * SHORT_LATENCY_WEIGHT;
+            longLatency += (latency - longLatency) * LONG_LATENCY_WEIGHT;
+        }
+
+        if (shortLatency > longLatency * latencyTolerance) {
+            decrease(permit.start, now);
+        } else if (permit.inFlight * 2 >= limit) {
+            /* Only grow when the limit is actually in use, not while the caller sends few requests */
+            setLimit(exactLimit + 1 / exactLimit);
+        }
+    }
+
+
+    private void decrease(long start, long now) {
+        if (start - lastDecrease < 0) {
+            return;
+        }
+
+        lastDecrease = now;
+        setLimit(exactLimit * backoffRatio);
+    }
+
+
+    private void setLimit(double newLimit) {
+        exactLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) exactLimit;
+    }
+
+    /**
+     * @return the current limit of requests in flight
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the requests in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+
+    private enum Outcome {
+        SUCCEEDED, DROPPED, IGNORED
+    }
+
+    /**
+     * Slot taken by a request. Exactly one of the completion methods must be called once the request finishes.
+     */
+    public static final class Permit {
+
+        private final ConcurrencyLimiter limiter;
+        private final long start;
+        private final int inFlight;
+
+        /* Time the API took to answer the last attempt, or -1 if not reported */
+        private volatile long latency = -1;
+
+
+        private Permit(ConcurrencyLimiter limiter, long start, int inFlight) {
+            this.limiter = limiter;
+            this.start = start;
+            this.inFlight = inFlight;
+        }
+
+        /**
+         * Reports the time the API took to answer an attempt of the request, leaving out the waits for rate limits
+         * and retry backoff in between attempts. The latency of the last attempt is the one taken into account when
+         * the request succeeds. Without it, the latency runs from the time the slot was taken.
+         *
+         * @param latencyNanos time from sending the attempt to receiving its response
+         */
+        public void attempted(long latencyNanos) {
+            this.latency = latencyNanos;
+        }
+
+        /**
+         * The API answered. Its latency is taken into account.
+         */
+        public void succeeded() {
+            complete(Outcome.SUCCEEDED);
+        }
+
+        /**
+         * The API is overloaded: it answered with 429 or 5xx, or timed out. The limit is cut.
+         */
+        public void dropped() {
+            complete(Outcome.DROPPED);
+        }
+
+        /**
+         * The request failed for reasons unrelated to the load of the API. Only the slot is released.
+         */
+        public void ignored() {
+            complete(Outcome.IGNORED);
+        }
+
+
+        private void complete(Outcome outcome) {
+            if (limiter != null) {
+                limiter.release(this, outcome);
+            }
+        }
+    }
+
+    /**
+     * Builds {@link ConcurrencyLimiter}s. By default the limit starts at 20, stays between 1 and 200, is halved on
+     * overload or when latency doubles, and requests wait as long as needed for a slot.
+     */
+    public static final class Builder {
+
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.5;
+        private double latencyTolerance = 2;
+        private long maxWaitNanos = Long.MAX_VALUE;
+
+
+        private Builder() {
+        }
+
+
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+
+        public Builder minLimit(int minLimit) {
+            if (minLimit < 1) {
+                throw new IllegalArgumentException("Minimum limit must be at least 1");
+            }
+
+            this.minLimit = minLimit;
+            return this;
+        }
+
+
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * @param backoffRatio factor applied to the limit on overload, between 0 and 1
+         * @return this builder
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            if (backoffRatio <= 0 || backoffRatio >= 1) {
+                throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+            }
+
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * @param latencyTolerance ratio between recent and long-term latency above which the limit is cut, above 1
+         * @return this builder
+         */
+        public Builder latencyTolerance(double latencyTolerance) {
+            if (latencyTolerance <= 1) {
+                throw new IllegalArgumentException("Latency tolerance must be above 1");
+            }
+
+            this.latencyTolerance = latencyTolerance;
+            return this;
+        }
+
+        /**
+         * @param maxWait longest wait for a slot, zero to fail at once when the limit is reached
+         * @return this builder
+         */
+        public Builder maxWait(Duration maxWait) {
+            this.maxWaitNanos = maxWait.toNanos();
+            return this;
+        }
+
+
+        public ConcurrencyLimiter build() {
+            if (minLimit > maxLimit) {
+                throw new IllegalArgumentException("Minimum limit cannot exceed the maximum limit");
+            }
+
+            return new ConcurrencyLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package net.vivialconnect.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded pool of persistent connections, kept per route (scheme, host, port and proxy).
+ * <p>
+ * At most <code>maxPerRoute</code> connections, leased or idle, are open to a route at any time. Requests
+ * beyond that limit wait for a connection to be released. Idle connections are reused most recently used
+ * first and closed once they have been idle longer than the idle timeout. Connections idle for more than
+ * two seconds are checked before being reused, in case the server closed them in the meantime.
+ * <p>
+ * Routes left without connections are forgotten, so that a process reaching many hosts or proxies over time only
+ * keeps the routes in use.
+ */
+public class ConnectionPool implements Closeable {
+
+    public static final int DEFAULT_MAX_PER_ROUTE = 20;
+    public static final long DEFAULT_IDLE_TIMEOUT_SECONDS = 30;
+
+    private static final long VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+
+    private static final RequestTracer TRACER = RequestTracer.get();
+
+    private final int maxPerRoute;
+    private final long idleTimeoutMillis;
+
+    private final Map<Route, RoutePool> routes = new HashMap<Route, RoutePool>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition connectionReleased = lock.newCondition();
+
+    /* Guarded by lock */
+    private boolean closed;
+    private long lastSweepNanos = System.nanoTime();
+    private long createdByRemovedRoutes;
+
+    /**
+     * Creates a pool with {@link #DEFAULT_MAX_PER_ROUTE} connections per route and an idle timeout of
+     * {@link #DEFAULT_IDLE_TIMEOUT_SECONDS} seconds.
+     */
+    public ConnectionPool() {
+        this(DEFAULT_MAX_PER_ROUTE, DEFAULT_IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param maxPerRoute maximum number of connections open to the same host
+     * @param idleTimeout time after which an idle connection is closed
+     * @param unit        unit of the idle timeout
+     */
+    public ConnectionPool(int maxPerRoute, long idleTimeout, TimeUnit unit) {
+        if (maxPerRoute < 1) {
+            throw new IllegalArgumentException("'maxPerRoute' param is not valid");
+        }
+
+        this.maxPerRoute = maxPerRoute;
+        this.idleTimeoutMillis = unit.toMillis(idleTimeout);
+    }
+
+
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    /**
+     * Leases a connection to the route, reusing an idle one when possible and opening a new one otherwise.
+     *
+     * @param route         connection target
+     * @param timeoutMillis maximum time to wait when the route is at its limit, 0 to wait indefinitely
+     * @param factory       opens new connections
+     * @return a connection that must be given back through {@link #release(HttpConnection, boolean)}
+     */
+    HttpConnection lease(Route route, long timeoutMillis, ConnectionFactory factory) throws IOException {
+        long deadline = timeoutMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+
+        while (true) {
+            HttpConnection connection = reserve(route, deadline);
+            if (connection == null) {
+                return connect(route, factory);
+            }
+
+            if (connection.getIdleMillis() > VALIDATE_AFTER_INACTIVITY_MILLIS && connection.isStale()) {
+                release(connection, false);
+                continue;
+            }
+
+            connection.markReused();
+            return connection;
+        }
+    }
+
+    /**
+     * Takes an idle connection or a slot for a new one, waiting while the route is full.
+     *
+     * @return an idle connection, or null if a slot was reserved for a new connection
+     */
+    private HttpConnection reserve(Route route, long deadline) throws IOException {
+        List<HttpConnection> expired = new ArrayList<HttpConnection>();
+        long waitStart = 0;
+        boolean timedOut = false;
+
+        lock.lock();
+        try {
+            if (System.nanoTime() - lastSweepNanos >= TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis)) {
+                removeExpired(expired);
+            }
+
+            RoutePool routePool = routePool(route);
+            routePool.pending++;
+
+            try {
+                while (true) {
+                    ensureOpen();
+                    routePool.removeExpired(idleTimeoutMillis, expired);
+
+                    HttpConnection connection = routePool.idle.pollFirst();
+                    if (connection != null) {
+                        routePool.leased++;
+                        return connection;
+                    }
+
+                    if (routePool.leased + routePool.idle.size() < maxPerRoute) {
+                        routePool.leased++;
+                        return null;
+                    }
+
+                    if (waitStart == 0) {
+                        waitStart = System.nanoTime();
+                    }
+
+                    try {
+                        awaitRelease(route, deadline);
+                    } catch (ConnectionPoolTimeoutException e) {
+                        timedOut = true;
+                        throw e;
+                    }
+                }
+            } finally {
+                routePool.pending--;
+                removeIfUnused(route, routePool);
+            }
+        } finally {
+            lock.unlock();
+            closeAll(expired);
+
+            if (waitStart != 0) {
+                TRACER.poolExhausted(route.toString(), maxPerRoute, System.nanoTime() - waitStart, timedOut);
+            }
+        }
+    }
+
+
+    private void awaitRelease(Route route, long deadline) throws InterruptedIOException {
+        try {
+            if (deadline == 0) {
+                connectionReleased.await();
+                return;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new ConnectionPoolTimeoutException(String.format("Timeout waiting for a connection to %s, all %d connections are leased", route, maxPerRoute));
+            }
+
+            connectionReleased.awaitNanos(remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection to " + route);
+        }
+    }
+
+
+    private HttpConnection connect(Route route, ConnectionFactory factory) throws IOException {
+        HttpConnection connection = null;
+        try {
+            connection = factory.connect(route);
+        } finally {
+            lock.lock();
+            try {
+                RoutePool routePool = routePool(route);
+                if (connection == null) {
+                    routePool.leased--;
+                    removeIfUnused(route, routePool);
+                    connectionReleased.signalAll();
+                } else {
+                    routePool.created++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return connection;
+    }
+
+    /**
+     * Gives a leased connection back to the pool.
+     *
+     * @param connection leased connection
+     * @param reusable   whether the connection can serve another request, it is closed otherwise
+     */
+    void release(HttpConnection connection, boolean reusable) {
+        boolean keep = false;
+
+        lock.lock();
+        try {
+            RoutePool routePool = routePool(connection.getRoute());
+            routePool.leased--;
+
+            if (reusable && !closed) {
+                connection.touch();
+                routePool.idle.addFirst(connection);
+                keep = true;
+            } else {
+                removeIfUnused(connection.getRoute(), routePool);
+            }
+
+            connectionReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        if (!keep) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Closes the connections that have been idle longer than the idle timeout, and forgets the routes left without
+     * connections. This is done while leasing, at most once per idle timeout for every route, so calling it is only
+     * needed to free sockets sooner once the pool is no longer used.
+     */
+    public void closeExpiredConnections() {
+        List<HttpConnection> expired = new ArrayList<HttpConnection>();
+
+        lock.lock();
+        try {
+            removeExpired(expired);
+        } finally {
+            lock.unlock();
+        }
+
+        closeAll(expired);
+    }
+
+
+    private void removeExpired(List<HttpConnection> expired) {
+        lastSweepNanos = System.nanoTime();
+
+        Iterator<RoutePool> routePools = routes.values().iterator();
+        while (routePools.hasNext()) {
+            RoutePool routePool = routePools.next();
+            routePool.removeExpired(idleTimeoutMillis, expired);
+            if (routePool.isUnused()) {
+                createdByRemovedRoutes += routePool.created;
+                routePools.remove();
+            }
+        }
+    }
+
+
+    private void removeIfUnused(Route route, RoutePool routePool) {
+        if (routePool.isUnused() && routes.remove(route, routePool)) {
+            createdByRemovedRoutes += routePool.created;
+        }
+    }
+
+    /**
+     * Connection counts summed over every route.
+     *
+     * @return pool stats
+     */
+    public PoolStats getTotalStats() {
+        lock.lock();
+        try {
+            int leased = 0;
+            int idle = 0;
+            int pending = 0;
+            long created = createdByRemovedRoutes;
+
+            for (RoutePool routePool : routes.values()) {
+                leased += routePool.leased;
+                idle += routePool.idle.size();
+                pending += routePool.pending;
+                created += routePool.created;
+            }
+
+            return new PoolStats(leased, idle, pending, created, maxPerRoute * Math.max(1, routes.size()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Connection counts for each route with connections leased, idle or pending, keyed by
+     * <code>scheme://host:port</code>.
+     *
+     * @return pool stats per route
+     */
+    public Map<String, PoolStats> getRouteStats() {
+        lock.lock();
+        try {
+            Map<String, PoolStats> stats = new LinkedHashMap<String, PoolStats>();
+            for (Map.Entry<Route, RoutePool> entry : routes.entrySet()) {
+                stats.put(entry.getKey().toString(), entry.getValue().stats(maxPerRoute));
+            }
+
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the idle connections. Connections still leased are closed when they are released.
+     */
+    @Override
+    public void close() {
+        List<HttpConnection> idle = new ArrayList<HttpConnection>();
+
+        lock.lock();
+        try {
+            closed = true;
+            for (RoutePool routePool : routes.values()) {
+                idle.addAll(routePool.idle);
+                routePool.idle.clear();
+            }
+
+            connectionReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        closeAll(idle);
+    }
+
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Connection pool is closed");
+        }
+    }
+
+
+    private RoutePool routePool(Route route) {
+        RoutePool routePool = routes.get(route);
+        if (routePool == null) {
+            routePool = new RoutePool();
+            routes.put(route, routePool);
+        }
+
+        return routePool;
+    }
+
+
+    private static void closeAll(List<HttpConnection> connections) {
+        for (HttpConnection connection : connections) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Opens new connections for the pool.
+     */
+    interface ConnectionFactory {
+
+        HttpConnection connect(Route route) throws IOException;
+    }
+
+
+    private static final class RoutePool {
+
+        /* Most recently used first */
+        private final Deque<HttpConnection> idle = new ArrayDeque<HttpConnection>();
+
+        private int leased;
+        private int pending;
+        private long created;
+
+
+        void removeExpired(long idleTimeoutMillis, List<HttpConnection> expired) {
+            Iterator<HttpConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext()) {
+                HttpConnection connection = oldestFirst.next();
+                if (connection.getIdleMillis() < idleTimeoutMillis) {
+                    break;
+                }
+
+                oldestFirst.remove();
+                expired.add(connection);
+            }
+        }
+
+
+        boolean isUnused() {
+            return leased == 0 && pending == 0 && idle.isEmpty();
+        }
+
+
+        PoolStats stats(int max) {
+            return new PoolStats(leased, idle.size(), pending, created, max);
+        }
+    }
+}
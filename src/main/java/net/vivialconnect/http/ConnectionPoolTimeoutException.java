@@ -0,0 +1,19 @@
+package net.vivialconnect.http;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Thrown when a request waited longer than the connection request timeout for a pooled connection,
+ * because every connection allowed for the route was in use.
+ *
+ * @see PooledTransport#setConnectionRequestTimeout(long)
+ */
+public class ConnectionPoolTimeoutException extends InterruptedIOException {
+
+    private static final long serialVersionUID = 4617364729836472180L;
+
+
+    public ConnectionPoolTimeoutException(String message) {
+        super(message);
+    }
+}
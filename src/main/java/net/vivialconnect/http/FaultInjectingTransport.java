@@ -0,0 +1,537 @@
+package net.vivialconnect.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Transport} that injects faults into the requests it hands to another transport, to test and benchmark how
+ * retries, timeouts and limiters behave when the API misbehaves:
+ * <ul>
+ * <li>latency, drawn uniformly between two bounds, plus occasional spikes. When it reaches the read timeout of the
+ * request, the request fails with a {@link SocketTimeoutException} after that timeout instead.</li>
+ * <li>connection resets after the API received the request, so that it may have acted on it</li>
+ * <li>bodies cut in the middle</li>
+ * <li>204 No Content where a body was expected</li>
+ * <li>bursts of 429 Too Many Requests, and 500 Internal Server Error, answered without reaching the API</li>
+ * </ul>
+ * Faults are set per route, by resource and optionally by method (see {@link ApiRoute}). Each route draws its faults
+ * from its own generator, seeded from the seed of the transport and the route, so that the same sequence of
+ * requests on a route always meets the same faults.
+ *
+ * <pre>
+ * Transport transport = FaultInjectingTransport.builder(new PooledTransport())
+ *         .seed(42)
+ *         .route("messages", FaultInjectingTransport.Faults.builder().serverErrors(0.05).build())
+ *         .route("GET", "account", FaultInjectingTransport.Faults.builder().latency(Duration.ofMillis(50), Duration.ofMillis(200)).build())
+ *         .build();
+ * </pre>
+ */
+public final class FaultInjectingTransport implements Transport {
+
+    /**
+     * Faults the transport can inject.
+     */
+    public enum Fault {
+        LATENCY, CONNECTION_RESET, TRUNCATED_BODY, NO_CONTENT, TOO_MANY_REQUESTS, SERVER_ERROR
+    }
+
+    private final Transport delegate;
+    private final long seed;
+    private final Faults defaultFaults;
+    private final Map<String, Faults> routeFaults;
+    private final ConcurrentMap<String, RouteState> states = new ConcurrentHashMap<String, RouteState>();
+    private final Map<Fault, AtomicLong> injected = new EnumMap<Fault, AtomicLong>(Fault.class);
+
+
+    private FaultInjectingTransport(Builder builder) {
+        this.delegate = builder.delegate;
+        this.seed = builder.seed;
+        this.defaultFaults = builder.defaultFaults;
+        this.routeFaults = new HashMap<String, Faults>(builder.routeFaults);
+
+        for (Fault fault : Fault.values()) {
+            injected.put(fault, new AtomicLong());
+        }
+    }
+
+    /**
+     * @param delegate transport that sends the requests
+     * @return a builder of a transport that injects no faults until configured
+     */
+    public static Builder builder(Transport delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+
+        return new Builder(delegate);
+    }
+
+
+    @Override
+    public HttpResponse execute(HttpRequest request) throws IOException {
+        ApiRoute route = ApiRoute.of(request.getMethod(), request.getUrl().toString());
+        Faults faults = faultsOf(route);
+        if (faults == Faults.NONE) {
+            return delegate.execute(request);
+        }
+
+        Decision decision = state(route, faults).next();
+
+        if (decision.latencyNanos > 0) {
+            injected.get(Fault.LATENCY).incrementAndGet();
+            delay(decision.latencyNanos, request.getReadTimeout());
+        }
+
+        if (decision.fault == null) {
+            return delegate.execute(request);
+        }
+
+        injected.get(decision.fault).incrementAndGet();
+        switch (decision.fault) {
+            case TOO_MANY_REQUESTS:
+                return errorResponse(429, "Too many requests");
+
+            case SERVER_ERROR:
+                return errorResponse(500, "Internal server error");
+
+            case CONNECTION_RESET:
+                delegate.execute(request).close();
+                throw new SocketException("Connection reset");
+
+            case NO_CONTENT:
+                delegate.execute(request).close();
+                return new HttpResponse(204, Collections.<String, List<String>>emptyMap(), null);
+
+            case TRUNCATED_BODY:
+                return truncate(delegate.execute(request));
+
+            default:
+                throw new IllegalStateException("Unknown fault " + decision.fault);
+        }
+    }
+
+
+    private Faults faultsOf(ApiRoute route) {
+        Faults faults = routeFaults.get(route.getMethod() + " " + route.getResource());
+        if (faults == null) {
+            faults = routeFaults.get(route.getResource());
+        }
+
+        return faults != null ? faults : defaultFaults;
+    }
+
+
+    private RouteState state(ApiRoute route, Faults faults) {
+        String key = route.getMethod() + " " + route.getResource();
+        RouteState state = states.get(key);
+        if (state == null) {
+            RouteState created = new RouteState(faults, seed ^ (0x9E3779B97F4A7C15L * key.hashCode()));
+            state = states.putIfAbsent(key, created);
+            if (state == null) {
+                state = created;
+            }
+        }
+
+        return state;
+    }
+
+
+    private static void delay(long latencyNanos, int readTimeoutMillis) throws IOException {
+        long readTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(readTimeoutMillis);
+        boolean timesOut = readTimeoutNanos > 0 && latencyNanos >= readTimeoutNanos;
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(timesOut ? readTimeoutNanos : latencyNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while injecting latency");
+        }
+
+        if (timesOut) {
+            throw new SocketTimeoutException("Read timed out");
+        }
+    }
+
+
+    private static HttpResponse errorResponse(int statusCode, String message) {
+        byte[] body = ("{\"message\": \"" + message + "\", \"error_code\": 0}").getBytes(StandardCharsets.UTF_8);
+
+        Map<String, List<String>> headers = new HashMap<String, List<String>>();
+        headers.put("Content-Type", Collections.singletonList("application/json"));
+        headers.put("Content-Length", Collections.singletonList(String.valueOf(body.length)));
+
+        return new HttpResponse(statusCode, headers, new ByteArrayInputStream(body));
+    }
+
+    /**
+     * Reads the whole body, then hands back its first half followed by the failure a connection closed before the
+     * announced length would raise.
+     */
+    private static HttpResponse truncate(HttpResponse response) throws IOException {
+        byte[] body = response.readBody();
+
+        byte[] received = new byte[body.length / 2];
+        System.arraycopy(body, 0, received, 0, received.length);
+
+        return new HttpResponse(response.getStatusCode(), response.getHeaders(), new TruncatedBody(received));
+    }
+
+
+    /**
+     * @param fault kind of fault
+     * @return number of times the fault was injected
+     */
+    public long getInjectedCount(Fault fault) {
+        return injected.get(fault).get();
+    }
+
+
+    public Transport getDelegate() {
+        return delegate;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+
+    private static final class Decision {
+
+        private final long latencyNanos;
+        private final Fault fault;
+
+
+        private Decision(long latencyNanos, Fault fault) {
+            this.latencyNanos = latencyNanos;
+            this.fault = fault;
+        }
+    }
+
+    /**
+     * Generator and ongoing 429 burst of a route. The same number of values is drawn for every request, so that the
+     * faults of a request do not depend on which faults the previous ones met.
+     */
+    private static final class RouteState {
+
+        private final Faults faults;
+        private final Random random;
+        private int throttledLeft;
+
+
+        private RouteState(Faults faults, long seed) {
+            this.faults = faults;
+            this.random = new Random(seed);
+        }
+
+
+        synchronized Decision next() {
+            double latencyDraw = random.nextDouble();
+            double spikeDraw = random.nextDouble();
+            double faultDraw = random.nextDouble();
+
+            long latency = faults.minLatencyNanos + (long) (latencyDraw * (faults.maxLatencyNanos - faults.minLatencyNanos));
+            if (spikeDraw < faults.spikeRatio) {
+                latency += faults.spikeNanos;
+            }
+
+            if (throttledLeft > 0) {
+                throttledLeft--;
+                return new Decision(latency, Fault.TOO_MANY_REQUESTS);
+            }
+
+            double threshold = faults.throttlingRatio;
+            if (faultDraw < threshold) {
+                throttledLeft = faults.burstLength - 1;
+                return new Decision(latency, Fault.TOO_MANY_REQUESTS);
+            }
+
+            threshold += faults.serverErrorRatio;
+            if (faultDraw < threshold) {
+                return new Decision(latency, Fault.SERVER_ERROR);
+            }
+
+            threshold += faults.connectionResetRatio;
+            if (faultDraw < threshold) {
+                return new Decision(latency, Fault.CONNECTION_RESET);
+            }
+
+            threshold += faults.truncatedBodyRatio;
+            if (faultDraw < threshold) {
+                return new Decision(latency, Fault.TRUNCATED_BODY);
+            }
+
+            threshold += faults.noContentRatio;
+            if (faultDraw < threshold) {
+                return new Decision(latency, Fault.NO_CONTENT);
+            }
+
+            return new Decision(latency, null);
+        }
+    }
+
+    /**
+     * Body that fails once the received bytes have been read, as one whose connection was closed early.
+     */
+    private static final class TruncatedBody extends InputStream {
+
+        private final byte[] received;
+        private int position;
+
+
+        private TruncatedBody(byte[] received) {
+            this.received = received;
+        }
+
+
+        @Override
+        public int read() throws IOException {
+            checkEnd();
+            return received[position++] & 0xff;
+        }
+
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+
+            checkEnd();
+            int read = Math.min(length, received.length - position);
+            System.arraycopy(received, position, buffer, offset, read);
+            position += read;
+
+            return read;
+        }
+
+
+        private void checkEnd() throws EOFException {
+            if (position >= received.length) {
+                throw new EOFException("Unexpected end of body");
+            }
+        }
+    }
+
+    /**
+     * Faults injected into the requests of a route. Ratios are the share of requests that meet each fault, and may
+     * add up to at most 1. Immutable.
+     */
+    public static final class Faults {
+
+        /** Injects nothing */
+        public static final Faults NONE = builder().build();
+
+        private final long minLatencyNanos;
+        private final long maxLatencyNanos;
+        private final double spikeRatio;
+        private final long spikeNanos;
+        private final double throttlingRatio;
+        private final int burstLength;
+        private final double serverErrorRatio;
+        private final double connectionResetRatio;
+        private final double truncatedBodyRatio;
+        private final double noContentRatio;
+
+
+        private Faults(Builder builder) {
+            this.minLatencyNanos = builder.minLatencyNanos;
+            this.maxLatencyNanos = builder.maxLatencyNanos;
+            this.spikeRatio = builder.spikeRatio;
+            this.spikeNanos = builder.spikeNanos;
+            this.throttlingRatio = builder.throttlingRatio;
+            this.burstLength = builder.burstLength;
+            this.serverErrorRatio = builder.serverErrorRatio;
+            this.connectionResetRatio = builder.connectionResetRatio;
+            this.truncatedBodyRatio = builder.truncatedBodyRatio;
+            this.noContentRatio = builder.noContentRatio;
+        }
+
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+
+        public static final class Builder {
+
+            private long minLatencyNanos;
+            private long maxLatencyNanos;
+            private double spikeRatio;
+            private long spikeNanos;
+            private double throttlingRatio;
+            private int burstLength = 1;
+            private double serverErrorRatio;
+            private double connectionResetRatio;
+            private double truncatedBodyRatio;
+            private double noContentRatio;
+
+
+            private Builder() {
+            }
+
+            /**
+             * @param min shortest latency added to every request
+             * @param max longest latency added to every request, drawn uniformly from min
+             * @return this builder
+             */
+            public Builder latency(Duration min, Duration max) {
+                if (min.isNegative() || max.compareTo(min) < 0) {
+                    throw new IllegalArgumentException("Latencies must be positive, with max >= min");
+                }
+
+                this.minLatencyNanos = min.toNanos();
+                this.maxLatencyNanos = max.toNanos();
+                return this;
+            }
+
+            /**
+             * @param ratio share of requests that get the spike on top of their latency
+             * @param spike latency added to those requests
+             * @return this builder
+             */
+            public Builder latencySpikes(double ratio, Duration spike) {
+                if (spike.isNegative()) {
+                    throw new IllegalArgumentException("spike must be positive");
+                }
+
+                this.spikeRatio = checkRatio(ratio);
+                this.spikeNanos = spike.toNanos();
+                return this;
+            }
+
+            /**
+             * @param ratio       share of requests that start a burst of 429 responses
+             * @param burstLength consecutive requests of the route answered 429 by a burst, including the first one
+             * @return this builder
+             */
+            public Builder throttlingBursts(double ratio, int burstLength) {
+                if (burstLength < 1) {
+                    throw new IllegalArgumentException("burstLength must be at least 1");
+                }
+
+                this.throttlingRatio = checkRatio(ratio);
+                this.burstLength = burstLength;
+                return this;
+            }
+
+
+            public Builder serverErrors(double ratio) {
+                this.serverErrorRatio = checkRatio(ratio);
+                return this;
+            }
+
+
+            public Builder connectionResets(double ratio) {
+                this.connectionResetRatio = checkRatio(ratio);
+                return this;
+            }
+
+
+            public Builder truncatedBodies(double ratio) {
+                this.truncatedBodyRatio = checkRatio(ratio);
+                return this;
+            }
+
+
+            public Builder unexpectedNoContent(double ratio) {
+                this.noContentRatio = checkRatio(ratio);
+                return this;
+            }
+
+
+            private static double checkRatio(double ratio) {
+                if (ratio < 0 || ratio > 1) {
+                    throw new IllegalArgumentException("Ratios must be between 0 and 1");
+                }
+
+                return ratio;
+            }
+
+
+            public Faults build() {
+                if (throttlingRatio + serverErrorRatio + connectionResetRatio + truncatedBodyRatio + noContentRatio > 1) {
+                    throw new IllegalArgumentException("Fault ratios must add up to at most 1");
+                }
+
+                return new Faults(this);
+            }
+        }
+    }
+
+
+    public static final class Builder {
+
+        private final Transport delegate;
+        private final Map<String, Faults> routeFaults = new HashMap<String, Faults>();
+        private long seed;
+        private Faults defaultFaults = Faults.NONE;
+
+
+        private Builder(Transport delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * @param seed seed of the generators drawing the faults, 0 unless set
+         * @return this builder
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @param faults faults of the routes that have none of their own
+         * @return this builder
+         */
+        public Builder defaultFaults(Faults faults) {
+            this.defaultFaults = faults;
+            return this;
+        }
+
+        /**
+         * @param resource resource of the route, e.g. <code>messages</code> or <code>account</code>, for any method
+         * @param faults   faults of the route
+         * @return this builder
+         */
+        public Builder route(String resource, Faults faults) {
+            routeFaults.put(resource, faults);
+            return this;
+        }
+
+        /**
+         * @param method   HTTP method of the route, which takes precedence over the faults set for any method
+         * @param resource resource of the route
+         * @param faults   faults of the route
+         * @return this builder
+         */
+        public Builder route(String method, String resource, Faults faults) {
+            routeFaults.put(method + " " + resource, faults);
+            return this;
+        }
+
+
+        public FaultInjectingTransport build() {
+            return new FaultInjectingTransport(this);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package net.vivialconnect.http;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Hedging of latency-critical reads: when a GET request has not been answered within a percentile of the recent
+ * latency of its route, a second request is sent and whichever response arrives first is kept. The other one is
+ * cancelled, or discarded as soon as it arrives if its transport cannot cancel it.
+ * <p>
+ * Hedging only cuts the tail latency. The median is unchanged, since a hedge is only sent for the slowest requests.
+ * The extra load is capped by a {@link RetryBudget}: by default one hedge for every ten requests, plus one per second.
+ * A route is only hedged once enough of its latencies have been observed.
+ * <pre>
+ * VivialConnectClient.setHedgePolicy(HedgePolicy.builder()
+ *         .resources("messages", "numbers", "account")
+ *         .percentile(95)
+ *         .build());
+ * </pre>
+ * Hedged requests are sent on the executor of the client, unless the transport is an {@link AsyncTransport}.
+ */
+public final class HedgePolicy {
+
+    private static final HedgePolicy NONE = new HedgePolicy(null);
+
+    private final boolean enabled;
+    private final Set<String> resources;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int minSamples;
+    private final RetryBudget budget;
+
+    private final ConcurrentMap<ApiRoute, LatencyWindow> latencies = new ConcurrentHashMap<ApiRoute, LatencyWindow>();
+
+
+    private HedgePolicy(Builder builder) {
+        this.enabled = builder != null;
+        this.resources = enabled ? Collections.unmodifiableSet(new HashSet<String>(builder.resources)) : Collections.<String>emptySet();
+        this.percentile = enabled ? builder.percentile : 0;
+        this.minDelayNanos = enabled ? builder.minDelayNanos : 0;
+        this.minSamples = enabled ? builder.minSamples : 0;
+        this.budget = enabled ? (builder.budget != null ? builder.budget : new RetryBudget(0.1, 1, 10)) : null;
+    }
+
+    /**
+     * @return a policy that never hedges
+     */
+    public static HedgePolicy none() {
+        return NONE;
+    }
+
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param route route of a request
+     * @return true if requests of the route are hedged
+     */
+    public boolean appliesTo(ApiRoute route) {
+        return enabled && "GET".equals(route.getMethod()) && (resources.isEmpty() || resources.contains(route.getResource()));
+    }
+
+    /**
+     * Records a new request in the hedge budget. Called once per hedged request.
+     */
+    public void onRequest() {
+        budget.recordRequest();
+    }
+
+    /**
+     * @param route route of a request
+     * @return nanoseconds after which a hedge is sent, or -1 while too few latencies were observed
+     */
+    public long getHedgeDelay(ApiRoute route) {
+        LatencyWindow window = latencies.get(route);
+        if (window == null || window.size() < minSamples) {
+            return -1;
+        }
+
+        return Math.max(minDelayNanos, window.percentile(percentile));
+    }
+
+    /**
+     * Records the time a request of the route took to be answered.
+     *
+     * @param route        route of the request
+     * @param latencyNanos time until the response headers arrived
+     */
+    public void recordLatency(ApiRoute route, long latencyNanos) {
+        LatencyWindow window = latencies.get(route);
+        if (window == null) {
+            window = latencies.computeIfAbsent(route, key -> new LatencyWindow());
+        }
+
+        window.record(latencyNanos);
+    }
+
+    /**
+     * Sends a request, and a hedge if it has not been answered within the hedge delay of its route.
+     *
+     * @param route     route of the request
+     * @param primary   starts the first attempt
+     * @param hedge     starts the hedge, returning null if it cannot be sent, e.g. because of a rate limit
+     * @param scheduler timer firing the hedge
+     * @return a future completed with the first response, or with the failure of every attempt
+     */
+    public CompletableFuture<HttpResponse> execute(ApiRoute route, Supplier<CompletableFuture<HttpResponse>> primary,
+                                                   Supplier<CompletableFuture<HttpResponse>> hedge, ScheduledExecutorService scheduler) {
+        Race race = new Race(route);
+        race.start(primary);
+
+        long delay = getHedgeDelay(route);
+        if (delay >= 0 && !race.result.isDone()) {
+            race.hedgeTimer = scheduler.schedule(() -> {
+                if (!race.result.isDone() && budget.tryAcquire()) {
+                    race.start(hedge);
+                }
+            }, delay, TimeUnit.NANOSECONDS);
+        }
+
+        race.result.whenComplete((response, failure) -> race.cancelLosers());
+
+        return race.result;
+    }
+
+    /**
+     * Attempts of a hedged request, racing to complete the result.
+     */
+    private final class Race {
+
+        private final ApiRoute route;
+        final CompletableFuture<HttpResponse> result = new CompletableFuture<HttpResponse>();
+
+        /* Guarded by this */
+        private final CompletableFuture<?>[] attempts = new CompletableFuture<?>[2];
+        private int started;
+        private int failed;
+        private Throwable firstFailure;
+        volatile ScheduledFuture<?> hedgeTimer;
+
+
+        private Race(ApiRoute route) {
+            this.route = route;
+        }
+
+
+        void start(Supplier<CompletableFuture<HttpResponse>> supplier) {
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse> attempt = supplier.get();
+            if (attempt == null) {
+                return;
+            }
+
+            synchronized (this) {
+                attempts[started++] = attempt;
+            }
+
+            attempt.whenComplete((response, failure) -> {
+                if (failure == null) {
+                    recordLatency(route, System.nanoTime() - start);
+                    if (!result.complete(response)) {
+                        closeQuietly(response);
+                    }
+                } else {
+                    onFailure(failure);
+                }
+            });
+        }
+
+
+        private void onFailure(Throwable failure) {
+            if (result.isDone()) {
+                return;
+            }
+
+            synchronized (this) {
+                failed++;
+                if (firstFailure == null) {
+                    firstFailure = failure;
+                } else if (firstFailure != failure) {
+                    firstFailure.addSuppressed(failure);
+                }
+
+                /* Wait for the other attempt, if the hedge was sent */
+                if (failed < started) {
+                    return;
+                }
+            }
+
+            result.completeExceptionally(firstFailure);
+        }
+
+
+        void cancelLosers() {
+            ScheduledFuture<?> timer = hedgeTimer;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+
+            CompletableFuture<?>[] losers;
+            synchronized (this) {
+                losers = Arrays.copyOf(attempts, started);
+            }
+
+            for (CompletableFuture<?> attempt : losers) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+
+    private static void closeQuietly(HttpResponse response) {
+        try {
+            response.close();
+        } catch (Exception e) {
+            /* The connection is discarded by the transport */
+        }
+    }
+
+    /**
+     * Most recent latencies of a route. Samples overwrite each other in a ring without locking, and the percentile is
+     * only sorted again every few samples.
+     */
+    private static final class LatencyWindow {
+
+        private static final int SIZE = 256;
+        private static final int REFRESH_INTERVAL = 16;
+
+        private final AtomicLongArray samples = new AtomicLongArray(SIZE);
+        private final AtomicInteger count = new AtomicInteger();
+
+        private volatile long cachedPercentile = -1;
+        private volatile double cachedFor;
+        private volatile int cachedAt;
+
+
+        void record(long latencyNanos) {
+            int index = count.getAndIncrement();
+            samples.set(index & (SIZE - 1), latencyNanos);
+        }
+
+
+        int size() {
+            return Math.min(SIZE, Math.max(0, count.get()));
+        }
+
+
+        long percentile(double percentile) {
+            int current = count.get();
+            long cached = cachedPercentile;
+            if (cached >= 0 && cachedFor == percentile && current - cachedAt < REFRESH_INTERVAL) {
+                return cached;
+            }
+
+            int size = size();
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+
+            long value = sorted[Math.min(size - 1, (int) Math.ceil(percentile / 100 * size) - 1)];
+            cachedFor = percentile;
+            cachedAt = current;
+            cachedPercentile = value;
+
+            return value;
+        }
+    }
+
+    /**
+     * Builds {@link HedgePolicy} instances. By default every GET request is hedged at the 95th percentile of its route,
+     * and no sooner than after 5 milliseconds, once 20 latencies were observed.
+     */
+    public static final class Builder {
+
+        private final Set<String> resources = new HashSet<String>();
+        private double percentile = 95;
+        private long minDelayNanos = TimeUnit.MILLISECONDS.toNanos(5);
+        private int minSamples = 20;
+        private RetryBudget budget;
+
+
+        private Builder() {
+        }
+
+        /**
+         * Restricts hedging to the GET requests of the given resources.
+         *
+         * @param resources resources, e.g. <code>messages</code>, <code>numbers</code> or <code>account</code>
+         * @return this builder
+         */
+        public Builder resources(String... resources) {
+            this.resources.addAll(Arrays.asList(resources));
+            return this;
+        }
+
+        /**
+         * @param percentile percentile of the recent latency after which a hedge is sent, between 0 and 100
+         * @return this builder
+         */
+        public Builder percentile(double percentile) {
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100");
+            }
+
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * @param minDelay shortest wait before sending a hedge
+         * @return this builder
+         */
+        public Builder minDelay(Duration minDelay) {
+            this.minDelayNanos = minDelay.toNanos();
+            return this;
+        }
+
+        /**
+         * @param minSamples latencies of a route to observe before hedging it
+         * @return this builder
+         */
+        public Builder minSamples(int minSamples) {
+            if (minSamples < 1) {
+                throw new IllegalArgumentException("At least one sample is needed");
+            }
+
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * @param budget budget capping the hedges across all requests
+         * @return this builder
+         */
+        public Builder budget(RetryBudget budget) {
+            this.budget = budget;
+            return this;
+        }
+
+
+        public HedgePolicy build() {
+            return new HedgePolicy(this);
+        }
+    }
+}
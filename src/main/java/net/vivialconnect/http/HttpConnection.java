@@ -0,0 +1,669 @@
+package net.vivialconnect.http;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * A persistent HTTP/1.1 connection owned by a {@link ConnectionPool}.
+ * <p>
+ * Requests are written and responses read directly on the socket. The response body stream gives the
+ * connection back to the pool once it has been read to the end or closed.
+ */
+final class HttpConnection implements Closeable {
+
+    private static final String CRLF = "\r\n";
+    private static final String HEADER_CHARSET = "ISO-8859-1";
+
+    /* Bytes we are willing to skip on close so that a partially read body does not cost a new connection */
+    private static final int MAX_DRAIN_BYTES = 64 * 1024;
+
+    private final Route route;
+    private final ConnectionPool pool;
+    private final Socket socket;
+    private final BufferedInputStream in;
+    private final OutputStream out;
+
+    private long lastUsedNanos;
+    private boolean reused;
+
+
+    private HttpConnection(Route route, ConnectionPool pool, Socket socket) throws IOException {
+        this.route = route;
+        this.pool = pool;
+        this.socket = socket;
+        this.in = new BufferedInputStream(socket.getInputStream(), 8192);
+        this.out = new BufferedOutputStream(socket.getOutputStream(), 8192);
+        this.lastUsedNanos = System.nanoTime();
+    }
+
+    /**
+     * Opens a new connection to the route, tunneling through an HTTP proxy and doing the TLS handshake when needed.
+     */
+    static HttpConnection open(Route route, ConnectionPool pool, int connectTimeout, int readTimeout,
+                               SSLSocketFactory sslSocketFactory) throws IOException {
+        Proxy proxy = route.getProxy();
+
+        Socket socket;
+        SocketAddress address;
+        if (proxy.type() == Proxy.Type.SOCKS) {
+            socket = new Socket(proxy);
+            address = InetSocketAddress.createUnresolved(route.getHost(), route.getPort());
+        } else if (proxy.type() == Proxy.Type.HTTP) {
+            socket = new Socket();
+            address = resolve((InetSocketAddress) proxy.address());
+        } else {
+            socket = new Socket();
+            address = new InetSocketAddress(route.getHost(), route.getPort());
+        }
+
+        boolean connected = false;
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.connect(address, connectTimeout);
+            socket.setSoTimeout(readTimeout);
+
+            if (route.isSecure()) {
+                if (route.usesHttpProxy()) {
+                    openTunnel(socket, route);
+                }
+
+                socket = startTls(socket, route, sslSocketFactory);
+            }
+
+            HttpConnection connection = new HttpConnection(route, pool, socket);
+            connected = true;
+
+            return connection;
+        } finally {
+            if (!connected) {
+                closeQuietly(socket);
+            }
+        }
+    }
+
+
+    private static InetSocketAddress resolve(InetSocketAddress address) {
+        if (address.isUnresolved()) {
+            return new InetSocketAddress(address.getHostString(), address.getPort());
+        }
+
+        return address;
+    }
+
+
+    private static void openTunnel(Socket socket, Route route) throws IOException {
+        OutputStream tunnelOut = socket.getOutputStream();
+        String connect = "CONNECT " + route.authority() + " HTTP/1.1" + CRLF +
+                "Host: " + route.authority() + CRLF + CRLF;
+        tunnelOut.write(connect.getBytes(HEADER_CHARSET));
+        tunnelOut.flush();
+
+        /* Read unbuffered, whatever follows the proxy response belongs to the TLS handshake */
+        InputStream tunnelIn = socket.getInputStream();
+        String statusLine = readLine(tunnelIn);
+        if (statusLine == null) {
+            throw new EOFException("Proxy closed the connection while opening a tunnel to " + route.authority());
+        }
+
+        int statusCode = parseStatusCode(statusLine);
+        String line;
+        while ((line = readLine(tunnelIn)) != null && !line.isEmpty()) {
+            /* Proxy response headers are not needed */
+        }
+
+        if (statusCode == 407) {
+            throw new ProxyAuthenticationRequiredException(String.format("Proxy requires authentication to tunnel to %s: %s",
+                    route.authority(), statusLine));
+        }
+
+        if (statusCode != 200) {
+            throw new IOException(String.format("Unable to tunnel through proxy to %s: %s", route.authority(), statusLine));
+        }
+    }
+
+
+    private static Socket startTls(Socket socket, Route route, SSLSocketFactory sslSocketFactory) throws IOException {
+        SSLSocket sslSocket = (SSLSocket) sslSocketFactory.createSocket(socket, route.getHost(), route.getPort(), true);
+
+        SSLParameters parameters = sslSocket.getSSLParameters();
+        parameters.setEndpointIdentificationAlgorithm("HTTPS");
+        sslSocket.setSSLParameters(parameters);
+        sslSocket.startHandshake();
+
+        return sslSocket;
+    }
+
+
+    Route getRoute() {
+        return route;
+    }
+
+
+    boolean isReused() {
+        return reused;
+    }
+
+
+    void markReused() {
+        this.reused = true;
+    }
+
+
+    void touch() {
+        this.lastUsedNanos = System.nanoTime();
+    }
+
+
+    long getIdleMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastUsedNanos);
+    }
+
+    /**
+     * Tells if the server closed this idle connection, by reading with a very short timeout.
+     * A live idle connection never has data to read, so the read is expected to time out.
+     */
+    boolean isStale() {
+        if (socket.isClosed() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+            return true;
+        }
+
+        int readTimeout = 0;
+        try {
+            readTimeout = socket.getSoTimeout();
+            socket.setSoTimeout(1);
+            in.read();
+
+            /* Either the end of the stream or unsolicited data, the connection can't be reused in both cases */
+            return true;
+        } catch (SocketTimeoutException e) {
+            return false;
+        } catch (IOException e) {
+            return true;
+        } finally {
+            try {
+                socket.setSoTimeout(readTimeout);
+            } catch (SocketException e) {
+                /* The connection will fail on its next use and be discarded */
+            }
+        }
+    }
+
+
+    void setReadTimeout(int readTimeout) throws IOException {
+        if (socket.getSoTimeout() != readTimeout) {
+            socket.setSoTimeout(readTimeout);
+        }
+    }
+
+
+    void sendRequest(HttpRequest request) throws IOException {
+        StringBuilder head = new StringBuilder(512);
+        head.append(request.getMethod()).append(' ').append(requestTarget(request.getUrl())).append(" HTTP/1.1").append(CRLF);
+
+        boolean hostSent = false;
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            if ("Content-Length".equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+
+            hostSent |= "Host".equalsIgnoreCase(header.getKey());
+            head.append(header.getKey()).append(": ").append(header.getValue()).append(CRLF);
+        }
+
+        if (!hostSent) {
+            head.append("Host: ").append(hostHeader()).append(CRLF);
+        }
+
+        byte[] body = request.getBody();
+        if (body != null || expectsBody(request.getMethod())) {
+            head.append("Content-Length: ").append(body == null ? 0 : body.length).append(CRLF);
+        }
+
+        head.append(CRLF);
+
+        out.write(head.toString().getBytes(HEADER_CHARSET));
+        if (body != null) {
+            out.write(body);
+        }
+
+        out.flush();
+    }
+
+
+    private String requestTarget(URL url) {
+        if (route.sendsAbsoluteUri()) {
+            return url.toExternalForm();
+        }
+
+        String file = url.getFile();
+        return file == null || file.isEmpty() ? "/" : file;
+    }
+
+
+    private String hostHeader() {
+        int defaultPort = route.isSecure() ? 443 : 80;
+        return route.getPort() == defaultPort ? route.getHost() : route.authority();
+    }
+
+
+    private static boolean expectsBody(String method) {
+        return "POST".equals(method) || "PUT".equals(method);
+    }
+
+    /**
+     * Reads the status line and headers of the response. The returned response streams its body from this connection.
+     */
+    HttpResponse readResponse(String requestMethod) throws IOException {
+        String statusLine;
+        int statusCode;
+        do {
+            statusLine = readLine(in);
+            if (statusLine == null) {
+                throw new EOFException("Connection to " + route + " closed before a response was received");
+            }
+
+            statusCode = parseStatusCode(statusLine);
+            if (statusCode / 100 == 1) {
+                readHeaders();
+            }
+        } while (statusCode / 100 == 1);
+
+        Map<String, List<String>> headers = readHeaders();
+        boolean keepAlive = isKeepAlive(statusLine, headers);
+
+        ResponseBody body;
+        if ("HEAD".equals(requestMethod) || statusCode == 204 || statusCode == 304) {
+            body = new FixedLengthBody(0, keepAlive);
+        } else if (headerContains(headers, "Transfer-Encoding", "chunked")) {
+            body = new ChunkedBody(keepAlive);
+        } else if (headers.containsKey("Content-Length")) {
+            body = new FixedLengthBody(parseContentLength(headers), keepAlive);
+        } else {
+            body = new UntilCloseBody();
+        }
+
+        body.releaseIfEmpty();
+        return new HttpResponse(statusCode, headers, body);
+    }
+
+
+    private static int parseStatusCode(String statusLine) throws IOException {
+        String[] parts = statusLine.split(" ", 3);
+        if (parts.length < 2 || !parts[0].startsWith("HTTP/")) {
+            throw new IOException("Invalid HTTP status line: " + statusLine);
+        }
+
+        try {
+            return Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid HTTP status line: " + statusLine);
+        }
+    }
+
+
+    private Map<String, List<String>> readHeaders() throws IOException {
+        Map<String, List<String>> headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int separator = line.indexOf(':');
+            if (separator <= 0) {
+                continue;
+            }
+
+            String name = line.substring(0, separator).trim();
+            String value = line.substring(separator + 1).trim();
+
+            List<String> values = headers.get(name);
+            if (values == null) {
+                values = new ArrayList<String>(1);
+                headers.put(name, values);
+            }
+
+            values.add(value);
+        }
+
+        if (line == null) {
+            throw new EOFException("Connection to " + route + " closed while reading response headers");
+        }
+
+        return headers;
+    }
+
+
+    private static boolean isKeepAlive(String statusLine, Map<String, List<String>> headers) {
+        if (headerContains(headers, "Connection", "close")) {
+            return false;
+        }
+
+        return statusLine.startsWith("HTTP/1.1") || headerContains(headers, "Connection", "keep-alive");
+    }
+
+
+    private static boolean headerContains(Map<String, List<String>> headers, String name, String token) {
+        List<String> values = headers.get(name);
+        if (values == null) {
+            return false;
+        }
+
+        for (String value : values) {
+            for (String element : value.split(",")) {
+                if (token.equalsIgnoreCase(element.trim())) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+
+    private static long parseContentLength(Map<String, List<String>> headers) throws IOException {
+        String contentLength = headers.get("Content-Length").get(0);
+        try {
+            return Long.parseLong(contentLength);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid Content-Length: " + contentLength);
+        }
+    }
+
+
+    private static String readLine(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+
+        int read;
+        while ((read = inputStream.read()) != -1) {
+            if (read == '\n') {
+                return trimCarriageReturn(line.toString(HEADER_CHARSET));
+            }
+
+            line.write(read);
+        }
+
+        return line.size() == 0 ? null : line.toString(HEADER_CHARSET);
+    }
+
+
+    private static String trimCarriageReturn(String line) {
+        return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+    }
+
+
+    @Override
+    public void close() {
+        closeQuietly(socket);
+    }
+
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            /* Nothing else to do with a connection being discarded */
+        }
+    }
+
+    /**
+     * Base class for the body streams. It gives the connection back to the pool exactly once, either when the
+     * body has been fully read or when the stream is closed.
+     */
+    private abstract class ResponseBody extends InputStream {
+
+        private final boolean keepAlive;
+        private boolean released;
+
+
+        ResponseBody(boolean keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+
+        abstract int readBody(byte[] buffer, int offset, int length) throws IOException;
+
+
+        abstract boolean isComplete();
+
+
+        void releaseIfEmpty() {
+            if (isComplete()) {
+                release(keepAlive);
+            }
+        }
+
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+
+            return read == -1 ? -1 : single[0] & 0xff;
+        }
+
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (released) {
+                return -1;
+            }
+
+            if (length == 0) {
+                return 0;
+            }
+
+            try {
+                int read = readBody(buffer, offset, length);
+                if (isComplete()) {
+                    release(keepAlive);
+                }
+
+                return read;
+            } catch (IOException e) {
+                release(false);
+                throw e;
+            }
+        }
+
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+
+            release(keepAlive && drain());
+        }
+
+
+        private boolean drain() {
+            byte[] skipBuffer = new byte[4096];
+            int skipped = 0;
+
+            try {
+                while (!isComplete() && skipped < MAX_DRAIN_BYTES) {
+                    int read = readBody(skipBuffer, 0, skipBuffer.length);
+                    if (read == -1) {
+                        break;
+                    }
+
+                    skipped += read;
+                }
+            } catch (IOException e) {
+                return false;
+            }
+
+            return isComplete();
+        }
+
+
+        private void release(boolean reusable) {
+            if (!released) {
+                released = true;
+                pool.release(HttpConnection.this, reusable);
+            }
+        }
+    }
+
+
+    private final class FixedLengthBody extends ResponseBody {
+
+        private long remaining;
+
+
+        FixedLengthBody(long contentLength, boolean keepAlive) {
+            super(keepAlive);
+            this.remaining = contentLength;
+        }
+
+
+        @Override
+        int readBody(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+
+            int read = in.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read == -1) {
+                throw new EOFException("Connection to " + route + " closed before the end of the response body");
+            }
+
+            remaining -= read;
+            return read;
+        }
+
+
+        @Override
+        boolean isComplete() {
+            return remaining == 0;
+        }
+
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+    }
+
+
+    private final class ChunkedBody extends ResponseBody {
+
+        private long chunkRemaining;
+        private boolean firstChunk = true;
+        private boolean complete;
+
+
+        ChunkedBody(boolean keepAlive) {
+            super(keepAlive);
+        }
+
+
+        @Override
+        int readBody(byte[] buffer, int offset, int length) throws IOException {
+            if (complete) {
+                return -1;
+            }
+
+            if (chunkRemaining == 0) {
+                nextChunk();
+                if (complete) {
+                    return -1;
+                }
+            }
+
+            int read = in.read(buffer, offset, (int) Math.min(length, chunkRemaining));
+            if (read == -1) {
+                throw new EOFException("Connection to " + route + " closed in the middle of a chunk");
+            }
+
+            chunkRemaining -= read;
+            return read;
+        }
+
+
+        private void nextChunk() throws IOException {
+            if (!firstChunk) {
+                readLine(in); /* CRLF closing the previous chunk */
+            }
+
+            firstChunk = false;
+
+            String sizeLine = readLine(in);
+            if (sizeLine == null) {
+                throw new EOFException("Connection to " + route + " closed before the last chunk");
+            }
+
+            int extension = sizeLine.indexOf(';');
+            String size = extension == -1 ? sizeLine.trim() : sizeLine.substring(0, extension).trim();
+
+            try {
+                chunkRemaining = Long.parseLong(size, 16);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid chunk size: " + sizeLine);
+            }
+
+            if (chunkRemaining == 0) {
+                String trailer;
+                while ((trailer = readLine(in)) != null && !trailer.isEmpty()) {
+                    /* Trailers are not used by the API */
+                }
+
+                complete = true;
+            }
+        }
+
+
+        @Override
+        boolean isComplete() {
+            return complete;
+        }
+    }
+
+
+    private final class UntilCloseBody extends ResponseBody {
+
+        private boolean complete;
+
+
+        UntilCloseBody() {
+            super(false);
+        }
+
+
+        @Override
+        int readBody(byte[] buffer, int offset, int length) throws IOException {
+            int read = in.read(buffer, offset, length);
+            if (read == -1) {
+                complete = true;
+            }
+
+            return read;
+        }
+
+
+        @Override
+        boolean isComplete() {
+            return complete;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package net.vivialconnect.http;
+
+import java.net.Proxy;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * An HTTP request ready to be sent by a {@link Transport}. The headers must already contain the
+ * authorization values, since transports send them as they are.
+ */
+public class HttpRequest {
+
+    private final String method;
+    private final URL url;
+    private final Map<String, String> headers;
+    private final byte[] body;
+    private final Proxy proxy;
+    private final int connectTimeout;
+    private final int readTimeout;
+
+
+    /**
+     * Creates a new request.
+     *
+     * @param method  HTTP method
+     * @param url     full request URL, including the query string
+     * @param headers request headers
+     * @param body    request payload, or null if the request has no body
+     */
+    public HttpRequest(String method, URL url, Map<String, String> headers, byte[] body) {
+        this(method, url, headers, body, null);
+    }
+
+    /**
+     * Creates a new request that goes through the given proxy.
+     *
+     * @param method  HTTP method
+     * @param url     full request URL, including the query string
+     * @param headers request headers
+     * @param body    request payload, or null if the request has no body
+     * @param proxy   proxy to connect through, or null to use the system proxy settings
+     */
+    public HttpRequest(String method, URL url, Map<String, String> headers, byte[] body, Proxy proxy) {
+        this(method, url, headers, body, proxy, 0, 0);
+    }
+
+
+    private HttpRequest(String method, URL url, Map<String, String> headers, byte[] body, Proxy proxy,
+                        int connectTimeout, int readTimeout) {
+        this.method = method;
+        this.url = url;
+        this.headers = headers == null ? Collections.<String, String>emptyMap() : headers;
+        this.body = body;
+        this.proxy = proxy;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Returns a copy of this request with its own timeouts. Transports apply the shorter of these and their own.
+     *
+     * @param connectTimeout timeout for opening a connection in milliseconds, 0 for the transport setting
+     * @param readTimeout    maximum time to wait for data from the server in milliseconds, 0 for the transport setting
+     * @return the request with the given timeouts
+     */
+    public HttpRequest withTimeouts(int connectTimeout, int readTimeout) {
+        return new HttpRequest(method, url, headers, body, proxy, connectTimeout, readTimeout);
+    }
+
+
+    public String getMethod() {
+        return method;
+    }
+
+
+    public URL getUrl() {
+        return url;
+    }
+
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+
+    public byte[] getBody() {
+        return body;
+    }
+
+
+    public Proxy getProxy() {
+        return proxy;
+    }
+
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+
+    public boolean hasBody() {
+        return body != null && body.length > 0;
+    }
+}
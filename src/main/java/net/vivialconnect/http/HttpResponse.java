@@ -0,0 +1,121 @@
+package net.vivialconnect.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Status, headers and body of a response returned by a {@link Transport}.
+ * <p>
+ * The body is read straight from the connection. Closing the response (or its body stream) gives the
+ * connection back to the transport.
+ */
+public class HttpResponse implements Closeable {
+
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final InputStream body;
+
+    private long connectNanos = -1;
+
+
+    /**
+     * Creates a new response.
+     *
+     * @param statusCode HTTP status code
+     * @param headers    response headers, looked up ignoring case
+     * @param body       body stream, or null if the response has no body
+     */
+    public HttpResponse(int statusCode, Map<String, List<String>> headers, InputStream body) {
+        this.statusCode = statusCode;
+        this.headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+        if (headers != null) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                /* HttpURLConnection reports the status line under a null key */
+                if (header.getKey() != null) {
+                    this.headers.put(header.getKey(), header.getValue());
+                }
+            }
+        }
+
+        this.body = body == null ? new ByteArrayInputStream(new byte[0]) : body;
+    }
+
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+
+    public Map<String, List<String>> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * First value of a header.
+     *
+     * @param name header name, case insensitive
+     * @return header value, or null if the header is not present
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+
+        return values.get(0);
+    }
+
+
+    public InputStream getBody() {
+        return body;
+    }
+
+    /**
+     * Reads the rest of the body and closes the response.
+     *
+     * @return the body
+     * @throws IOException if the body cannot be read
+     */
+    public byte[] readBody() throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+
+            return out.toByteArray();
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Time the transport spent acquiring the connection the request was sent on, including the wait for the pool and
+     * the handshakes of a new connection.
+     *
+     * @return the time in nanoseconds, -1 if the transport does not report it
+     */
+    public long getConnectNanos() {
+        return connectNanos;
+    }
+
+
+    void setConnectNanos(long connectNanos) {
+        this.connectNanos = connectNanos;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        body.close();
+    }
+}
@@ -0,0 +1,208 @@
+package net.vivialconnect.http;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RequestListener} that aggregates the calls of each route in memory: counts by status code and by exception
+ * type, bytes sent and received, and a {@link LatencyHistogram} for each phase of the calls. Routes are named by their
+ * method and template, e.g. <code>POST messages.json</code>.
+ * <pre>
+ * InMemoryMetrics metrics = new InMemoryMetrics();
+ * VivialConnectClient.setRequestListener(metrics);
+ * ...
+ * InMemoryMetrics.RouteMetrics sends = metrics.snapshot().get("POST messages.json");
+ * long p99 = sends.getTotal().getValueAtPercentile(99);
+ * </pre>
+ * Recording does not lock, so the metrics can be shared by every thread.
+ */
+public class InMemoryMetrics implements RequestListener {
+
+    private final ConcurrentHashMap<String, RouteRecorder> routes = new ConcurrentHashMap<String, RouteRecorder>();
+
+
+    @Override
+    public void onRequestCompleted(RequestEvent event) {
+        String key = event.getMethod() + " " + event.getRouteTemplate();
+
+        RouteRecorder recorder = routes.get(key);
+        if (recorder == null) {
+            recorder = routes.computeIfAbsent(key, name -> new RouteRecorder());
+        }
+
+        recorder.record(event);
+    }
+
+    /**
+     * Copies the metrics of every route.
+     *
+     * @return the metrics by route, sorted by name
+     */
+    public Map<String, RouteMetrics> snapshot() {
+        Map<String, RouteMetrics> snapshot = new TreeMap<String, RouteMetrics>();
+        for (Map.Entry<String, RouteRecorder> route : routes.entrySet()) {
+            snapshot.put(route.getKey(), route.getValue().snapshot());
+        }
+
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Forgets every call recorded so far.
+     */
+    public void reset() {
+        routes.clear();
+    }
+
+    /**
+     * Metrics of a route at a point in time. Durations are in nanoseconds.
+     */
+    public static final class RouteMetrics {
+
+        private final long calls;
+        private final Map<Integer, Long> statusCodes;
+        private final Map<String, Long> exceptions;
+        private final long requestBytes;
+        private final long responseBytes;
+        private final LatencyHistogram.Snapshot total;
+        private final LatencyHistogram.Snapshot queue;
+        private final LatencyHistogram.Snapshot sign;
+        private final LatencyHistogram.Snapshot connect;
+        private final LatencyHistogram.Snapshot timeToFirstByte;
+        private final LatencyHistogram.Snapshot parse;
+
+
+        private RouteMetrics(RouteRecorder recorder) {
+            this.calls = recorder.calls.sum();
+            this.statusCodes = Collections.unmodifiableMap(sum(recorder.statusCodes));
+            this.exceptions = Collections.unmodifiableMap(sum(recorder.exceptions));
+            this.requestBytes = recorder.requestBytes.sum();
+            this.responseBytes = recorder.responseBytes.sum();
+            this.total = recorder.total.snapshot();
+            this.queue = recorder.queue.snapshot();
+            this.sign = recorder.sign.snapshot();
+            this.connect = recorder.connect.snapshot();
+            this.timeToFirstByte = recorder.timeToFirstByte.snapshot();
+            this.parse = recorder.parse.snapshot();
+        }
+
+
+        private static <K> Map<K, Long> sum(Map<K, LongAdder> counters) {
+            Map<K, Long> sums = new TreeMap<K, Long>();
+            for (Map.Entry<K, LongAdder> counter : counters.entrySet()) {
+                sums.put(counter.getKey(), counter.getValue().sum());
+            }
+
+            return sums;
+        }
+
+
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * @return calls by status code of their last response, 0 for calls that received none
+         */
+        public Map<Integer, Long> getStatusCodes() {
+            return statusCodes;
+        }
+
+        /**
+         * @return failed calls by simple name of the exception class
+         */
+        public Map<String, Long> getExceptions() {
+            return exceptions;
+        }
+
+
+        public long getRequestBytes() {
+            return requestBytes;
+        }
+
+
+        public long getResponseBytes() {
+            return responseBytes;
+        }
+
+
+        public LatencyHistogram.Snapshot getTotal() {
+            return total;
+        }
+
+
+        public LatencyHistogram.Snapshot getQueue() {
+            return queue;
+        }
+
+
+        public LatencyHistogram.Snapshot getSign() {
+            return sign;
+        }
+
+
+        public LatencyHistogram.Snapshot getConnect() {
+            return connect;
+        }
+
+
+        public LatencyHistogram.Snapshot getTimeToFirstByte() {
+            return timeToFirstByte;
+        }
+
+
+        public LatencyHistogram.Snapshot getParse() {
+            return parse;
+        }
+
+
+        @Override
+        public String toString() {
+            return String.format("calls=%d statuses=%s exceptions=%s total=[%s]", calls, statusCodes, exceptions, total);
+        }
+    }
+
+
+    private static final class RouteRecorder {
+
+        final LongAdder calls = new LongAdder();
+        final ConcurrentHashMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<Integer, LongAdder>();
+        final ConcurrentHashMap<String, LongAdder> exceptions = new ConcurrentHashMap<String, LongAdder>();
+        final LongAdder requestBytes = new LongAdder();
+        final LongAdder responseBytes = new LongAdder();
+        final LatencyHistogram total = new LatencyHistogram();
+        final LatencyHistogram queue = new LatencyHistogram();
+        final LatencyHistogram sign = new LatencyHistogram();
+        final LatencyHistogram connect = new LatencyHistogram();
+        final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+        final LatencyHistogram parse = new LatencyHistogram();
+
+
+        void record(RequestEvent event) {
+            calls.increment();
+            statusCodes.computeIfAbsent(event.getStatusCode(), code -> new LongAdder()).increment();
+            if (event.getExceptionType() != null) {
+                exceptions.computeIfAbsent(event.getExceptionType().getSimpleName(), name -> new LongAdder()).increment();
+            }
+
+            requestBytes.add(event.getRequestBytes());
+            responseBytes.add(event.getResponseBytes());
+
+            /* Phases that were not measured are -1, which the histograms ignore */
+            total.record(event.getTotalNanos());
+            queue.record(event.getQueueNanos());
+            sign.record(event.getSignNanos());
+            connect.record(event.getConnectNanos());
+            timeToFirstByte.record(event.getTimeToFirstByteNanos());
+            parse.record(event.getParseNanos());
+        }
+
+
+        RouteMetrics snapshot() {
+            return new RouteMetrics(this);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package net.vivialconnect.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds, recorded without locks.
+ * <p>
+ * Like an HDR histogram, values are counted in buckets whose width grows with their magnitude: each power of two is
+ * split in {@value #SUB_BUCKETS} buckets, so a percentile is reported within about 3% of the recorded value whatever
+ * its scale, from nanoseconds to hours, in a fixed amount of memory. Recording is a few atomic increments, safe from
+ * any number of threads; {@link #snapshot()} copies the counts for reading.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * Records a duration. Negative values are ignored.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+
+        counts.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        sum.add(nanos);
+
+        long currentMin;
+        while (nanos < (currentMin = min.get()) && !min.compareAndSet(currentMin, nanos)) {
+            /* Lost to a concurrent update, read again */
+        }
+
+        long currentMax;
+        while (nanos > (currentMax = max.get()) && !max.compareAndSet(currentMax, nanos)) {
+            /* Lost to a concurrent update, read again */
+        }
+    }
+
+    /**
+     * Copies the recorded values. Values recorded while the copy is made may be partly included.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            bucketCounts[i] = counts.get(i);
+            total += bucketCounts[i];
+        }
+
+        return new Snapshot(bucketCounts, total, sum.sum(), total == 0 ? 0 : min.get(), max.get());
+    }
+
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * @return the largest value counted in a bucket
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Recorded values at a point in time.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long min;
+        private final long max;
+
+
+        private Snapshot(long[] counts, long count, long sum, long min, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the smallest value recorded in nanoseconds, 0 if none was
+         */
+        public long getMin() {
+            return min;
+        }
+
+        /**
+         * @return the largest value recorded in nanoseconds, 0 if none was
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * @return the mean of the values recorded in nanoseconds, 0 if none was
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Value under which the given share of the recorded values fall, rounded up to the bucket it is counted in
+         * and never beyond the largest value recorded.
+         *
+         * @param percentile percentile between 0 and 100
+         * @return the value at the percentile in nanoseconds, 0 if none was recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.max(min, Math.min(max, highestValueOf(i)));
+                }
+            }
+
+            return max;
+        }
+
+
+        @Override
+        public String toString() {
+            return String.format("count=%d p50=%.3fms p99=%.3fms max=%.3fms", count,
+                    toMillis(getValueAtPercentile(50)), toMillis(getValueAtPercentile(99)), toMillis(max));
+        }
+
+
+        private static double toMillis(long nanos) {
+            return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package net.vivialconnect.http;
+
+/**
+ * Listener returned by {@link RequestListener#none()}. No event is built while it is set.
+ */
+final class NoOpRequestListener implements RequestListener {
+
+    static final NoOpRequestListener INSTANCE = new NoOpRequestListener();
+
+
+    private NoOpRequestListener() {
+    }
+
+
+    @Override
+    public void onRequestCompleted(RequestEvent event) {
+    }
+}
@@ -0,0 +1,73 @@
+package net.vivialconnect.http;
+
+/**
+ * Point-in-time view of a {@link ConnectionPool}, either for a single route or for all of them.
+ */
+public class PoolStats {
+
+    private final int leased;
+    private final int idle;
+    private final int pending;
+    private final long created;
+    private final int max;
+
+
+    public PoolStats(int leased, int idle, int pending, long created, int max) {
+        this.leased = leased;
+        this.idle = idle;
+        this.pending = pending;
+        this.created = created;
+        this.max = max;
+    }
+
+    /**
+     * Connections currently in use by a request
+     *
+     * @return leased connection count
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * Open connections waiting to be reused
+     *
+     * @return idle connection count
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * Requests waiting for a connection because the route is at its limit
+     *
+     * @return pending request count
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * Connections opened since the pool was created, which is also the number of TCP and TLS handshakes done
+     *
+     * @return created connection count
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * Maximum number of connections allowed, summed over the routes for total stats
+     *
+     * @return connection limit
+     */
+    public int getMax() {
+        return max;
+    }
+
+
+    @Override
+    public String toString() {
+        return String.format("[leased: %d; idle: %d; pending: %d; created: %d; max: %d]", leased, idle, pending, created, max);
+    }
+}
@@ -0,0 +1,300 @@
+package net.vivialconnect.http;
+
+import java.io.IOException;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Default {@link Transport}. It speaks HTTP/1.1 over connections kept in a {@link ConnectionPool}, so
+ * consecutive requests to the API skip the TCP and TLS handshakes.
+ * <p>
+ * A request that fails on a reused connection before any response was read is sent again on another
+ * connection, as long as its method is idempotent: the server may have closed the connection while it was idle.
+ * <p>
+ * Requests through an HTTP proxy that answers 407 Proxy Authentication Required are sent through
+ * {@link UrlConnectionTransport} instead, from then on for every request to the same host through that proxy, so that
+ * the credentials of the default {@link java.net.Authenticator} are sent as before. Redirects are not followed: the
+ * API does not send any, and a redirected request would no longer match its signature.
+ */
+public class PooledTransport implements Transport {
+
+    private static final RequestTracer TRACER = RequestTracer.get();
+
+    private final ConnectionPool connectionPool;
+    private final SSLSocketFactory sslSocketFactory;
+
+    /* Routes whose proxy asked for credentials, and the transport that answers it */
+    private final Set<Route> authenticatingProxyRoutes = Collections.newSetFromMap(new ConcurrentHashMap<Route, Boolean>());
+    private final UrlConnectionTransport proxyAuthenticationTransport = new UrlConnectionTransport();
+
+    private volatile int connectTimeout;
+    private volatile int readTimeout;
+    private volatile long connectionRequestTimeout;
+
+    private final ConnectionPool.ConnectionFactory connectionFactory = new ConnectionPool.ConnectionFactory() {
+        @Override
+        public HttpConnection connect(Route route) throws IOException {
+            return HttpConnection.open(route, connectionPool, connectTimeout, readTimeout, sslSocketFactory);
+        }
+    };
+
+    /**
+     * Creates a transport with a default {@link ConnectionPool}.
+     */
+    public PooledTransport() {
+        this(new ConnectionPool());
+    }
+
+    /**
+     * Creates a transport that takes its connections from the given pool.
+     *
+     * @param connectionPool pool of connections
+     */
+    public PooledTransport(ConnectionPool connectionPool) {
+        this(connectionPool, HttpsURLConnection.getDefaultSSLSocketFactory());
+    }
+
+    /**
+     * Creates a transport that takes its connections from the given pool and opens TLS connections with the
+     * given socket factory.
+     *
+     * @param connectionPool   pool of connections
+     * @param sslSocketFactory factory used for HTTPS connections
+     */
+    public PooledTransport(ConnectionPool connectionPool, SSLSocketFactory sslSocketFactory) {
+        this.connectionPool = connectionPool;
+        this.sslSocketFactory = sslSocketFactory;
+    }
+
+
+    @Override
+    public HttpResponse execute(HttpRequest request) throws IOException {
+        Route route = Route.of(request.getUrl(), selectProxy(request));
+
+        final int requestConnectTimeout = shorterTimeout(connectTimeout, request.getConnectTimeout());
+        final int requestReadTimeout = shorterTimeout(readTimeout, request.getReadTimeout());
+
+        ConnectionPool.ConnectionFactory factory = connectionFactory;
+        long leaseTimeout = connectionRequestTimeout;
+        if (request.getConnectTimeout() > 0 || request.getReadTimeout() > 0) {
+            factory = new ConnectionPool.ConnectionFactory() {
+                @Override
+                public HttpConnection connect(Route route) throws IOException {
+                    return HttpConnection.open(route, connectionPool, requestConnectTimeout, requestReadTimeout, sslSocketFactory);
+                }
+            };
+            /* Waiting for a connection counts against the time allowed to connect */
+            leaseTimeout = shorterTimeout(connectionRequestTimeout, request.getConnectTimeout());
+        }
+
+        if (authenticatingProxyRoutes.contains(route)) {
+            return executeThroughAuthenticatingProxy(route, request, requestConnectTimeout, requestReadTimeout);
+        }
+
+        long connectNanos = 0;
+        while (true) {
+            long leaseStart = System.nanoTime();
+            RequestTracer.Span connect = TRACER.start(RequestTracer.Stage.CONNECT);
+            HttpConnection connection;
+            try {
+                connection = connectionPool.lease(route, leaseTimeout, factory);
+            } catch (ProxyAuthenticationRequiredException e) {
+                return executeThroughAuthenticatingProxy(route, request, requestConnectTimeout, requestReadTimeout);
+            } finally {
+                connect.end(request, 0);
+            }
+            connectNanos += System.nanoTime() - leaseStart;
+
+            try {
+                /* Reused connections keep the timeout of the request that last used them */
+                connection.setReadTimeout(requestReadTimeout);
+
+                RequestTracer.Span write = TRACER.start(RequestTracer.Stage.WRITE);
+                try {
+                    connection.sendRequest(request);
+                } finally {
+                    write.end(request, 0);
+                }
+
+                RequestTracer.Span read = TRACER.start(RequestTracer.Stage.READ);
+                HttpResponse response = null;
+                try {
+                    response = connection.readResponse(request.getMethod());
+                } finally {
+                    read.end(request, response == null ? 0 : response.getStatusCode());
+                }
+
+                if (response.getStatusCode() == 407 && route.usesHttpProxy()) {
+                    response.close();
+                    return executeThroughAuthenticatingProxy(route, request, requestConnectTimeout, requestReadTimeout);
+                }
+
+                response.setConnectNanos(connectNanos);
+                return response;
+            } catch (IOException e) {
+                connectionPool.release(connection, false);
+
+                if (!connection.isReused() || !isIdempotent(request.getMethod())) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Sends a request through {@link java.net.HttpURLConnection}, which answers the proxy with the credentials of the default
+     * {@link java.net.Authenticator}, and does so for the later requests to the route.
+     */
+    private HttpResponse executeThroughAuthenticatingProxy(Route route, HttpRequest request, int connectTimeout, int readTimeout)
+            throws IOException {
+        authenticatingProxyRoutes.add(route);
+
+        return proxyAuthenticationTransport.execute(request.withTimeouts(connectTimeout, readTimeout));
+    }
+
+
+    /**
+     * Opens connections to the host of a request ahead of the first requests, so that they skip the TCP and TLS
+     * handshakes. Idle connections count towards the number, and no more than the limit of the pool is opened. Stops
+     * without waiting if the pool has no room left for the host.
+     *
+     * @param request     request to the host, which is not sent
+     * @param connections number of connections wanted
+     * @return the number of connections opened
+     * @throws IOException if a connection cannot be opened
+     */
+    public int preconnect(HttpRequest request, int connections) throws IOException {
+        Route route = Route.of(request.getUrl(), selectProxy(request));
+        if (authenticatingProxyRoutes.contains(route)) {
+            return 0;
+        }
+
+        List<HttpConnection> leased = new ArrayList<HttpConnection>();
+
+        int opened = 0;
+        try {
+            for (int i = 0; i < Math.min(connections, connectionPool.getMaxPerRoute()); i++) {
+                HttpConnection connection = connectionPool.lease(route, 1, connectionFactory);
+                leased.add(connection);
+                if (!connection.isReused()) {
+                    opened++;
+                }
+            }
+        } catch (ConnectionPoolTimeoutException e) {
+            /* The pool is full with the requests in flight */
+        } catch (ProxyAuthenticationRequiredException e) {
+            /* Connections to the route are opened by HttpURLConnection */
+            authenticatingProxyRoutes.add(route);
+        } finally {
+            for (HttpConnection connection : leased) {
+                connectionPool.release(connection, true);
+            }
+        }
+
+        return opened;
+    }
+
+
+    private static Proxy selectProxy(HttpRequest request) throws IOException {
+        if (request.getProxy() != null) {
+            return request.getProxy();
+        }
+
+        /* Same lookup HttpURLConnection does, so proxies set through system properties are respected */
+        ProxySelector selector = ProxySelector.getDefault();
+        if (selector == null) {
+            return Proxy.NO_PROXY;
+        }
+
+        try {
+            URL url = request.getUrl();
+            List<Proxy> proxies = selector.select(url.toURI());
+
+            return proxies == null || proxies.isEmpty() ? Proxy.NO_PROXY : proxies.get(0);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+
+    /**
+     * @return the shorter of two timeouts, where 0 means no timeout
+     */
+    private static int shorterTimeout(long timeout, int otherTimeout) {
+        if (timeout <= 0) {
+            return otherTimeout;
+        }
+
+        return (int) (otherTimeout <= 0 ? timeout : Math.min(timeout, otherTimeout));
+    }
+
+
+    private static boolean isIdempotent(String method) {
+        return !"POST".equals(method);
+    }
+
+
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Sets the timeout for opening new connections, including the TLS handshake.
+     *
+     * @param connectTimeout timeout in milliseconds, 0 for no timeout
+     */
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Sets the maximum time to wait for data from the server.
+     *
+     * @param readTimeout timeout in milliseconds, 0 for no timeout
+     */
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+
+    public long getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    /**
+     * Sets the maximum time a request waits for a connection when every connection to the host is in use.
+     *
+     * @param connectionRequestTimeout timeout in milliseconds, 0 to wait indefinitely
+     * @see ConnectionPoolTimeoutException
+     */
+    public void setConnectionRequestTimeout(long connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+
+    @Override
+    public void close() {
+        connectionPool.close();
+        proxyAuthenticationTransport.close();
+    }
+}
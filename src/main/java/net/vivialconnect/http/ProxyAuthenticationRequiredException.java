@@ -0,0 +1,17 @@
+package net.vivialconnect.http;
+
+import java.io.IOException;
+
+/**
+ * Thrown when an HTTP proxy answers 407 Proxy Authentication Required to the <code>CONNECT</code> request of a
+ * tunnel.
+ */
+final class ProxyAuthenticationRequiredException extends IOException {
+
+    private static final long serialVersionUID = -3094711568530277410L;
+
+
+    ProxyAuthenticationRequiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,229 @@
+package net.vivialconnect.http;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Client-side rate limits, enforced before requests reach the transport so that bursts are smoothed out instead of
+ * being answered with 429 Too Many Requests.
+ * <p>
+ * Every {@link ApiRoute}, i.e. every account, HTTP method and resource, gets its own {@link TokenBucket}. Rates are
+ * configured per route class, optionally for a single account, with a default for the routes not configured:
+ * <pre>
+ * VivialConnectClient.setRateLimits(RateLimits.builder()
+ *         .limit("POST", "messages", 10, 20)
+ *         .limit("GET", "numbers", 5, 5)
+ *         .defaultLimit(20, 40)
+ *         .timeout(Duration.ofSeconds(2))
+ *         .build());
+ * </pre>
+ * When no permit is available, requests either wait for one, wait up to a timeout, or fail at once, depending on the
+ * mode. Requests that cannot get a permit fail with a <code>ClientRateLimitException</code>.
+ */
+public final class RateLimits {
+
+    private static final RateLimits NONE = builder().build();
+
+    /* Cached for routes without a limit, so that looking them up again does not go through the configuration */
+    private static final TokenBucket UNLIMITED = new TokenBucket(1, 1);
+
+    private static final String ANY_METHOD = "*";
+    private static final int ANY_ACCOUNT = -1;
+
+    private final Map<ApiRoute, Limit> limits;
+    private final Limit defaultLimit;
+    private final long maxWaitNanos;
+
+    private final ConcurrentMap<ApiRoute, TokenBucket> buckets = new ConcurrentHashMap<ApiRoute, TokenBucket>();
+
+
+    private RateLimits(Builder builder) {
+        this.limits = new HashMap<ApiRoute, Limit>(builder.limits);
+        this.defaultLimit = builder.defaultLimit;
+        this.maxWaitNanos = builder.maxWaitNanos;
+    }
+
+    /**
+     * @return limits that let every request through
+     */
+    public static RateLimits none() {
+        return NONE;
+    }
+
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Reserves a permit for a request, following the configured mode.
+     *
+     * @param route route of the request
+     * @return nanoseconds to wait before sending the request, or -1 if no permit can be had within the allowed time
+     */
+    public long reserve(ApiRoute route) {
+        return reserve(route, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reserves a permit for a request, waiting no longer than the configured mode nor the given time.
+     *
+     * @param route        route of the request
+     * @param maxWaitNanos longest wait the caller accepts, e.g. the time left before its deadline
+     * @return nanoseconds to wait before sending the request, or -1 if no permit can be had within the allowed time
+     */
+    public long reserve(ApiRoute route, long maxWaitNanos) {
+        TokenBucket bucket = getBucket(route);
+        if (bucket == UNLIMITED) {
+            return 0;
+        }
+
+        return bucket.reserve(Math.min(this.maxWaitNanos, maxWaitNanos));
+    }
+
+    /**
+     * @param route route of a request
+     * @return the bucket of the route, or null if the route is not limited
+     */
+    public TokenBucket getTokenBucket(ApiRoute route) {
+        TokenBucket bucket = getBucket(route);
+        return bucket == UNLIMITED ? null : bucket;
+    }
+
+
+    private TokenBucket getBucket(ApiRoute route) {
+        TokenBucket bucket = buckets.get(route);
+        if (bucket == null) {
+            Limit limit = findLimit(route);
+            bucket = buckets.computeIfAbsent(route, key -> limit == null ? UNLIMITED : new TokenBucket(limit.permitsPerSecond, limit.burst));
+        }
+
+        return bucket;
+    }
+
+
+    private Limit findLimit(ApiRoute route) {
+        Limit limit = limits.get(route);
+        if (limit == null) {
+            limit = limits.get(new ApiRoute(route.getAccountId(), ANY_METHOD, route.getResource()));
+        }
+        if (limit == null) {
+            limit = limits.get(new ApiRoute(ANY_ACCOUNT, route.getMethod(), route.getResource()));
+        }
+        if (limit == null) {
+            limit = limits.get(new ApiRoute(ANY_ACCOUNT, ANY_METHOD, route.getResource()));
+        }
+
+        return limit != null ? limit : defaultLimit;
+    }
+
+
+    private static final class Limit {
+
+        private final double permitsPerSecond;
+        private final int burst;
+
+
+        private Limit(double permitsPerSecond, int burst) {
+            /* Fail when configuring rather than on the first request */
+            new TokenBucket(permitsPerSecond, burst);
+
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+    }
+
+    /**
+     * Builds {@link RateLimits}. Unless changed, requests block until a permit is available.
+     */
+    public static final class Builder {
+
+        private final Map<ApiRoute, Limit> limits = new HashMap<ApiRoute, Limit>();
+        private Limit defaultLimit;
+        private long maxWaitNanos = Long.MAX_VALUE;
+
+
+        private Builder() {
+        }
+
+        /**
+         * Limits a route class on every account.
+         *
+         * @param method           HTTP method, or <code>*</code> for all of them
+         * @param resource         resource, e.g. <code>messages</code>, <code>numbers</code> or <code>account</code>
+         * @param permitsPerSecond requests per second
+         * @param burst            requests that can be sent at once after a quiet period
+         * @return this builder
+         */
+        public Builder limit(String method, String resource, double permitsPerSecond, int burst) {
+            return limit(ANY_ACCOUNT, method, resource, permitsPerSecond, burst);
+        }
+
+        /**
+         * Limits a route class on a single account, taking precedence over the limits for every account.
+         *
+         * @param accountId        account id
+         * @param method           HTTP method, or <code>*</code> for all of them
+         * @param resource         resource, e.g. <code>messages</code>
+         * @param permitsPerSecond requests per second
+         * @param burst            requests that can be sent at once after a quiet period
+         * @return this builder
+         */
+        public Builder limit(int accountId, String method, String resource, double permitsPerSecond, int burst) {
+            limits.put(new ApiRoute(accountId, method.toUpperCase(Locale.ROOT), resource), new Limit(permitsPerSecond, burst));
+            return this;
+        }
+
+        /**
+         * Limits every route that has no limit of its own. Each route still gets its own bucket.
+         *
+         * @param permitsPerSecond requests per second
+         * @param burst            requests that can be sent at once after a quiet period
+         * @return this builder
+         */
+        public Builder defaultLimit(double permitsPerSecond, int burst) {
+            this.defaultLimit = new Limit(permitsPerSecond, burst);
+            return this;
+        }
+
+        /**
+         * Requests wait as long as needed for a permit.
+         *
+         * @return this builder
+         */
+        public Builder blocking() {
+            this.maxWaitNanos = Long.MAX_VALUE;
+            return this;
+        }
+
+        /**
+         * Requests wait for a permit up to the given time, then fail.
+         *
+         * @param maxWait longest wait for a permit
+         * @return this builder
+         */
+        public Builder timeout(Duration maxWait) {
+            this.maxWaitNanos = maxWait.toNanos();
+            return this;
+        }
+
+        /**
+         * Requests fail at once when no permit is available.
+         *
+         * @return this builder
+         */
+        public Builder failFast() {
+            this.maxWaitNanos = 0;
+            return this;
+        }
+
+
+        public RateLimits build() {
+            return new RateLimits(this);
+        }
+    }
+}
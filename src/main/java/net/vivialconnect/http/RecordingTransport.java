@@ -0,0 +1,84 @@
+package net.vivialconnect.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link Transport} that records the requests it hands to another transport, and the responses to them, into a
+ * {@link TrafficArchive} file that a {@link ReplayTransport} can serve again.
+ * <pre>
+ * RecordingTransport recorder = new RecordingTransport(new PooledTransport(), Paths.get("traffic.vcta"));
+ * VivialConnectClient.setTransport(recorder);
+ * ...
+ * recorder.close();
+ * </pre>
+ * Response bodies are read whole before being handed back, so that their time is part of the recorded latency. The
+ * archive is only complete once the transport is closed.
+ */
+public final class RecordingTransport implements Transport {
+
+    private final Transport delegate;
+    private final TrafficArchive.Writer writer;
+
+
+    /**
+     * @param delegate transport that sends the requests
+     * @param archive  file the exchanges are written to, replaced if it exists
+     * @throws IOException if the file cannot be created
+     */
+    public RecordingTransport(Transport delegate, Path archive) throws IOException {
+        this.delegate = delegate;
+        this.writer = new TrafficArchive.Writer(archive);
+    }
+
+
+    @Override
+    public HttpResponse execute(HttpRequest request) throws IOException {
+        long start = System.nanoTime();
+        HttpResponse response = delegate.execute(request);
+        byte[] body = response.readBody();
+        long latency = System.nanoTime() - start;
+
+        Map<String, List<String>> responseHeaders = new LinkedHashMap<String, List<String>>();
+        for (Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+            responseHeaders.put(header.getKey(), new ArrayList<String>(header.getValue()));
+        }
+
+        URL url = request.getUrl();
+        writer.write(new TrafficArchive.Exchange(TrafficArchive.keyOf(request.getMethod(), url.getPath(), url.getQuery()),
+                stableHeaders(request.getHeaders()), request.hasBody() ? request.getBody() : new byte[0],
+                response.getStatusCode(), responseHeaders, body, latency));
+
+        return new HttpResponse(response.getStatusCode(), response.getHeaders(), new ByteArrayInputStream(body));
+    }
+
+
+    private static Map<String, String> stableHeaders(Map<String, String> headers) {
+        Map<String, String> stable = new LinkedHashMap<String, String>();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (!TrafficArchive.isVolatile(header.getKey())) {
+                stable.put(header.getKey(), header.getValue());
+            }
+        }
+
+        return stable;
+    }
+
+    /**
+     * Completes the archive and closes the delegate transport.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.close();
+        } finally {
+            delegate.close();
+        }
+    }
+}
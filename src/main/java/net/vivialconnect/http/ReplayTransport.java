@@ -0,0 +1,112 @@
+package net.vivialconnect.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link Transport} that answers requests with the responses of a {@link TrafficArchive}, without any network.
+ * <p>
+ * Requests are matched by method, path and query, whatever their signature, timestamp or account. Requests recorded
+ * several times get their responses in recorded order, starting over once all were served. A request that was never
+ * recorded fails with an {@link IOException}.
+ * <p>
+ * Each response is held back for its recorded latency multiplied by the time scale: 1 replays the recorded timing, 0.5
+ * twice as fast, and 0 serves every response at once.
+ */
+public final class ReplayTransport implements Transport {
+
+    private final Map<String, Replay> replays = new HashMap<String, Replay>();
+    private final double timeScale;
+
+
+    /**
+     * Creates a transport that serves the responses at once.
+     *
+     * @param archive recorded exchanges
+     */
+    public ReplayTransport(TrafficArchive archive) {
+        this(archive, 0);
+    }
+
+    /**
+     * @param archive   recorded exchanges
+     * @param timeScale factor applied to the recorded latencies
+     */
+    public ReplayTransport(TrafficArchive archive, double timeScale) {
+        if (timeScale < 0) {
+            throw new IllegalArgumentException("timeScale must be positive");
+        }
+
+        this.timeScale = timeScale;
+
+        Map<String, List<TrafficArchive.Exchange>> byKey = new HashMap<String, List<TrafficArchive.Exchange>>();
+        for (TrafficArchive.Exchange exchange : archive.getExchanges()) {
+            List<TrafficArchive.Exchange> exchanges = byKey.get(exchange.getKey());
+            if (exchanges == null) {
+                exchanges = new ArrayList<TrafficArchive.Exchange>();
+                byKey.put(exchange.getKey(), exchanges);
+            }
+            exchanges.add(exchange);
+        }
+
+        for (Map.Entry<String, List<TrafficArchive.Exchange>> entry : byKey.entrySet()) {
+            replays.put(entry.getKey(), new Replay(entry.getValue()));
+        }
+    }
+
+
+    @Override
+    public HttpResponse execute(HttpRequest request) throws IOException {
+        URL url = request.getUrl();
+        String key = TrafficArchive.keyOf(request.getMethod(), url.getPath(), url.getQuery());
+
+        Replay replay = replays.get(key);
+        if (replay == null) {
+            throw new IOException("No recorded response for " + key);
+        }
+
+        TrafficArchive.Exchange exchange = replay.next();
+        long delay = (long) (exchange.getLatencyNanos() * timeScale);
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while replaying " + key);
+            }
+        }
+
+        return new HttpResponse(exchange.getStatusCode(), exchange.getResponseHeaders(),
+                new ByteArrayInputStream(exchange.responseBody()));
+    }
+
+
+    @Override
+    public void close() {
+    }
+
+
+    private static final class Replay {
+
+        private final List<TrafficArchive.Exchange> exchanges;
+        private final AtomicInteger served = new AtomicInteger();
+
+
+        private Replay(List<TrafficArchive.Exchange> exchanges) {
+            this.exchanges = exchanges;
+        }
+
+
+        TrafficArchive.Exchange next() {
+            return exchanges.get((served.getAndIncrement() & Integer.MAX_VALUE) % exchanges.size());
+        }
+    }
+}
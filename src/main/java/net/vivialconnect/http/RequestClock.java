@@ -0,0 +1,124 @@
+package net.vivialconnect.http;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Source of the timestamps that go into every signed request: the ISO-8601 <code>X-Auth-Date</code> value and the
+ * RFC-1123 <code>Date</code> header.
+ * <p>
+ * Both have a resolution of one second, so they are formatted once per second and the same strings are handed to
+ * every request made within it. The clock is thread-safe.
+ * <p>
+ * If the local clock drifts from the API servers, requests are rejected as expired. A clock skew, in milliseconds,
+ * can be set to correct the timestamps:
+ * <pre>
+ * VivialConnectClient.getRequestClock().setClockSkew(-1500);
+ * </pre>
+ */
+public final class RequestClock{
+
+    private static final DateTimeFormatter ISO_8601 = DateTimeFormatter
+            .ofPattern("uuuuMMdd'T'HHmmss'Z'", Locale.US)
+            .withZone(ZoneOffset.UTC);
+
+    private static final DateTimeFormatter RFC_1123 = DateTimeFormatter
+            .ofPattern("EEE, dd MMM uuuu HH:mm:ss 'GMT'", Locale.US)
+            .withZone(ZoneOffset.UTC);
+
+    private final Clock clock;
+
+    private volatile long clockSkew;
+    private volatile Stamp current = new Stamp(Long.MIN_VALUE, null, null);
+
+
+    public RequestClock(){
+        this(Clock.systemUTC());
+    }
+
+
+    public RequestClock(Clock clock){
+        this.clock = clock;
+    }
+
+    /**
+     * @return timestamps for the current second, corrected by the clock skew
+     */
+    public Stamp now(){
+        long epochSecond = Math.floorDiv(clock.millis() + clockSkew, 1000L);
+
+        Stamp stamp = current;
+        if (stamp.epochSecond != epochSecond){
+            /* Threads racing at a second boundary format the same strings, whichever is kept does not matter */
+            Instant instant = Instant.ofEpochSecond(epochSecond);
+            stamp = new Stamp(epochSecond, ISO_8601.format(instant), RFC_1123.format(instant));
+            current = stamp;
+        }
+
+        return stamp;
+    }
+
+
+    public long getClockSkew(){
+        return clockSkew;
+    }
+
+    /**
+     * Sets the offset added to the local clock.
+     *
+     * @param clockSkew milliseconds to add to the local time, negative if the local clock is ahead
+     */
+    public void setClockSkew(long clockSkew){
+        this.clockSkew = clockSkew;
+    }
+
+    /**
+     * Formats a date like the <code>X-Auth-Date</code> header, e.g. <code>20170705T224613Z</code>.
+     *
+     * @param date date to format
+     * @return the ISO-8601 basic format of the date in UTC
+     */
+    public static String formatTimestamp(Date date){
+        return ISO_8601.format(date.toInstant());
+    }
+
+    /**
+     * Timestamps of one second.
+     */
+    public static final class Stamp{
+
+        private final long epochSecond;
+        private final String timestamp;
+        private final String date;
+
+
+        private Stamp(long epochSecond, String timestamp, String date){
+            this.epochSecond = epochSecond;
+            this.timestamp = timestamp;
+            this.date = date;
+        }
+
+
+        public long getEpochSecond(){
+            return epochSecond;
+        }
+
+        /**
+         * @return the <code>X-Auth-Date</code> value, e.g. <code>20170705T224613Z</code>
+         */
+        public String getTimestamp(){
+            return timestamp;
+        }
+
+        /**
+         * @return the <code>Date</code> header value, e.g. <code>Wed, 05 Jul 2017 22:46:13 GMT</code>
+         */
+        public String getDate(){
+            return date;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package net.vivialconnect.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalescing of identical concurrent GET requests: the first caller sends the request, and the callers asking for the
+ * same URL and query with the same credentials while it is in flight wait for its response instead of sending their
+ * own. The request is forgotten as soon as its response arrives, so nothing is ever served from it afterwards.
+ * <pre>
+ * VivialConnectClient.setRequestCoalescer(RequestCoalescer.create());
+ * </pre>
+ * Followers skip the rate limits, the concurrency limit and the retries: they wait for the leader, no longer than
+ * their own deadline. If the leader runs out of its own deadline, or its asynchronous call is cancelled, its followers
+ * send the request again, coalesced among themselves, under theirs. Asynchronous followers wait without holding a
+ * thread.
+ * <p>
+ * Each caller parses the response on its own, so that callers never share model objects, and gets its own exception
+ * for an error status. Failures without a response, such as a connection error once the retries ran out, are thrown
+ * to every caller.
+ * <p>
+ * A POST, PUT or DELETE sent by the client on a resource detaches the reads of that resource and account in flight,
+ * so that reads started after the change never get a response sent before it.
+ */
+public final class RequestCoalescer {
+
+    private static final RequestCoalescer NONE = new RequestCoalescer(false);
+
+    private final boolean enabled;
+    private final ConcurrentMap<String, Pending> inFlight = new ConcurrentHashMap<String, Pending>();
+    private final LongAdder coalesced = new LongAdder();
+
+
+    private RequestCoalescer(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return a coalescer that lets every request through
+     */
+    public static RequestCoalescer none() {
+        return NONE;
+    }
+
+    /**
+     * @return a new coalescer of identical GET requests
+     */
+    public static RequestCoalescer create() {
+        return new RequestCoalescer(true);
+    }
+
+    /**
+     * Key of a request.
+     *
+     * @param apiKey API key the request is signed with
+     * @param url    request URL, including the query
+     * @return the key of the request
+     */
+    public static String keyOf(String apiKey, String url) {
+        return apiKey + ' ' + url;
+    }
+
+    /**
+     * Joins the identical request in flight, or becomes the one that sends it.
+     *
+     * @param route route of the request
+     * @param key   key of the request
+     * @return the flight of the request, or null if the request is not coalesced
+     */
+    public Flight join(ApiRoute route, String key) {
+        if (!enabled || !"GET".equals(route.getMethod())) {
+            return null;
+        }
+
+        Pending created = new Pending(route, key);
+        Pending pending = inFlight.putIfAbsent(key, created);
+        if (pending != null) {
+            coalesced.increment();
+            return new Flight(this, pending, false);
+        }
+
+        return new Flight(this, created, true);
+    }
+
+    /**
+     * Detaches the reads in flight of the resource and account of a route, so that later reads send their own
+     * request. Called after any request that changes a resource.
+     *
+     * @param route route of the request
+     */
+    public void forget(ApiRoute route) {
+        if (!enabled || inFlight.isEmpty()) {
+            return;
+        }
+
+        ApiRoute reads = new ApiRoute(route.getAccountId(), "GET", route.getResource());
+        Iterator<Pending> pending = inFlight.values().iterator();
+        while (pending.hasNext()) {
+            if (pending.next().route.equals(reads)) {
+                pending.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the number of requests that waited for an identical one instead of being sent
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return the number of distinct requests in flight
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * The part a caller takes in a coalesced request: either it leads and sends the request, or it follows and waits
+     * for the response of the leader.
+     */
+    public static final class Flight {
+
+        private final RequestCoalescer coalescer;
+        private final Pending pending;
+        private final boolean leader;
+
+
+        private Flight(RequestCoalescer coalescer, Pending pending, boolean leader) {
+            this.coalescer = coalescer;
+            this.pending = pending;
+            this.leader = leader;
+        }
+
+        /**
+         * @return whether this caller sends the request
+         */
+        public boolean isLeader() {
+            return leader;
+        }
+
+        /**
+         * Hands the response over to the followers. Called by the leader, which reads the response from the returned
+         * copy.
+         *
+         * @param request  request that was sent
+         * @param response its response, read whole and closed
+         * @return a copy of the response
+         * @throws IOException if the response body cannot be read, which is also thrown to the followers
+         */
+        public HttpResponse complete(HttpRequest request, HttpResponse response) throws IOException {
+            byte[] body;
+            try {
+                body = response.readBody();
+            } catch (IOException e) {
+                fail(e);
+                throw e;
+            }
+
+            coalescer.inFlight.remove(pending.key, pending);
+            pending.response.complete(new SharedResponse(request, response.getStatusCode(), response.getHeaders(), body));
+
+            return new HttpResponse(response.getStatusCode(), response.getHeaders(), new ByteArrayInputStream(body));
+        }
+
+        /**
+         * Fails the followers with the failure of the leader, unless the response was already handed over.
+         *
+         * @param failure why the leader did not get a response
+         */
+        public void fail(Throwable failure) {
+            coalescer.inFlight.remove(pending.key, pending);
+            pending.response.completeExceptionally(failure);
+        }
+
+        /**
+         * Waits for the response of the leader. Called by the followers.
+         *
+         * @param timeoutNanos longest time to wait
+         * @return the response of the leader
+         * @throws InterruptedException if interrupted while waiting
+         * @throws TimeoutException     if the response did not arrive in time
+         * @throws ExecutionException   with the failure of the leader, if it did not get a response
+         */
+        public SharedResponse await(long timeoutNanos) throws InterruptedException, TimeoutException, ExecutionException {
+            return pending.response.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Response of the leader, for the followers that do not wait on a thread. Completing or cancelling the returned
+         * stage leaves the other followers unaffected.
+         *
+         * @return a stage completed with the response of the leader, or with its failure
+         */
+        public CompletionStage<SharedResponse> responseAsync() {
+            return pending.response.thenApply(response -> response);
+        }
+    }
+
+    /**
+     * A response handed over by the leader of a coalesced request.
+     */
+    public static final class SharedResponse {
+
+        private final HttpRequest request;
+        private final int statusCode;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+
+
+        private SharedResponse(HttpRequest request, int statusCode, Map<String, List<String>> headers, byte[] body) {
+            this.request = request;
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        /**
+         * @return the request the leader sent
+         */
+        public HttpRequest getRequest() {
+            return request;
+        }
+
+        /**
+         * @return a copy of the response, to be read by one caller
+         */
+        public HttpResponse newResponse() {
+            return new HttpResponse(statusCode, headers, new ByteArrayInputStream(body));
+        }
+    }
+
+
+    private static final class Pending {
+
+        final ApiRoute route;
+        final String key;
+        final CompletableFuture<SharedResponse> response = new CompletableFuture<SharedResponse>();
+
+
+        Pending(ApiRoute route, String key) {
+            this.route = route;
+            this.key = key;
+        }
+    }
+}
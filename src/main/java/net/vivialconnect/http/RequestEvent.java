@@ -0,0 +1,259 @@
+package net.vivialconnect.http;
+
+/**
+ * Measurements of one call to the API, reported to the {@link RequestListener} once the call completed, retries and
+ * hedges included.
+ * <p>
+ * The durations split the time spent by the client from the time spent waiting for the API:
+ * <ul>
+ * <li>queue: from the call until its first attempt is signed, waiting for the executor, the concurrency limit and
+ * the rate limit</li>
+ * <li>sign: building and signing the requests, summed over the attempts</li>
+ * <li>connect: taking a connection from the pool for the last attempt, opening it if needed</li>
+ * <li>time to first byte: from sending the last attempt until its status and headers were read</li>
+ * <li>parse: reading the response body and mapping it to objects</li>
+ * </ul>
+ * Durations that were not measured, such as the connect time of transports that do not report it, are -1.
+ */
+public final class RequestEvent {
+
+    private final String method;
+    private final String routeTemplate;
+    private final ApiRoute route;
+    private final int statusCode;
+    private final Class<? extends Throwable> exceptionType;
+    private final int attempts;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final long queueNanos;
+    private final long signNanos;
+    private final long connectNanos;
+    private final long timeToFirstByteNanos;
+    private final long parseNanos;
+    private final long totalNanos;
+
+
+    private RequestEvent(Builder builder) {
+        this.method = builder.method;
+        this.routeTemplate = builder.routeTemplate;
+        this.route = builder.route;
+        this.statusCode = builder.statusCode;
+        this.exceptionType = builder.exceptionType;
+        this.attempts = builder.attempts;
+        this.requestBytes = builder.requestBytes;
+        this.responseBytes = builder.responseBytes;
+        this.queueNanos = builder.queueNanos;
+        this.signNanos = builder.signNanos;
+        this.connectNanos = builder.connectNanos;
+        this.timeToFirstByteNanos = builder.timeToFirstByteNanos;
+        this.parseNanos = builder.parseNanos;
+        this.totalNanos = builder.totalNanos;
+    }
+
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the path of the request relative to its account, e.g. <code>messages/{id}.json</code>
+     * @see ApiRoute#templateOf(String)
+     */
+    public String getRouteTemplate() {
+        return routeTemplate;
+    }
+
+
+    public ApiRoute getRoute() {
+        return route;
+    }
+
+    /**
+     * @return the status of the last response, 0 if none was received
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return the class of the exception the call failed with, null if it succeeded
+     */
+    public Class<? extends Throwable> getExceptionType() {
+        return exceptionType;
+    }
+
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return bytes of request body sent, summed over the attempts
+     */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * @return bytes of response body read
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+
+    public long getQueueNanos() {
+        return queueNanos;
+    }
+
+
+    public long getSignNanos() {
+        return signNanos;
+    }
+
+
+    public long getConnectNanos() {
+        return connectNanos;
+    }
+
+
+    public long getTimeToFirstByteNanos() {
+        return timeToFirstByteNanos;
+    }
+
+
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+
+    @Override
+    public String toString() {
+        return String.format("%s %s status=%d exception=%s attempts=%d total=%dns", method, routeTemplate, statusCode,
+                exceptionType == null ? null : exceptionType.getSimpleName(), attempts, totalNanos);
+    }
+
+    /**
+     * Builds {@link RequestEvent}s. Durations default to -1, for not measured.
+     */
+    public static final class Builder {
+
+        private String method;
+        private String routeTemplate;
+        private ApiRoute route;
+        private int statusCode;
+        private Class<? extends Throwable> exceptionType;
+        private int attempts;
+        private long requestBytes;
+        private long responseBytes;
+        private long queueNanos = -1;
+        private long signNanos = -1;
+        private long connectNanos = -1;
+        private long timeToFirstByteNanos = -1;
+        private long parseNanos = -1;
+        private long totalNanos = -1;
+
+
+        private Builder() {
+        }
+
+
+        public Builder method(String method) {
+            this.method = method;
+            return this;
+        }
+
+
+        public Builder routeTemplate(String routeTemplate) {
+            this.routeTemplate = routeTemplate;
+            return this;
+        }
+
+
+        public Builder route(ApiRoute route) {
+            this.route = route;
+            return this;
+        }
+
+
+        public Builder statusCode(int statusCode) {
+            this.statusCode = statusCode;
+            return this;
+        }
+
+
+        public Builder exceptionType(Class<? extends Throwable> exceptionType) {
+            this.exceptionType = exceptionType;
+            return this;
+        }
+
+
+        public Builder attempts(int attempts) {
+            this.attempts = attempts;
+            return this;
+        }
+
+
+        public Builder requestBytes(long requestBytes) {
+            this.requestBytes = requestBytes;
+            return this;
+        }
+
+
+        public Builder responseBytes(long responseBytes) {
+            this.responseBytes = responseBytes;
+            return this;
+        }
+
+
+        public Builder queueNanos(long queueNanos) {
+            this.queueNanos = queueNanos;
+            return this;
+        }
+
+
+        public Builder signNanos(long signNanos) {
+            this.signNanos = signNanos;
+            return this;
+        }
+
+
+        public Builder connectNanos(long connectNanos) {
+            this.connectNanos = connectNanos;
+            return this;
+        }
+
+
+        public Builder timeToFirstByteNanos(long timeToFirstByteNanos) {
+            this.timeToFirstByteNanos = timeToFirstByteNanos;
+            return this;
+        }
+
+
+        public Builder parseNanos(long parseNanos) {
+            this.parseNanos = parseNanos;
+            return this;
+        }
+
+
+        public Builder totalNanos(long totalNanos) {
+            this.totalNanos = totalNanos;
+            return this;
+        }
+
+
+        public RequestEvent build() {
+            return new RequestEvent(this);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package net.vivialconnect.http;
+
+/**
+ * Receives the measurements of every call made by a client, for instance to feed a metrics library:
+ * <pre>
+ * InMemoryMetrics metrics = new InMemoryMetrics();
+ * VivialConnectClient.setRequestListener(metrics);
+ * </pre>
+ * Listeners are called on the thread that completed the call, after its result was decided, so they must be
+ * thread-safe and fast. Exceptions they throw are ignored.
+ */
+public interface RequestListener {
+
+    /**
+     * @param event measurements of a completed call
+     */
+    void onRequestCompleted(RequestEvent event);
+
+    /**
+     * @return a listener that ignores every call, which is the default
+     */
+    static RequestListener none() {
+        return NoOpRequestListener.INSTANCE;
+    }
+}
@@ -0,0 +1,222 @@
+package net.vivialconnect.http;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options bounding the time spent on API calls.
+ * <p>
+ * The total timeout is a deadline shared by every request made while the options are applied, whatever the resource
+ * method: each attempt, the delays between retries, the waits for rate limits and concurrency slots, and the pages
+ * fetched one after the other all spend from the same budget. The connect and read timeouts of each request are
+ * derived from what remains of it, so a stalled socket cannot hold a thread past the deadline:
+ * <pre>
+ * RequestOptions options = RequestOptions.builder().timeout(Duration.ofSeconds(5)).build();
+ *
+ * try (RequestOptions.Scope scope = options.apply()) {
+ *     Connector connector = Connector.getConnectorById(42);
+ *     connector.nextPage();
+ * }
+ * </pre>
+ * Options apply to the calling thread, including the asynchronous operations started from it, until the scope is
+ * closed. Scopes can be nested, in which case the earlier deadline wins. Requests made once the deadline passed fail
+ * with a <code>DeadlineExceededException</code>.
+ */
+public final class RequestOptions {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<Scope>();
+
+    private final long timeoutNanos;
+    private final int maxConnectTimeout;
+    private final int maxReadTimeout;
+
+
+    private RequestOptions(Builder builder) {
+        this.timeoutNanos = builder.timeoutNanos;
+        this.maxConnectTimeout = builder.maxConnectTimeout;
+        this.maxReadTimeout = builder.maxReadTimeout;
+    }
+
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts the deadline and applies these options to the requests made on this thread until the scope is closed.
+     *
+     * @return the scope, to close once the calls are done
+     */
+    public Scope apply() {
+        long deadline = timeoutNanos > 0 ? System.nanoTime() + timeoutNanos : 0;
+
+        Scope enclosing = CURRENT.get();
+        if (enclosing != null && enclosing.deadline != 0 && (deadline == 0 || enclosing.deadline - deadline < 0)) {
+            deadline = enclosing.deadline;
+        }
+
+        return new Scope(this, deadline).open();
+    }
+
+    /**
+     * @return the options applied to the requests made on this thread, or null if there are none
+     */
+    public static Scope current() {
+        return CURRENT.get();
+    }
+
+
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    /**
+     * Options in effect, with the deadline they started.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final RequestOptions options;
+        private final long deadline;
+        private Scope previous;
+
+
+        private Scope(RequestOptions options, long deadline) {
+            this.options = options;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Applies the same options and deadline on the current thread, e.g. on the thread running an asynchronous
+         * request.
+         *
+         * @return a scope to close on this thread
+         */
+        public Scope enter() {
+            return new Scope(options, deadline).open();
+        }
+
+
+        private Scope open() {
+            previous = CURRENT.get();
+            CURRENT.set(this);
+
+            return this;
+        }
+
+        /**
+         * @return true if there is a deadline
+         */
+        public boolean hasDeadline() {
+            return deadline != 0;
+        }
+
+        /**
+         * @return nanoseconds left before the deadline, {@link Long#MAX_VALUE} without one, 0 once it passed
+         */
+        public long remainingNanos() {
+            if (deadline == 0) {
+                return Long.MAX_VALUE;
+            }
+
+            return Math.max(0, deadline - System.nanoTime());
+        }
+
+
+        public boolean isExpired() {
+            return remainingNanos() == 0;
+        }
+
+        /**
+         * @return the connect timeout of the next request in milliseconds, 0 for no timeout
+         */
+        public int getConnectTimeout() {
+            return timeoutMillis(options.maxConnectTimeout);
+        }
+
+        /**
+         * @return the read timeout of the next request in milliseconds, 0 for no timeout
+         */
+        public int getReadTimeout() {
+            return timeoutMillis(options.maxReadTimeout);
+        }
+
+
+        private int timeoutMillis(int max) {
+            if (deadline == 0) {
+                return max;
+            }
+
+            /* Rounded up, since 0 would disable the timeout */
+            long remaining = Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos() + 999999));
+            if (max > 0 && max < remaining) {
+                return max;
+            }
+
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+
+        /**
+         * Restores the options that were in effect before this scope.
+         */
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds {@link RequestOptions}. Nothing is bounded by default.
+     */
+    public static final class Builder {
+
+        private long timeoutNanos;
+        private int maxConnectTimeout;
+        private int maxReadTimeout;
+
+
+        private Builder() {
+        }
+
+        /**
+         * @param timeout total time allowed for the calls made while the options are applied
+         * @return this builder
+         */
+        public Builder timeout(Duration timeout) {
+            if (timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("Timeout must be positive");
+            }
+
+            this.timeoutNanos = timeout.toNanos();
+            return this;
+        }
+
+        /**
+         * @param connectTimeout longest time to open a connection, even with more time left before the deadline
+         * @return this builder
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.maxConnectTimeout = (int) connectTimeout.toMillis();
+            return this;
+        }
+
+        /**
+         * @param readTimeout longest time to wait for data from the server, even with more time left before the deadline
+         * @return this builder
+         */
+        public Builder readTimeout(Duration readTimeout) {
+            this.maxReadTimeout = (int) readTimeout.toMillis();
+            return this;
+        }
+
+
+        public RequestOptions build() {
+            return new RequestOptions(this);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package net.vivialconnect.http;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import net.vivialconnect.util.CryptoUtils;
+
+/**
+ * Computes the HMAC signature of API requests for one set of credentials.
+ * <p>
+ * A signer is meant to be created once per credential and shared. Each thread gets its own <code>Mac</code>,
+ * initialized with the secret key the first time the thread signs, and its own buffers for the canonical request,
+ * so signing a request allocates little beyond the resulting strings.
+ */
+public final class RequestSigner {
+
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+
+    /* Canonical requests are a few hundred characters, larger buffers are not kept around */
+    private static final int MAX_RETAINED_BUFFER = 8192;
+
+    private static final ThreadLocal<StringBuilder> canonicalRequests = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(512);
+        }
+    };
+
+    private static final ThreadLocal<byte[]> encodedRequests = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[512];
+        }
+    };
+
+    private final String authorizationPrefix;
+    private final SecretKeySpec secretKey;
+
+    private final ThreadLocal<Mac> macs = new ThreadLocal<Mac>() {
+        @Override
+        protected Mac initialValue() {
+            try {
+                return newMac();
+            } catch (GeneralSecurityException e) {
+                /* Already succeeded once in the constructor */
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    /**
+     * @param apiKey    API key sent in the Authorization header
+     * @param apiSecret API secret the requests are signed with
+     * @throws GeneralSecurityException if the secret cannot be used as an HMAC-SHA256 key
+     * @throws IllegalArgumentException if either credential is null or empty
+     */
+    public RequestSigner(String apiKey, String apiSecret) throws GeneralSecurityException {
+        if (apiKey == null || apiKey.isEmpty() || apiSecret == null || apiSecret.isEmpty()) {
+            throw new IllegalArgumentException("API key and secret are required to sign requests");
+        }
+
+        this.authorizationPrefix = "HMAC " + apiKey + ":";
+        this.secretKey = new SecretKeySpec(apiSecret.getBytes(StandardCharsets.UTF_8), SIGNATURE_ALGORITHM);
+
+        macs.set(newMac());
+    }
+
+
+    private Mac newMac() throws GeneralSecurityException {
+        Mac hmac = Mac.getInstance(SIGNATURE_ALGORITHM);
+        hmac.init(secretKey);
+
+        return hmac;
+    }
+
+    /**
+     * Builds the canonical request into a buffer of the calling thread and signs it.
+     *
+     * @param canonicalRequest builder holding the request to sign
+     * @return the hex encoded signature
+     */
+    public String sign(CanonicalRequestBuilder canonicalRequest) {
+        StringBuilder buffer = canonicalRequests.get();
+        buffer.setLength(0);
+
+        try {
+            return createSignature(canonicalRequest.build(buffer));
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                canonicalRequests.remove();
+            }
+        }
+    }
+
+    /**
+     * Signs an already built canonical request.
+     *
+     * @param canonicalRequest canonical request
+     * @return the hex encoded HMAC-SHA256 of the request
+     */
+    public String createSignature(CharSequence canonicalRequest) {
+        Mac hmac = macs.get();
+        update(hmac, canonicalRequest);
+
+        return CryptoUtils.toHex(hmac.doFinal());
+    }
+
+    /**
+     * @param signature signature returned by {@link #sign(CanonicalRequestBuilder)}
+     * @return the value of the Authorization header
+     */
+    public String createAuthorizationHeader(String signature) {
+        return authorizationPrefix.concat(signature);
+    }
+
+    /**
+     * Feeds the UTF-8 bytes of the request to the MAC through a reusable buffer. Canonical requests are ASCII unless
+     * a header value is not, in which case the general encoding is used.
+     */
+    private static void update(Mac hmac, CharSequence canonicalRequest) {
+        int length = canonicalRequest.length();
+        if (length > MAX_RETAINED_BUFFER) {
+            hmac.update(canonicalRequest.toString().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        byte[] buffer = encodedRequests.get();
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+            encodedRequests.set(buffer);
+        }
+
+        for (int i = 0; i < length; i++) {
+            char c = canonicalRequest.charAt(i);
+            if (c >= 0x80) {
+                hmac.update(canonicalRequest.toString().getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            buffer[i] = (byte) c;
+        }
+
+        hmac.update(buffer, 0, length);
+    }
+}
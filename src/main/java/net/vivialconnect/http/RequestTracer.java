@@ -0,0 +1,150 @@
+package net.vivialconnect.http;
+
+/**
+ * Marks the stages of the calls to the API for a profiler: the whole call, signing, connection acquisition, request
+ * write, response read and JSON unmarshalling, along with the retries, the rate limit waits and the waits for a
+ * connection from an exhausted pool.
+ * <p>
+ * On Java 11 and later, when the <code>jdk.jfr</code> module is present, the stages are recorded as Java Flight
+ * Recorder events under the <code>VivialConnect</code> category, so they can be correlated with garbage collections
+ * and thread stalls:
+ * <pre>
+ * java -XX:StartFlightRecording:filename=recording.jfr ...
+ * </pre>
+ * Events that are not enabled in the recording cost close to nothing. On older runtimes, or when the
+ * <code>vivialconnect.jfr</code> system property is <code>false</code>, the tracer does nothing.
+ */
+public abstract class RequestTracer {
+
+    /**
+     * Stages of a call
+     */
+    public enum Stage {
+        REQUEST, SIGN, CONNECT, WRITE, READ, UNMARSHAL
+    }
+
+    /**
+     * Stage in progress, ended once.
+     */
+    public interface Span {
+
+        /**
+         * @param method     HTTP method of the request
+         * @param url        request URL
+         * @param statusCode status of the response, 0 if there is none (yet)
+         */
+        void end(String method, String url, int statusCode);
+
+        /**
+         * @param request    request sent
+         * @param statusCode status of the response, 0 if there is none (yet)
+         */
+        void end(HttpRequest request, int statusCode);
+    }
+
+    /**
+     * Span of the stages that are not recorded
+     */
+    protected static final Span NO_SPAN = new Span() {
+        @Override
+        public void end(String method, String url, int statusCode) {
+        }
+
+
+        @Override
+        public void end(HttpRequest request, int statusCode) {
+        }
+    };
+
+    private static final String JFR_TRACER = "net.vivialconnect.http.JfrRequestTracer";
+
+    private static final RequestTracer INSTANCE = load();
+
+
+    protected RequestTracer() {
+    }
+
+    /**
+     * @return the tracer of this runtime
+     */
+    public static RequestTracer get() {
+        return INSTANCE;
+    }
+
+
+    private static RequestTracer load() {
+        if ("false".equalsIgnoreCase(System.getProperty("vivialconnect.jfr"))) {
+            return new NoOpRequestTracer();
+        }
+
+        try {
+            return (RequestTracer) Class.forName(JFR_TRACER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            /* The JFR tracer needs Java 11 and the jdk.jfr module */
+            return new NoOpRequestTracer();
+        }
+    }
+
+    /**
+     * Starts a stage on the current thread.
+     *
+     * @param stage stage started
+     * @return the span to end when the stage is over
+     */
+    public abstract Span start(Stage stage);
+
+    /**
+     * Records that a request is sent again.
+     *
+     * @param method     HTTP method of the request
+     * @param url        request URL
+     * @param attempt    attempt that failed, starting at 1
+     * @param delayNanos delay before the next attempt
+     * @param statusCode status of the failed attempt, 0 if it received none
+     * @param failure    exception of the failed attempt, null if it received a response
+     */
+    public abstract void retry(String method, String url, int attempt, long delayNanos, int statusCode, Throwable failure);
+
+    /**
+     * Records that a request waits for the client-side rate limit of its route.
+     *
+     * @param method    HTTP method of the request
+     * @param url       request URL
+     * @param waitNanos time the request waits
+     */
+    public abstract void rateLimitWait(String method, String url, long waitNanos);
+
+    /**
+     * Records that a request waited for a connection because every connection to the route was leased.
+     *
+     * @param route          host and proxy of the connection
+     * @param maxConnections connections allowed to the route
+     * @param waitNanos      time the request waited
+     * @param timedOut       whether the request gave up waiting
+     */
+    public abstract void poolExhausted(String route, int maxConnections, long waitNanos, boolean timedOut);
+
+
+    private static final class NoOpRequestTracer extends RequestTracer {
+
+        @Override
+        public Span start(Stage stage) {
+            return NO_SPAN;
+        }
+
+
+        @Override
+        public void retry(String method, String url, int attempt, long delayNanos, int statusCode, Throwable failure) {
+        }
+
+
+        @Override
+        public void rateLimitWait(String method, String url, long waitNanos) {
+        }
+
+
+        @Override
+        public void poolExhausted(String route, int maxConnections, long waitNanos, boolean timedOut) {
+        }
+    }
+}
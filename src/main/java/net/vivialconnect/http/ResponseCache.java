@@ -0,0 +1,362 @@
+package net.vivialconnect.http;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the responses to GET requests of read-mostly resources, such as the account, connectors or numbers.
+ * <p>
+ * Only the resources given a time to live are cached, by credentials, URL and query. A response younger than its time
+ * to live is served without a request. An older one is revalidated: the request carries its <code>ETag</code> and
+ * <code>Last-Modified</code> values, and a 304 Not Modified answer serves it again for another time to live.
+ * <pre>
+ * VivialConnectClient.setResponseCache(ResponseCache.builder()
+ *         .ttl("account", Duration.ofMinutes(5))
+ *         .ttl("connectors", Duration.ofMinutes(1))
+ *         .ttl("numbers", Duration.ofMinutes(1))
+ *         .maxEntries(1000)
+ *         .build());
+ * </pre>
+ * Any POST, PUT or DELETE sent by the client on a resource drops the cached responses of that resource and account,
+ * including its counts. Changes made by other clients or on the API console are only seen once the time to live ran
+ * out. The least recently used responses are evicted beyond the maximum number of entries or bytes.
+ * <p>
+ * Responses are kept as bytes, and parsed again on each hit, so that callers never share model objects.
+ */
+public final class ResponseCache {
+
+    private static final ResponseCache NONE = builder().build();
+
+    private final Map<String, Long> ttlNanos;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    /* Least recently used first */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private long bytes;
+
+    /* Bumped by every change to a resource of an account, so that a response read before it is not stored */
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<String, AtomicLong>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+
+    private ResponseCache(Builder builder) {
+        this.ttlNanos = new HashMap<String, Long>(builder.ttlNanos);
+        this.maxEntries = builder.maxEntries;
+        this.maxBytes = builder.maxBytes;
+    }
+
+    /**
+     * @return a cache that caches nothing
+     */
+    public static ResponseCache none() {
+        return NONE;
+    }
+
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param route route of a request
+     * @return whether responses to the request are cached
+     */
+    public boolean appliesTo(ApiRoute route) {
+        return "GET".equals(route.getMethod()) && ttlNanos.containsKey(route.getResource());
+    }
+
+    /**
+     * Key of a request in the cache.
+     *
+     * @param apiKey API key the request is signed with
+     * @param url    request URL, including the query
+     * @return the key of the request
+     */
+    public static String keyOf(String apiKey, String url) {
+        return apiKey + ' ' + url;
+    }
+
+    /**
+     * Looks up a response, fresh or not. Lookups of fresh responses count as hits, the others as misses.
+     *
+     * @param key key of the request
+     * @return the cached response, or null if there is none
+     */
+    public Entry get(String key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null && entry.isFresh(System.nanoTime())) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+
+        return entry;
+    }
+
+    /**
+     * @param route route of a request
+     * @return the generation of the resource, to be given back to {@link #put}
+     */
+    public long generation(ApiRoute route) {
+        return generationOf(route).get();
+    }
+
+    /**
+     * Stores a response, unless the resource changed since its generation was read.
+     *
+     * @param key          key of the request
+     * @param route        route of the request
+     * @param generation   generation of the resource read before sending the request
+     * @param body         response body
+     * @param etag         <code>ETag</code> of the response, or null
+     * @param lastModified <code>Last-Modified</code> of the response, or null
+     */
+    public void put(String key, ApiRoute route, long generation, byte[] body, String etag, String lastModified) {
+        Long ttl = ttlNanos.get(route.getResource());
+        if (ttl == null || body.length > maxBytes) {
+            return;
+        }
+
+        Entry entry = new Entry(body, etag, lastModified, System.nanoTime() + ttl);
+        synchronized (entries) {
+            if (generationOf(route).get() != generation) {
+                return;
+            }
+
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                bytes -= previous.body.length;
+            }
+            bytes += body.length;
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries || bytes > maxBytes) {
+                bytes -= eldest.next().body.length;
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Serves a response again for another time to live, after the API answered 304 Not Modified.
+     *
+     * @param route route of the request
+     * @param entry revalidated response
+     */
+    public void revalidated(ApiRoute route, Entry entry) {
+        revalidations.increment();
+
+        Long ttl = ttlNanos.get(route.getResource());
+        entry.expiresAtNanos = System.nanoTime() + (ttl == null ? 0 : ttl);
+    }
+
+    /**
+     * Drops the responses of the resource and account of a route. Called after any request that changes a resource.
+     *
+     * @param route route of the request
+     */
+    public void invalidate(ApiRoute route) {
+        if (this == NONE || !ttlNanos.containsKey(route.getResource())) {
+            return;
+        }
+
+        ApiRoute reads = new ApiRoute(route.getAccountId(), "GET", route.getResource());
+        synchronized (entries) {
+            generationOf(route).incrementAndGet();
+
+            Iterator<Map.Entry<String, Entry>> cached = entries.entrySet().iterator();
+            while (cached.hasNext()) {
+                Map.Entry<String, Entry> entry = cached.next();
+                String url = entry.getKey().substring(entry.getKey().indexOf(' ') + 1);
+                if (ApiRoute.of("GET", url).equals(reads)) {
+                    bytes -= entry.getValue().body.length;
+                    cached.remove();
+                }
+            }
+        }
+    }
+
+
+    private AtomicLong generationOf(ApiRoute route) {
+        String key = route.getAccountId() + " " + route.getResource();
+        AtomicLong generation = generations.get(key);
+        if (generation == null) {
+            generation = generations.computeIfAbsent(key, name -> new AtomicLong());
+        }
+
+        return generation;
+    }
+
+    /**
+     * Drops every cached response.
+     */
+    public void clear() {
+        synchronized (entries) {
+            for (AtomicLong generation : generations.values()) {
+                generation.incrementAndGet();
+            }
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of stale responses the API confirmed with 304 Not Modified
+     */
+    public long getRevalidationCount() {
+        return revalidations.sum();
+    }
+
+    /**
+     * A cached response body and its validators.
+     */
+    public static final class Entry {
+
+        private final byte[] body;
+        private final String etag;
+        private final String lastModified;
+        private volatile long expiresAtNanos;
+
+
+        private Entry(byte[] body, String etag, String lastModified, long expiresAtNanos) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+
+        public boolean isFresh(long nowNanos) {
+            return nowNanos - expiresAtNanos < 0;
+        }
+
+        /**
+         * @return whether the API can be asked if the response changed
+         */
+        public boolean canRevalidate() {
+            return etag != null || lastModified != null;
+        }
+
+        /**
+         * Adds the conditional headers of the response to a request.
+         *
+         * @param request request for the cached response
+         * @return the request with <code>If-None-Match</code> and <code>If-Modified-Since</code> headers
+         */
+        public HttpRequest conditional(HttpRequest request) {
+            Map<String, String> headers = new HashMap<String, String>(request.getHeaders());
+            if (etag != null) {
+                headers.put("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                headers.put("If-Modified-Since", lastModified);
+            }
+
+            return new HttpRequest(request.getMethod(), request.getUrl(), headers, request.getBody(), request.getProxy());
+        }
+
+        /**
+         * @return the cached body, which must not be modified
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+
+        public String getEtag() {
+            return etag;
+        }
+
+
+        public String getLastModified() {
+            return lastModified;
+        }
+    }
+
+    /**
+     * Builds a {@link ResponseCache}. Unless changed, a cache keeps up to 1,000 responses and 16 MB.
+     */
+    public static final class Builder {
+
+        private final Map<String, Long> ttlNanos = new HashMap<String, Long>();
+        private int maxEntries = 1000;
+        private long maxBytes = 16 * 1024 * 1024;
+
+
+        private Builder() {
+        }
+
+        /**
+         * @param resource resource whose GET responses are cached, e.g. <code>account</code>, <code>connectors</code>
+         *                 or <code>numbers</code>
+         * @param ttl      time during which a response is served without asking the API, zero to revalidate it on
+         *                 every request
+         * @return this builder
+         */
+        public Builder ttl(String resource, Duration ttl) {
+            if (ttl.isNegative()) {
+                throw new IllegalArgumentException("ttl must not be negative");
+            }
+
+            ttlNanos.put(resource, ttl.toNanos());
+            return this;
+        }
+
+
+        public Builder maxEntries(int maxEntries) {
+            if (maxEntries < 1) {
+                throw new IllegalArgumentException("maxEntries must be at least 1");
+            }
+
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+
+        public Builder maxBytes(long maxBytes) {
+            if (maxBytes < 1) {
+                throw new IllegalArgumentException("maxBytes must be at least 1");
+            }
+
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+
+        public ResponseCache build() {
+            return new ResponseCache(this);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package net.vivialconnect.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits retries across all requests, so that when the API is overloaded retries cannot multiply the traffic sent to
+ * it.
+ * <p>
+ * Every request earns a fraction of a retry, and every retry spends a whole one. A small number of retries per second
+ * is always allowed, so that a client making few requests can still retry them. The budget is lock-free and shared by
+ * every thread using the same {@link RetryPolicy}.
+ */
+public final class RetryBudget {
+
+    /* Balances are kept in thousandths of a retry so that fractional deposits need no floating point arithmetic */
+    private static final long SCALE = 1000;
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final int minRetriesPerSecond;
+
+    private final AtomicLong balance = new AtomicLong();
+
+    /* Second of the current window in the high bits, retries spent from the per-second allowance in the low bits */
+    private final AtomicLong secondWindow = new AtomicLong();
+
+    /**
+     * @param retryRatio          retries allowed per request, e.g. 0.2 for one retry every five requests
+     * @param minRetriesPerSecond retries allowed every second regardless of the ratio
+     * @param maxRetries          retries that can be saved up while requests succeed
+     */
+    public RetryBudget(double retryRatio, int minRetriesPerSecond, int maxRetries) {
+        if (retryRatio < 0 || minRetriesPerSecond < 0 || minRetriesPerSecond > COUNT_MASK || maxRetries < 0) {
+            throw new IllegalArgumentException("Retry budget values must be positive");
+        }
+
+        this.depositPerRequest = Math.round(retryRatio * SCALE);
+        this.maxBalance = maxRetries * SCALE;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+    }
+
+    /**
+     * Records a new request, adding its share of a retry to the budget.
+     */
+    public void recordRequest() {
+        if (depositPerRequest == 0) {
+            return;
+        }
+
+        long current;
+        do {
+            current = balance.get();
+            if (current >= maxBalance) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(maxBalance, current + depositPerRequest)));
+    }
+
+    /**
+     * Takes one retry from the budget.
+     *
+     * @return true if the retry is allowed
+     */
+    public boolean tryAcquire() {
+        return tryAcquirePerSecond() || tryWithdraw();
+    }
+
+
+    private boolean tryAcquirePerSecond() {
+        if (minRetriesPerSecond == 0) {
+            return false;
+        }
+
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+
+        long current;
+        long next;
+        do {
+            current = secondWindow.get();
+            long count = (current >> COUNT_BITS) == second ? current & COUNT_MASK : 0;
+            if (count >= minRetriesPerSecond) {
+                return false;
+            }
+
+            next = (second << COUNT_BITS) | (count + 1);
+        } while (!secondWindow.compareAndSet(current, next));
+
+        return true;
+    }
+
+
+    private boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+
+        return true;
+    }
+
+    /**
+     * @return whole retries currently saved up, not counting the per-second allowance
+     */
+    public long getAvailableRetries() {
+        return balance.get() / SCALE;
+    }
+}
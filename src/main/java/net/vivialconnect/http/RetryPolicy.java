@@ -0,0 +1,292 @@
+package net.vivialconnect.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLHandshakeException;
+
+/**
+ * Decides whether a failed request is sent again, and after how long.
+ * <p>
+ * Delays grow exponentially with each attempt and are drawn at random between zero and that bound ("full jitter"), so
+ * clients failing at the same moment do not retry in lockstep. A <code>Retry-After</code> header sent by the API
+ * takes precedence over the computed delay. Retries are also limited by a {@link RetryBudget} shared by all requests.
+ * <p>
+ * Only requests that are safe to repeat are retried:
+ * <ul>
+ * <li>GET, PUT and DELETE are idempotent, and are retried on connection failures, timeouts and the retryable
+ * statuses (by default 429, 500, 502, 503 and 504).</li>
+ * <li>POST requests, which create resources or send messages, are only retried when the API cannot have acted on
+ * them: when the connection could not be opened, or when the API answered 429 Too Many Requests.</li>
+ * </ul>
+ * Policies are immutable and can be shared. Each retry is signed again, with a fresh timestamp.
+ */
+public final class RetryPolicy {
+
+    private static final Set<String> IDEMPOTENT_METHODS = Collections.unmodifiableSet(
+            new HashSet<String>(Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE")));
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private static final RetryPolicy NONE = builder().maxAttempts(1).build();
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long maxRetryAfterMillis;
+    private final Set<Integer> retryableStatuses;
+    private final RetryBudget budget;
+
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.baseDelayMillis = builder.baseDelayMillis;
+        this.maxDelayMillis = builder.maxDelayMillis;
+        this.maxRetryAfterMillis = builder.maxRetryAfterMillis;
+        this.retryableStatuses = Collections.unmodifiableSet(new HashSet<Integer>(builder.retryableStatuses));
+        this.budget = builder.budget != null ? builder.budget : new RetryBudget(0.2, 10, 100);
+    }
+
+    /**
+     * @return a policy that never retries
+     */
+    public static RetryPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * @return a policy with the default settings of {@link Builder}
+     */
+    public static RetryPolicy defaultPolicy() {
+        return builder().build();
+    }
+
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Records a new request in the retry budget. Called once per request, not per attempt.
+     */
+    public void onRequest() {
+        budget.recordRequest();
+    }
+
+    /**
+     * Decides whether to retry after the API answered.
+     *
+     * @param method   HTTP method of the request
+     * @param attempt  number of attempts made so far, starting at 1
+     * @param response response to the last attempt
+     * @return milliseconds to wait before the next attempt, or -1 to keep this response
+     */
+    public long getRetryDelay(String method, int attempt, HttpResponse response) {
+        int statusCode = response.getStatusCode();
+        if (!retryableStatuses.contains(statusCode)) {
+            return -1;
+        }
+
+        if (statusCode != TOO_MANY_REQUESTS && !isIdempotent(method)) {
+            return -1;
+        }
+
+        long retryAfter = parseRetryAfter(response.getHeader("Retry-After"));
+        if (retryAfter > maxRetryAfterMillis) {
+            return -1;
+        }
+
+        if (attempt >= maxAttempts || !budget.tryAcquire()) {
+            return -1;
+        }
+
+        return retryAfter >= 0 ? retryAfter : backoff(attempt);
+    }
+
+    /**
+     * Decides whether to retry after an attempt failed without a response.
+     *
+     * @param method  HTTP method of the request
+     * @param attempt number of attempts made so far, starting at 1
+     * @param failure failure of the last attempt
+     * @return milliseconds to wait before the next attempt, or -1 to give up
+     */
+    public long getRetryDelay(String method, int attempt, IOException failure) {
+        if (!isRetryable(failure) || (!isIdempotent(method) && !isNotSent(failure))) {
+            return -1;
+        }
+
+        if (attempt >= maxAttempts || !budget.tryAcquire()) {
+            return -1;
+        }
+
+        return backoff(attempt);
+    }
+
+
+    private long backoff(int attempt) {
+        long bound = baseDelayMillis << Math.min(attempt - 1, 30);
+        if (bound <= 0 || bound > maxDelayMillis) {
+            bound = maxDelayMillis;
+        }
+
+        return ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+
+    private static boolean isIdempotent(String method) {
+        return IDEMPOTENT_METHODS.contains(method);
+    }
+
+
+    private static boolean isRetryable(IOException failure) {
+        if (failure instanceof SSLHandshakeException) {
+            /* Certificate problems do not go away by trying again */
+            return false;
+        }
+
+        /* A plain InterruptedIOException means the calling thread was interrupted */
+        return !(failure instanceof InterruptedIOException) || failure instanceof SocketTimeoutException
+                || failure instanceof ConnectionPoolTimeoutException;
+    }
+
+    /**
+     * Tells if the failure happened before any part of the request could reach the API.
+     */
+    private static boolean isNotSent(IOException failure) {
+        return failure instanceof ConnectException || failure instanceof NoRouteToHostException
+                || failure instanceof UnknownHostException || failure instanceof ConnectionPoolTimeoutException;
+    }
+
+    /**
+     * Parses a <code>Retry-After</code> value, either in seconds or as an HTTP date.
+     *
+     * @return the delay in milliseconds, or -1 if absent or invalid
+     */
+    static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isEmpty()) {
+            return -1;
+        }
+
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            /* Not delay-seconds, try an HTTP date */
+        }
+
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+
+    public Set<Integer> getRetryableStatuses() {
+        return retryableStatuses;
+    }
+
+    /**
+     * Builds a {@link RetryPolicy}. Unless changed, a policy makes up to 3 attempts, with delays bounded by 100ms
+     * doubling up to 5s, follows <code>Retry-After</code> values up to 30s, and allows one retry every 5 requests
+     * plus 10 retries per second.
+     */
+    public static final class Builder {
+
+        private int maxAttempts = 3;
+        private long baseDelayMillis = 100;
+        private long maxDelayMillis = 5000;
+        private long maxRetryAfterMillis = 30000;
+        private Set<Integer> retryableStatuses = new HashSet<Integer>(Arrays.asList(429, 500, 502, 503, 504));
+        private RetryBudget budget;
+
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxAttempts attempts including the first one, 1 to disable retries
+         * @return this builder
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be at least 1");
+            }
+
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * @param baseDelay upper bound of the delay before the first retry, doubled for each following one
+         * @param maxDelay  upper bound of any delay
+         * @return this builder
+         */
+        public Builder backoff(Duration baseDelay, Duration maxDelay) {
+            if (baseDelay.isNegative() || maxDelay.compareTo(baseDelay) < 0) {
+                throw new IllegalArgumentException("Backoff delays must be positive, with maxDelay >= baseDelay");
+            }
+
+            this.baseDelayMillis = baseDelay.toMillis();
+            this.maxDelayMillis = maxDelay.toMillis();
+            return this;
+        }
+
+        /**
+         * @param maxRetryAfter longest <code>Retry-After</code> to wait for. Longer ones fail the request instead.
+         * @return this builder
+         */
+        public Builder maxRetryAfter(Duration maxRetryAfter) {
+            this.maxRetryAfterMillis = maxRetryAfter.toMillis();
+            return this;
+        }
+
+        /**
+         * @param statuses HTTP statuses to retry, replacing the default ones
+         * @return this builder
+         */
+        public Builder retryableStatuses(Integer... statuses) {
+            this.retryableStatuses = new HashSet<Integer>(Arrays.asList(statuses));
+            return this;
+        }
+
+        /**
+         * @param budget budget limiting the retries, possibly shared with other policies. Each policy built
+         *               without one gets its own.
+         * @return this builder
+         */
+        public Builder budget(RetryBudget budget) {
+            this.budget = budget;
+            return this;
+        }
+
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package net.vivialconnect.http;
+
+import java.net.Proxy;
+import java.net.URL;
+import java.util.Locale;
+
+/**
+ * Target of a pooled connection: scheme, host, port and the proxy used to reach them. Connections are only
+ * reused for requests going to the same route.
+ */
+final class Route {
+
+    private final String scheme;
+    private final String host;
+    private final int port;
+    private final Proxy proxy;
+
+
+    Route(String scheme, String host, int port, Proxy proxy) {
+        this.scheme = scheme.toLowerCase(Locale.ROOT);
+        this.host = host.toLowerCase(Locale.ROOT);
+        this.port = port;
+        this.proxy = proxy == null ? Proxy.NO_PROXY : proxy;
+    }
+
+
+    static Route of(URL url, Proxy proxy) {
+        int port = url.getPort() == -1 ? url.getDefaultPort() : url.getPort();
+        return new Route(url.getProtocol(), url.getHost(), port, proxy);
+    }
+
+
+    String getScheme() {
+        return scheme;
+    }
+
+
+    String getHost() {
+        return host;
+    }
+
+
+    int getPort() {
+        return port;
+    }
+
+
+    Proxy getProxy() {
+        return proxy;
+    }
+
+
+    boolean isSecure() {
+        return "https".equals(scheme);
+    }
+
+
+    boolean usesHttpProxy() {
+        return proxy.type() == Proxy.Type.HTTP;
+    }
+
+    /**
+     * Plain HTTP requests sent to an HTTP proxy use the absolute URL as request target. Any other
+     * request, including HTTPS requests tunneled through the proxy, uses the path only.
+     */
+    boolean sendsAbsoluteUri() {
+        return usesHttpProxy() && !isSecure();
+    }
+
+
+    String authority() {
+        return host + ":" + port;
+    }
+
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof Route)) {
+            return false;
+        }
+
+        Route route = (Route) other;
+        return port == route.port && scheme.equals(route.scheme) && host.equals(route.host) && proxy.equals(route.proxy);
+    }
+
+
+    @Override
+    public int hashCode() {
+        int result = scheme.hashCode();
+        result = 31 * result + host.hashCode();
+        result = 31 * result + port;
+        result = 31 * result + proxy.hashCode();
+
+        return result;
+    }
+
+
+    @Override
+    public String toString() {
+        String route = scheme + "://" + authority();
+        if (proxy.type() != Proxy.Type.DIRECT) {
+            route += " via " + proxy;
+        }
+
+        return route;
+    }
+}
@@ -0,0 +1,79 @@
+package net.vivialconnect.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket: permits are issued at a steady rate, and up to <code>burst</code> unused permits can be
+ * taken at once.
+ * <p>
+ * The whole state is the instant at which the bucket will be full again, updated with a single compare-and-set.
+ * Callers reserve a permit and are told how long to wait before using it, so waiting callers are served in order
+ * without holding any lock.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    /* System.nanoTime() at which every permit taken so far will have been replenished */
+    private final AtomicLong fullAt;
+
+    /**
+     * @param permitsPerSecond steady rate of permits
+     * @param burst            permits that can be taken at once after a quiet period, at least 1
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Reserves a permit if it becomes available within the given time.
+     *
+     * @param maxWaitNanos longest acceptable wait, 0 to only take a permit available now
+     * @return nanoseconds to wait before using the permit, or -1 if none is available in time and nothing was reserved
+     */
+    public long reserve(long maxWaitNanos) {
+        for (;;) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+
+            long next = (current - now < 0 ? now : current) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+
+            if (fullAt.compareAndSet(current, next)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * Takes a permit only if one is available now.
+     *
+     * @return true if a permit was taken
+     */
+    public boolean tryAcquire() {
+        return reserve(0) == 0;
+    }
+
+    /**
+     * @return permits that could be taken right now
+     */
+    public int getAvailablePermits() {
+        long backlog = fullAt.get() - System.nanoTime();
+        if (backlog <= 0) {
+            return (int) (burstNanos / intervalNanos);
+        }
+
+        return (int) Math.max(0, (burstNanos - backlog) / intervalNanos);
+    }
+}
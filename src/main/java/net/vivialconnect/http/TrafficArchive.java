@@ -0,0 +1,333 @@
+package net.vivialconnect.http;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Requests and responses recorded by a {@link RecordingTransport}, to be served again by a {@link ReplayTransport}.
+ * <p>
+ * Requests are kept normalized: the account id of the path is replaced by <code>{account}</code>, the query parameters
+ * are sorted, and the headers carrying the signature, the timestamps and the credentials are left out. A recording
+ * made with one account and clock thus replays for another. Responses are kept whole, with the time the API took to
+ * send them.
+ * <p>
+ * On disk, an archive is a gzipped sequence of binary records after a version header.
+ */
+public final class TrafficArchive {
+
+    private static final int MAGIC = 0x56435441; /* VCTA */
+    private static final int VERSION = 1;
+
+    private static final String ACCOUNTS_SEGMENT = "/accounts/";
+
+    /* Request headers that change with every signature or run, and are not kept */
+    private static final List<String> VOLATILE_HEADERS = Arrays.asList(
+            "Authorization", "X-Auth-Date", "X-Auth-SignedHeaders", "Date", "Host", "User-Agent", "X-VivialConnect-User-Agent");
+
+    private final List<Exchange> exchanges;
+
+
+    private TrafficArchive(List<Exchange> exchanges) {
+        this.exchanges = Collections.unmodifiableList(exchanges);
+    }
+
+    /**
+     * Reads an archive written by a {@link RecordingTransport}.
+     *
+     * @param file archive file
+     * @return the recorded exchanges
+     * @throws IOException if the file cannot be read or is not an archive
+     */
+    public static TrafficArchive read(Path file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a traffic archive");
+            }
+
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported traffic archive version " + version);
+            }
+
+            List<Exchange> exchanges = new ArrayList<Exchange>();
+            while (true) {
+                Exchange exchange = Exchange.read(in);
+                if (exchange == null) {
+                    return new TrafficArchive(exchanges);
+                }
+
+                exchanges.add(exchange);
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+
+    public List<Exchange> getExchanges() {
+        return exchanges;
+    }
+
+    /**
+     * Key under which a request is recorded and looked up: its method and its normalized path and query, e.g.
+     * <code>GET /api/v1.0/accounts/{account}/messages.json?limit=5&amp;page=2</code>.
+     *
+     * @param method HTTP method
+     * @param path   path of the request URL
+     * @param query  query of the request URL, or null
+     * @return the key of the request
+     */
+    public static String keyOf(String method, String path, String query) {
+        StringBuilder key = new StringBuilder(method).append(' ').append(normalizePath(path));
+        if (query != null && !query.isEmpty()) {
+            String[] parameters = query.split("&");
+            Arrays.sort(parameters);
+
+            key.append('?');
+            for (int i = 0; i < parameters.length; i++) {
+                if (i > 0) {
+                    key.append('&');
+                }
+                key.append(parameters[i]);
+            }
+        }
+
+        return key.toString();
+    }
+
+
+    private static String normalizePath(String path) {
+        int start = path.indexOf(ACCOUNTS_SEGMENT);
+        if (start < 0) {
+            return path;
+        }
+
+        start += ACCOUNTS_SEGMENT.length();
+        int end = start;
+        while (end < path.length() && Character.isDigit(path.charAt(end))) {
+            end++;
+        }
+
+        return end > start ? path.substring(0, start) + "{account}" + path.substring(end) : path;
+    }
+
+
+    static boolean isVolatile(String header) {
+        for (String name : VOLATILE_HEADERS) {
+            if (name.equalsIgnoreCase(header)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * One request and the response of the API to it.
+     */
+    public static final class Exchange {
+
+        private final String key;
+        private final Map<String, String> requestHeaders;
+        private final byte[] requestBody;
+        private final int statusCode;
+        private final Map<String, List<String>> responseHeaders;
+        private final byte[] responseBody;
+        private final long latencyNanos;
+
+
+        Exchange(String key, Map<String, String> requestHeaders, byte[] requestBody, int statusCode,
+                 Map<String, List<String>> responseHeaders, byte[] responseBody, long latencyNanos) {
+            this.key = key;
+            this.requestHeaders = requestHeaders;
+            this.requestBody = requestBody;
+            this.statusCode = statusCode;
+            this.responseHeaders = responseHeaders;
+            this.responseBody = responseBody;
+            this.latencyNanos = latencyNanos;
+        }
+
+        /**
+         * @see TrafficArchive#keyOf(String, String, String)
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return the request headers, without the signature, timestamps and credentials
+         */
+        public Map<String, String> getRequestHeaders() {
+            return Collections.unmodifiableMap(requestHeaders);
+        }
+
+
+        public byte[] getRequestBody() {
+            return requestBody.clone();
+        }
+
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+
+        public Map<String, List<String>> getResponseHeaders() {
+            return Collections.unmodifiableMap(responseHeaders);
+        }
+
+
+        public byte[] getResponseBody() {
+            return responseBody.clone();
+        }
+
+
+        byte[] responseBody() {
+            return responseBody;
+        }
+
+        /**
+         * @return time from sending the request to the end of the response body
+         */
+        public long getLatencyNanos() {
+            return latencyNanos;
+        }
+
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeBoolean(true);
+            out.writeUTF(key);
+
+            out.writeShort(requestHeaders.size());
+            for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeUTF(header.getValue());
+            }
+            writeBytes(out, requestBody);
+
+            out.writeShort(statusCode);
+            out.writeLong(latencyNanos);
+
+            int values = 0;
+            for (List<String> headerValues : responseHeaders.values()) {
+                values += headerValues.size();
+            }
+
+            out.writeShort(values);
+            for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+                for (String value : header.getValue()) {
+                    out.writeUTF(header.getKey());
+                    out.writeUTF(value);
+                }
+            }
+            writeBytes(out, responseBody);
+        }
+
+        /**
+         * @return the next exchange, null at the end of the archive
+         */
+        static Exchange read(DataInputStream in) throws IOException {
+            if (!in.readBoolean()) {
+                return null;
+            }
+
+            String key = in.readUTF();
+
+            Map<String, String> requestHeaders = new LinkedHashMap<String, String>();
+            int count = in.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                requestHeaders.put(in.readUTF(), in.readUTF());
+            }
+            byte[] requestBody = readBytes(in);
+
+            int statusCode = in.readUnsignedShort();
+            long latencyNanos = in.readLong();
+
+            Map<String, List<String>> responseHeaders = new LinkedHashMap<String, List<String>>();
+            count = in.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                List<String> values = responseHeaders.get(name);
+                if (values == null) {
+                    values = new ArrayList<String>(1);
+                    responseHeaders.put(name, values);
+                }
+                values.add(in.readUTF());
+            }
+            byte[] responseBody = readBytes(in);
+
+            return new Exchange(key, requestHeaders, requestBody, statusCode, responseHeaders, responseBody, latencyNanos);
+        }
+
+
+        private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+
+        private static byte[] readBytes(DataInputStream in) throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                throw new EOFException("Corrupted traffic archive");
+            }
+
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+
+            return bytes;
+        }
+    }
+
+    /**
+     * Appends exchanges to an archive file as they are recorded.
+     */
+    static final class Writer implements Closeable {
+
+        private final DataOutputStream out;
+
+
+        Writer(Path file) throws IOException {
+            OutputStream stream = Files.newOutputStream(file);
+            try {
+                out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(stream)));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+            } catch (IOException e) {
+                stream.close();
+                throw e;
+            }
+        }
+
+
+        synchronized void write(Exchange exchange) throws IOException {
+            exchange.write(out);
+        }
+
+        /**
+         * Marks the end of the archive and completes the gzip stream.
+         */
+        @Override
+        public synchronized void close() throws IOException {
+            out.writeBoolean(false);
+            out.close();
+        }
+    }
+}
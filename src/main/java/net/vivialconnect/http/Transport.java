@@ -0,0 +1,28 @@
+package net.vivialconnect.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Sends signed requests to the Vivial Connect API and hands back the raw response.
+ * <p>
+ * A transport only deals with the wire: building the request, signing it and mapping the response to
+ * model classes and exceptions is done by the caller. The response body must be closed once it has been
+ * consumed so the underlying connection can be reused.
+ * <p>
+ * The default transport is {@link PooledTransport}, which keeps persistent connections per host.
+ * {@link UrlConnectionTransport} delegates to {@link java.net.HttpURLConnection} instead.
+ *
+ * @see net.vivialconnect.client.VivialConnectClient#setTransport(Transport)
+ */
+public interface Transport extends Closeable {
+
+    /**
+     * Sends the request and returns as soon as the status line and headers of the response have been read.
+     *
+     * @param request request to send
+     * @return the response, whose body must be closed by the caller
+     * @throws IOException if the request could not be sent or the response could not be read
+     */
+    HttpResponse execute(HttpRequest request) throws IOException;
+}
@@ -0,0 +1,82 @@
+package net.vivialconnect.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.util.Map;
+
+/**
+ * {@link Transport} backed by {@link HttpURLConnection}.
+ * <p>
+ * Connections are not disconnected after each request, so the JDK keep-alive cache may reuse them once the
+ * response body has been closed. Pool size and idle time are then governed by the <code>http.keepAlive</code>
+ * and <code>http.maxConnections</code> system properties rather than by this SDK.
+ */
+public class UrlConnectionTransport implements Transport {
+
+    @Override
+    public HttpResponse execute(HttpRequest request) throws IOException {
+        HttpURLConnection connection = prepareConnection(request);
+        setHeaders(connection, request.getHeaders());
+        setBody(connection, request);
+
+        int statusCode = connection.getResponseCode();
+        InputStream body = statusCode >= 400 ? connection.getErrorStream() : connection.getInputStream();
+
+        return new HttpResponse(statusCode, connection.getHeaderFields(), body);
+    }
+
+
+    private HttpURLConnection prepareConnection(HttpRequest request) throws IOException {
+        Proxy proxy = request.getProxy();
+
+        HttpURLConnection connection = null;
+        if (proxy == null) {
+            connection = (HttpURLConnection) request.getUrl().openConnection();
+        } else {
+            /* If we call this method, this preempts the systems proxy settings, if any.
+             * We do the call this way so that if the user sets the proxy using the
+             * System.setProperty("http.proxyHost", "something"), it's respected.
+             */
+            connection = (HttpURLConnection) request.getUrl().openConnection(proxy);
+        }
+
+        connection.setConnectTimeout(request.getConnectTimeout());
+        connection.setReadTimeout(request.getReadTimeout());
+        connection.setRequestMethod(request.getMethod());
+        connection.setUseCaches(false);
+        connection.setDoInput(true);
+        connection.setDoOutput(request.hasBody());
+
+        return connection;
+    }
+
+
+    private void setHeaders(HttpURLConnection connection, Map<String, String> headers) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            connection.setRequestProperty(header.getKey(), header.getValue());
+        }
+    }
+
+
+    private void setBody(HttpURLConnection connection, HttpRequest request) throws IOException {
+        if (request.hasBody()) {
+            connection.setFixedLengthStreamingMode(request.getBody().length);
+
+            OutputStream outputStream = connection.getOutputStream();
+            try {
+                outputStream.write(request.getBody());
+            } finally {
+                outputStream.close();
+            }
+        }
+    }
+
+
+    @Override
+    public void close() {
+        /* Idle connections are owned by the JDK keep-alive cache */
+    }
+}
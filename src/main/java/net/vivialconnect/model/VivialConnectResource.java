@@ -1,51 +1,77 @@
 package net.vivialconnect.model;
 
 import java.io.BufferedReader;
-import java.io.DataOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.Serializable;
-import java.io.UnsupportedEncodingException;
-import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.net.URLEncoder;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.io.BufferedWriter;
-import java.io.OutputStreamWriter;
-import java.net.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.HashSet;
 import java.util.Date;
 import java.util.Arrays;
-import java.util.SimpleTimeZone;
-import java.util.Locale;
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.ApiRoute;
+import net.vivialconnect.http.AsyncTransport;
 import net.vivialconnect.http.CanonicalRequestBuilder;
+import net.vivialconnect.http.CircuitBreaker;
+import net.vivialconnect.http.ConcurrencyLimiter;
+import net.vivialconnect.http.HedgePolicy;
+import net.vivialconnect.http.HttpRequest;
+import net.vivialconnect.http.HttpResponse;
+import net.vivialconnect.http.RateLimits;
+import net.vivialconnect.http.RequestCoalescer;
+import net.vivialconnect.http.RequestClock;
+import net.vivialconnect.http.RequestEvent;
+import net.vivialconnect.http.RequestListener;
+import net.vivialconnect.http.RequestOptions;
+import net.vivialconnect.http.RequestTracer;
+import net.vivialconnect.http.RequestSigner;
+import net.vivialconnect.http.ResponseCache;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.http.Transport;
 import net.vivialconnect.model.account.Account;
 import net.vivialconnect.model.account.ContactCollection;
 import net.vivialconnect.model.account.TransactionResponse;
+import net.vivialconnect.model.error.CircuitBreakerOpenException;
+import net.vivialconnect.model.error.ClientRateLimitException;
+import net.vivialconnect.model.error.DeadlineExceededException;
 import net.vivialconnect.model.error.NoContentException;
 import net.vivialconnect.model.error.VivialConnectException;
 import net.vivialconnect.model.format.JsonBodyBuilder;
+import net.vivialconnect.model.format.JsonMapperRegistry;
 import net.vivialconnect.model.log.LogCollection;
 import net.vivialconnect.model.message.BulkInfo;
 import net.vivialconnect.model.message.BulkInfoCollection;
 import net.vivialconnect.model.message.MessageCollection;
-import net.vivialconnect.util.CryptoUtils;
+import net.vivialconnect.util.CountingInputStream;
+import net.vivialconnect.util.DaemonThreadFactory;
 import net.vivialconnect.util.ReflectionUtils;
+import net.vivialconnect.util.UrlEncoding;
 import net.vivialconnect.util.ProjectProperties;
 import net.vivialconnect.model.error.BadRequestException;
 import net.vivialconnect.model.error.ServerErrorException;
@@ -64,12 +90,25 @@ public abstract class VivialConnectResource implements Serializable {
 
     private static final long serialVersionUID = -2726239361148612818L;
 
-    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+    private static final RequestTracer TRACER = RequestTracer.get();
 
+    /**
+     * @deprecated No longer used. Requests are timestamped by the {@link RequestClock} of the client.
+     */
+    @Deprecated
     protected static final String ISO_8601_FORMAT = "yyyyMMdd'T'HHmmss'Z'";
+
+    /**
+     * @deprecated No longer used. Requests are timestamped by the {@link RequestClock} of the client.
+     */
+    @Deprecated
     protected static final String HTTP_DATE_FORMAT = "E, dd MMM yyyy HH:mm:ss z";
 
-    protected static Set<Class<?>> classesWithoutRootValue = new HashSet<Class<?>>();
+    /* Error bodies that are not a plain MessageError are reported verbatim, so unknown properties must fail */
+    private static final ObjectReader ERROR_READER = new ObjectMapper().readerFor(MessageError.class);
+
+    /* Filled by the static initializers of the resource classes, possibly while other threads parse responses */
+    protected static Set<Class<?>> classesWithoutRootValue = Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
 
     static {
         classesWithoutRootValue.add(ResourceCount.class);
@@ -153,12 +192,13 @@ public abstract class VivialConnectResource implements Serializable {
      * @return an intermediary URL
      */
     protected static String singleClassURL(Class<?> clazz) {
+        VivialConnectClient client = VivialConnectClient.current();
         if (Account.class.equals(clazz)) {
-            return String.format("%s/accounts/%d.json", VivialConnectClient.getApiBaseUrl(), VivialConnectClient.getAccountId());
+            return String.format("%s/accounts/%d.json", client.apiBaseUrl(), client.accountId());
         }
 
-        return String.format("%s/accounts/%d/%s", VivialConnectClient.getApiBaseUrl(),
-                VivialConnectClient.getAccountId(),
+        return String.format("%s/accounts/%d/%s", client.apiBaseUrl(),
+                client.accountId(),
                 ReflectionUtils.className(clazz).toLowerCase());
     }
 
@@ -188,8 +228,9 @@ public abstract class VivialConnectResource implements Serializable {
      * @return a new URL value
      */
     protected static String formatURLForResource(String resourceName) {
-        return String.format("%s/accounts/%d/%s", VivialConnectClient.getApiBaseUrl(),
-                VivialConnectClient.getAccountId(),
+        VivialConnectClient client = VivialConnectClient.current();
+        return String.format("%s/accounts/%d/%s", client.apiBaseUrl(),
+                client.accountId(),
                 resourceName);
     }
 
@@ -210,6 +251,8 @@ public abstract class VivialConnectResource implements Serializable {
      * @throws ForbiddenAccessException if the user does not have permission to the API resource
      * @throws UnauthorizedAccessException if any of the auth properties account ID, API Key and/or API secret are not valid
      * @throws ServerErrorException if the server is unable to process the request
+     * @throws ClientRateLimitException if the client-side rate limit of the route does not let the request through
+     * @throws CircuitBreakerOpenException if the circuit breaker of the resource is open
      * @throws ApiRequestException if an API error occurs
      */
     protected static <T> T request(VivialConnectResource.RequestMethod method,
@@ -217,18 +260,462 @@ public abstract class VivialConnectResource implements Serializable {
                                    Class<T> responseClass) throws BadRequestException, ServerErrorException, UnauthorizedAccessException,
             ForbiddenAccessException, ApiRequestException {
 
-        URL endpoint;
-        Map<String, String> headers;
+        VivialConnectClient client = VivialConnectClient.current();
+        CallMetrics metrics = new CallMetrics(client.requestListener(), System.nanoTime());
+
+        return request(client, RequestOptions.current(), metrics, method, url, body, queryParams, responseClass);
+    }
+
+
+    private static <T> T request(VivialConnectClient client, RequestOptions.Scope options, CallMetrics metrics,
+                                 VivialConnectResource.RequestMethod method, String url, String body, Map<String, String> queryParams,
+                                 Class<T> responseClass) throws BadRequestException, ServerErrorException, UnauthorizedAccessException,
+            ForbiddenAccessException, ApiRequestException {
+        RequestTracer.Span span = TRACER.start(RequestTracer.Stage.REQUEST);
+        ConcurrencyLimiter.Permit permit = null;
+        RequestCoalescer.Flight flight = null;
+        Throwable failure = null;
+
+        try {
+            checkDeadline(options);
+
+            CacheLookup cacheLookup = CacheLookup.of(client, method, url, queryParams);
+            if (cacheLookup != null && cacheLookup.isFresh()) {
+                return cacheLookup.parse(responseClass, metrics);
+            }
+
+            flight = joinFlight(client, method, url, queryParams);
+            while (flight != null && !flight.isLeader()) {
+                RequestCoalescer.SharedResponse shared = follow(flight, options);
+                if (shared != null) {
+                    HttpResponse response = shared.newResponse();
+                    metrics.statusCode = response.getStatusCode();
+
+                    return handleResponse(response, shared.getRequest(), responseClass, metrics);
+                }
+
+                /* The leader ran out of its own deadline, which may be shorter, or was cancelled: sent or joined again */
+                checkDeadline(options);
+                flight = joinFlight(client, method, url, queryParams);
+            }
+
+            permit = acquireConcurrencyPermit(client.concurrencyLimiter(), options);
+
+            return requestWithRetries(client, metrics, method, url, body, queryParams, responseClass, options, cacheLookup, flight, permit);
+        } catch (VivialConnectException | RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (permit != null) {
+                release(permit, failure);
+            }
+            if (flight != null && flight.isLeader() && failure != null) {
+                flight.fail(failure);
+            }
+            if (method != RequestMethod.GET) {
+                forgetReads(client, ApiRoute.of(method.name(), url));
+            }
+            metrics.complete(method, url, failure);
+            span.end(method.name(), url, metrics.statusCode);
+        }
+    }
+
+
+    private static <T> T requestWithRetries(VivialConnectClient client, CallMetrics metrics, VivialConnectResource.RequestMethod method,
+                                            String url, String body, Map<String, String> queryParams,
+                                            Class<T> responseClass, RequestOptions.Scope options, CacheLookup cacheLookup,
+                                            RequestCoalescer.Flight flight, ConcurrencyLimiter.Permit permit)
+            throws BadRequestException, ServerErrorException, UnauthorizedAccessException, ForbiddenAccessException, ApiRequestException {
+
+        RetryPolicy retryPolicy = client.retryPolicy();
+        retryPolicy.onRequest();
+
+        RateLimits rateLimits = client.rateLimits();
+        ApiRoute route = ApiRoute.of(method.name(), url);
+        CircuitBreaker circuitBreaker = client.circuitBreakers().getCircuitBreaker(route);
+
+        HedgePolicy hedgePolicy = client.hedgePolicy();
+        boolean hedged = hedgePolicy.appliesTo(route);
+        if (hedged) {
+            hedgePolicy.onRequest();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            checkDeadline(options);
+
+            long circuitPermit = acquireCircuit(circuitBreaker, route);
+            HttpRequest httpRequest;
+
+            try {
+                acquirePermit(rateLimits, route, method, url, options);
+
+                /* Signed again on every attempt, so that retries carry a fresh timestamp */
+                long signStart = metrics.startAttempt();
+                HttpRequest signedRequest = createSignedRequest(client, method, url, body, queryParams);
+                httpRequest = applyTimeouts(cacheLookup == null ? signedRequest : cacheLookup.conditional(signedRequest), options);
+                metrics.signed(signStart, httpRequest);
+            } catch (ApiRequestException e) {
+                circuitBreaker.onIgnored(circuitPermit);
+                throw e;
+            }
+
+            HttpResponse response;
+            long sent = System.nanoTime();
+            try {
+                Transport transport = client.transport();
+                if (hedged) {
+                    response = executeHedged(client, hedgePolicy, transport, httpRequest, route, method, url, body, queryParams, options);
+                } else {
+                    response = transport.execute(httpRequest);
+                }
+            } catch (IOException e) {
+                permit.attempted(System.nanoTime() - sent);
+                if (options != null && options.isExpired()) {
+                    circuitBreaker.onIgnored(circuitPermit);
+                    throw createDeadlineExceededException(e);
+                }
+
+                recordCircuit(circuitBreaker, circuitPermit, null, e);
+
+                long retryDelay = limitRetryDelay(retryPolicy.getRetryDelay(method.name(), attempt, e), options);
+                if (retryDelay < 0) {
+                    throw new ApiRequestException(e);
+                }
+
+                TRACER.retry(method.name(), url, attempt, TimeUnit.MILLISECONDS.toNanos(retryDelay), 0, e);
+                sleep(TimeUnit.MILLISECONDS.toNanos(retryDelay), e);
+                continue;
+            }
+
+            permit.attempted(System.nanoTime() - sent);
+            recordCircuit(circuitBreaker, circuitPermit, response, null);
+            metrics.received(response, sent);
+
+            long retryDelay = limitRetryDelay(retryPolicy.getRetryDelay(method.name(), attempt, response), options);
+            if (retryDelay >= 0) {
+                close(response);
+                TRACER.retry(method.name(), url, attempt, TimeUnit.MILLISECONDS.toNanos(retryDelay), response.getStatusCode(), null);
+                sleep(TimeUnit.MILLISECONDS.toNanos(retryDelay), null);
+                continue;
+            }
+
+            if (cacheLookup != null) {
+                response = cacheLookup.store(response);
+            }
+            if (flight != null) {
+                try {
+                    response = flight.complete(httpRequest, response);
+                } catch (IOException e) {
+                    throw new ApiRequestException(e);
+                }
+            }
+
+            return handleResponse(response, httpRequest, responseClass, metrics);
+        }
+    }
+
+
+    /**
+     * Sends a request and its hedge on the executor, or through the transport if asynchronous, and waits for the
+     * first response.
+     */
+    private static HttpResponse executeHedged(VivialConnectClient client, HedgePolicy hedgePolicy, Transport transport,
+                                              HttpRequest httpRequest, ApiRoute route, RequestMethod method, String url, String body,
+                                              Map<String, String> queryParams, RequestOptions.Scope options) throws IOException, ApiRequestException {
+        CompletableFuture<HttpResponse> response = hedgePolicy.execute(route,
+                () -> startAttempt(client, transport, httpRequest),
+                createHedge(client, transport, route, method, url, body, queryParams, options),
+                RetryScheduler.INSTANCE);
 
         try {
+            return response.get();
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ApiRequestException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new ApiRequestException(e.getCause());
+        }
+    }
 
-            endpoint = createEndpoint(url, method, queryParams);
-            Date currentDate = new Date();
+    /**
+     * Starts the hedge of a request: signed again, and counted by the rate limit of the route without waiting for it.
+     */
+    private static Supplier<CompletableFuture<HttpResponse>> createHedge(VivialConnectClient client, Transport transport, ApiRoute route,
+                                                                         RequestMethod method, String url, String body,
+                                                                         Map<String, String> queryParams, RequestOptions.Scope options) {
+        return () -> {
+            if (client.rateLimits().reserve(route, 0) != 0) {
+                return null;
+            }
+
+            try {
+                return startAttempt(client, transport, applyTimeouts(createSignedRequest(client, method, url, body, queryParams), options));
+            } catch (ApiRequestException e) {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Sends a request without blocking the calling thread. Once cancelled, a request still waiting for the executor is
+     * not sent, and a response arriving afterwards is closed.
+     */
+    private static CompletableFuture<HttpResponse> startAttempt(VivialConnectClient client, Transport transport, HttpRequest httpRequest) {
+        if (transport instanceof AsyncTransport) {
+            return ((AsyncTransport) transport).executeAsync(httpRequest);
+        }
+
+        CompletableFuture<HttpResponse> attempt = new CompletableFuture<HttpResponse>();
+        try {
+            client.executor().execute(() -> {
+                if (attempt.isDone()) {
+                    return;
+                }
+
+                try {
+                    HttpResponse response = transport.execute(httpRequest);
+                    if (!attempt.complete(response)) {
+                        close(response);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    attempt.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            attempt.completeExceptionally(e);
+        }
+
+        return attempt;
+    }
 
-            String requestTimestamp = createRequestTimestamp(currentDate);
-            String requestDate = createRequestDate(currentDate);
 
-            headers = new HashMap<String, String>();
+    private static void checkDeadline(RequestOptions.Scope options) throws DeadlineExceededException {
+        if (options != null && options.isExpired()) {
+            throw createDeadlineExceededException(null);
+        }
+    }
+
+
+    /**
+     * Joins the identical GET request in flight, if requests are coalesced.
+     */
+    private static RequestCoalescer.Flight joinFlight(VivialConnectClient client, RequestMethod method, String url,
+                                                      Map<String, String> queryParams) {
+        RequestCoalescer coalescer = client.requestCoalescer();
+        if (method != RequestMethod.GET || coalescer == RequestCoalescer.none()) {
+            return null;
+        }
+
+        String query = UrlEncoding.encodeQuery(queryParams);
+        return coalescer.join(ApiRoute.of(method.name(), url), RequestCoalescer.keyOf(client.apiKey(), query.isEmpty() ? url : url + "?" + query));
+    }
+
+    /**
+     * Waits for the response of the identical request in flight, no longer than the deadline.
+     *
+     * @return the response of the leader, or null if the leader failed on its own deadline or was cancelled
+     */
+    private static RequestCoalescer.SharedResponse follow(RequestCoalescer.Flight flight, RequestOptions.Scope options)
+            throws ApiRequestException {
+        try {
+            return flight.await(remainingNanos(options));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiRequestException(e);
+        } catch (TimeoutException e) {
+            throw createDeadlineExceededException(e);
+        } catch (CancellationException e) {
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DeadlineExceededException) {
+                return null;
+            } else if (cause instanceof ApiRequestException) {
+                throw (ApiRequestException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ApiRequestException(cause);
+        }
+    }
+
+    /**
+     * Drops the cached responses and detaches the reads in flight of a resource, after a request that changes it.
+     */
+    private static void forgetReads(VivialConnectClient client, ApiRoute route) {
+        client.responseCache().invalidate(route);
+        client.requestCoalescer().forget(route);
+    }
+
+
+    private static DeadlineExceededException createDeadlineExceededException(Throwable cause) {
+        return new DeadlineExceededException("Deadline of the request options exceeded", cause);
+    }
+
+    /**
+     * Gives the request the connect and read timeouts left by the deadline, if any.
+     */
+    private static HttpRequest applyTimeouts(HttpRequest httpRequest, RequestOptions.Scope options) {
+        if (options == null) {
+            return httpRequest;
+        }
+
+        return httpRequest.withTimeouts(options.getConnectTimeout(), options.getReadTimeout());
+    }
+
+    /**
+     * Drops a retry that could not start before the deadline.
+     */
+    private static long limitRetryDelay(long retryDelay, RequestOptions.Scope options) {
+        if (retryDelay < 0 || options == null) {
+            return retryDelay;
+        }
+
+        return TimeUnit.MILLISECONDS.toNanos(retryDelay) < options.remainingNanos() ? retryDelay : -1;
+    }
+
+
+    private static long remainingNanos(RequestOptions.Scope options) {
+        return options == null ? Long.MAX_VALUE : options.remainingNanos();
+    }
+
+
+    /**
+     * Waits for a slot under the concurrency limit, no longer than the deadline.
+     */
+    private static ConcurrencyLimiter.Permit acquireConcurrencyPermit(ConcurrencyLimiter limiter, RequestOptions.Scope options)
+            throws ApiRequestException {
+        ConcurrencyLimiter.Permit permit;
+        try {
+            permit = limiter.acquire(remainingNanos(options));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiRequestException(e);
+        }
+
+        if (permit == null) {
+            throw new ClientRateLimitException(String.format("Concurrency limit of %d requests reached", limiter.getLimit()));
+        }
+
+        return permit;
+    }
+
+    /**
+     * Reports the outcome of a request to the concurrency limiter. Responses without content are successes.
+     */
+    private static void release(ConcurrencyLimiter.Permit permit, Throwable failure) {
+        if (failure == null || failure instanceof NoContentException) {
+            permit.succeeded();
+        } else if (isOverload(failure)) {
+            permit.dropped();
+        } else {
+            permit.ignored();
+        }
+    }
+
+    /**
+     * Whether a failure shows that the API is overloaded: a 429 or 5xx response, or a read timeout.
+     */
+    private static boolean isOverload(Throwable failure) {
+        if (failure instanceof ClientRateLimitException || failure instanceof DeadlineExceededException) {
+            return false;
+        }
+
+        if (failure instanceof RateLimitException || failure instanceof ServerErrorException) {
+            return true;
+        }
+
+        if (failure instanceof VivialConnectException && ((VivialConnectException) failure).getResponseCode() >= 500) {
+            return true;
+        }
+
+        return failure.getCause() instanceof SocketTimeoutException;
+    }
+
+
+    private static long acquireCircuit(CircuitBreaker circuitBreaker, ApiRoute route) throws CircuitBreakerOpenException {
+        long permit = circuitBreaker.tryAcquire();
+        if (permit < 0) {
+            throw createCircuitBreakerOpenException(route);
+        }
+
+        return permit;
+    }
+
+
+    private static CircuitBreakerOpenException createCircuitBreakerOpenException(ApiRoute route) {
+        return new CircuitBreakerOpenException(String.format("Circuit breaker of %s is open", route.getResource()));
+    }
+
+    /**
+     * Reports the outcome of an attempt to the circuit breaker. Server errors and timeouts are failures, any other
+     * response is a success, and other I/O failures are disregarded.
+     */
+    private static void recordCircuit(CircuitBreaker circuitBreaker, long permit, HttpResponse response, Throwable failure) {
+        if (failure instanceof SocketTimeoutException || (response != null && response.getStatusCode() >= 500)) {
+            circuitBreaker.onFailure(permit);
+        } else if (response != null) {
+            circuitBreaker.onSuccess(permit);
+        } else {
+            circuitBreaker.onIgnored(permit);
+        }
+    }
+
+    /**
+     * Waits until the rate limit of the route lets a request through, no longer than the deadline.
+     */
+    private static void acquirePermit(RateLimits rateLimits, ApiRoute route, RequestMethod method, String url,
+                                      RequestOptions.Scope options) throws ApiRequestException {
+        long wait = rateLimits.reserve(route, remainingNanos(options));
+        if (wait < 0) {
+            throw createClientRateLimitException(route);
+        }
+
+        if (wait > 0) {
+            TRACER.rateLimitWait(method.name(), url, wait);
+            sleep(wait, null);
+        }
+    }
+
+
+    private static ClientRateLimitException createClientRateLimitException(ApiRoute route) {
+        return new ClientRateLimitException(String.format("Rate limit of %s %s reached", route.getMethod(), route.getResource()));
+    }
+
+
+    private static void sleep(long nanos, IOException lastFailure) throws ApiRequestException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            ApiRequestException interrupted = new ApiRequestException(e);
+            if (lastFailure != null) {
+                interrupted.addSuppressed(lastFailure);
+            }
+            throw interrupted;
+        }
+    }
+
+
+    private static HttpRequest createSignedRequest(VivialConnectClient client, VivialConnectResource.RequestMethod method,
+                                                   String url, String body, Map<String, String> queryParams) throws ApiRequestException {
+        RequestTracer.Span span = TRACER.start(RequestTracer.Stage.SIGN);
+        try {
+            String canonicalQuery = UrlEncoding.encodeQuery(queryParams);
+            URL endpoint = createEndpoint(url, method, canonicalQuery);
+            RequestClock.Stamp now = client.requestClock().now();
+
+            String requestTimestamp = now.getTimestamp();
+            String requestDate = now.getDate();
+
+            Map<String, String> headers = new HashMap<String, String>();
             headers.put("Date", requestDate);
             headers.put("Host", endpoint.getHost());
             headers.put("Accept", "application/json");
@@ -237,275 +724,853 @@ public abstract class VivialConnectResource implements Serializable {
                 headers.put("Content-Type", "application/json");
             }
 
+            byte[] encodedBody = encodeBody(method, body);
+
             CanonicalRequestBuilder canonicalRequestbuilder = new CanonicalRequestBuilder();
             canonicalRequestbuilder.endpoint(endpoint)
                     .requestTimestamp(requestTimestamp)
                     .body(body)
+                    .bodyBytes(encodedBody)
                     .method(method.name())
                     .headers(headers)
-                    .queryParams(queryParams);
+                    .canonicalQuery(canonicalQuery);
 
-            String canonicalRequest = canonicalRequestbuilder.build();
+            RequestSigner signer = client.requestSigner();
+            String signature = signer.sign(canonicalRequestbuilder);
             String signedHeaders = canonicalRequestbuilder.getCanonicalizedHeaderNames();
-            String signature = createSignature(canonicalRequest);
 
-            String authoritzationHeader = buildAuthoritzationHeader(signature);
-            headers.put("Authorization", authoritzationHeader);
+            headers.put("Authorization", signer.createAuthorizationHeader(signature));
             headers.put("X-Auth-Date", requestTimestamp);
             headers.put("X-Auth-SignedHeaders", signedHeaders);
-            String appVersion = ProjectProperties.getProperty("application.version");
-            headers.put("User-Agent", "VivialConnect JavaClient " + appVersion);
-
-            Map<String, String> xUserAgent = new HashMap<String, String>();
-            xUserAgent.put("client_version", appVersion);
-            xUserAgent.put("lang", "Java");
-            xUserAgent.put("lang_version", System.getProperty("java.version"));
-            xUserAgent.put("publisher", "vivialconnect");
-            xUserAgent.put("platform", System.getProperty("os.name") + " " +
-                    System.getProperty("os.version") + " " +
-                    System.getProperty("os.arch"));
-            ObjectMapper mapper = new ObjectMapper();
-            headers.put("X-VivialConnect-User-Agent", mapper.writeValueAsString(xUserAgent));
+            UserAgent userAgent = UserAgent.get();
+            headers.put("User-Agent", userAgent.userAgent);
+            headers.put("X-VivialConnect-User-Agent", userAgent.vivialConnectUserAgent);
+
+            return new HttpRequest(method.name(), endpoint, headers, encodedBody, client.proxy());
         } catch (Exception e) {
             throw new ApiRequestException(e);
+        } finally {
+            span.end(method.name(), url, 0);
+        }
+    }
+
+
+    /**
+     * Asynchronous version of {@link #request(RequestMethod, String, String, Map, Class)}.
+     * <p>
+     * When the configured transport is an {@link AsyncTransport}, the request is signed on the calling thread and
+     * handed to the transport, so no thread waits for the response. The calling thread may wait for a slot under the
+     * concurrency limit, though. Otherwise the request is signed and sent on the
+     * executor set through {@link VivialConnectClient#setExecutor(java.util.concurrent.Executor)}.
+     * <p>
+     * The request is made with the client in use on the calling thread.
+     * <p>
+     * The returned future completes exceptionally with the same {@link VivialConnectException} subclass the blocking
+     * call would throw, or with a {@link NoContentException} for responses without a body.
+     *
+     * @param method        a valid HTTP method
+     * @param url           request URL
+     * @param body          body or payload of the request. This is not required.
+     * @param queryParams   query params for the request. This is not required.
+     * @param responseClass class type for map the response
+     * @param <T>           Response class type
+     * @return a future completed with the response
+     */
+    protected static <T> CompletableFuture<T> requestAsync(final VivialConnectResource.RequestMethod method,
+                                                           final String url, final String body, final Map<String, String> queryParams,
+                                                           final Class<? extends T> responseClass) {
+        final VivialConnectClient client = VivialConnectClient.current();
+        final RequestOptions.Scope options = RequestOptions.current();
+        final CallMetrics metrics = new CallMetrics(client.requestListener(), System.nanoTime());
+
+        Transport transport = client.transport();
+        if (transport instanceof AsyncTransport) {
+            return requestAsync(client, metrics, (AsyncTransport) transport, method, url, body, queryParams, responseClass, options);
+        }
+
+        final CompletableFuture<T> future = new CompletableFuture<T>();
+
+        try {
+            client.executor().execute(() -> {
+                /* The client and options of the calling thread carry over, with the same deadline */
+                try {
+                    future.complete(request(client, options, metrics, method, url, body, queryParams, responseClass));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new ApiRequestException(e));
         }
 
-        return request(endpoint, method, headers, queryParams, body, responseClass);
-        /* return jerseyRequest(endpoint, method, headers, queryParams, body, responseClass); */
+        return future;
     }
 
 
-    private static VivialConnectException handleException(Exception e) {
-        VivialConnectException vce = null;
+    private static <T> CompletableFuture<T> requestAsync(VivialConnectClient client, CallMetrics metrics, AsyncTransport transport,
+                                                         RequestMethod method, String url, String body, Map<String, String> queryParams,
+                                                         Class<? extends T> responseClass, RequestOptions.Scope options) {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        RequestTracer.Span span = TRACER.start(RequestTracer.Stage.REQUEST);
+        future.whenComplete((response, failure) -> {
+            metrics.complete(method, url, unwrap(failure));
+            span.end(method.name(), url, metrics.statusCode);
+        });
 
-        if (VivialConnectException.class.isAssignableFrom(e.getClass())) {
-            vce = (VivialConnectException) e;
-        } else {
-            vce = new VivialConnectException(e);
+        CacheLookup cacheLookup;
+        try {
+            checkDeadline(options);
+
+            cacheLookup = CacheLookup.of(client, method, url, queryParams);
+            if (cacheLookup != null && cacheLookup.isFresh()) {
+                future.complete(cacheLookup.parse(responseClass, metrics));
+                return future;
+            }
+        } catch (ApiRequestException e) {
+            future.completeExceptionally(e);
+            return future;
         }
 
-        return vce;
+        if (method != RequestMethod.GET) {
+            future.whenComplete((response, failure) -> forgetReads(client, ApiRoute.of(method.name(), url)));
+        }
+
+        /* Set before joining an identical request, so that followers wait no longer than their own deadline */
+        if (options != null && options.hasDeadline()) {
+            ScheduledFuture<?> timeout = RetryScheduler.INSTANCE.schedule(
+                    () -> future.completeExceptionally(createDeadlineExceededException(null)),
+                    options.remainingNanos(), TimeUnit.NANOSECONDS);
+            future.whenComplete((response, failure) -> timeout.cancel(false));
+        }
+
+        joinAsync(client, metrics, transport, method, url, body, queryParams, responseClass, options, future, cacheLookup);
+
+        return future;
     }
 
+    /**
+     * Follows the identical request in flight without blocking, or sends the request as the leader.
+     */
+    private static <T> void joinAsync(VivialConnectClient client, CallMetrics metrics, AsyncTransport transport,
+                                      RequestMethod method, String url, String body, Map<String, String> queryParams,
+                                      Class<? extends T> responseClass, RequestOptions.Scope options, CompletableFuture<T> future,
+                                      CacheLookup cacheLookup) {
+        RequestCoalescer.Flight flight = joinFlight(client, method, url, queryParams);
+        if (flight != null && !flight.isLeader()) {
+            flight.responseAsync().whenComplete((shared, failure) -> {
+                Throwable cause = unwrap(failure);
+                if (shared != null) {
+                    try {
+                        HttpResponse response = shared.newResponse();
+                        metrics.statusCode = response.getStatusCode();
+
+                        future.complete(handleResponse(response, shared.getRequest(), responseClass, metrics));
+                    } catch (VivialConnectException | RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                } else if (cause instanceof DeadlineExceededException || cause instanceof CancellationException) {
+                    /* The leader gave up: sent or joined again under this deadline, off the thread of the leader */
+                    rejoinAsync(client, metrics, transport, method, url, body, queryParams, responseClass, options, future, cacheLookup);
+                } else {
+                    future.completeExceptionally(cause);
+                }
+            });
+            return;
+        }
 
-    private static boolean requestSupportsBody(String method) {
-        String[] supportedMethods = {"DELETE", "POST", "PUT"};
+        if (flight != null) {
+            future.whenComplete((response, failure) -> {
+                if (failure != null) {
+                    flight.fail(unwrap(failure));
+                }
+            });
+        }
 
-        return Arrays.binarySearch(supportedMethods, method) > -1;
+        /* Waits for a slot on the calling thread, which holds back callers when the limit is reached */
+        ConcurrencyLimiter.Permit permit;
+        try {
+            permit = acquireConcurrencyPermit(client.concurrencyLimiter(), options);
+        } catch (ApiRequestException e) {
+            future.completeExceptionally(e);
+            return;
+        }
+
+        RetryPolicy retryPolicy = client.retryPolicy();
+        retryPolicy.onRequest();
+
+        AsyncRequest<T> request = new AsyncRequest<T>(client, metrics, transport, retryPolicy, options, method, url, body, queryParams,
+                responseClass, future, cacheLookup, flight, permit);
+        future.whenComplete((response, failure) -> request.completed(failure));
+        attemptAsync(request, 1);
     }
 
 
-    private static URL createEndpoint(String url, RequestMethod method,
-                                      Map<String, String> queryParams) throws MalformedURLException {
-        if (method == RequestMethod.GET && queryParams != null && !queryParams.isEmpty()) {
-            StringBuilder urlBuilder = new StringBuilder(url).append("?");
-            for (String key : queryParams.keySet()) {
+    private static <T> void rejoinAsync(VivialConnectClient client, CallMetrics metrics, AsyncTransport transport,
+                                        RequestMethod method, String url, String body, Map<String, String> queryParams,
+                                        Class<? extends T> responseClass, RequestOptions.Scope options, CompletableFuture<T> future,
+                                        CacheLookup cacheLookup) {
+        try {
+            client.executor().execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+
                 try {
-                    String value = URLEncoder.encode(queryParams.get(key), "UTF-8");
-                    urlBuilder.append(key).append("=").append(value).append("&");
-                } catch (UnsupportedEncodingException e) {
-                    throw new MalformedURLException(e.getMessage());
+                    checkDeadline(options);
+                } catch (DeadlineExceededException e) {
+                    future.completeExceptionally(e);
+                    return;
                 }
-            }
-            url = urlBuilder.deleteCharAt(urlBuilder.length() - 1).toString();
+
+                joinAsync(client, metrics, transport, method, url, body, queryParams, responseClass, options, future, cacheLookup);
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new ApiRequestException(e));
         }
-        return new URL(url);
     }
 
-    /**
-     * Create a timestamp in format ISO 8601. This value is used to create the HMAC signature and Date header.
-     *
-     * @param currentDate current date
-     * @return timestamp in format 8601
-     */
-    protected static String createRequestTimestamp(Date currentDate) {
-        DateFormat iso8601 = new SimpleDateFormat(ISO_8601_FORMAT);
-        iso8601.setTimeZone(new SimpleTimeZone(0, "GMT"));
 
-        return iso8601.format(currentDate);
+    private static <T> void attemptAsync(AsyncRequest<T> request, int attempt) {
+        if (request.future.isDone()) {
+            return;
+        }
+
+        long wait = request.client.rateLimits().reserve(request.route, remainingNanos(request.options));
+
+        if (wait < 0) {
+            request.future.completeExceptionally(createClientRateLimitException(request.route));
+        } else if (wait > 0) {
+            TRACER.rateLimitWait(request.method.name(), request.url, wait);
+            /* Waits on the timer rather than holding the calling thread */
+            request.setCurrent(RetryScheduler.INSTANCE.schedule(() -> sendAsync(request, attempt), wait, TimeUnit.NANOSECONDS));
+        } else {
+            sendAsync(request, attempt);
+        }
     }
 
-    private static String createRequestDate(Date currentDate) {
-        DateFormat requestDateFormat = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
-        requestDateFormat.setTimeZone(new SimpleTimeZone(0, "GMT"));
 
-        return requestDateFormat.format(currentDate);
+    private static <T> void sendAsync(AsyncRequest<T> request, int attempt) {
+        CircuitBreaker circuitBreaker = request.circuitBreaker;
+        CompletableFuture<T> future = request.future;
+        String method = request.method.name();
+
+        /* Nothing is signed nor sent once the caller got its outcome, e.g. when the deadline fired during a wait */
+        if (!request.startAttempt()) {
+            return;
+        }
+
+        long circuitPermit = circuitBreaker.tryAcquire();
+        if (circuitPermit < 0) {
+            request.endAttempt();
+            future.completeExceptionally(createCircuitBreakerOpenException(request.route));
+            return;
+        }
+
+        final HttpRequest httpRequest;
+        try {
+            long signStart = request.metrics.startAttempt();
+            HttpRequest signedRequest = createSignedRequest(request.client, request.method, request.url, request.body, request.queryParams);
+            httpRequest = applyTimeouts(request.cacheLookup == null ? signedRequest : request.cacheLookup.conditional(signedRequest),
+                    request.options);
+            request.metrics.signed(signStart, httpRequest);
+        } catch (ApiRequestException e) {
+            circuitBreaker.onIgnored(circuitPermit);
+            request.endAttempt();
+            future.completeExceptionally(e);
+            return;
+        }
+
+        long sent = System.nanoTime();
+        CompletableFuture<HttpResponse> execution;
+        if (request.hedged) {
+            execution = request.hedgePolicy.execute(request.route, () -> request.transport.executeAsync(httpRequest),
+                    createHedge(request.client, request.transport, request.route, request.method, request.url, request.body,
+                            request.queryParams, request.options), RetryScheduler.INSTANCE);
+        } else {
+            execution = request.transport.executeAsync(httpRequest);
+        }
+        request.setCurrent(execution);
+
+        execution.whenComplete((response, failure) -> {
+            request.permit.attempted(System.nanoTime() - sent);
+            request.endAttempt();
+            Throwable cause = unwrap(failure);
+            if (future.isDone()) {
+                /* Cancelled when the deadline fired, or the caller cancelled the future */
+                circuitBreaker.onIgnored(circuitPermit);
+                close(response);
+                return;
+            }
+
+            if (request.options != null && request.options.isExpired()) {
+                circuitBreaker.onIgnored(circuitPermit);
+                close(response);
+                future.completeExceptionally(createDeadlineExceededException(cause));
+                return;
+            }
+
+            recordCircuit(circuitBreaker, circuitPermit, response, cause);
+            if (response != null) {
+                request.metrics.received(response, sent);
+            }
+
+            long retryDelay = -1;
+            if (cause instanceof IOException) {
+                retryDelay = request.retryPolicy.getRetryDelay(method, attempt, (IOException) cause);
+            } else if (response != null) {
+                retryDelay = request.retryPolicy.getRetryDelay(method, attempt, response);
+            }
+            retryDelay = limitRetryDelay(retryDelay, request.options);
+
+            if (retryDelay >= 0) {
+                close(response);
+                TRACER.retry(method, request.url, attempt, TimeUnit.MILLISECONDS.toNanos(retryDelay),
+                        response == null ? 0 : response.getStatusCode(), cause);
+                request.setCurrent(RetryScheduler.INSTANCE.schedule(() -> attemptAsync(request, attempt + 1), retryDelay, TimeUnit.MILLISECONDS));
+            } else if (cause != null) {
+                future.completeExceptionally(new ApiRequestException(cause));
+            } else {
+                try {
+                    HttpResponse finalResponse = request.cacheLookup == null ? response : request.cacheLookup.store(response);
+                    if (request.flight != null) {
+                        finalResponse = request.flight.complete(httpRequest, finalResponse);
+                    }
+
+                    future.complete(handleResponse(finalResponse, httpRequest, request.responseClass, request.metrics));
+                } catch (IOException e) {
+                    future.completeExceptionally(new ApiRequestException(e));
+                } catch (VivialConnectException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
     }
 
-    private static String createSignature(String canonicalRequest) throws NoSuchAlgorithmException, InvalidKeyException, UnsupportedEncodingException {
-        Mac hmac = Mac.getInstance(SIGNATURE_ALGORITHM);
-        SecretKeySpec secretKey = new SecretKeySpec(VivialConnectClient.getApiSecret().getBytes(),
-                SIGNATURE_ALGORITHM);
-        hmac.init(secretKey);
+    /**
+     * Asynchronous request sent through an {@link AsyncTransport}, shared by its attempts.
+     * <p>
+     * Once the future completes, including when the deadline fires, the scheduled send or retry and the attempt in
+     * flight are cancelled, and no further attempt is signed or sent. The concurrency permit is released once the
+     * future completed and the attempt in flight, if any, ended or was cancelled.
+     */
+    private static final class AsyncRequest<T> {
+
+        final VivialConnectClient client;
+        final CallMetrics metrics;
+        final AsyncTransport transport;
+        final RetryPolicy retryPolicy;
+        final RequestOptions.Scope options;
+        final RequestMethod method;
+        final String url;
+        final String body;
+        final Map<String, String> queryParams;
+        final Class<? extends T> responseClass;
+        final CompletableFuture<T> future;
+        final CacheLookup cacheLookup;
+        final RequestCoalescer.Flight flight;
+        final ConcurrencyLimiter.Permit permit;
+
+        final ApiRoute route;
+        final CircuitBreaker circuitBreaker;
+        final HedgePolicy hedgePolicy;
+        final boolean hedged;
+
+        /* Guarded by this */
+        private Future<?> current;
+        private boolean attemptInFlight;
+        private boolean completed;
+        private boolean permitReleased;
+        private Throwable outcome;
+
+
+        AsyncRequest(VivialConnectClient client, CallMetrics metrics, AsyncTransport transport, RetryPolicy retryPolicy,
+                     RequestOptions.Scope options, RequestMethod method, String url, String body, Map<String, String> queryParams,
+                     Class<? extends T> responseClass, CompletableFuture<T> future, CacheLookup cacheLookup,
+                     RequestCoalescer.Flight flight, ConcurrencyLimiter.Permit permit) {
+            this.client = client;
+            this.metrics = metrics;
+            this.transport = transport;
+            this.retryPolicy = retryPolicy;
+            this.options = options;
+            this.method = method;
+            this.url = url;
+            this.body = body;
+            this.queryParams = queryParams;
+            this.responseClass = responseClass;
+            this.future = future;
+            this.cacheLookup = cacheLookup;
+            this.flight = flight;
+            this.permit = permit;
+
+            this.route = ApiRoute.of(method.name(), url);
+            this.circuitBreaker = client.circuitBreakers().getCircuitBreaker(route);
+            this.hedgePolicy = client.hedgePolicy();
+            this.hedged = hedgePolicy.appliesTo(route);
+            if (hedged) {
+                hedgePolicy.onRequest();
+            }
+        }
+
+        /**
+         * @return whether the attempt can be sent, which is no longer the case once the future completed
+         */
+        synchronized boolean startAttempt() {
+            if (future.isDone()) {
+                return false;
+            }
+
+            attemptInFlight = true;
+            return true;
+        }
 
-        byte[] signatureBytes = hmac.doFinal(canonicalRequest.getBytes("UTF-8"));
-        return CryptoUtils.toHex(signatureBytes);
+
+        void endAttempt() {
+            synchronized (this) {
+                attemptInFlight = false;
+                current = null;
+                if (!completed || permitReleased) {
+                    return;
+                }
+                permitReleased = true;
+            }
+
+            release(permit, outcome);
+        }
+
+        /**
+         * Keeps the scheduled step or the attempt in flight, to cancel it if the future completes first.
+         */
+        void setCurrent(Future<?> step) {
+            synchronized (this) {
+                if (!completed) {
+                    current = step;
+                    return;
+                }
+            }
+
+            step.cancel(true);
+        }
+
+        /**
+         * Called once the future completed.
+         */
+        void completed(Throwable failure) {
+            Future<?> step;
+            boolean release;
+            synchronized (this) {
+                completed = true;
+                outcome = failure;
+                step = current;
+                current = null;
+                release = !attemptInFlight && !permitReleased;
+                permitReleased |= release;
+            }
+
+            /* An attempt in flight releases the permit once it ends */
+            if (step != null) {
+                step.cancel(true);
+            }
+            if (release) {
+                release(permit, failure);
+            }
+        }
     }
 
+    /**
+     * Values of the User-Agent headers, the same for every request, built on the first one.
+     */
+    static final class UserAgent {
+
+        private static volatile UserAgent instance;
+
+        final String userAgent;
+        final String vivialConnectUserAgent;
+
 
-    private static String buildAuthoritzationHeader(String signature) {
-        return new StringBuilder().append("HMAC ")
-                .append(VivialConnectClient.getApiKey())
-                .append(":")
-                .append(signature)
-                .toString();
+        private UserAgent(String userAgent, String vivialConnectUserAgent) {
+            this.userAgent = userAgent;
+            this.vivialConnectUserAgent = vivialConnectUserAgent;
+        }
+
+
+        static UserAgent get() throws IOException {
+            UserAgent userAgent = instance;
+            if (userAgent == null) {
+                String appVersion = ProjectProperties.getProperty("application.version");
+
+                Map<String, String> xUserAgent = new HashMap<String, String>();
+                xUserAgent.put("client_version", appVersion);
+                xUserAgent.put("lang", "Java");
+                xUserAgent.put("lang_version", System.getProperty("java.version"));
+                xUserAgent.put("publisher", "vivialconnect");
+                xUserAgent.put("platform", System.getProperty("os.name") + " " +
+                        System.getProperty("os.version") + " " +
+                        System.getProperty("os.arch"));
+
+                userAgent = new UserAgent("VivialConnect JavaClient " + appVersion,
+                        JsonMapperRegistry.getWriter().writeValueAsString(xUserAgent));
+                instance = userAgent;
+            }
+
+            return userAgent;
+        }
     }
 
-    private static <T> T request(URL endpoint, VivialConnectResource.RequestMethod method, Map<String, String> headers,
-                                 Map<String, String> queryParams, String body, Class<T> responseClass)
-            throws NoContentException, BadRequestException, ForbiddenAccessException, ServerErrorException, ApiRequestException, UnauthorizedAccessException {
+    /**
+     * Cached response of a GET request, looked up before the request is sent, and stored or revalidated once it was
+     * answered.
+     */
+    private static final class CacheLookup {
 
-        HttpURLConnection connection = null;
-        T entityResponse;
+        private static final int NOT_MODIFIED = 304;
 
-        try {
-            connection = prepareConnection(endpoint, method);
-            setHeaders(connection, headers);
-            setBody(connection, body);
+        final ResponseCache cache;
+        final ApiRoute route;
+        final String key;
+        final long generation;
+        final ResponseCache.Entry entry;
 
-            String response = doRequest(connection);
 
-            entityResponse = unmarshallResponse(response, responseClass);
-        } catch (IOException e) {
-            throw new ApiRequestException(e);
-        } finally {
-            disconnect(connection);
+        private CacheLookup(ResponseCache cache, ApiRoute route, String key) {
+            this.cache = cache;
+            this.route = route;
+            this.key = key;
+            this.generation = cache.generation(route);
+            this.entry = cache.get(key);
         }
 
-        return entityResponse;
+        /**
+         * @return the lookup of the request, or null if its responses are not cached
+         */
+        static CacheLookup of(VivialConnectClient client, RequestMethod method, String url, Map<String, String> queryParams) {
+            if (method != RequestMethod.GET) {
+                return null;
+            }
+
+            ResponseCache cache = client.responseCache();
+            ApiRoute route = ApiRoute.of(method.name(), url);
+            if (!cache.appliesTo(route)) {
+                return null;
+            }
+
+            String query = UrlEncoding.encodeQuery(queryParams);
+            return new CacheLookup(cache, route, ResponseCache.keyOf(client.apiKey(), query.isEmpty() ? url : url + "?" + query));
+        }
+
+
+        boolean isFresh() {
+            return entry != null && entry.isFresh(System.nanoTime());
+        }
+
+
+        <T> T parse(Class<T> responseClass, CallMetrics metrics) throws ApiRequestException {
+            long parseStart = System.nanoTime();
+            try {
+                metrics.statusCode = 200;
+                return unmarshallResponse(new ByteArrayInputStream(entry.getBody()), responseClass);
+            } catch (IOException e) {
+                throw new ApiRequestException(e);
+            } finally {
+                metrics.parsed(parseStart, entry.getBody().length);
+            }
+        }
+
+
+        HttpRequest conditional(HttpRequest request) {
+            return entry != null && entry.canRevalidate() ? entry.conditional(request) : request;
+        }
+
+        /**
+         * Keeps a successful response, or serves the cached one again if the API answered that it did not change.
+         */
+        HttpResponse store(HttpResponse response) throws ApiRequestException {
+            int statusCode = response.getStatusCode();
+            if (statusCode == NOT_MODIFIED && entry != null) {
+                close(response);
+                cache.revalidated(route, entry);
+                return new HttpResponse(200, response.getHeaders(), new ByteArrayInputStream(entry.getBody()));
+            }
+
+            if (statusCode != 200) {
+                return response;
+            }
+
+            byte[] body;
+            try {
+                body = response.readBody();
+            } catch (IOException e) {
+                throw new ApiRequestException(e);
+            }
+
+            cache.put(key, route, generation, body, response.getHeader("ETag"), response.getHeader("Last-Modified"));
+            return new HttpResponse(statusCode, response.getHeaders(), new ByteArrayInputStream(body));
+        }
     }
 
-    private static HttpURLConnection prepareConnection(URL endpoint, RequestMethod method) throws IOException {
-        Proxy proxy = VivialConnectClient.getProxy();
+    /**
+     * Measurements of a call, reported to the request listener of its client once the call completed.
+     */
+    private static final class CallMetrics {
+
+        final RequestListener listener;
+        final long startNanos;
+
+        /* Updated by one attempt at a time, each handing over to the next through the executor or a future */
+        volatile long firstAttemptNanos = -1;
+        volatile int attempts;
+        volatile long signNanos;
+        volatile long requestBytes;
+        volatile int statusCode;
+        volatile long connectNanos = -1;
+        volatile long timeToFirstByteNanos = -1;
+        volatile long parseNanos = -1;
+        volatile long responseBytes;
+
+
+        CallMetrics(RequestListener listener, long startNanos) {
+            this.listener = listener;
+            this.startNanos = startNanos;
+        }
 
-        HttpURLConnection connection = null;
-        if (proxy == null) {
-            connection = (HttpURLConnection) endpoint.openConnection();
-        } else {
-            /* If we call this method, this preempts the systems proxy settings, if any.
-             * We do the call this way so that if the user sets the proxy using the
-             * System.setProperty("http.proxyHost", "something"), it's respected.
-             */
-            connection = (HttpURLConnection) endpoint.openConnection(proxy);
+        /**
+         * @return the time the attempt started to be signed
+         */
+        long startAttempt() {
+            long now = System.nanoTime();
+            if (firstAttemptNanos < 0) {
+                firstAttemptNanos = now;
+            }
+            attempts++;
+
+            return now;
+        }
+
+
+        void signed(long signStart, HttpRequest httpRequest) {
+            signNanos += System.nanoTime() - signStart;
+            if (httpRequest.getBody() != null) {
+                requestBytes += httpRequest.getBody().length;
+            }
+        }
+
+
+        void received(HttpResponse response, long sentNanos) {
+            long elapsed = System.nanoTime() - sentNanos;
+
+            statusCode = response.getStatusCode();
+            connectNanos = response.getConnectNanos();
+            timeToFirstByteNanos = connectNanos < 0 ? elapsed : Math.max(0, elapsed - connectNanos);
+        }
+
+
+        void parsed(long parseStart, long bytes) {
+            parseNanos = System.nanoTime() - parseStart;
+            responseBytes = bytes;
         }
 
-        connection.setRequestMethod(method.name());
-        connection.setUseCaches(false);
-        connection.setDoInput(true);
-        connection.setDoOutput(true);
 
-        return connection;
+        void complete(RequestMethod method, String url, Throwable failure) {
+            if (listener == RequestListener.none()) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            boolean failed = failure != null && !(failure instanceof NoContentException);
+
+            RequestEvent event = RequestEvent.builder()
+                    .method(method.name())
+                    .routeTemplate(ApiRoute.templateOf(url))
+                    .route(ApiRoute.of(method.name(), url))
+                    .statusCode(statusCode)
+                    .exceptionType(failed ? failure.getClass() : null)
+                    .attempts(attempts)
+                    .requestBytes(requestBytes)
+                    .responseBytes(responseBytes)
+                    .queueNanos((firstAttemptNanos < 0 ? now : firstAttemptNanos) - startNanos)
+                    .signNanos(attempts == 0 ? -1 : signNanos)
+                    .connectNanos(connectNanos)
+                    .timeToFirstByteNanos(timeToFirstByteNanos)
+                    .parseNanos(parseNanos)
+                    .totalNanos(now - startNanos)
+                    .build();
+
+            try {
+                listener.onRequestCompleted(event);
+            } catch (RuntimeException e) {
+                /* A failing listener must not fail the call */
+            }
+        }
+    }
+
+    /**
+     * Timer for the delays between asynchronous attempts, for rate limited requests, for hedges and for deadlines,
+     * created the first time one is needed.
+     */
+    private static final class RetryScheduler {
+
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(
+                new DaemonThreadFactory("vivialconnect-retry"));
+    }
+
+    /**
+     * Asynchronous deletion. The future completes with <code>true</code> when the API answers with no content,
+     * which is how it reports a successful deletion, and with <code>false</code> for any other successful response.
+     *
+     * @param url URL of the resource to delete
+     * @return a future completed with the result of the deletion
+     */
+    protected static CompletableFuture<Boolean> requestDeletionAsync(String url) {
+        return requestAsync(RequestMethod.DELETE, url, null, null, String.class).handle((response, failure) -> {
+            if (failure == null) {
+                return false;
+            }
+
+            Throwable cause = unwrap(failure);
+            if (cause instanceof NoContentException) {
+                return true;
+            }
+
+            throw failure instanceof CompletionException ? (CompletionException) failure : new CompletionException(failure);
+        });
+    }
+
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
     }
 
 
-    private static void setHeaders(HttpURLConnection connection, Map<String, String> headers) {
-        for (String headerName : headers.keySet()) {
-            String headerValue = headers.get(headerName);
-            connection.setRequestProperty(headerName, headerValue);
+    private static VivialConnectException handleException(Exception e) {
+        VivialConnectException vce = null;
+
+        if (VivialConnectException.class.isAssignableFrom(e.getClass())) {
+            vce = (VivialConnectException) e;
+        } else {
+            vce = new VivialConnectException(e);
         }
+
+        return vce;
+    }
+
+
+    private static boolean requestSupportsBody(String method) {
+        String[] supportedMethods = {"DELETE", "POST", "PUT"};
+
+        return Arrays.binarySearch(supportedMethods, method) > -1;
     }
 
 
-    private static void setBody(HttpURLConnection connection, String body) throws IOException {
-        if (requestSupportsBody(connection.getRequestMethod()) && body != null && !body.isEmpty()) {
-            DataOutputStream wr = new DataOutputStream(connection.getOutputStream());
-            BufferedWriter outputStream = new BufferedWriter(new OutputStreamWriter(wr, "UTF-8"));
-            outputStream.write(body);
-            outputStream.flush();
-            outputStream.close();
-            wr.close();
+    private static URL createEndpoint(String url, RequestMethod method, String canonicalQuery) throws MalformedURLException {
+        if (method == RequestMethod.GET && !canonicalQuery.isEmpty()) {
+            url = url + "?" + canonicalQuery;
         }
+        return new URL(url);
+    }
+
+    /**
+     * Create a timestamp in format ISO 8601. This value is used to create the HMAC signature and Date header.
+     *
+     * @param currentDate current date
+     * @return timestamp in format 8601
+     */
+    protected static String createRequestTimestamp(Date currentDate) {
+        return RequestClock.formatTimestamp(currentDate);
     }
 
+    private static <T> T handleResponse(HttpResponse response, HttpRequest httpRequest, Class<T> responseClass, CallMetrics metrics)
+            throws NoContentException, BadRequestException, ForbiddenAccessException, ServerErrorException, ApiRequestException, UnauthorizedAccessException {
 
-    private static String doRequest(HttpURLConnection connection) throws NoContentException, ForbiddenAccessException, BadRequestException,
-            UnauthorizedAccessException, ServerErrorException, ApiRequestException, IOException {
-        BufferedReader reader = null;
-        String response = null;
+        T entityResponse;
 
+        long parseStart = System.nanoTime();
+        CountingInputStream body = new CountingInputStream(response.getBody());
         try {
-            InputStream inputStream = connection.getInputStream();
-            reader = createBufferedReader(inputStream);
+            checkResponseStatus(response.getStatusCode(), body, httpRequest.getUrl());
 
-            response = readResponse(reader);
-            if (connection.getResponseCode() == 204 /* No Content */) {
-                throw new NoContentException();
+            RequestTracer.Span span = TRACER.start(RequestTracer.Stage.UNMARSHAL);
+            try {
+                entityResponse = unmarshallResponse(body, responseClass);
+            } finally {
+                span.end(httpRequest, response.getStatusCode());
             }
-
-        } catch (IOException ioe) {
-            convertToVivialExceptions(ioe, connection);
+        } catch (IOException e) {
+            throw new ApiRequestException(e);
         } finally {
-            if (reader != null) {
-                reader.close();
-            }
+            close(response);
+            metrics.parsed(parseStart, body.getCount());
         }
-        return response;
+
+        return entityResponse;
     }
 
 
-    private static void convertToVivialExceptions(IOException ioe, HttpURLConnection connection) throws BadRequestException, UnauthorizedAccessException,
-            ForbiddenAccessException, ApiRequestException, ServerErrorException, IOException {
-        if (connection == null) {
-            throw new ApiRequestException(ioe);
+    private static byte[] encodeBody(RequestMethod method, String body) {
+        if (requestSupportsBody(method.name()) && body != null && !body.isEmpty()) {
+            return body.getBytes(StandardCharsets.UTF_8);
         }
 
-        BufferedReader reader = null;
+        return null;
+    }
+
 
-        try {
-            reader = createBufferedReader(connection.getErrorStream());
-            String serviceErrorResponse = readResponse(reader);
-            MessageError errorResponse = unmarshalErrorResponse(serviceErrorResponse);
+    /**
+     * Turns error statuses into exceptions, reading the body only in that case since it carries the error message.
+     * Successful bodies are left unread, so that they can be parsed straight from the stream.
+     */
+    private static void checkResponseStatus(int responseCode, InputStream body, URL endpoint) throws NoContentException, ForbiddenAccessException,
+            BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException, IOException {
+        if (responseCode >= 400) {
+            String responseBody = readResponse(createBufferedReader(body));
+            convertToVivialExceptions(responseCode, responseBody, endpoint);
+        }
 
-            int connectionResponseCode = connection.getResponseCode();
+        if (responseCode == 204 /* No Content */) {
+            throw new NoContentException();
+        }
+    }
 
-            switch (connectionResponseCode) {
 
-                case 400:
-                    if (errorResponse.getErrorCode() != 0) {
-                        throw new MessageErrorException(errorResponse.getErrorCode(), errorResponse.getErrorMessage(), connectionResponseCode, ioe);
-                    } else {
-                        throw new BadRequestException(connectionResponseCode, errorResponse.getErrorMessage(), ioe);
-                    }
+    private static void convertToVivialExceptions(int connectionResponseCode, String serviceErrorResponse, URL endpoint) throws BadRequestException, UnauthorizedAccessException,
+            ForbiddenAccessException, ApiRequestException, ServerErrorException {
+        MessageError errorResponse = unmarshalErrorResponse(serviceErrorResponse);
+        IOException ioe = new IOException(String.format("Server returned HTTP response code: %d for URL: %s", connectionResponseCode, endpoint));
 
-                case 401:
-                    throw new UnauthorizedAccessException(connectionResponseCode, errorResponse.getErrorMessage(), ioe);
+        switch (connectionResponseCode) {
 
-                case 403:
-                    throw new ForbiddenAccessException(connectionResponseCode, errorResponse.getErrorMessage(), ioe);
+            case 400:
+                if (errorResponse.getErrorCode() != 0) {
+                    throw new MessageErrorException(errorResponse.getErrorCode(), errorResponse.getErrorMessage(), connectionResponseCode, ioe);
+                } else {
+                    throw new BadRequestException(connectionResponseCode, errorResponse.getErrorMessage(), ioe);
+                }
 
-                case 404:
-                    throw new ResourceNotFoundException(connectionResponseCode, errorResponse.getErrorMessage(), ioe);
+            case 401:
+                throw new UnauthorizedAccessException(connectionResponseCode, errorResponse.getErrorMessage(), ioe);
 
-                case 429:
-                    throw new RateLimitException(connectionResponseCode, errorResponse.getErrorMessage(), ioe);
+            case 403:
+                throw new ForbiddenAccessException(connectionResponseCode, errorResponse.getErrorMessage(), ioe);
 
-                case 500:
-                    throw new ServerErrorException(connectionResponseCode, errorResponse.getErrorMessage(), ioe);
+            case 404:
+                throw new ResourceNotFoundException(connectionResponseCode, errorResponse.getErrorMessage(), ioe);
 
-                default:
-                    String rawErrorMessage = errorResponse.getErrorMessage();
-                    String errorMessage = rawErrorMessage == null ? "" : rawErrorMessage;
-                    throw new ApiRequestException(connectionResponseCode, errorMessage, ioe);
+            case 429:
+                throw new RateLimitException(connectionResponseCode, errorResponse.getErrorMessage(), ioe);
 
-            }
+            case 500:
+                throw new ServerErrorException(connectionResponseCode, errorResponse.getErrorMessage(), ioe);
+
+            default:
+                String rawErrorMessage = errorResponse.getErrorMessage();
+                String errorMessage = rawErrorMessage == null ? "" : rawErrorMessage;
+                throw new ApiRequestException(connectionResponseCode, errorMessage, ioe);
 
-        } finally {
-            if(reader != null) {
-                reader.close();
-            }
         }
     }
 
 
     private static MessageError unmarshalErrorResponse(String errorResponse) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            Object unmarshalledObject = mapper.reader()
-                    .forType(MessageError.class)
-                    .readValue(errorResponse);
-
-            MessageError errorMessage = (MessageError) unmarshalledObject;
-            return errorMessage;
+            return ERROR_READER.readValue(errorResponse);
         } catch (Exception e) {
             return new MessageError(errorResponse, 0);
         }
@@ -513,7 +1578,12 @@ public abstract class VivialConnectResource implements Serializable {
 
 
     private static BufferedReader createBufferedReader(InputStream inputStream) throws IOException {
-        return new BufferedReader(new InputStreamReader(inputStream));
+        return new BufferedReader(createReader(inputStream));
+    }
+
+
+    private static Reader createReader(InputStream inputStream) {
+        return new InputStreamReader(inputStream, StandardCharsets.UTF_8);
     }
 
 
@@ -529,21 +1599,22 @@ public abstract class VivialConnectResource implements Serializable {
     }
 
 
-    private static <T> T unmarshallResponse(String response, Class<T> responseClass) throws JsonProcessingException, IOException {
-        ObjectMapper mapper = configureObjectMapper(responseClass);
-        return mapper.reader().forType(responseClass).readValue(response);
+    private static <T> T unmarshallResponse(InputStream response, Class<T> responseClass) throws JsonProcessingException, IOException {
+        return readerOf(responseClass).readValue(createReader(response));
     }
 
+    /**
+     * @return the shared reader of a response type, which builds its deserializers the first time
+     */
+    static ObjectReader readerOf(Class<?> responseClass) {
+        return JsonMapperRegistry.getReader(responseClass, shouldUnwrapRoot(responseClass));
+    }
 
-    private static <T> ObjectMapper configureObjectMapper(Class<T> responseClass) {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-
-        if (shouldUnwrapRoot(responseClass)) {
-            mapper.enable(DeserializationFeature.UNWRAP_ROOT_VALUE);
-        }
-
-        return mapper;
+    /**
+     * Signs a request for the account of the client in use, without sending it.
+     */
+    static HttpRequest createWarmUpRequest() throws ApiRequestException {
+        return createSignedRequest(VivialConnectClient.current(), RequestMethod.GET, singleClassURL(Account.class), null, null);
     }
 
 
@@ -552,9 +1623,13 @@ public abstract class VivialConnectResource implements Serializable {
     }
 
 
-    private static void disconnect(HttpURLConnection connection) {
-        if (connection != null) {
-            connection.disconnect();
+    private static void close(HttpResponse response) {
+        if (response != null) {
+            try {
+                response.close();
+            } catch (IOException e) {
+                /* The connection is discarded by the transport */
+            }
         }
     }
 
@@ -0,0 +1,222 @@
+package net.vivialconnect.model;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.HttpRequest;
+import net.vivialconnect.http.PooledTransport;
+import net.vivialconnect.http.Transport;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.account.Contact;
+import net.vivialconnect.model.account.ContactCollection;
+import net.vivialconnect.model.account.TransactionResponse;
+import net.vivialconnect.model.connector.Connector;
+import net.vivialconnect.model.connector.ConnectorCollection;
+import net.vivialconnect.model.log.LogCollection;
+import net.vivialconnect.model.message.Attachment;
+import net.vivialconnect.model.message.AttachmentCollection;
+import net.vivialconnect.model.message.BulkInfo;
+import net.vivialconnect.model.message.BulkInfoCollection;
+import net.vivialconnect.model.message.Message;
+import net.vivialconnect.model.message.MessageCollection;
+import net.vivialconnect.model.number.Number;
+import net.vivialconnect.model.number.NumberCollection;
+import net.vivialconnect.model.number.NumberInfo;
+import net.vivialconnect.model.number.TaggedNumberCollection;
+import net.vivialconnect.model.user.CredentialCollection;
+import net.vivialconnect.model.user.CredentialWrapperResponse;
+import net.vivialconnect.model.user.User;
+import net.vivialconnect.model.user.UserCollection;
+
+/**
+ * Warm-up of a client, run through {@link VivialConnectClient#warmUp()}, {@link VivialConnectClient#warmUp(int)} or
+ * {@link VivialConnectClient.Builder#warmUp(int)}, and the time each of its steps took.
+ * <p>
+ * The first request of a process otherwise pays for loading and linking the model classes, building their JSON
+ * readers, reading <code>app.properties</code>, initializing the signature algorithm, resolving the API host and the
+ * TCP and TLS handshakes. The steps are:
+ * <ul>
+ * <li><code>properties</code>: reads <code>app.properties</code> and builds the User-Agent header values</li>
+ * <li><code>json</code>: initializes the model classes and builds the JSON readers of the API responses</li>
+ * <li><code>signing</code>: signs a request, without sending it</li>
+ * <li><code>dns</code>: resolves the API host</li>
+ * <li><code>connections</code>: opens connections to the API, when the transport is a {@link PooledTransport}</li>
+ * </ul>
+ * A step that fails is reported and does not stop the following ones, so that a warm-up never fails the startup of
+ * an application: the first requests then pay for what could not be done.
+ */
+public final class WarmUp {
+
+    private static final List<Class<?>> RESPONSE_CLASSES = Collections.unmodifiableList(Arrays.<Class<?>>asList(
+            Account.class, Contact.class, ContactCollection.class, TransactionResponse.class,
+            Connector.class, ConnectorCollection.class, LogCollection.class,
+            Message.class, MessageCollection.class, Attachment.class, AttachmentCollection.class, BulkInfo.class, BulkInfoCollection.class,
+            Number.class, NumberCollection.class, TaggedNumberCollection.class, NumberInfo.class, ResourceCount.class,
+            User.class, UserCollection.class, CredentialCollection.class, CredentialWrapperResponse.class));
+
+    private final List<Step> steps = new ArrayList<Step>();
+
+
+    private WarmUp() {
+    }
+
+    /**
+     * Warms up the client in use on the calling thread. Prefer {@link VivialConnectClient#warmUp(int)}.
+     *
+     * @param connections number of connections to open to the API
+     * @return the outcome and time of each step
+     */
+    public static WarmUp run(int connections) {
+        WarmUp warmUp = new WarmUp();
+
+        warmUp.step("properties", () -> VivialConnectResource.UserAgent.get());
+
+        warmUp.step("json", () -> {
+            for (Class<?> type : RESPONSE_CLASSES) {
+                /* Initialized first, since the resource classes register how their responses are wrapped */
+                Class.forName(type.getName(), true, type.getClassLoader());
+                VivialConnectResource.readerOf(type);
+            }
+        });
+
+        HttpRequest[] request = new HttpRequest[1];
+        warmUp.step("signing", () -> request[0] = VivialConnectResource.createWarmUpRequest());
+        if (request[0] == null) {
+            return warmUp;
+        }
+
+        warmUp.step("dns", () -> InetAddress.getAllByName(request[0].getUrl().getHost()));
+
+        Transport transport = VivialConnectClient.current().transport();
+        if (transport instanceof PooledTransport && connections > 0) {
+            warmUp.step("connections", () -> ((PooledTransport) transport).preconnect(request[0], connections));
+        }
+
+        return warmUp;
+    }
+
+
+    private void step(String name, Action action) {
+        long start = System.nanoTime();
+        Exception failure = null;
+        try {
+            action.run();
+        } catch (Exception e) {
+            failure = e;
+        }
+
+        steps.add(new Step(name, System.nanoTime() - start, failure));
+    }
+
+    /**
+     * @return the steps, in the order they ran
+     */
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * @param name name of a step
+     * @return the step, or null if it did not run
+     */
+    public Step getStep(String name) {
+        for (Step step : steps) {
+            if (step.name.equals(name)) {
+                return step;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return whether every step succeeded
+     */
+    public boolean isSucceeded() {
+        for (Step step : steps) {
+            if (step.failure != null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (Step step : steps) {
+            total += step.nanos;
+        }
+
+        return total;
+    }
+
+    /**
+     * @return the time of each step, like <code>properties 2 ms, json 85 ms, ...</code>
+     */
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder();
+        for (Step step : steps) {
+            if (summary.length() > 0) {
+                summary.append(", ");
+            }
+            summary.append(step);
+        }
+
+        return summary.toString();
+    }
+
+    /**
+     * A step of a warm-up.
+     */
+    public static final class Step {
+
+        private final String name;
+        private final long nanos;
+        private final Exception failure;
+
+
+        private Step(String name, long nanos, Exception failure) {
+            this.name = name;
+            this.nanos = nanos;
+            this.failure = failure;
+        }
+
+
+        public String getName() {
+            return name;
+        }
+
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * @return why the step failed, or null if it succeeded
+         */
+        public Exception getFailure() {
+            return failure;
+        }
+
+
+        @Override
+        public String toString() {
+            String time = name + " " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms";
+            return failure == null ? time : time + " (failed: " + failure + ")";
+        }
+    }
+
+
+    private interface Action {
+
+        void run() throws Exception;
+    }
+}
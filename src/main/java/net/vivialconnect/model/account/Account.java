@@ -4,6 +4,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
@@ -89,6 +90,15 @@ public class Account extends VivialConnectResource {
         return request(RequestMethod.GET, singleClassURL(Account.class), null, null, Account.class);
     }
 
+    /**
+     * Asynchronous version of {@link #getAccount()}.
+     *
+     * @return a future completed with the account, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<Account> getAccountAsync() {
+        return requestAsync(RequestMethod.GET, singleClassURL(Account.class), null, null, Account.class);
+    }
+
 
     /**
      * Updates this account by sending to the server the properties that were changed via
@@ -115,6 +125,18 @@ public class Account extends VivialConnectResource {
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #update()}. This account is updated with the API response before the future completes.
+     *
+     * @return a future completed with this account, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Account> updateAsync() {
+        return requestAsync(RequestMethod.PUT, singleClassURL(Account.class), buildJsonBodyForUpdate(), null, Account.class).thenApply(updatedAccount -> {
+            updateFields(updatedAccount);
+            return this;
+        });
+    }
+
 
     private String buildJsonBodyForUpdate() {
         JsonBodyBuilder builder = JsonBodyBuilder.forClass(Account.class);
@@ -156,6 +178,17 @@ public class Account extends VivialConnectResource {
         return getTransactions(startTime, endTime, null, 0, 0);
     }
 
+    /**
+     * Asynchronous version of {@link #getTransactions(String, String)}.
+     *
+     * @param startTime Start date and time in ISO 8601 format like YYYYMMDDThhmmssZ.
+     * @param endTime End date and time in ISO 8601 format like YYYYMMDDThhmmssZ
+     * @return a future completed with the list of transactions, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<List<Transaction>> getTransactionsAsync(String startTime, String endTime) {
+        return getTransactionsAsync(startTime, endTime, null, 0, 0);
+    }
+
     /**
      * Returns a list of transactions between a time interval, using paging and quanity limit.
      * @param startTime Start date and time in ISO 8601 format like YYYYMMDDThhmmssZ.
@@ -173,6 +206,19 @@ public class Account extends VivialConnectResource {
         return getTransactions(startTime, endTime, null, page, limit);
     }
 
+    /**
+     * Asynchronous version of {@link #getTransactions(String, String, int, int)}.
+     *
+     * @param startTime Start date and time in ISO 8601 format like YYYYMMDDThhmmssZ.
+     * @param endTime End date and time in ISO 8601 format like YYYYMMDDThhmmssZ
+     * @param page page number to retrieve
+     * @param limit quantity of transactions to return
+     * @return a future completed with the list of transactions, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<List<Transaction>> getTransactionsAsync(String startTime, String endTime, int page, int limit) {
+        return getTransactionsAsync(startTime, endTime, null, page, limit);
+    }
+
     /**
      * Returns a list of transactions between a time interval filtering by transaction_type
      * @param startTime Start date and time in ISO 8601 format like YYYYMMDDThhmmssZ.
@@ -189,6 +235,18 @@ public class Account extends VivialConnectResource {
         return getTransactions(startTime, endTime, transactionType, 0, 0);
     }
 
+    /**
+     * Asynchronous version of {@link #getTransactions(String, String, TransactionType)}.
+     *
+     * @param startTime Start date and time in ISO 8601 format like YYYYMMDDThhmmssZ.
+     * @param endTime End date and time in ISO 8601 format like YYYYMMDDThhmmssZ
+     * @param transactionType page number to retrieve
+     * @return a future completed with the list of transactions, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<List<Transaction>> getTransactionsAsync(String startTime, String endTime, TransactionType transactionType) {
+        return getTransactionsAsync(startTime, endTime, transactionType, 0, 0);
+    }
+
     /**
      * Returns a list of transactions between a time interval filtering by transaction_type, using pagination and limit
      * @param startTime Start date and time in ISO 8601 format like YYYYMMDDThhmmssZ.
@@ -204,7 +262,30 @@ public class Account extends VivialConnectResource {
      * @throws ApiRequestException if an API error occurs
      */
     public List<Transaction> getTransactions(String startTime, String endTime,TransactionType transactionType, int page, int limit) throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException {
+        Map<String, String> queryParams = transactionQueryParams(startTime, endTime, transactionType, page, limit);
+
+        TransactionResponse response = request(RequestMethod.GET, classURLWithoutSuffix(Transaction.class), null, queryParams, TransactionResponse.class);
+        return response.getTransactions();
+    }
+
+    /**
+     * Asynchronous version of {@link #getTransactions(String, String, TransactionType, int, int)}.
+     *
+     * @param startTime Start date and time in ISO 8601 format like YYYYMMDDThhmmssZ.
+     * @param endTime End date and time in ISO 8601 format like YYYYMMDDThhmmssZ
+     * @param transactionType page number to retrieve
+     * @param page page number to retrieve
+     * @param limit quantity of transactions to return
+     * @return a future completed with the list of transactions, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<List<Transaction>> getTransactionsAsync(String startTime, String endTime, TransactionType transactionType, int page, int limit) {
+        Map<String, String> queryParams = transactionQueryParams(startTime, endTime, transactionType, page, limit);
+
+        return requestAsync(RequestMethod.GET, classURLWithoutSuffix(Transaction.class), null, queryParams, TransactionResponse.class).thenApply(TransactionResponse::getTransactions);
+    }
 
+
+    private Map<String, String> transactionQueryParams(String startTime, String endTime, TransactionType transactionType, int page, int limit) {
         Map<String, String> queryParams = new HashMap<String, String>();
         queryParams.put("start_time", startTime);
         queryParams.put("end_time", endTime);
@@ -218,8 +299,7 @@ public class Account extends VivialConnectResource {
         if(transactionType != null)
             queryParams.put("include_types[]", transactionType.name().toLowerCase());
 
-        TransactionResponse response = request(RequestMethod.GET, classURLWithoutSuffix(Transaction.class), null, queryParams, TransactionResponse.class);
-        return response.getTransactions();
+        return queryParams;
     }
 
     /**
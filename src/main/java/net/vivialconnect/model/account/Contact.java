@@ -4,6 +4,7 @@ import java.lang.reflect.Field;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
@@ -178,6 +179,20 @@ public class Contact extends VivialConnectResource {
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #create()}. This contact is updated with the API response before the future completes.
+     *
+     * @return a future completed with this instance of {@link Contact}, or completed exceptionally with a {@link VivialConnectException}
+     * @throws IllegalStateException if a required field is null or empty
+     */
+    public CompletableFuture<Contact> createAsync() {
+        verifyRequiredFields();
+        return requestAsync(RequestMethod.POST, classURL(Contact.class), jsonBodyForCreate(), null, Contact.class).thenApply(createdContact -> {
+            updateObjectState(createdContact);
+            return this;
+        });
+    }
+
 
     private void verifyRequiredFields() {
         Class<?> c = getClass();
@@ -307,6 +322,20 @@ public class Contact extends VivialConnectResource {
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #update()}. This contact is updated with the API response before the future completes.
+     *
+     * @return a future completed with this instance of {@link Contact}, or completed exceptionally with a {@link VivialConnectException}
+     * @throws IllegalStateException if a required field is null or empty
+     */
+    public CompletableFuture<Contact> updateAsync() {
+        verifyRequiredFields();
+        return requestAsync(RequestMethod.PUT, classURLWithSuffix(Contact.class, String.valueOf(getId())), jsonBodyForUpdate(), null, Contact.class).thenApply(updatedContact -> {
+            updateObjectState(updatedContact);
+            return this;
+        });
+    }
+
 
     public String jsonBodyForUpdate() {
         return jsonBodyBuilder.build();
@@ -336,6 +365,15 @@ public class Contact extends VivialConnectResource {
         return false;
     }
 
+    /**
+     * Asynchronous version of {@link #delete()}.
+     *
+     * @return a future completed with whether the contact was deleted or not, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Boolean> deleteAsync() {
+        return requestDeletionAsync(classURLWithSuffix(Contact.class, String.valueOf(getId())));
+    }
+
     /**
      * Gets all contacts for this Account using the API.
      * <p>
@@ -354,6 +392,15 @@ public class Contact extends VivialConnectResource {
         return getContacts(null);
     }
 
+    /**
+     * Asynchronous version of {@link #getContacts()}.
+     *
+     * @return a future completed with a list of contacts, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<Contact>> getContactsAsync() {
+        return getContactsAsync(null);
+    }
+
     /**
      * Search and filter every contact for this Account using the API.
      * <p>
@@ -377,6 +424,16 @@ public class Contact extends VivialConnectResource {
         return request(RequestMethod.GET, classURL(Contact.class), null, queryParams, ContactCollection.class).getContacts();
     }
 
+    /**
+     * Asynchronous version of {@link #getContacts(Map)}.
+     *
+     * @param queryParams a map of {@link String } key-value pairs used to filter results
+     * @return a future completed with a list of contacts, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<Contact>> getContactsAsync(Map<String, String> queryParams) {
+        return requestAsync(RequestMethod.GET, classURL(Contact.class), null, queryParams, ContactCollection.class).thenApply(ContactCollection::getContacts);
+    }
+
     /**
      * Search for a {@link Contact} by its ID using the API.
      * <p>
@@ -396,6 +453,16 @@ public class Contact extends VivialConnectResource {
         return new Contact(request(RequestMethod.GET, classURLWithSuffix(Contact.class, String.valueOf(contactId)), null, null, Contact.class));
     }
 
+    /**
+     * Asynchronous version of {@link #getContactById(int)}.
+     *
+     * @param contactId the contact's ID
+     * @return a future completed with the contact, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<Contact> getContactByIdAsync(int contactId) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Contact.class, String.valueOf(contactId)), null, null, Contact.class).thenApply(Contact::new);
+    }
+
     /**
      * Total number of contacts in the account specified. If there are none, this method will return <code>0</code>.
      *
@@ -410,6 +477,15 @@ public class Contact extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithSuffix(Contact.class, "count"), null, null, ResourceCount.class).getCount();
     }
 
+    /**
+     * Asynchronous version of {@link #count()}.
+     *
+     * @return a future completed with the contact count, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<Integer> countAsync() {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Contact.class, "count"), null, null, ResourceCount.class).thenApply(ResourceCount::getCount);
+    }
+
     /**
      * Unique Identifier of the contact object
      *
@@ -1,6 +1,7 @@
 package net.vivialconnect.model.connector;
 
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
@@ -73,6 +74,16 @@ public class Callback extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithSuffix(Connector.class, String.format("%d/callbacks", connectorId)), null, null, Connector.class);
     }
 
+    /**
+     * Asynchronous version of {@link #getCallbacks(int)}.
+     *
+     * @param connectorId the connector's ID
+     * @return a future completed with the connector and its callbacks, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<ConnectorWithCallbacks> getCallbacksAsync(int connectorId) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Connector.class, String.format("%d/callbacks", connectorId)), null, null, Connector.class);
+    }
+
     /**
      * Creation date of the callback
      *
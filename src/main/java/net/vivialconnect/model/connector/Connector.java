@@ -1,6 +1,7 @@
 package net.vivialconnect.model.connector;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -137,6 +138,16 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return request(RequestMethod.GET, classURLWithSuffix(Connector.class, String.valueOf(connectorId)), null, null, Connector.class);
     }
 
+    /**
+     * Asynchronous version of {@link #getConnectorById(int)}.
+     *
+     * @param connectorId the connector's ID
+     * @return a future completed with the connector, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<Connector> getConnectorByIdAsync(int connectorId) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Connector.class, String.valueOf(connectorId)), null, null, Connector.class);
+    }
+
     /**
      * Gets all connectors associated with the current account. If there are none, the method will return an empty {@link List}
      *
@@ -152,6 +163,15 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return request(RequestMethod.GET, classURL(Connector.class), null, null, ConnectorCollection.class).getConnectors();
     }
 
+    /**
+     * Asynchronous version of {@link #getConnectors()}.
+     *
+     * @return a future completed with a list of connectors, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<Connector>> getConnectorsAsync() {
+        return requestAsync(RequestMethod.GET, classURL(Connector.class), null, null, ConnectorCollection.class).thenApply(ConnectorCollection::getConnectors);
+    }
+
     /**
      * Total number of connectors in the account specified. If there are none, this method will return <code>0</code>.
      *
@@ -166,6 +186,15 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return request(RequestMethod.GET, classURLWithSuffix(Connector.class, "count"), null, null, ResourceCount.class).getCount();
     }
 
+    /**
+     * Asynchronous version of {@link #count()}.
+     *
+     * @return a future completed with the connector count, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<Integer> countAsync() {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Connector.class, "count"), null, null, ResourceCount.class).thenApply(ResourceCount::getCount);
+    }
+
     /**
      * Creates a new Connector resource for the account
      *
@@ -188,6 +217,21 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #create()}. This connector is updated with the API response before the future completes.
+     *
+     * @return a future completed with this connector, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Connector> createAsync() {
+        JsonBodyBuilder builder = JsonBodyBuilder.forClass(Connector.class)
+                .addParamPair("name", getName());
+
+        return requestAsync(RequestMethod.POST, classURL(Connector.class), builder.build(), null, Connector.class).thenApply(createdConnector -> {
+            updateObjectState(createdConnector);
+            return this;
+        });
+    }
+
     /**
      * Updates this connector.
      * <p>
@@ -220,6 +264,22 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #update()}. This connector is updated with the API response before the future completes.
+     *
+     * @return a future completed with this connector, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Connector> updateAsync() {
+        JsonBodyBuilder builder = JsonBodyBuilder.forClass(Connector.class)
+                .addParamPair("id", getId())
+                .addParamPair("name", getName());
+
+        return requestAsync(RequestMethod.PUT, classURLWithSuffix(Connector.class, String.valueOf(getId())), builder.build(), null, Connector.class).thenApply(updatedConnector -> {
+            updateObjectState(updatedConnector);
+            return this;
+        });
+    }
+
 
     private void updateObjectState(Connector connector) {
         this.id = connector.getId();
@@ -259,6 +319,15 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return false;
     }
 
+    /**
+     * Asynchronous version of {@link #delete()}.
+     *
+     * @return a future completed with whether the connector was deleted or not, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Boolean> deleteAsync() {
+        return requestDeletionAsync(classURLWithSuffix(Connector.class, String.valueOf(getId())));
+    }
+
     /**
      * Unique identifier of the Connector object.
      *
@@ -346,6 +415,19 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return currentPage;
     }
 
+    /**
+     * Asynchronous version of {@link #nextPage()}.
+     *
+     * @return a future completed with the next page value, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Integer> nextPageAsync() {
+
+        if (currentPage < pages)
+            currentPage++;
+
+        return paginateAsync(currentPage);
+    }
+
     /**
      * Move backward to the previous page
      *
@@ -369,6 +451,19 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
 
     }
 
+    /**
+     * Asynchronous version of {@link #previousPage()}.
+     *
+     * @return a future completed with the previous page value, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Integer> previousPageAsync() {
+
+        if (currentPage > 1)
+            currentPage--;
+
+        return paginateAsync(currentPage);
+    }
+
     /**
      * Next page value returned by the API
      *
@@ -577,6 +672,22 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #createCallbacks()}.
+     *
+     * @return a future completed with an instance {@link ConnectorWithCallbacks} holding the list of created callbacks, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<ConnectorWithCallbacks> createCallbacksAsync() {
+        JsonBodyBuilder builder = JsonBodyBuilder.forClass(Connector.class)
+                .addParamPair("callbacks", callbacks);
+
+        return requestAsync(RequestMethod.POST, classURLWithSuffix(Connector.class, String.format("%d/callbacks", getId())),
+                builder.build(), null, Connector.class).thenApply(connectorWithCallbacks -> {
+            mergeCallbackFields(connectorWithCallbacks);
+            return this;
+        });
+    }
+
     /**
      * Updates the list of callbacks, editing any existing ones and adding any new ones, associated to
      * this connector. Here's an example of how to edit an existing callback:
@@ -616,6 +727,22 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #updateCallbacks()}.
+     *
+     * @return a future completed with an instance {@link ConnectorWithCallbacks} holding the list of updated callbacks, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<ConnectorWithCallbacks> updateCallbacksAsync() {
+        JsonBodyBuilder builder = JsonBodyBuilder.forClass(Connector.class)
+                .addParamPair("callbacks", callbacks);
+
+        return requestAsync(RequestMethod.PUT, classURLWithSuffix(Connector.class, String.format("%d/callbacks", getId())),
+                builder.build(), null, Connector.class).thenApply(connectorWithCallbacks -> {
+            mergeCallbackFields(connectorWithCallbacks);
+            return this;
+        });
+    }
+
 
     private void mergeCallbackFields(ConnectorWithCallbacks connectorWithCallbacks) {
         this.dateModified = connectorWithCallbacks.getDateModified();
@@ -639,6 +766,15 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return deleteCallbacks(this.callbacks);
     }
 
+    /**
+     * Asynchronous version of {@link #deleteAllCallbacks()}.
+     *
+     * @return a future completed with an instance {@link ConnectorWithCallbacks} holding an empty list of callbacks, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<ConnectorWithCallbacks> deleteAllCallbacksAsync() {
+        return deleteCallbacksAsync(this.callbacks);
+    }
+
     /**
      * Removes a single callback.
      *
@@ -658,6 +794,19 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return deleteCallbacks(singleCallbackList);
     }
 
+    /**
+     * Asynchronous version of {@link #deleteSingleCallback(Callback)}.
+     *
+     * @param callback the callback to be removed
+     * @return a future completed with an instance {@link ConnectorWithCallbacks} holding the updated list of callbacks, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<ConnectorWithCallbacks> deleteSingleCallbackAsync(Callback callback) {
+        List<Callback> singleCallbackList = new ArrayList<Callback>(1);
+        singleCallbackList.add(callback);
+
+        return deleteCallbacksAsync(singleCallbackList);
+    }
+
     /**
      * Removes a series of callbacks
      *
@@ -678,6 +827,20 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
                 builder.build(), null, Connector.class);
     }
 
+    /**
+     * Asynchronous version of {@link #deleteCallbacks(List)}.
+     *
+     * @param callbacks the callbacks to be removed
+     * @return a future completed with an instance {@link ConnectorWithCallbacks} holding the updated list of callbacks, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<ConnectorWithCallbacks> deleteCallbacksAsync(List<Callback> callbacks) {
+        JsonBodyBuilder builder = JsonBodyBuilder.forClass(Connector.class)
+                .addParamPair("callbacks", callbacks);
+
+        return requestAsync(RequestMethod.DELETE, classURLWithSuffix(Connector.class, String.format("%d/callbacks", getId())),
+                builder.build(), null, Connector.class);
+    }
+
     /**
      * List of phone numbers associated to Connector
      *
@@ -787,6 +950,18 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #associatePhoneNumbers()}.
+     *
+     * @return a future completed with an instance {@link ConnectorWithPhoneNumbers} holding the list of associated phone numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<ConnectorWithPhoneNumbers> associatePhoneNumbersAsync() {
+        JsonBodyBuilder builder = JsonBodyBuilder.forClass(Connector.class)
+                .addParamPair("phone_numbers", phoneNumbers);
+
+        return phoneNumbersRequestAsync(RequestMethod.POST, builder.build());
+    }
+
     /**
      * Updates the list of phone numbers, editing any existing ones and adding any new ones, associated to
      * this connector. Here's an example of how to edit an associated phone number:
@@ -825,6 +1000,18 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #updateAssociatedPhoneNumbers()}.
+     *
+     * @return a future completed with an instance {@link ConnectorWithPhoneNumbers} holding the list of updated phone numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<ConnectorWithPhoneNumbers> updateAssociatedPhoneNumbersAsync() {
+        JsonBodyBuilder builder = JsonBodyBuilder.forClass(Connector.class)
+                .addParamPair("phone_numbers", phoneNumbers);
+
+        return phoneNumbersRequestAsync(RequestMethod.PUT, builder.build());
+    }
+
     /**
      * Removes all the phone numbers associated to this connector.
      *
@@ -843,6 +1030,15 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return deletePhoneNumbers(this.phoneNumbers);
     }
 
+    /**
+     * Asynchronous version of {@link #deleteAllPhoneNumbers()}.
+     *
+     * @return a future completed with an instance {@link ConnectorWithPhoneNumbers} holding an empty list of phone numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<ConnectorWithPhoneNumbers> deleteAllPhoneNumbersAsync() {
+        return deletePhoneNumbersAsync(this.phoneNumbers);
+    }
+
     /**
      * Removes a single phone number.
      *
@@ -862,6 +1058,19 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return deletePhoneNumbers(singlePhoneNumberList);
     }
 
+    /**
+     * Asynchronous version of {@link #deleteSinglePhoneNumber(PhoneNumber)}.
+     *
+     * @param phoneNumber the phone number to be removed
+     * @return a future completed with an instance {@link ConnectorWithPhoneNumbers} holding the updated list of phone numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<ConnectorWithPhoneNumbers> deleteSinglePhoneNumberAsync(PhoneNumber phoneNumber) {
+        List<PhoneNumber> singlePhoneNumberList = new ArrayList<PhoneNumber>(1);
+        singlePhoneNumberList.add(phoneNumber);
+
+        return deletePhoneNumbersAsync(singlePhoneNumberList);
+    }
+
     /**
      * Removes a series of phone numbers
      *
@@ -885,6 +1094,28 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #deletePhoneNumbers(List)}.
+     *
+     * @param phoneNumbers the phone numbers to be removed
+     * @return a future completed with an instance {@link ConnectorWithPhoneNumbers} holding the updated list of phone numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<ConnectorWithPhoneNumbers> deletePhoneNumbersAsync(List<PhoneNumber> phoneNumbers) {
+        JsonBodyBuilder builder = JsonBodyBuilder.forClass(Connector.class)
+                .addParamPair("phone_numbers", phoneNumbers);
+
+        return phoneNumbersRequestAsync(RequestMethod.DELETE, builder.build());
+    }
+
+
+    private CompletableFuture<ConnectorWithPhoneNumbers> phoneNumbersRequestAsync(RequestMethod method, String body) {
+        return requestAsync(method, classURLWithSuffix(Connector.class, String.format("%d/phone_numbers", getId())),
+                body, null, ConnectorPaginatedPhoneNumbers.class).thenApply(paginatedPhoneNumbers -> {
+            mergePhoneNumberFields(paginatedPhoneNumbers.getConnector());
+            return this;
+        });
+    }
+
 
     private void mergePhoneNumberFields(ConnectorWithPhoneNumbers connectorWithPhoneNumbers) {
 
@@ -907,6 +1138,18 @@ public class Connector extends VivialConnectResource implements ConnectorWithCal
         return connector;
     }
 
+
+    private CompletableFuture<Integer> paginateAsync(final int toPage) {
+        Map<String, String> queryParams = new HashMap<String, String>();
+        queryParams.put("page", String.valueOf(toPage));
+
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Connector.class, String.format("%d/phone_numbers", getId())),
+                null, queryParams, ConnectorPaginatedPhoneNumbers.class).thenApply(paginatedPhoneNumbers -> {
+            mergePhoneNumberFields(paginatedPhoneNumbers.getConnector());
+            return toPage;
+        });
+    }
+
     /**
      * A boolean that is true if the Connector has more than 50 associated numbers.
      *
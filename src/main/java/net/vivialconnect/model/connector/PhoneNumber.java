@@ -8,6 +8,7 @@ import net.vivialconnect.model.error.VivialConnectException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import net.vivialconnect.model.error.BadRequestException;
 import net.vivialconnect.model.error.ServerErrorException;
@@ -69,6 +70,16 @@ public class PhoneNumber extends VivialConnectResource {
         return getPhoneNumbers(connectorId, 1);
     }
 
+    /**
+     * Asynchronous version of {@link #getPhoneNumbers(int)}.
+     *
+     * @param connectorId connector ID value
+     * @return a future completed with the first page of the connector's phone numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<ConnectorWithPhoneNumbers> getPhoneNumbersAsync(int connectorId) {
+        return getPhoneNumbersAsync(connectorId, 1);
+    }
+
     /**
      * List of phone numbers associated to a connector
      *
@@ -92,6 +103,22 @@ public class PhoneNumber extends VivialConnectResource {
         return connector;
     }
 
+    /**
+     * Asynchronous version of {@link #getPhoneNumbers(int, int)}.
+     *
+     * @param connectorId connector ID value
+     * @param page        page number value
+     * @return a future completed with the connector's phone numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<ConnectorWithPhoneNumbers> getPhoneNumbersAsync(int connectorId, int page) {
+
+        Map<String, String> pageParam = new HashMap<String, String>();
+        pageParam.put("page", String.valueOf(page));
+
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Connector.class, String.format("%d/phone_numbers", connectorId)), null, pageParam,
+                ConnectorPaginatedPhoneNumbers.class).thenApply(ConnectorPaginatedPhoneNumbers::getConnector);
+    }
+
     /**
      * Count of phone numbers associated to a connector
      *
@@ -107,6 +134,16 @@ public class PhoneNumber extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithSuffix(Connector.class, String.format("%d/phone_numbers/count", connectorId)), null, null, ResourceCount.class).getCount();
     }
 
+    /**
+     * Asynchronous version of {@link #count(int)}.
+     *
+     * @param connectorId connector ID
+     * @return a future completed with the count of phone numbers associated to the connector, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<Integer> countAsync(int connectorId) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Connector.class, String.format("%d/phone_numbers/count", connectorId)), null, null, ResourceCount.class).thenApply(ResourceCount::getCount);
+    }
+
     /**
      * Literal phone number value
      *
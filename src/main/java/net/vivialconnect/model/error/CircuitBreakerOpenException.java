@@ -0,0 +1,15 @@
+package net.vivialconnect.model.error;
+
+/**
+ * Exception when a request was not sent because the circuit breaker of its resource is open, after consecutive server
+ * errors or timeouts. See {@link net.vivialconnect.http.CircuitBreakers}.
+ * <p>
+ * The API was not called, so the response code is 0.
+ */
+public class CircuitBreakerOpenException extends ApiRequestException {
+
+    public CircuitBreakerOpenException(String description) {
+        super(0, description, null);
+    }
+
+}
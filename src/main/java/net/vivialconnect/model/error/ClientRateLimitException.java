@@ -0,0 +1,16 @@
+package net.vivialconnect.model.error;
+
+/**
+ * Exception when a request was not sent because a client-side limit was reached: either the rate limit of its route,
+ * see {@link net.vivialconnect.http.RateLimits}, or the concurrency limit, see
+ * {@link net.vivialconnect.http.ConcurrencyLimiter}, and no permit became available within the time allowed.
+ * <p>
+ * Unlike other {@link RateLimitException}s, the API was not called, so the response code is 0.
+ */
+public class ClientRateLimitException extends RateLimitException {
+
+    public ClientRateLimitException(String description) {
+        super(0, description, null);
+    }
+
+}
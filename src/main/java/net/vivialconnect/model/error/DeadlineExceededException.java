@@ -0,0 +1,20 @@
+package net.vivialconnect.model.error;
+
+/**
+ * Exception when the deadline set through {@link net.vivialconnect.http.RequestOptions} passed before the call could
+ * complete, including requests whose connection timed out at the deadline.
+ * <p>
+ * The response code is 0.
+ */
+public class DeadlineExceededException extends ApiRequestException {
+
+    public DeadlineExceededException(String description) {
+        super(0, description, null);
+    }
+
+
+    public DeadlineExceededException(String description, Throwable cause) {
+        super(0, description, cause);
+    }
+
+}
@@ -0,0 +1,64 @@
+package net.vivialconnect.model.format;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Process-wide Jackson readers and writer used to map API payloads.
+ * <p>
+ * Readers and writers are immutable and thread-safe, so they are built once and shared by every request. This keeps
+ * the serializers and deserializers Jackson resolves for each type, instead of introspecting the model classes again
+ * on every response.
+ */
+public final class JsonMapperRegistry {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final ObjectReader READER = MAPPER.reader();
+    private static final ObjectReader UNWRAPPING_READER = READER.with(DeserializationFeature.UNWRAP_ROOT_VALUE);
+    private static final ObjectWriter WRITER = MAPPER.writer();
+
+    private static final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<Class<?>, ObjectReader>();
+    private static final ConcurrentMap<Class<?>, ObjectReader> unwrappingReaders = new ConcurrentHashMap<Class<?>, ObjectReader>();
+
+
+    private JsonMapperRegistry() {
+    }
+
+    /**
+     * Returns the reader for a response type. Unknown properties are ignored.
+     *
+     * @param type       class the payload is mapped to
+     * @param unwrapRoot true if the payload wraps the value in a single root property, like <code>{"message": {...}}</code>
+     * @return a shared reader for the type
+     */
+    public static ObjectReader getReader(Class<?> type, boolean unwrapRoot) {
+        ConcurrentMap<Class<?>, ObjectReader> cache = unwrapRoot ? unwrappingReaders : readers;
+
+        ObjectReader reader = cache.get(type);
+        if (reader == null) {
+            reader = (unwrapRoot ? UNWRAPPING_READER : READER).forType(type);
+
+            ObjectReader existing = cache.putIfAbsent(type, reader);
+            if (existing != null) {
+                reader = existing;
+            }
+        }
+
+        return reader;
+    }
+
+
+    /**
+     * @return the shared writer used to serialize values
+     */
+    public static ObjectWriter getWriter() {
+        return WRITER;
+    }
+}
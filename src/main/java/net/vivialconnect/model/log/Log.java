@@ -3,6 +3,7 @@ package net.vivialconnect.model.log;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import net.vivialconnect.model.VivialConnectResource;
@@ -148,6 +149,17 @@ public class Log extends VivialConnectResource {
         return getLogs(startTime, endTime, null);
     }
 
+    /**
+     * Asynchronous version of {@link #getLogs(Date, Date)}.
+     *
+     * @param startTime start date and time in ISO 8601 format like YYYYMMDDThhmmssZ
+     * @param endTime   end date and time in ISO 8601 format like YYYYMMDDThhmmssZ
+     * @return a future completed with a log collection, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<LogCollection> getLogsAsync(Date startTime, Date endTime) {
+        return getLogsAsync(startTime, endTime, null);
+    }
+
     /**
      * Search and filter for all logs relating to your account activity.
      * <p>
@@ -180,6 +192,19 @@ public class Log extends VivialConnectResource {
         return request(RequestMethod.GET, classURL(Log.class), null, queryParameters, LogCollection.class);
     }
 
+    /**
+     * Asynchronous version of {@link #getLogs(Date, Date, Map)}.
+     *
+     * @param startTime       start date and time in ISO 8601 format like YYYYMMDDThhmmssZ
+     * @param endTime         end date and time in ISO 8601 format like YYYYMMDDThhmmssZ
+     * @param queryParameters a map of {@link String } key-value pairs used to filter results
+     * @return a future completed with a log collection, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<LogCollection> getLogsAsync(Date startTime, Date endTime, Map<String, String> queryParameters) {
+        queryParameters = buildQueryParams(startTime, endTime, null, queryParameters);
+        return requestAsync(RequestMethod.GET, classURL(Log.class), null, queryParameters, LogCollection.class);
+    }
+
     /**
      * Returns the list of aggregated logs in your account.
      * <p>
@@ -200,6 +225,18 @@ public class Log extends VivialConnectResource {
         return getAggregate(startTime, endTime, aggregatorType, null);
     }
 
+    /**
+     * Asynchronous version of {@link #getAggregate(Date, Date, String)}.
+     *
+     * @param startTime      start date and time in ISO 8601 format like YYYYMMDDThhmmssZ
+     * @param endTime        end date and time in ISO 8601 format like YYYYMMDDThhmmssZ
+     * @param aggregatorType valid values are: minutes, hours, days, months, years
+     * @return a future completed with a log collection, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<LogCollection> getAggregateAsync(Date startTime, Date endTime, String aggregatorType) {
+        return getAggregateAsync(startTime, endTime, aggregatorType, null);
+    }
+
     /**
      * Search and filter the list of aggregated logs in your account.
      * <p>
@@ -232,6 +269,20 @@ public class Log extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithSuffix(Log.class, "aggregate"), null, queryParameters, LogCollection.class);
     }
 
+    /**
+     * Asynchronous version of {@link #getAggregate(Date, Date, String, Map)}.
+     *
+     * @param startTime       start date and time in ISO 8601 format like YYYYMMDDThhmmssZ
+     * @param endTime         end date and time in ISO 8601 format like YYYYMMDDThhmmssZ
+     * @param aggregatorType  valid values are: minutes, hours, days, months, years
+     * @param queryParameters a map of {@link String } key-value pairs used to filter results
+     * @return a future completed with a log collection, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<LogCollection> getAggregateAsync(Date startTime, Date endTime, String aggregatorType, Map<String, String> queryParameters) {
+        queryParameters = buildQueryParams(startTime, endTime, aggregatorType, queryParameters);
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Log.class, "aggregate"), null, queryParameters, LogCollection.class);
+    }
+
     private static Map<String, String> buildQueryParams(Date startTime, Date endTime, String aggregatorType, Map<String, String> queryParams) {
         String formattedStartDate = createRequestTimestamp(startTime);
         String formattedEndDate = createRequestTimestamp(endTime);
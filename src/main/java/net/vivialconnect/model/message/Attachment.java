@@ -1,6 +1,7 @@
 package net.vivialconnect.model.message;
 
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
@@ -90,6 +91,17 @@ public class Attachment extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithSuffix(Message.class, String.format("%d/attachments/%d", messageId, attachmentId)), null, null, Attachment.class);
     }
 
+    /**
+     * Asynchronous version of {@link #getAttachmentById(int, int)}.
+     *
+     * @param messageId    the messageId that contains the attachment
+     * @param attachmentId the media attachmentId
+     * @return a future completed with the attachment found, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<Attachment> getAttachmentByIdAsync(int messageId, int attachmentId) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Message.class, String.format("%d/attachments/%d", messageId, attachmentId)), null, null, Attachment.class);
+    }
+
     /**
      * Total number of attachment sent in the specified text message. If there are none, this method will return <code>0</code>
      *
@@ -105,6 +117,16 @@ public class Attachment extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithSuffix(Message.class, String.format("%d/attachments/count", messageId)), null, null, ResourceCount.class).getCount();
     }
 
+    /**
+     * Asynchronous version of {@link #count(int)}.
+     *
+     * @param messageId the messageId that contains the attachment
+     * @return a future completed with the number of attachments in the message, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<Integer> countAsync(int messageId) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Message.class, String.format("%d/attachments/count", messageId)), null, null, ResourceCount.class).thenApply(ResourceCount::getCount);
+    }
+
     /**
      * Deletes this attachment from the database, dissociating it from the message.
      * <p>
@@ -128,6 +150,15 @@ public class Attachment extends VivialConnectResource {
         return false;
     }
 
+    /**
+     * Asynchronous version of {@link #delete()}.
+     *
+     * @return a future completed with whether the attachment was deleted or not, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Boolean> deleteAsync() {
+        return requestDeletionAsync(classURLWithSuffix(Message.class, String.format("%d/attachments/%d", getMessageId(), getId())));
+    }
+
     /**
      * Unique identifier of the media attachment object
      *
@@ -7,6 +7,7 @@ import net.vivialconnect.model.format.JsonBodyBuilder;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import net.vivialconnect.model.error.BadRequestException;
 import net.vivialconnect.model.error.ServerErrorException;
@@ -180,6 +181,17 @@ public class BulkMessage extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithSuffix(Message.class, bulkIdPath), null, null, MessageCollection.class).getMessages();
     }
 
+    /**
+     * Asynchronous version of {@link #getBulk(String)}.
+     *
+     * @param bulkId ID of an existing bulk.
+     * @return a future completed with the messages sent in the bulk, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<Message>> getBulkAsync(String bulkId) {
+        String bulkIdPath = String.format("bulk/%s", bulkId);
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Message.class, bulkIdPath), null, null, MessageCollection.class).thenApply(MessageCollection::getMessages);
+    }
+
     /**
      * Returns a collection of bulk sent. This method returns the first of multiples pages.
      *
@@ -194,6 +206,15 @@ public class BulkMessage extends VivialConnectResource {
         return getBulksCreated(1);
     }
 
+    /**
+     * Asynchronous version of {@link #getBulksCreated()}.
+     *
+     * @return a future completed with the first page of bulks sent, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<BulkInfoCollection> getBulksCreatedAsync() {
+        return getBulksCreatedAsync(1);
+    }
+
     /**
      * Returns a collection of bulk sent. This method returns the "N" page of multiple pages.
      * @param page page to return 
@@ -211,6 +232,19 @@ public class BulkMessage extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithSuffix(Message.class, "bulk"), null, queryParams, BulkInfoCollection.class);
     }
 
+    /**
+     * Asynchronous version of {@link #getBulksCreated(int)}.
+     *
+     * @param page page to return
+     * @return a future completed with the requested page of bulks sent, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<BulkInfoCollection> getBulksCreatedAsync(int page) {
+        Map<String, String> queryParams = new HashMap<String, String>();
+        queryParams.put("page", String.valueOf(page));
+
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Message.class, "bulk"), null, queryParams, BulkInfoCollection.class);
+    }
+
     /**
      * Send a bulk of messages.
      *
@@ -232,4 +266,19 @@ public class BulkMessage extends VivialConnectResource {
         return request(RequestMethod.POST, classURLWithSuffix(Message.class, "bulk"), payload, null, BulkInfo.class);
     }
 
+    /**
+     * Asynchronous version of {@link #send()}.
+     *
+     * @return a future completed with a BulkInfo holding the ID of the bulk, or completed exceptionally with a {@link VivialConnectException}
+     * @throws IllegalStateException if the list of numbers is null or empty
+     */
+    public CompletableFuture<BulkInfo> sendAsync() {
+
+        if (toNumbers == null || toNumbers.isEmpty()) {
+            throw new IllegalStateException("The list of numbers cannot be null or empty");
+        }
+
+        return requestAsync(RequestMethod.POST, classURLWithSuffix(Message.class, "bulk"), createJson(), null, BulkInfo.class);
+    }
+
 }
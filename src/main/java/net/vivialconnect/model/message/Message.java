@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import net.vivialconnect.model.error.BadRequestException;
 import net.vivialconnect.model.error.ServerErrorException;
@@ -215,6 +216,19 @@ public class Message extends VivialConnectResource {
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #send()}. This message is updated with the API response before the future completes.
+     *
+     * @return a future completed with this message once it was sent, or completed exceptionally with a {@link VivialConnectException}
+     * @see #send()
+     */
+    public CompletableFuture<Message> sendAsync() {
+        return requestAsync(RequestMethod.POST, classURL(Message.class), jsonBody(), null, Message.class).thenApply(sentMessage -> {
+            updateObjectState(sentMessage);
+            return this;
+        });
+    }
+
 
     private void updateObjectState(Message sentMessage) {
         this.id = sentMessage.getId();
@@ -283,6 +297,16 @@ public class Message extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithSuffix(Message.class, String.valueOf(messageId)), null, null, Message.class);
     }
 
+    /**
+     * Asynchronous version of {@link #getMessageById(int)}.
+     *
+     * @param messageId the id of the message to look up
+     * @return a future completed with the Message found, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<Message> getMessageByIdAsync(int messageId) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Message.class, String.valueOf(messageId)), null, null, Message.class);
+    }
+
     /**
      * Gets all the messages associated with the current account. If there are none, this method will return an empty { @link List }
      *
@@ -299,6 +323,15 @@ public class Message extends VivialConnectResource {
         return getMessages(null);
     }
 
+    /**
+     * Asynchronous version of {@link #getMessages()}.
+     *
+     * @return a future completed with a list of messages, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<Message>> getMessagesAsync() {
+        return getMessagesAsync(null);
+    }
+
     /**
      * Lists and filters the messages associated with the current account. If there are none, the method will return an empty {@link List}
      *
@@ -320,6 +353,16 @@ public class Message extends VivialConnectResource {
         return request(RequestMethod.GET, classURL(Message.class), null, queryParameters, MessageCollection.class).getMessages();
     }
 
+    /**
+     * Asynchronous version of {@link #getMessages(Map)}.
+     *
+     * @param queryParameters a map of {@link String } key-value pairs used to filter results
+     * @return a future completed with a list of messages, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<Message>> getMessagesAsync(Map<String, String> queryParameters) {
+        return requestAsync(RequestMethod.GET, classURL(Message.class), null, queryParameters, MessageCollection.class).thenApply(MessageCollection::getMessages);
+    }
+
     /**
      * Total number of messages in the account. If there are none, this method will return <code>0</code>.
      *
@@ -334,6 +377,15 @@ public class Message extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithSuffix(Message.class, "count"), null, null, ResourceCount.class).getCount();
     }
 
+    /**
+     * Asynchronous version of {@link #count()}.
+     *
+     * @return a future completed with the message count, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<Integer> countAsync() {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Message.class, "count"), null, null, ResourceCount.class).thenApply(ResourceCount::getCount);
+    }
+
     /**
      * Retrieves this message's media attachments. If the message has none, it will return an empty {@link List}.
      *
@@ -348,6 +400,15 @@ public class Message extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithSuffix(Message.class, String.format("%d/attachments", this.getId())), null, null, AttachmentCollection.class).getAttachments();
     }
 
+    /**
+     * Asynchronous version of {@link #getAttachments()}.
+     *
+     * @return a future completed with an attachment list, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<List<Attachment>> getAttachmentsAsync() {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Message.class, String.format("%d/attachments", this.getId())), null, null, AttachmentCollection.class).thenApply(AttachmentCollection::getAttachments);
+    }
+
     /**
      * Redacts the text message by replacing the message body text with an empty value.
      *
@@ -365,6 +426,18 @@ public class Message extends VivialConnectResource {
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #redact()}.
+     *
+     * @return a future completed with this Message instance with the body text redacted, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Message> redactAsync() {
+        return requestAsync(RequestMethod.PUT, classURLWithSuffix(Message.class, String.valueOf(this.getId())), jsonBodyEmpty(), null, Message.class).thenApply(redactedMessage -> {
+            updateObjectState(redactedMessage);
+            return this;
+        });
+    }
+
 
     private String jsonBodyEmpty() {
         return JsonBodyBuilder.forClass(Message.class)
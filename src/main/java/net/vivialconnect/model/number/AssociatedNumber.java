@@ -2,6 +2,7 @@ package net.vivialconnect.model.number;
 
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import net.vivialconnect.model.enums.CallbackMethod;
 import net.vivialconnect.model.error.VivialConnectException;
@@ -28,6 +29,13 @@ public interface AssociatedNumber extends INumber {
      */
     AssociatedNumber update() throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException ;
 
+    /**
+     * Asynchronous version of {@link #update()}.
+     *
+     * @return future completed with the updated instance, or completed exceptionally with a {@link VivialConnectException} if the request fails
+     */
+    CompletableFuture<AssociatedNumber> updateAsync();
+
     /**
      * Must update the current values of the instance to the API
      *
@@ -40,6 +48,13 @@ public interface AssociatedNumber extends INumber {
      */
     AssociatedNumber updateLocalNumber() throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException ;
 
+    /**
+     * Asynchronous version of {@link #updateLocalNumber()}.
+     *
+     * @return future completed with the updated instance, or completed exceptionally with a {@link VivialConnectException} if the request fails
+     */
+    CompletableFuture<AssociatedNumber> updateLocalNumberAsync();
+
     /**
      * Must delete the object of the API.
      *
@@ -52,6 +67,13 @@ public interface AssociatedNumber extends INumber {
      */
     boolean delete() throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException ;
 
+    /**
+     * Asynchronous version of {@link #delete()}.
+     *
+     * @return future completed with true if the deletion was successful, false otherwise, or completed exceptionally with a {@link VivialConnectException} if the request fails
+     */
+    CompletableFuture<Boolean> deleteAsync();
+
     /**
      * Must delete the object of the API.
      *
@@ -64,6 +86,13 @@ public interface AssociatedNumber extends INumber {
      * */
     boolean deleteLocalNumber() throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException ;
 
+    /**
+     * Asynchronous version of {@link #deleteLocalNumber()}.
+     *
+     * @return future completed with true if the deletion was successful, false otherwise, or completed exceptionally with a {@link VivialConnectException} if the request fails
+     */
+    CompletableFuture<Boolean> deleteLocalNumberAsync();
+
     /**
      * Must return information about the device type and carrier that is associated with a specific phone number
      *
@@ -76,6 +105,13 @@ public interface AssociatedNumber extends INumber {
      */
     NumberInfo lookup() throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException ;
 
+    /**
+     * Asynchronous version of {@link #lookup()}.
+     *
+     * @return future completed with information about the phone number, or completed exceptionally with a {@link VivialConnectException} if the request fails
+     */
+    CompletableFuture<NumberInfo> lookupAsync();
+
     /**
      * Must return object unique ID
      *
@@ -250,6 +286,14 @@ public interface AssociatedNumber extends INumber {
      */
     TagCollection updateTags(Map<String, String> tags) throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException ;
 
+    /**
+     * Asynchronous version of {@link #updateTags(Map)}.
+     *
+     * @param tags String key-pair values with the tag names and values
+     * @return future completed with the updated tags, or completed exceptionally with a {@link VivialConnectException} if the request fails
+     */
+    CompletableFuture<TagCollection> updateTagsAsync(Map<String, String> tags);
+
     /**
      * Must pull the tags from the API and update them in the instance
      *
@@ -262,6 +306,13 @@ public interface AssociatedNumber extends INumber {
      */
     TagCollection fetchTags() throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException ;
 
+    /**
+     * Asynchronous version of {@link #fetchTags()}.
+     *
+     * @return future completed with the tags pulled from the API, or completed exceptionally with a {@link VivialConnectException} if the request fails
+     */
+    CompletableFuture<TagCollection> fetchTagsAsync();
+
     /**
      * Must delete the tags passed as parameter in the API
      *
@@ -274,4 +325,12 @@ public interface AssociatedNumber extends INumber {
      * @throws ApiRequestException if an API error occurs
      */
     TagCollection deleteTags(Map<String, String> tags) throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException ;
+
+    /**
+     * Asynchronous version of {@link #deleteTags(Map)}.
+     *
+     * @param tags tags to delete
+     * @return future completed with the remaining tags, or completed exceptionally with a {@link VivialConnectException} if the request fails
+     */
+    CompletableFuture<TagCollection> deleteTagsAsync(Map<String, String> tags);
 }
\ No newline at end of file
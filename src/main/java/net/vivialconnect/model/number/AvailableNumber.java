@@ -1,5 +1,7 @@
 package net.vivialconnect.model.number;
 
+import java.util.concurrent.CompletableFuture;
+
 import net.vivialconnect.model.error.BadRequestException;
 import net.vivialconnect.model.error.ServerErrorException;
 import net.vivialconnect.model.error.ApiRequestException;
@@ -37,4 +39,12 @@ public interface AvailableNumber extends INumber {
      * @throws ApiRequestException if an API error occurs
      */
     AssociatedNumber buy() throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException;
+
+    /**
+     * Asynchronous version of {@link #buy()}.
+     *
+     * @return future completed with the newly-purchased number, or completed exceptionally with a
+     * {@link net.vivialconnect.model.error.VivialConnectException} if the request fails
+     */
+    CompletableFuture<AssociatedNumber> buyAsync();
 }
\ No newline at end of file
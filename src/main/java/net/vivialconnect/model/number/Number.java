@@ -4,6 +4,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
@@ -189,6 +190,19 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #update()}. This number is updated with the API response before the future completes.
+     *
+     * @return a future completed with this instance of {@link AssociatedNumber}, or completed exceptionally with a {@link VivialConnectException}
+     */
+    @Override
+    public CompletableFuture<AssociatedNumber> updateAsync() {
+        return requestAsync(RequestMethod.PUT, classURLWithSuffix(Number.class, String.valueOf(getId())), buildJsonBodyForUpdate(), null, Number.class).thenApply(number -> {
+            updateObjectState(number);
+            return this;
+        });
+    }
+
 
     private String buildJsonBodyForUpdate() {
         JsonBodyBuilder builder = JsonBodyBuilder.withCustomClassName("phone_number");
@@ -256,6 +270,22 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return this;
     }
 
+    /**
+     * Asynchronous version of {@link #updateLocalNumber()}. This number is updated with the API response before the future completes.
+     *
+     * @return a future completed with this instance of {@link AssociatedNumber}, or completed exceptionally with a {@link VivialConnectException}
+     * @throws UnsupportedOperationException if the number is not local
+     */
+    @Override
+    public CompletableFuture<AssociatedNumber> updateLocalNumberAsync() {
+        ensureNumberIsLocal();
+
+        return requestAsync(RequestMethod.PUT, classURLWithSuffix(Number.class, String.format("local/%d", getId())), buildJsonBodyForUpdate(), null, Number.class).thenApply(number -> {
+            updateObjectState(number);
+            return this;
+        });
+    }
+
 
     private void ensureNumberIsLocal() {
         if (!"local".equals(phoneNumberType)) {
@@ -287,6 +317,16 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return false;
     }
 
+    /**
+     * Asynchronous version of {@link #delete()}.
+     *
+     * @return a future completed with whether the number was deleted or not, or completed exceptionally with a {@link VivialConnectException}
+     */
+    @Override
+    public CompletableFuture<Boolean> deleteAsync() {
+        return requestDeletionAsync(classURLWithSuffix(Number.class, String.valueOf(getId())));
+    }
+
     /**
      * Deletes this local number from the database, dissociating it from the account.
      * <p>
@@ -313,6 +353,19 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return false;
     }
 
+    /**
+     * Asynchronous version of {@link #deleteLocalNumber()}.
+     *
+     * @return a future completed with whether the local number was deleted or not, or completed exceptionally with a {@link VivialConnectException}
+     * @throws UnsupportedOperationException if the number is not local
+     */
+    @Override
+    public CompletableFuture<Boolean> deleteLocalNumberAsync() {
+        ensureNumberIsLocal();
+
+        return requestDeletionAsync(classURLWithSuffix(Number.class, String.format("local/%d", getId())));
+    }
+
     /**
      * Purchases a new number using the properties: phone number and phone number type
      *
@@ -332,6 +385,21 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return request(RequestMethod.POST, classURL(Number.class), builder.build(), null, Number.class);
     }
 
+    /**
+     * Asynchronous version of {@link #buy()}.
+     *
+     * @return a future completed with the new Number purchased, or completed exceptionally with a {@link VivialConnectException}
+     */
+    @Override
+    public CompletableFuture<AssociatedNumber> buyAsync() {
+        JsonBodyBuilder builder = JsonBodyBuilder.withCustomClassName("phone_number")
+                .addParamPair("phone_number", getPhoneNumber())
+                .addParamPair("phone_number_type", getPhoneNumberType());
+        fillOptionalFieldsForBuy(builder);
+
+        return requestAsync(RequestMethod.POST, classURL(Number.class), builder.build(), null, Number.class);
+    }
+
 
     private void fillOptionalFieldsForBuy(JsonBodyBuilder builder) {
         ifParamValidAddToBuilder(builder, "name", getName());
@@ -428,14 +496,18 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
      * @throws ApiRequestException if an API error occurs
      */
     public static AssociatedNumber buyLocalNumber(String phoneNumber, Map<String, Object> optionalParams) throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException {
-        JsonBodyBuilder builder = JsonBodyBuilder.withCustomClassName("phone_number");
-        if (optionalParams != null) {
-            builder = builder.addParams(optionalParams);
-        }
-        ifParamValidAddToBuilder(builder, "phone_number", phoneNumber);
-        ifParamValidAddToBuilder(builder, "phone_number_type", "local");
+        return request(RequestMethod.POST, classURL(Number.class), jsonBodyForBuy(phoneNumber, "local", optionalParams), null, Number.class);
+    }
 
-        return request(RequestMethod.POST, classURL(Number.class), builder.build(), null, Number.class);
+    /**
+     * Asynchronous version of {@link #buyLocalNumber(String, Map)}.
+     *
+     * @param phoneNumber    Phone number you want to purchase in E.164 format (+country code +phone number).
+     * @param optionalParams a map of {@link String } and {@link Object } key-value pairs with optional properties of the number
+     * @return a future completed with the new Number purchased, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<AssociatedNumber> buyLocalNumberAsync(String phoneNumber, Map<String, Object> optionalParams) {
+        return requestAsync(RequestMethod.POST, classURL(Number.class), jsonBodyForBuy(phoneNumber, "local", optionalParams), null, Number.class);
     }
 
 
@@ -466,14 +538,18 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
      * @throws ApiRequestException if an API error occurs
      */
     public static AssociatedNumber buyTollfreeNumber(String phoneNumber, Map<String, Object> optionalParams) throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException {
-        JsonBodyBuilder builder = JsonBodyBuilder.withCustomClassName("phone_number");
-        if (optionalParams != null) {
-            builder = builder.addParams(optionalParams);
-        }
-        ifParamValidAddToBuilder(builder, "phone_number", phoneNumber);
-        ifParamValidAddToBuilder(builder, "phone_number_type", "tollfree");
+        return request(RequestMethod.POST, classURL(Number.class), jsonBodyForBuy(phoneNumber, "tollfree", optionalParams), null, Number.class);
+    }
 
-        return request(RequestMethod.POST, classURL(Number.class), builder.build(), null, Number.class);
+    /**
+     * Asynchronous version of {@link #buyTollfreeNumber(String, Map)}.
+     *
+     * @param phoneNumber    Phone number you want to purchase in E.164 format (+country code +phone number).
+     * @param optionalParams a map of {@link String } and {@link Object } key-value pairs with optional properties of the number
+     * @return a future completed with the new Number purchased, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<AssociatedNumber> buyTollfreeNumberAsync(String phoneNumber, Map<String, Object> optionalParams) {
+        return requestAsync(RequestMethod.POST, classURL(Number.class), jsonBodyForBuy(phoneNumber, "tollfree", optionalParams), null, Number.class);
     }
 
     /**
@@ -489,6 +565,16 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
     public static AssociatedNumber buyTollfreeNumber(String phoneNumber) throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException {
         return  buyTollfreeNumber(phoneNumber, null);
     }
+
+    /**
+     * Asynchronous version of {@link #buyTollfreeNumber(String)}.
+     *
+     * @param phoneNumber Phone number you want to purchase in E.164 format (+country code +phone number).
+     * @return a future completed with the new Number purchased, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<AssociatedNumber> buyTollfreeNumberAsync(String phoneNumber) {
+        return buyTollfreeNumberAsync(phoneNumber, null);
+    }
     /**
      * @deprecated  This method is deprecated. The API discontinued purchasing random numbers using an area code.  If you call this method with an area code,
      * it will choose the first number returned by {@link #findAvailableNumbersByAreaCode(String)}. Also, if you provide a phone number and an area code, the phone number will be ignored.
@@ -573,14 +659,33 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
      * @throws ApiRequestException if an API error occurs
      */
     public static AssociatedNumber buy(String phoneNumber, String phoneNumberType, Map<String, Object> optionalParams) throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException {
+        return request(RequestMethod.POST, classURL(Number.class), jsonBodyForBuy(phoneNumber, phoneNumberType, optionalParams), null, Number.class);
+    }
+
+    /**
+     * Asynchronous version of {@link #buy(String, String, Map)}.
+     *
+     * @param phoneNumber     Phone number you want to purchase in E.164 format (+country code +phone number).
+     * @param phoneNumberType type of the number: local or tollfree
+     * @param optionalParams  a map of {@link String } and {@link Object } key-value pairs with optional properties of the number
+     * @return a future completed with the new Number purchased, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<AssociatedNumber> buyAsync(String phoneNumber, String phoneNumberType, Map<String, Object> optionalParams) {
+        return requestAsync(RequestMethod.POST, classURL(Number.class), jsonBodyForBuy(phoneNumber, phoneNumberType, optionalParams), null, Number.class);
+    }
+
+
+    private static String jsonBodyForBuy(String phoneNumber, String phoneNumberType, Map<String, Object> optionalParams) {
         JsonBodyBuilder builder = JsonBodyBuilder.withCustomClassName("phone_number");
+
         if (optionalParams != null) {
             builder = builder.addParams(optionalParams);
         }
+
         ifParamValidAddToBuilder(builder, "phone_number", phoneNumber);
         ifParamValidAddToBuilder(builder, "phone_number_type", phoneNumberType);
 
-        return request(RequestMethod.POST, classURL(Number.class), builder.build(), null, Number.class);
+        return builder.build();
     }
 
     /**
@@ -600,6 +705,15 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return getAssociatedNumbers(null);
     }
 
+    /**
+     * Asynchronous version of {@link #getAssociatedNumbers()}.
+     *
+     * @return a future completed with a list of associated numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<AssociatedNumber>> getAssociatedNumbersAsync() {
+        return getAssociatedNumbersAsync(null);
+    }
+
     /**
      * Search and filter every associated number for this Account using the API.
      * <p>
@@ -631,6 +745,16 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return request(RequestMethod.GET, classURL(Number.class), null, queryParams, NumberCollection.class).getAssociatedNumbers();
     }
 
+    /**
+     * Asynchronous version of {@link #getAssociatedNumbers(Map)}.
+     *
+     * @param queryParams a map of {@link String } key-value pairs used to filter results
+     * @return a future completed with a list of associated numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<AssociatedNumber>> getAssociatedNumbersAsync(Map<String, String> queryParams) {
+        return requestAsync(RequestMethod.GET, classURL(Number.class), null, queryParams, NumberCollection.class).thenApply(NumberCollection::getAssociatedNumbers);
+    }
+
     /**
      * Search for available phone numbers in a specific region using the API.
      * <p>
@@ -649,6 +773,16 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return findAvailableNumbersInRegion(region, null);
     }
 
+    /**
+     * Asynchronous version of {@link #findAvailableNumbersInRegion(String)}.
+     *
+     * @param region region to search in
+     * @return a future completed with a list of available numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<AvailableNumber>> findAvailableNumbersInRegionAsync(String region) {
+        return findAvailableNumbersInRegionAsync(region, null);
+    }
+
     /**
      * Search and filter available phone numbers in a specific region using the API.
      * <p>
@@ -685,6 +819,17 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return request(RequestMethod.GET, classURLWithSuffix(Number.class, AVAILABLE_US_LOCAL), null, addQueryParam("in_region", region, queryParams), NumberCollection.class).getAvailableNumbers();
     }
 
+    /**
+     * Asynchronous version of {@link #findAvailableNumbersInRegion(String, Map)}.
+     *
+     * @param region region to search in
+     * @param queryParams a map of {@link String } key-value pairs used to filter results
+     * @return a future completed with a list of available numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<AvailableNumber>> findAvailableNumbersInRegionAsync(String region, Map<String, String> queryParams) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Number.class, AVAILABLE_US_LOCAL), null, addQueryParam("in_region", region, queryParams), NumberCollection.class).thenApply(NumberCollection::getAvailableNumbers);
+    }
+
     /**
      * Search for available phone numbers in a specific area code using the API.
      * <p>
@@ -702,6 +847,16 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return findAvailableNumbersByAreaCode(areaCode, null);
     }
 
+    /**
+     * Asynchronous version of {@link #findAvailableNumbersByAreaCode(String)}.
+     *
+     * @param areaCode area code to search in
+     * @return a future completed with a list of available numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<AvailableNumber>> findAvailableNumbersByAreaCodeAsync(String areaCode) {
+        return findAvailableNumbersByAreaCodeAsync(areaCode, null);
+    }
+
     /**
      * Search and filter available phone numbers in a specific area code using the API.
      * <p>
@@ -738,6 +893,17 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return request(RequestMethod.GET, classURLWithSuffix(Number.class, AVAILABLE_US_LOCAL), null, addQueryParam("area_code", areaCode, queryParams), NumberCollection.class).getAvailableNumbers();
     }
 
+    /**
+     * Asynchronous version of {@link #findAvailableNumbersByAreaCode(String, Map)}.
+     *
+     * @param areaCode area code to search in
+     * @param queryParams a map of {@link String } key-value pairs used to filter results
+     * @return a future completed with a list of available numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<AvailableNumber>> findAvailableNumbersByAreaCodeAsync(String areaCode, Map<String, String> queryParams) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Number.class, AVAILABLE_US_LOCAL), null, addQueryParam("area_code", areaCode, queryParams), NumberCollection.class).thenApply(NumberCollection::getAvailableNumbers);
+    }
+
     /**
      * Search for available phone numbers in a specific postal code using the API.
      * <p>
@@ -755,6 +921,16 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return findAvailableNumbersByPostalCode(postalCode, null);
     }
 
+    /**
+     * Asynchronous version of {@link #findAvailableNumbersByPostalCode(String)}.
+     *
+     * @param postalCode postal code to search in
+     * @return a future completed with a list of available numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<AvailableNumber>> findAvailableNumbersByPostalCodeAsync(String postalCode) {
+        return findAvailableNumbersByPostalCodeAsync(postalCode, null);
+    }
+
     /**
      * Search and filter available phone numbers in a specific postal code using the API.
      * <p>
@@ -791,6 +967,17 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return request(RequestMethod.GET, classURLWithSuffix(Number.class, AVAILABLE_US_LOCAL), null, addQueryParam("in_postal_code", postalCode, queryParams), NumberCollection.class).getAvailableNumbers();
     }
 
+    /**
+     * Asynchronous version of {@link #findAvailableNumbersByPostalCode(String, Map)}.
+     *
+     * @param postalCode postal code to search in
+     * @param queryParams a map of {@link String } key-value pairs used to filter results
+     * @return a future completed with a list of available numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<AvailableNumber>> findAvailableNumbersByPostalCodeAsync(String postalCode, Map<String, String> queryParams) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Number.class, AVAILABLE_US_LOCAL), null, addQueryParam("in_postal_code", postalCode, queryParams), NumberCollection.class).thenApply(NumberCollection::getAvailableNumbers);
+    }
+
     /**
      * Search available toll-free numbers.
      * @param queryParams a map of {@link String } key-value pairs used to filter results, possible values are:
@@ -808,6 +995,16 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return request(RequestMethod.GET, classURLWithSuffix(Number.class, "available/US/tollfree"), null, queryParams, NumberCollection.class).getAvailableNumbers();
     }
 
+    /**
+     * Asynchronous version of {@link #findAvailableTollFreeNumber(Map)}.
+     *
+     * @param queryParams a map of {@link String } key-value pairs used to filter results
+     * @return a future completed with a list of available toll free numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<AvailableNumber>> findAvailableTollFreeNumberAsync(Map<String, String> queryParams) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Number.class, "available/US/tollfree"), null, queryParams, NumberCollection.class).thenApply(NumberCollection::getAvailableNumbers);
+    }
+
     /**
      * Convenient method to search toll-free numbers without passing params. This will returns the default response from the API.
      * @return list of available toll-free numbers
@@ -821,6 +1018,15 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return findAvailableTollFreeNumber(null);
     }
 
+    /**
+     * Asynchronous version of {@link #findAvailableTollFreeNumber()}.
+     *
+     * @return a future completed with a list of available toll free numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<AvailableNumber>> findAvailableTollFreeNumberAsync() {
+        return findAvailableTollFreeNumberAsync(null);
+    }
+
     /**
      * Gets all the numbers associated with this account. If there are none, this method will return an empty { @link List }
      *
@@ -836,6 +1042,15 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return getLocalAssociatedNumbers(null);
     }
 
+    /**
+     * Asynchronous version of {@link #getLocalAssociatedNumbers()}.
+     *
+     * @return a future completed with a list of local associated numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<AssociatedNumber>> getLocalAssociatedNumbersAsync() {
+        return getLocalAssociatedNumbersAsync(null);
+    }
+
     /**
      * Lists and filters numbers associated with the current account. If there are none, the method will return an empty {@link List}
      *
@@ -864,6 +1079,16 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return request(RequestMethod.GET, classURLWithSuffix(Number.class, "local"), null, queryParams, NumberCollection.class).getAssociatedNumbers();
     }
 
+    /**
+     * Asynchronous version of {@link #getLocalAssociatedNumbers(Map)}.
+     *
+     * @param queryParams a map of {@link String } key-value pairs used to filter results
+     * @return a future completed with a list of local associated numbers, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<AssociatedNumber>> getLocalAssociatedNumbersAsync(Map<String, String> queryParams) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Number.class, "local"), null, queryParams, NumberCollection.class).thenApply(NumberCollection::getAssociatedNumbers);
+    }
+
     /**
      * Total number of phone numbers in the account. If there are none, this method will return <code>0</code>.
      *
@@ -878,6 +1103,15 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return request(RequestMethod.GET, classURLWithSuffix(Number.class, "count"), null, null, ResourceCount.class).getCount();
     }
 
+    /**
+     * Asynchronous version of {@link #count()}.
+     *
+     * @return a future completed with the number count, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<Integer> countAsync() {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Number.class, "count"), null, null, ResourceCount.class).thenApply(ResourceCount::getCount);
+    }
+
     /**
      * Total number of local numbers in the account. If there are none, this method will return <code>0</code>.
      *
@@ -892,6 +1126,15 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return request(RequestMethod.GET, classURLWithSuffix(Number.class, "local/count"), null, null, ResourceCount.class).getCount();
     }
 
+    /**
+     * Asynchronous version of {@link #countLocal()}.
+     *
+     * @return a future completed with the local number count, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<Integer> countLocalAsync() {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Number.class, "local/count"), null, null, ResourceCount.class).thenApply(ResourceCount::getCount);
+    }
+
     /**
      * Retrieves a single associated number given an id.
      *
@@ -907,6 +1150,16 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return request(RequestMethod.GET, classURLWithSuffix(Number.class, String.valueOf(numberId)), null, null, Number.class);
     }
 
+    /**
+     * Asynchronous version of {@link #getNumberById(int)}.
+     *
+     * @param numberId the id of the number to look up
+     * @return a future completed with the number found, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<AssociatedNumber> getNumberByIdAsync(int numberId) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Number.class, String.valueOf(numberId)), null, null, Number.class);
+    }
+
     /**
      * Retrieves a single local number given an id.
      *
@@ -922,6 +1175,16 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return request(RequestMethod.GET, classURLWithSuffix(Number.class, String.format("local/%d", numberId)), null, null, Number.class);
     }
 
+    /**
+     * Asynchronous version of {@link #getLocalNumberById(int)}.
+     *
+     * @param numberId the id of the local number to look up
+     * @return a future completed with the local number found, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<AssociatedNumber> getLocalNumberByIdAsync(int numberId) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Number.class, String.format("local/%d", numberId)), null, null, Number.class);
+    }
+
     /**
      * Gets information about the device type and carrier that is associated with a specific phone number
      *
@@ -934,13 +1197,36 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
      */
     @Override
     public NumberInfo lookup() throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException {
+        return lookup(getRawPhoneNumber());
+    }
+
+    /**
+     * Asynchronous version of {@link #lookup()}.
+     *
+     * @return a future completed with the information about this phone number, or completed exceptionally with a {@link VivialConnectException}
+     */
+    @Override
+    public CompletableFuture<NumberInfo> lookupAsync() {
+        return lookupAsync(getRawPhoneNumber());
+    }
+
+
+    static NumberInfo lookup(String rawPhoneNumber) throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException {
         Map<String, String> queryParams = new HashMap<String, String>();
-        queryParams.put("phone_number", getRawPhoneNumber());
+        queryParams.put("phone_number", rawPhoneNumber);
 
         return request(RequestMethod.GET, classURLWithSuffix(Number.class, "lookup"), null, queryParams, NumberInfo.class);
     }
 
 
+    static CompletableFuture<NumberInfo> lookupAsync(String rawPhoneNumber) {
+        Map<String, String> queryParams = new HashMap<String, String>();
+        queryParams.put("phone_number", rawPhoneNumber);
+
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Number.class, "lookup"), null, queryParams, NumberInfo.class);
+    }
+
+
     private String getRawPhoneNumber() {
         /* Removes the leading '+' character from the phone number */
         return getPhoneNumber().substring(1);
@@ -1382,6 +1668,19 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return tagsResponse;
     }
 
+    /**
+     * Asynchronous version of {@link #updateTags(Map)}.
+     *
+     * @param tags String key-pair values with the tag names and values
+     * @return a future completed with the updated tags, or completed exceptionally with a {@link VivialConnectException}
+     */
+    @Override
+    public CompletableFuture<TagCollection> updateTagsAsync(Map<String, String> tags) {
+        String requestPayload = JsonBodyBuilder.withCustomClassName("tags").addTypedParams(tags).build();
+
+        return tagsRequestAsync(RequestMethod.PUT, requestPayload);
+    }
+
     /**
      * Get all tagged numbers associated to the user's account.
      *
@@ -1396,6 +1695,15 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return getTaggedNumbers(null);
     }
 
+    /**
+     * Asynchronous version of {@link #getTaggedNumbers()}.
+     *
+     * @return a future completed with the numbers with tags, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<TaggedNumberCollection> getTaggedNumbersAsync() {
+        return getTaggedNumbersAsync(null);
+    }
+
     /**
      * Get all tagged numbers associated to the user's account.
      *
@@ -1419,6 +1727,16 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return tagResponse;
     }
 
+    /**
+     * Asynchronous version of {@link #getTaggedNumbers(Map)}.
+     *
+     * @param requestParams a map of {@link String } key-value pairs used to filter results
+     * @return a future completed with the numbers with tags, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<TaggedNumberCollection> getTaggedNumbersAsync(Map<String, String> requestParams) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(Number.class, "tags"), null, requestParams, TaggedNumberCollection.class);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1500,6 +1818,16 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return tags;
     }
 
+    /**
+     * Asynchronous version of {@link #fetchTags()}.
+     *
+     * @return a future completed with the tags pulled from the API, or completed exceptionally with a {@link VivialConnectException}
+     */
+    @Override
+    public CompletableFuture<TagCollection> fetchTagsAsync() {
+        return tagsRequestAsync(RequestMethod.GET, null);
+    }
+
     /**
      * Delete individual key/value pairs from phone number tags.
      * <p>
@@ -1531,5 +1859,26 @@ public class Number extends VivialConnectResource implements AssociatedNumber, A
         return tagsLeft;
     }
 
+    /**
+     * Asynchronous version of {@link #deleteTags(Map)}.
+     *
+     * @param tags tags to delete
+     * @return a future completed with the remaining tags, or completed exceptionally with a {@link VivialConnectException}
+     */
+    @Override
+    public CompletableFuture<TagCollection> deleteTagsAsync(Map<String, String> tags) {
+        String requestPayload = JsonBodyBuilder.withCustomClassName("tags").addTypedParams(tags).build();
+
+        return tagsRequestAsync(RequestMethod.DELETE, requestPayload);
+    }
+
+
+    private CompletableFuture<TagCollection> tagsRequestAsync(RequestMethod method, String requestPayload) {
+        return requestAsync(method, classURLWithResourceSuffix(Number.class, String.valueOf(this.id), "tags"), requestPayload, null, TagCollection.class).thenApply(tagCollection -> {
+            this.tags = tagCollection.getTags();
+            return tagCollection;
+        });
+    }
+
 
 }
\ No newline at end of file
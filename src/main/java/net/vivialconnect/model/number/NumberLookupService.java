@@ -0,0 +1,458 @@
+package net.vivialconnect.model.number;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import net.vivialconnect.model.error.ApiRequestException;
+import net.vivialconnect.model.error.BadRequestException;
+import net.vivialconnect.model.error.ResourceNotFoundException;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.model.format.JsonMapperRegistry;
+import net.vivialconnect.util.LongLruCache;
+
+/**
+ * Looks up the carrier and device of phone numbers, like {@link Number#lookup()}, keeping the answers for a while.
+ * <p>
+ * Numbers are normalized to their digits, with the North American country code added to 10 digit numbers not starting
+ * with <code>+</code>, so that <code>(330) 555-1234</code>, <code>+1 330-555-1234</code> and <code>13305551234</code>
+ * are one entry. Numbers the API rejects as invalid are remembered too, for a shorter time, and those that are not
+ * phone numbers at all are never sent.
+ * <pre>
+ * NumberLookupService lookups = NumberLookupService.builder()
+ *         .ttl(Duration.ofDays(7))
+ *         .maxEntries(1_000_000)
+ *         .persistence(Paths.get("number-lookups.txt"))
+ *         .build();
+ *
+ * Map&lt;String, NumberInfo&gt; infos = lookups.lookupAll(phoneNumbers);
+ * lookups.close();
+ * </pre>
+ * {@link #lookupAll(Collection)} sends one request per distinct number missing from the cache, several at a time, so
+ * cleaning a list with many repeated numbers costs as many requests as it has distinct unknown numbers.
+ * <p>
+ * The same {@link NumberInfo} instances are handed to every caller, and must not be modified.
+ */
+public final class NumberLookupService implements Closeable {
+
+    private static final long NOT_A_NUMBER = -1;
+
+    /* Cached in place of the numbers the API rejected */
+    private static final NumberInfo INVALID = new NumberInfo();
+
+    private final LongLruCache<NumberInfo> cache;
+    private final long ttlMillis;
+    private final long invalidTtlMillis;
+    private final int concurrency;
+    private final Path persistence;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+
+    private NumberLookupService(Builder builder) {
+        this.cache = new LongLruCache<NumberInfo>(builder.maxEntries);
+        this.ttlMillis = builder.ttl.toMillis();
+        this.invalidTtlMillis = builder.invalidTtl.toMillis();
+        this.concurrency = builder.concurrency;
+        this.persistence = builder.persistence;
+    }
+
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Looks up a phone number, from the cache if it is known.
+     *
+     * @param phoneNumber phone number, in any format
+     * @return the information about the number, or null if it is not a valid phone number
+     * @throws VivialConnectException if the lookup fails for any other reason than an invalid number
+     */
+    public NumberInfo lookup(String phoneNumber) throws VivialConnectException {
+        long number = normalize(phoneNumber);
+        if (number == NOT_A_NUMBER) {
+            return null;
+        }
+
+        NumberInfo cached = cache.get(number, System.currentTimeMillis());
+        if (cached != null) {
+            hits.increment();
+            return cached == INVALID ? null : cached;
+        }
+
+        misses.increment();
+        try {
+            return store(number, Number.lookup(Long.toString(number)));
+        } catch (BadRequestException | ResourceNotFoundException e) {
+            return store(number, INVALID);
+        }
+    }
+
+    /**
+     * Looks up phone numbers. Each distinct number missing from the cache is sent once, with up to the configured
+     * concurrency of requests in flight.
+     * <p>
+     * If some lookups fail, every other lookup is still completed and cached before the first failure is thrown, so
+     * that calling again only sends the failed ones.
+     *
+     * @param phoneNumbers phone numbers, in any format
+     * @return the information about each valid number, by number as given
+     * @throws VivialConnectException if a lookup fails for any other reason than an invalid number
+     */
+    public Map<String, NumberInfo> lookupAll(Collection<String> phoneNumbers) throws VivialConnectException {
+        Map<String, NumberInfo> infos = new LinkedHashMap<String, NumberInfo>();
+        Map<Long, List<String>> missing = new LinkedHashMap<Long, List<String>>();
+
+        long now = System.currentTimeMillis();
+        for (String phoneNumber : phoneNumbers) {
+            long number = normalize(phoneNumber);
+            if (number == NOT_A_NUMBER || infos.containsKey(phoneNumber)) {
+                continue;
+            }
+
+            List<String> waiting = missing.get(number);
+            if (waiting != null) {
+                waiting.add(phoneNumber);
+                continue;
+            }
+
+            NumberInfo cached = cache.get(number, now);
+            if (cached != null) {
+                hits.increment();
+                if (cached != INVALID) {
+                    infos.put(phoneNumber, cached);
+                }
+            } else {
+                misses.increment();
+                waiting = new ArrayList<String>(1);
+                waiting.add(phoneNumber);
+                missing.put(number, waiting);
+            }
+        }
+
+        Map<Long, CompletableFuture<NumberInfo>> lookups = send(missing.keySet());
+
+        VivialConnectException failure = null;
+        for (Map.Entry<Long, CompletableFuture<NumberInfo>> lookup : lookups.entrySet()) {
+            NumberInfo info;
+            try {
+                info = store(lookup.getKey(), await(lookup.getValue()));
+            } catch (BadRequestException | ResourceNotFoundException e) {
+                info = store(lookup.getKey(), INVALID);
+            } catch (VivialConnectException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+                continue;
+            }
+
+            if (info != null) {
+                for (String phoneNumber : missing.get(lookup.getKey())) {
+                    infos.put(phoneNumber, info);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+
+        return infos;
+    }
+
+
+    private Map<Long, CompletableFuture<NumberInfo>> send(Collection<Long> numbers) throws ApiRequestException {
+        Map<Long, CompletableFuture<NumberInfo>> lookups = new LinkedHashMap<Long, CompletableFuture<NumberInfo>>();
+        Semaphore inFlight = new Semaphore(concurrency);
+
+        for (Long number : numbers) {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiRequestException(e);
+            }
+
+            CompletableFuture<NumberInfo> lookup = Number.lookupAsync(number.toString());
+            lookup.whenComplete((info, failure) -> inFlight.release());
+            lookups.put(number, lookup);
+        }
+
+        return lookups;
+    }
+
+
+    private static NumberInfo await(CompletableFuture<NumberInfo> lookup) throws VivialConnectException {
+        try {
+            return lookup.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiRequestException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof VivialConnectException) {
+                throw (VivialConnectException) cause;
+            }
+            throw new ApiRequestException(cause);
+        }
+    }
+
+
+    private NumberInfo store(long number, NumberInfo info) {
+        if (info == null) {
+            return null;
+        }
+
+        cache.put(number, info, System.currentTimeMillis() + (info == INVALID ? invalidTtlMillis : ttlMillis));
+        return info == INVALID ? null : info;
+    }
+
+    /**
+     * Normalizes a phone number to its digits, adding the North American country code to 10 digit numbers that do not
+     * start with <code>+</code>, which are already international.
+     *
+     * @param phoneNumber phone number, in any format
+     * @return the number, or -1 if it cannot be a phone number
+     */
+    static long normalize(String phoneNumber) {
+        if (phoneNumber == null) {
+            return NOT_A_NUMBER;
+        }
+
+        long number = 0;
+        int digits = 0;
+        boolean international = false;
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c == '+' && digits == 0) {
+                international = true;
+            } else if (c >= '0' && c <= '9') {
+                if (digits == 0 && c == '0' || ++digits > 15) {
+                    return NOT_A_NUMBER;
+                }
+                number = number * 10 + (c - '0');
+            } else if (Character.isLetter(c)) {
+                return NOT_A_NUMBER;
+            }
+        }
+
+        if (digits == 10 && !international) {
+            return 10_000_000_000L + number;
+        }
+
+        return digits < 7 ? NOT_A_NUMBER : number;
+    }
+
+    /**
+     * Writes the cached lookups that did not expire to the persistence file, replacing it.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        if (persistence == null) {
+            return;
+        }
+
+        Path temporary = persistence.resolveSibling(persistence.getFileName() + ".tmp");
+        long now = System.currentTimeMillis();
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            IOException[] failure = new IOException[1];
+            cache.forEach((number, info, expiresAt) -> {
+                if (failure[0] != null || expiresAt - now <= 0) {
+                    return;
+                }
+
+                try {
+                    writer.write(Long.toString(number));
+                    writer.write('\t');
+                    writer.write(Long.toString(expiresAt));
+                    writer.write('\t');
+                    if (info != INVALID) {
+                        writer.write(JsonMapperRegistry.getWriter().writeValueAsString(info));
+                    }
+                    writer.newLine();
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+
+        Files.move(temporary, persistence, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+
+    private void load() throws IOException {
+        ObjectReader reader = JsonMapperRegistry.getReader(NumberInfo.class, false);
+        long now = System.currentTimeMillis();
+
+        /* Least recently used first, so that the order of the cache is restored */
+        try (BufferedReader lines = Files.newBufferedReader(persistence, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                int first = line.indexOf('\t');
+                int second = line.indexOf('\t', first + 1);
+                if (first < 0 || second < 0) {
+                    throw new IOException("Malformed number lookup: " + line);
+                }
+
+                long expiresAt = Long.parseLong(line.substring(first + 1, second));
+                if (expiresAt - now <= 0) {
+                    continue;
+                }
+
+                String json = line.substring(second + 1);
+                NumberInfo info = json.isEmpty() ? INVALID : reader.<NumberInfo>readValue(json);
+                cache.put(Long.parseLong(line.substring(0, first)), info, expiresAt);
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed number lookups in " + persistence, e);
+        }
+    }
+
+    /**
+     * Saves the cached lookups, if the service has a persistence file.
+     */
+    @Override
+    public void close() throws IOException {
+        save();
+    }
+
+
+    public int size() {
+        return cache.size();
+    }
+
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of distinct numbers that were looked up with the API
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Builds a {@link NumberLookupService}. Unless changed, a service keeps up to 100,000 numbers, valid ones for a day
+     * and invalid ones for an hour, and sends up to 8 lookups at a time.
+     */
+    public static final class Builder {
+
+        private Duration ttl = Duration.ofDays(1);
+        private Duration invalidTtl = Duration.ofHours(1);
+        private int maxEntries = 100_000;
+        private int concurrency = 8;
+        private Path persistence;
+
+
+        private Builder() {
+        }
+
+        /**
+         * @param ttl time during which the information about a number is served without asking the API
+         * @return this builder
+         */
+        public Builder ttl(Duration ttl) {
+            if (ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("ttl must be positive");
+            }
+
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * @param invalidTtl time during which a number the API rejected is not sent again
+         * @return this builder
+         */
+        public Builder invalidTtl(Duration invalidTtl) {
+            if (invalidTtl.isNegative() || invalidTtl.isZero()) {
+                throw new IllegalArgumentException("invalidTtl must be positive");
+            }
+
+            this.invalidTtl = invalidTtl;
+            return this;
+        }
+
+
+        public Builder maxEntries(int maxEntries) {
+            if (maxEntries < 1) {
+                throw new IllegalArgumentException("maxEntries must be at least 1");
+            }
+
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * @param concurrency maximum number of lookups in flight during {@link NumberLookupService#lookupAll(Collection)}
+         * @return this builder
+         */
+        public Builder concurrency(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("concurrency must be at least 1");
+            }
+
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * @param persistence file the lookups are loaded from when the service is built, if it exists, and saved to by
+         *                    {@link NumberLookupService#save()} and {@link NumberLookupService#close()}
+         * @return this builder
+         */
+        public Builder persistence(Path persistence) {
+            if (persistence == null) {
+                throw new IllegalArgumentException("persistence must not be null");
+            }
+
+            this.persistence = persistence;
+            return this;
+        }
+
+        /**
+         * @return the service, with the lookups of the persistence file
+         * @throws UncheckedIOException if the persistence file exists but cannot be read
+         */
+        public NumberLookupService build() {
+            NumberLookupService service = new NumberLookupService(this);
+            if (persistence != null && Files.exists(persistence)) {
+                try {
+                    service.load();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            return service;
+        }
+    }
+}
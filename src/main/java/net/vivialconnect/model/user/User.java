@@ -4,6 +4,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
@@ -125,6 +126,15 @@ public class User extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithResourceSuffix(User.class, String.valueOf(this.id), "profile/credentials"), null, null, CredentialCollection.class).getCredentials();
     }
 
+    /**
+     * Asynchronous version of {@link #getCredentials()}.
+     *
+     * @return a future completed with the list of credentials, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<List<Credential>> getCredentialsAsync() {
+        return requestAsync(RequestMethod.GET, classURLWithResourceSuffix(User.class, String.valueOf(this.id), "profile/credentials"), null, null, CredentialCollection.class).thenApply(CredentialCollection::getCredentials);
+    }
+
     /**
      * Creates a credential using a name.
      * @param name name of the credential
@@ -136,6 +146,25 @@ public class User extends VivialConnectResource {
      * @throws ApiRequestException if an API error occurs
      */
     public Credential createCredential(String name) throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException {
+        CredentialWrapperResponse response = request(RequestMethod.POST, classURLWithResourceSuffix(User.class, String.valueOf(this.id), "profile/credentials"),
+                jsonBodyForCreateCredential(name), null, CredentialWrapperResponse.class);
+
+        return response.getCredential();
+    }
+
+    /**
+     * Asynchronous version of {@link #createCredential(String)}.
+     *
+     * @param name name of the credential
+     * @return a future completed with the new Credential, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Credential> createCredentialAsync(String name) {
+        return requestAsync(RequestMethod.POST, classURLWithResourceSuffix(User.class, String.valueOf(this.id), "profile/credentials"),
+                jsonBodyForCreateCredential(name), null, CredentialWrapperResponse.class).thenApply(CredentialWrapperResponse::getCredential);
+    }
+
+
+    private String jsonBodyForCreateCredential(String name) {
         JsonBodyBuilder builder = JsonBodyBuilder.forClass(User.class);
 
         Map<String, Object> credentialNameMap = new HashMap<String, Object>();
@@ -143,10 +172,7 @@ public class User extends VivialConnectResource {
 
         builder.addParamPair("credential", credentialNameMap);
 
-        CredentialWrapperResponse response = request(RequestMethod.POST, classURLWithResourceSuffix(User.class, String.valueOf(this.id), "profile/credentials"),
-                builder.build(), null, CredentialWrapperResponse.class);
-
-        return response.getCredential();
+        return builder.build();
     }
 
     /**
@@ -162,6 +188,24 @@ public class User extends VivialConnectResource {
      */
     public Credential updateCredential(int credentialId, Map<CredentialUpdateField, Object> updateData) throws ForbiddenAccessException, BadRequestException, UnauthorizedAccessException, ServerErrorException, ApiRequestException {
 
+        CredentialWrapperResponse response = request(RequestMethod.PUT, classURLWithResourceSuffix(User.class, String.valueOf(this.id), String.format("profile/credentials/%d",credentialId)), jsonBodyForUpdateCredential(updateData), null, CredentialWrapperResponse.class);
+
+        return response.getCredential();
+    }
+
+    /**
+     * Asynchronous version of {@link #updateCredential(int, Map)}.
+     *
+     * @param credentialId Credential ID
+     * @param updateData payload to update the credential
+     * @return a future completed with the updated credential, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Credential> updateCredentialAsync(int credentialId, Map<CredentialUpdateField, Object> updateData) {
+        return requestAsync(RequestMethod.PUT, classURLWithResourceSuffix(User.class, String.valueOf(this.id), String.format("profile/credentials/%d",credentialId)), jsonBodyForUpdateCredential(updateData), null, CredentialWrapperResponse.class).thenApply(CredentialWrapperResponse::getCredential);
+    }
+
+
+    private String jsonBodyForUpdateCredential(Map<CredentialUpdateField, Object> updateData) {
         HashMap<String, Object> data = new HashMap<String, Object>();
 
         for(CredentialUpdateField field: updateData.keySet()){
@@ -171,9 +215,7 @@ public class User extends VivialConnectResource {
         JsonBodyBuilder builder = JsonBodyBuilder.forClass(User.class);
         builder.addParamPair("credential", data);
 
-        CredentialWrapperResponse response = request(RequestMethod.PUT, classURLWithResourceSuffix(User.class, String.valueOf(this.id), String.format("profile/credentials/%d",credentialId)), builder.build(), null, CredentialWrapperResponse.class);
-
-        return response.getCredential();
+        return builder.build();
     }
 
     /**
@@ -195,6 +237,16 @@ public class User extends VivialConnectResource {
         return false;
     }
 
+    /**
+     * Asynchronous version of {@link #deleteCredential(int)}.
+     *
+     * @param credentialId Credential ID
+     * @return a future completed with true if the credential was removed, false otherwise, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Boolean> deleteCredentialAsync(int credentialId) {
+        return requestDeletionAsync(classURLWithResourceSuffix(User.class, String.valueOf(this.id), String.format("profile/credentials/%d",credentialId)));
+    }
+
 
     /**
      * Total number of credentials associated with an user.
@@ -209,6 +261,15 @@ public class User extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithResourceSuffix(User.class, String.valueOf(this.id), "profile/credentials/count"), null, null, ResourceCount.class).getCount();
     }
 
+    /**
+     * Asynchronous version of {@link #countCredentials()}.
+     *
+     * @return a future completed with the number of credentials belonging to the user, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Integer> countCredentialsAsync() {
+        return requestAsync(RequestMethod.GET, classURLWithResourceSuffix(User.class, String.valueOf(this.id), "profile/credentials/count"), null, null, ResourceCount.class).thenApply(ResourceCount::getCount);
+    }
+
     /**
      * Search for a {@link User} by its ID using the API.
      * <p>
@@ -228,6 +289,16 @@ public class User extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithSuffix(User.class, String.valueOf(userId)), null, null, User.class);
     }
 
+    /**
+     * Asynchronous version of {@link #getUserById(int)}.
+     *
+     * @param userId the id of the user to look up
+     * @return a future completed with the User found, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<User> getUserByIdAsync(int userId) {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(User.class, String.valueOf(userId)), null, null, User.class);
+    }
+
     /**
      * Gets all users for this Account using the API.
      * <p>
@@ -245,6 +316,15 @@ public class User extends VivialConnectResource {
         return getUsers(null);
     }
 
+    /**
+     * Asynchronous version of {@link #getUsers()}.
+     *
+     * @return a future completed with a list of users, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<User>> getUsersAsync() {
+        return getUsersAsync(null);
+    }
+
     /**
      * Search and filter every user for this Account using the API.
      * <p>
@@ -269,6 +349,16 @@ public class User extends VivialConnectResource {
         return request(RequestMethod.GET, classURL(User.class), null, queryParams, UserCollection.class).getUsers();
     }
 
+    /**
+     * Asynchronous version of {@link #getUsers(Map)}.
+     *
+     * @param queryParams a map of {@link String } key-value pairs used to filter results
+     * @return a future completed with a list of users, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<List<User>> getUsersAsync(Map<String, String> queryParams) {
+        return requestAsync(RequestMethod.GET, classURL(User.class), null, queryParams, UserCollection.class).thenApply(UserCollection::getUsers);
+    }
+
     /**
      * Total number of users in the account specified. If there are none, this method will return <code>0</code>.
      *
@@ -283,6 +373,15 @@ public class User extends VivialConnectResource {
         return request(RequestMethod.GET, classURLWithSuffix(User.class, "count"), null, null, ResourceCount.class).getCount();
     }
 
+    /**
+     * Asynchronous version of {@link #count()}.
+     *
+     * @return a future completed with the user count, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public static CompletableFuture<Integer> countAsync() {
+        return requestAsync(RequestMethod.GET, classURLWithSuffix(User.class, "count"), null, null, ResourceCount.class).thenApply(ResourceCount::getCount);
+    }
+
     /**
      * Deletes this user from the database, dissociating it from the account.
      * <p>
@@ -306,6 +405,15 @@ public class User extends VivialConnectResource {
         return false;
     }
 
+    /**
+     * Asynchronous version of {@link #delete()}.
+     *
+     * @return a future completed with whether the user was deleted or not, or completed exceptionally with a {@link VivialConnectException}
+     */
+    public CompletableFuture<Boolean> deleteAsync() {
+        return requestDeletionAsync(classURLWithSuffix(User.class, String.valueOf(getId())));
+    }
+
     /**
      * Unique identifier of the user object
      *
@@ -0,0 +1,62 @@
+package net.vivialconnect.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read from a stream, skipped ones included.
+ */
+public class CountingInputStream extends FilterInputStream {
+
+    private long count;
+
+
+    public CountingInputStream(InputStream in) {
+        super(in);
+    }
+
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count++;
+        }
+
+        return b;
+    }
+
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) {
+            count += read;
+        }
+
+        return read;
+    }
+
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count += skipped;
+
+        return skipped;
+    }
+
+    /**
+     * Marking is not supported, since bytes read again would be counted twice.
+     */
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+
+    public long getCount() {
+        return count;
+    }
+}
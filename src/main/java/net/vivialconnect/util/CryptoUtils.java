@@ -1,22 +1,56 @@
 package net.vivialconnect.util;
 
-import java.util.Locale;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 public class CryptoUtils{
 
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /* MessageDigest is not thread-safe, and looking one up through the providers costs more than the digest itself */
+    private static final ThreadLocal<MessageDigest> SHA_256 = new ThreadLocal<MessageDigest>(){
+        @Override
+        protected MessageDigest initialValue(){
+            try{
+                return MessageDigest.getInstance("SHA-256");
+            }catch (NoSuchAlgorithmException e){
+                throw new IllegalStateException("SHA-256 is required on every Java platform", e);
+            }
+        }
+    };
+
+
     public static String toHex(byte[] content){
-        StringBuilder hexBuilder = new StringBuilder(content.length * 2);
+        char[] hex = new char[content.length * 2];
         for (int i = 0; i < content.length; i++){
-            String hex = Integer.toHexString(content[i]);
-            if (hex.length() == 1){
-                hexBuilder.append("0");
-            }else if (hex.length() == 8){
-                hex = hex.substring(6);
-            }
+            hex[i * 2] = HEX_DIGITS[(content[i] >> 4) & 0x0f];
+            hex[i * 2 + 1] = HEX_DIGITS[content[i] & 0x0f];
+        }
 
-            hexBuilder.append(hex);
+        return new String(hex);
+    }
+
+
+    public static StringBuilder appendHex(StringBuilder builder, byte[] content){
+        for (byte b : content){
+            builder.append(HEX_DIGITS[(b >> 4) & 0x0f])
+                   .append(HEX_DIGITS[b & 0x0f]);
         }
 
-        return hexBuilder.toString().toLowerCase(Locale.getDefault());
+        return builder;
+    }
+
+
+    /**
+     * Hashes the content with a SHA-256 digest owned by the calling thread.
+     *
+     * @param content bytes to hash
+     * @return the 32 bytes hash
+     */
+    public static byte[] sha256(byte[] content){
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+
+        return digest.digest(content);
     }
-}
\ No newline at end of file
+}
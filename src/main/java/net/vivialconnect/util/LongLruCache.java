@@ -0,0 +1,266 @@
+package net.vivialconnect.util;
+
+import java.util.Arrays;
+
+/**
+ * Bounded cache from primitive <code>long</code> keys to values that expire, evicting the least recently used entry
+ * when full.
+ * <p>
+ * Keys are kept unboxed in an open addressing table and the recency order in index arrays, all allocated up front, so
+ * that millions of entries cost a few tens of bytes each besides their values and no garbage per operation. Thread
+ * safe, through a single lock.
+ *
+ * @param <V> type of the values
+ */
+public final class LongLruCache<V> {
+
+    private static final int NONE = -1;
+
+    private final int capacity;
+
+    /* Entries by index */
+    private final long[] keys;
+    private final Object[] values;
+    private final long[] expiresAt;
+    private final int[] newer;
+    private final int[] older;
+
+    /* Hash table of entry indexes, linear probing */
+    private final int[] slots;
+    private final int mask;
+
+    private int newest = NONE;
+    private int oldest = NONE;
+    private int size;
+
+    /* Indexes of removed entries, chained through newer */
+    private int free = NONE;
+    private int allocated;
+
+
+    /**
+     * @param capacity maximum number of entries
+     */
+    public LongLruCache(int capacity) {
+        if (capacity < 1 || capacity > 1 << 29) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^29");
+        }
+
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.expiresAt = new long[capacity];
+        this.newer = new int[capacity];
+        this.older = new int[capacity];
+
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.slots = new int[tableSize];
+        this.mask = tableSize - 1;
+        Arrays.fill(slots, NONE);
+    }
+
+    /**
+     * Looks up a value, which becomes the most recently used. Expired values are removed.
+     *
+     * @param key key of the value
+     * @param now current time, in the unit of the expiry times
+     * @return the value, or null if there is none or it expired
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized V get(long key, long now) {
+        int slot = find(key);
+        int entry = slots[slot];
+        if (entry == NONE) {
+            return null;
+        }
+
+        if (expiresAt[entry] - now <= 0) {
+            removeAt(slot);
+            return null;
+        }
+
+        unlink(entry);
+        linkNewest(entry);
+
+        return (V) values[entry];
+    }
+
+    /**
+     * Stores a value as the most recently used, evicting the least recently used one if the cache is full.
+     *
+     * @param key       key of the value
+     * @param value     value, not null
+     * @param expiresAt time from which the value is no longer served
+     */
+    public synchronized void put(long key, V value, long expiresAt) {
+        if (value == null) {
+            throw new IllegalArgumentException("value must not be null");
+        }
+
+        int slot = find(key);
+        int entry = slots[slot];
+        if (entry != NONE) {
+            unlink(entry);
+        } else {
+            if (size == capacity) {
+                removeAt(find(keys[oldest]));
+                slot = find(key);
+            }
+
+            entry = allocate();
+            keys[entry] = key;
+            slots[slot] = entry;
+            size++;
+        }
+
+        values[entry] = value;
+        this.expiresAt[entry] = expiresAt;
+        linkNewest(entry);
+    }
+
+    /**
+     * @param key key of the value
+     * @return whether a value was removed
+     */
+    public synchronized boolean remove(long key) {
+        int slot = find(key);
+        if (slots[slot] == NONE) {
+            return false;
+        }
+
+        removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Visits the entries from the least to the most recently used, expired or not, as they were when called.
+     *
+     * @param visitor called for each entry, outside the lock of the cache, so that it may take its time or use the
+     *                cache
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Visitor<? super V> visitor) {
+        long[] copiedKeys;
+        Object[] copiedValues;
+        long[] copiedExpiresAt;
+        synchronized (this) {
+            copiedKeys = new long[size];
+            copiedValues = new Object[size];
+            copiedExpiresAt = new long[size];
+            int i = 0;
+            for (int entry = oldest; entry != NONE; entry = newer[entry], i++) {
+                copiedKeys[i] = keys[entry];
+                copiedValues[i] = values[entry];
+                copiedExpiresAt[i] = expiresAt[entry];
+            }
+        }
+
+        for (int i = 0; i < copiedKeys.length; i++) {
+            visitor.visit(copiedKeys[i], (V) copiedValues[i], copiedExpiresAt[i]);
+        }
+    }
+
+
+    public synchronized void clear() {
+        Arrays.fill(slots, NONE);
+        Arrays.fill(values, null);
+        newest = oldest = free = NONE;
+        size = allocated = 0;
+    }
+
+
+    public synchronized int size() {
+        return size;
+    }
+
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /* Slot holding the key, or the empty slot where it would go */
+    private int find(long key) {
+        int slot = hash(key) & mask;
+        while (slots[slot] != NONE && keys[slots[slot]] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+
+    private void removeAt(int slot) {
+        int entry = slots[slot];
+        unlink(entry);
+        values[entry] = null;
+        newer[entry] = free;
+        free = entry;
+        size--;
+
+        /* Shifts back the entries that probed past the freed slot, so that lookups need no tombstones */
+        int hole = slot;
+        for (int i = (slot + 1) & mask; slots[i] != NONE; i = (i + 1) & mask) {
+            int home = hash(keys[slots[i]]) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                slots[hole] = slots[i];
+                hole = i;
+            }
+        }
+        slots[hole] = NONE;
+    }
+
+
+    private int allocate() {
+        if (free == NONE) {
+            return allocated++;
+        }
+
+        int entry = free;
+        free = newer[entry];
+
+        return entry;
+    }
+
+
+    private void linkNewest(int entry) {
+        older[entry] = newest;
+        newer[entry] = NONE;
+        if (newest != NONE) {
+            newer[newest] = entry;
+        } else {
+            oldest = entry;
+        }
+        newest = entry;
+    }
+
+
+    private void unlink(int entry) {
+        if (older[entry] != NONE) {
+            newer[older[entry]] = newer[entry];
+        } else {
+            oldest = newer[entry];
+        }
+
+        if (newer[entry] != NONE) {
+            older[newer[entry]] = older[entry];
+        } else {
+            newest = older[entry];
+        }
+    }
+
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Receives the entries of a cache.
+     *
+     * @param <V> type of the values
+     */
+    public interface Visitor<V> {
+
+        void visit(long key, V value, long expiresAt);
+    }
+}
@@ -6,21 +6,27 @@ import java.io.IOException;
 
 public class ProjectProperties {
 
-    private static Properties p = null;
+    private static volatile Properties p = null;
 
-    public static void getProperties() throws IOException {
+    /**
+     * Loads <code>app.properties</code> through the class loader of the SDK, once.
+     */
+    public static synchronized void getProperties() throws IOException {
+        if (p != null) {
+            return;
+        }
 
-        ClassLoader classLoader = ClassLoader.getSystemClassLoader();
-        p = new Properties();
-        InputStream inputStream = null;
-        try {
-            inputStream = classLoader.getResourceAsStream("app.properties");
-            p.load(inputStream);
-        } catch (IOException e) {
-            System.out.println(e.getMessage());
-        } finally {
-            inputStream.close();
+        Properties properties = new Properties();
+        InputStream inputStream = ProjectProperties.class.getClassLoader().getResourceAsStream("app.properties");
+        if (inputStream != null) {
+            try {
+                properties.load(inputStream);
+            } finally {
+                inputStream.close();
+            }
         }
+
+        p = properties;
     }
 
     public static String getProperty(String name) throws IOException {
@@ -29,4 +35,4 @@ public class ProjectProperties {
         }
         return p.getProperty(name);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package net.vivialconnect.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * <code>application/x-www-form-urlencoded</code> encoding, producing exactly what
+ * <code>URLEncoder.encode(value, "UTF-8")</code> does. Values that need no escaping, like most parameter names,
+ * are returned as they are without allocating.
+ */
+public class UrlEncoding{
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private static final Comparator<String[]> BY_KEY = new Comparator<String[]>(){
+        @Override
+        public int compare(String[] first, String[] second){
+            return first[0].compareTo(second[0]);
+        }
+    };
+
+
+    public static String encode(String value){
+        return encode(value, false);
+    }
+
+
+    /**
+     * Encodes a URL path, leaving its <code>/</code> separators as they are.
+     *
+     * @param path path to encode
+     * @return the encoded path
+     */
+    public static String encodePath(String path){
+        return encode(path, true);
+    }
+
+
+    /**
+     * Builds the query string used both in request URLs and in the canonical request that gets signed: names and
+     * values encoded, pairs sorted by encoded name and joined with <code>&amp;</code>.
+     *
+     * @param queryParams query parameters, may be null
+     * @return the encoded query, or an empty string if there are no parameters
+     */
+    public static String encodeQuery(Map<String, String> queryParams){
+        if (queryParams == null || queryParams.isEmpty()){
+            return "";
+        }
+
+        String[][] pairs = new String[queryParams.size()][];
+        int length = 0;
+        int i = 0;
+        for (Map.Entry<String, String> param : queryParams.entrySet()){
+            pairs[i] = new String[]{encode(param.getKey()), encode(param.getValue())};
+            length += pairs[i][0].length() + pairs[i][1].length() + 2;
+            i++;
+        }
+
+        if (pairs.length > 1){
+            Arrays.sort(pairs, BY_KEY);
+        }
+
+        StringBuilder builder = new StringBuilder(length);
+        for (String[] pair : pairs){
+            if (builder.length() > 0){
+                builder.append('&');
+            }
+
+            builder.append(pair[0]).append('=').append(pair[1]);
+        }
+
+        return builder.toString();
+    }
+
+
+    private static String encode(String value, boolean keepSlash){
+        int length = value.length();
+
+        int firstUnsafe = 0;
+        while (firstUnsafe < length && isSafe(value.charAt(firstUnsafe), keepSlash)){
+            firstUnsafe++;
+        }
+
+        if (firstUnsafe == length){
+            return value;
+        }
+
+        StringBuilder builder = new StringBuilder(length + 16);
+        builder.append(value, 0, firstUnsafe);
+
+        for (int i = firstUnsafe; i < length; i++){
+            char c = value.charAt(i);
+            if (isSafe(c, keepSlash)){
+                builder.append(c);
+            }else if (c == ' '){
+                builder.append('+');
+            }else if (c < 0x80){
+                appendEscaped(builder, (byte) c);
+            }else{
+                int end = i + 1;
+                if (Character.isHighSurrogate(c) && end < length && Character.isLowSurrogate(value.charAt(end))){
+                    end++;
+                }
+
+                for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)){
+                    appendEscaped(builder, b);
+                }
+
+                i = end - 1;
+            }
+        }
+
+        return builder.toString();
+    }
+
+
+    private static boolean isSafe(char c, boolean keepSlash){
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '.' || c == '-' || c == '*' || c == '_' || (keepSlash && c == '/');
+    }
+
+
+    private static void appendEscaped(StringBuilder builder, byte b){
+        builder.append('%')
+               .append(HEX_DIGITS[(b >> 4) & 0x0f])
+               .append(HEX_DIGITS[b & 0x0f]);
+    }
+}
@@ -0,0 +1,226 @@
+package net.vivialconnect.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link Transport} built on the <code>java.net.http.HttpClient</code> of Java 11 and later.
+ * <p>
+ * The client negotiates HTTP/2 with the API host, so concurrent requests are multiplexed over a single connection
+ * instead of each one holding a connection of its own. Asynchronous operations use the native asynchronous API of
+ * the client and do not occupy a thread while waiting for the response.
+ * <p>
+ * This class is compiled for Java 11 and can only be loaded on Java 11 or later:
+ * <pre>
+ * VivialConnectClient.setTransport(new HttpClientTransport());
+ * </pre>
+ * Only HTTP proxies are supported; the client cannot speak SOCKS.
+ * <p>
+ * Requests are signed over their <code>Date</code> header, which the first releases of Java 11 do not let
+ * <code>HttpClient</code> send. The transport needs Java 12 or later, or a Java 11 update where <code>Date</code> is
+ * no longer a restricted header (JDK-8213189), and cannot be created otherwise.
+ */
+public class HttpClientTransport implements AsyncTransport {
+
+    private static final boolean DATE_HEADER_ALLOWED = isDateHeaderAllowed();
+
+    private final HttpClient httpClient;
+    private final ConcurrentMap<Proxy, HttpClient> proxiedClients = new ConcurrentHashMap<Proxy, HttpClient>();
+
+    private volatile int readTimeout;
+
+    /**
+     * Creates a transport with an HTTP/2 client that does not follow redirects.
+     */
+    public HttpClientTransport() {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build());
+    }
+
+    /**
+     * Creates a transport that sends requests through the given client.
+     *
+     * @param httpClient client used for requests without a proxy
+     */
+    public HttpClientTransport(HttpClient httpClient) {
+        if (!DATE_HEADER_ALLOWED) {
+            throw new UnsupportedOperationException(String.format("HttpClient of Java %s cannot send the signed Date header, "
+                    + "HttpClientTransport needs Java 12 or a later Java 11 update", System.getProperty("java.version")));
+        }
+
+        this.httpClient = httpClient;
+    }
+
+
+    private static boolean isDateHeaderAllowed() {
+        try {
+            java.net.http.HttpRequest.newBuilder().header("Date", "Thu, 01 Jan 1970 00:00:00 GMT");
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+
+    @Override
+    public HttpResponse execute(HttpRequest request) throws IOException {
+        java.net.http.HttpRequest clientRequest = toClientRequest(request);
+
+        try {
+            java.net.http.HttpResponse<InputStream> response = clientFor(request.getProxy())
+                    .send(clientRequest, java.net.http.HttpResponse.BodyHandlers.ofInputStream());
+
+            return new HttpResponse(response.statusCode(), response.headers().map(), response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + request.getUrl());
+        }
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cancelling the returned future cancels the exchange, which <code>HttpClient</code> aborts on recent Java
+     * releases.
+     */
+    @Override
+    public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+        try {
+            CompletableFuture<java.net.http.HttpResponse<byte[]>> exchange = clientFor(request.getProxy())
+                    .sendAsync(toClientRequest(request), java.net.http.HttpResponse.BodyHandlers.ofByteArray());
+            CompletableFuture<HttpResponse> response = exchange.thenApply(sent -> new HttpResponse(sent.statusCode(),
+                    sent.headers().map(), new ByteArrayInputStream(sent.body())));
+            response.whenComplete((sent, failure) -> {
+                if (response.isCancelled()) {
+                    exchange.cancel(true);
+                }
+            });
+
+            return response;
+        } catch (IOException e) {
+            CompletableFuture<HttpResponse> failed = new CompletableFuture<HttpResponse>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+
+    private java.net.http.HttpRequest toClientRequest(HttpRequest request) throws IOException {
+        java.net.http.HttpRequest.Builder builder;
+        try {
+            builder = java.net.http.HttpRequest.newBuilder(request.getUrl().toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            /* The client derives both from the URI and body, and refuses to have them set */
+            if ("Host".equalsIgnoreCase(header.getKey()) || "Content-Length".equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+
+            try {
+                builder.header(header.getKey(), header.getValue());
+            } catch (IllegalArgumentException e) {
+                throw new IOException(String.format("Header '%s' cannot be sent by HttpClient", header.getKey()), e);
+            }
+        }
+
+        int timeout = readTimeout;
+        if (request.getReadTimeout() > 0 && (timeout <= 0 || request.getReadTimeout() < timeout)) {
+            timeout = request.getReadTimeout();
+        }
+
+        /* The connect timeout belongs to the client, so only the read timeout of the request applies */
+        if (timeout > 0) {
+            builder.timeout(Duration.ofMillis(timeout));
+        }
+
+        java.net.http.HttpRequest.BodyPublisher body = request.hasBody()
+                ? java.net.http.HttpRequest.BodyPublishers.ofByteArray(request.getBody())
+                : java.net.http.HttpRequest.BodyPublishers.noBody();
+
+        return builder.method(request.getMethod(), body).build();
+    }
+
+
+    private HttpClient clientFor(Proxy proxy) throws IOException {
+        if (proxy == null || proxy.type() == Proxy.Type.DIRECT) {
+            return httpClient;
+        }
+
+        if (proxy.type() != Proxy.Type.HTTP) {
+            throw new IOException("HttpClientTransport supports HTTP proxies only, not " + proxy);
+        }
+
+        HttpClient proxiedClient = proxiedClients.get(proxy);
+        if (proxiedClient == null) {
+            proxiedClient = newClientBuilder()
+                    .proxy(ProxySelector.of((InetSocketAddress) proxy.address()))
+                    .build();
+
+            HttpClient existing = proxiedClients.putIfAbsent(proxy, proxiedClient);
+            if (existing != null) {
+                proxiedClient = existing;
+            }
+        }
+
+        return proxiedClient;
+    }
+
+
+    private HttpClient.Builder newClientBuilder() {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(httpClient.version())
+                .followRedirects(httpClient.followRedirects())
+                .sslContext(httpClient.sslContext())
+                .sslParameters(httpClient.sslParameters());
+
+        httpClient.connectTimeout().ifPresent(builder::connectTimeout);
+        httpClient.executor().ifPresent(builder::executor);
+        httpClient.authenticator().ifPresent(builder::authenticator);
+
+        return builder;
+    }
+
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Sets the maximum time to wait for the response headers of each request.
+     *
+     * @param readTimeout timeout in milliseconds, 0 for no timeout
+     */
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+
+    @Override
+    public void close() {
+        /* HttpClient releases its connections once unreachable */
+        proxiedClients.clear();
+    }
+}
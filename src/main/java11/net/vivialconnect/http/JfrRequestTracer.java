@@ -0,0 +1,240 @@
+package net.vivialconnect.http;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * {@link RequestTracer} recording Java Flight Recorder events, loaded by {@link RequestTracer#get()} on Java 11 and
+ * later.
+ * <p>
+ * Stage events that are not enabled are dropped as soon as they are created, and the fields of the others are filled
+ * in only when they are committed, so the route template is not computed for the events the recording drops.
+ */
+final class JfrRequestTracer extends RequestTracer {
+
+    JfrRequestTracer() {
+        /* Fails here rather than on the first request if the events cannot be registered */
+        new CallEvent().isEnabled();
+    }
+
+
+    @Override
+    public Span start(Stage stage) {
+        StageEvent event = create(stage);
+        if (!event.isEnabled()) {
+            return NO_SPAN;
+        }
+
+        event.begin();
+        return event;
+    }
+
+
+    private static StageEvent create(Stage stage) {
+        switch (stage) {
+            case REQUEST:
+                return new CallEvent();
+            case SIGN:
+                return new SignEvent();
+            case CONNECT:
+                return new ConnectEvent();
+            case WRITE:
+                return new WriteEvent();
+            case READ:
+                return new ReadEvent();
+            default:
+                return new UnmarshalEvent();
+        }
+    }
+
+
+    @Override
+    public void retry(String method, String url, int attempt, long delayNanos, int statusCode, Throwable failure) {
+        RetryEvent event = new RetryEvent();
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.route = ApiRoute.templateOf(url);
+            event.attempt = attempt;
+            event.delay = delayNanos;
+            event.statusCode = statusCode;
+            event.failure = failure == null ? null : failure.getClass().getName();
+            event.commit();
+        }
+    }
+
+
+    @Override
+    public void rateLimitWait(String method, String url, long waitNanos) {
+        RateLimitWaitEvent event = new RateLimitWaitEvent();
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.route = ApiRoute.templateOf(url);
+            event.wait = waitNanos;
+            event.commit();
+        }
+    }
+
+
+    @Override
+    public void poolExhausted(String route, int maxConnections, long waitNanos, boolean timedOut) {
+        PoolExhaustedEvent event = new PoolExhaustedEvent();
+        if (event.shouldCommit()) {
+            event.route = route;
+            event.maxConnections = maxConnections;
+            event.wait = waitNanos;
+            event.timedOut = timedOut;
+            event.commit();
+        }
+    }
+
+
+    @Category({"VivialConnect", "Request"})
+    @StackTrace(false)
+    abstract static class StageEvent extends Event implements Span {
+
+        @Label("Method")
+        String method;
+
+        @Label("Route")
+        @Description("Path of the request relative to its account, with the ids replaced by a placeholder")
+        String route;
+
+        @Label("Status Code")
+        int statusCode;
+
+
+        @Override
+        public void end(String method, String url, int statusCode) {
+            end();
+            if (shouldCommit()) {
+                this.method = method;
+                this.route = url == null ? null : ApiRoute.templateOf(url);
+                this.statusCode = statusCode;
+                commit();
+            }
+        }
+
+
+        @Override
+        public void end(HttpRequest request, int statusCode) {
+            end();
+            if (shouldCommit()) {
+                this.method = request.getMethod();
+                this.route = ApiRoute.templateOf(request.getUrl().toString());
+                this.statusCode = statusCode;
+                commit();
+            }
+        }
+    }
+
+
+    @Name("net.vivialconnect.Request")
+    @Label("API Request")
+    @Description("Call to the API, retries and hedges included")
+    static final class CallEvent extends StageEvent {
+    }
+
+
+    @Name("net.vivialconnect.Sign")
+    @Label("Request Signing")
+    static final class SignEvent extends StageEvent {
+    }
+
+
+    @Name("net.vivialconnect.Connect")
+    @Label("Connection Acquisition")
+    @Description("Lease of a pooled connection, opening it if needed")
+    static final class ConnectEvent extends StageEvent {
+    }
+
+
+    @Name("net.vivialconnect.Write")
+    @Label("Request Write")
+    static final class WriteEvent extends StageEvent {
+    }
+
+
+    @Name("net.vivialconnect.Read")
+    @Label("Response Read")
+    @Description("Wait for the status line and headers of the response")
+    static final class ReadEvent extends StageEvent {
+    }
+
+
+    @Name("net.vivialconnect.Unmarshal")
+    @Label("JSON Unmarshal")
+    @Description("Read of the response body and mapping to objects")
+    static final class UnmarshalEvent extends StageEvent {
+    }
+
+
+    @Name("net.vivialconnect.Retry")
+    @Label("Request Retry")
+    @Category({"VivialConnect", "Resilience"})
+    @StackTrace(false)
+    static final class RetryEvent extends Event {
+
+        @Label("Method")
+        String method;
+
+        @Label("Route")
+        String route;
+
+        @Label("Attempt")
+        @Description("Attempt that failed, starting at 1")
+        int attempt;
+
+        @Label("Delay")
+        @Timespan(Timespan.NANOSECONDS)
+        long delay;
+
+        @Label("Status Code")
+        int statusCode;
+
+        @Label("Failure")
+        String failure;
+    }
+
+
+    @Name("net.vivialconnect.RateLimitWait")
+    @Label("Rate Limit Wait")
+    @Category({"VivialConnect", "Resilience"})
+    @StackTrace(false)
+    static final class RateLimitWaitEvent extends Event {
+
+        @Label("Method")
+        String method;
+
+        @Label("Route")
+        String route;
+
+        @Label("Wait")
+        @Timespan(Timespan.NANOSECONDS)
+        long wait;
+    }
+
+
+    @Name("net.vivialconnect.PoolExhausted")
+    @Label("Connection Pool Exhausted")
+    @Category({"VivialConnect", "Connection Pool"})
+    static final class PoolExhaustedEvent extends Event {
+
+        @Label("Route")
+        String route;
+
+        @Label("Max Connections")
+        int maxConnections;
+
+        @Label("Wait")
+        @Timespan(Timespan.NANOSECONDS)
+        long wait;
+
+        @Label("Timed Out")
+        boolean timedOut;
+    }
+}
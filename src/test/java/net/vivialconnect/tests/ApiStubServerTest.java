@@ -0,0 +1,178 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.HttpRequest;
+import net.vivialconnect.http.HttpResponse;
+import net.vivialconnect.http.PooledTransport;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.http.Transport;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.account.Contact;
+import net.vivialconnect.model.error.ForbiddenAccessException;
+import net.vivialconnect.model.error.RateLimitException;
+import net.vivialconnect.model.error.ResourceNotFoundException;
+import net.vivialconnect.model.error.UnauthorizedAccessException;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.model.message.Message;
+import net.vivialconnect.tests.stub.ApiStubServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ApiStubServerTest {
+
+    private ApiStubServer stub;
+    private String originalBaseUrl;
+
+    @Before
+    public void startStub() throws IOException {
+        stub = new ApiStubServer(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET).start();
+
+        originalBaseUrl = VivialConnectClient.getApiBaseUrl();
+        VivialConnectClient.init(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+        VivialConnectClient.overrideApiBaseUrl(stub.getBaseUrl());
+        VivialConnectClient.setRetryPolicy(RetryPolicy.none());
+    }
+
+    @After
+    public void stopStub() {
+        VivialConnectClient.init(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+        VivialConnectClient.setTransport(new PooledTransport());
+        VivialConnectClient.setRetryPolicy(RetryPolicy.defaultPolicy());
+        VivialConnectClient.overrideApiBaseUrl(originalBaseUrl);
+        stub.close();
+    }
+
+    @Test
+    public void test_signed_requests_are_served_from_fixtures() throws VivialConnectException {
+        assertEquals(ClientInitTest.ACCOUNT_ID, Account.getAccount().getId());
+        assertEquals(29, Message.getMessages().size());
+        assertEquals(5, Message.getMessages(withLimitOf(5)).size());
+
+        assertEquals(3, stub.getRequestCount());
+        assertEquals(0, stub.getRejectedCount());
+    }
+
+    @Test
+    public void test_requests_with_wrong_credentials_are_rejected() throws VivialConnectException {
+        VivialConnectClient.init(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, "wrong-secret");
+        try {
+            Account.getAccount();
+            fail("A request signed with the wrong secret should be rejected");
+        } catch (UnauthorizedAccessException e) {
+            assertEquals("Invalid signature", e.getMessage());
+        }
+
+        VivialConnectClient.init(ClientInitTest.ACCOUNT_ID + 1, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+        try {
+            Account.getAccount();
+            fail("A request for another account should be forbidden");
+        } catch (ForbiddenAccessException e) {
+            assertEquals(403, e.getResponseCode());
+        }
+
+        assertEquals(1, stub.getRejectedCount());
+    }
+
+    @Test
+    public void test_requests_changed_after_signing_are_rejected() throws VivialConnectException {
+        final PooledTransport delegate = new PooledTransport();
+        VivialConnectClient.setTransport(new Transport() {
+            @Override
+            public HttpResponse execute(HttpRequest request) throws IOException {
+                URL tampered = new URL(request.getUrl().toString().replace("limit=5", "limit=50"));
+                return delegate.execute(new HttpRequest(request.getMethod(), tampered, request.getHeaders(), request.getBody()));
+            }
+
+
+            @Override
+            public void close() {
+                delegate.close();
+            }
+        });
+
+        try {
+            Message.getMessages(withLimitOf(5));
+            fail("A request whose query changed after signing should be rejected");
+        } catch (UnauthorizedAccessException e) {
+            assertEquals(1, stub.getRejectedCount());
+        }
+    }
+
+    @Test
+    public void test_created_resources_can_be_updated_and_deleted() throws VivialConnectException {
+        int contacts = Contact.count();
+
+        Contact contact = new Contact();
+        contact.setFirstName("Ada");
+        contact.setLastName("Lovelace");
+        contact.setEmail("ada@example.com");
+        contact.setContactType("main");
+        contact.setMobilePhone("+13305551234");
+        contact.create();
+
+        assertEquals(contacts + 1, Contact.count());
+        assertEquals("Ada", Contact.getContactById(contact.getId()).getFirstName());
+
+        contact.setLastName("King");
+        contact.update();
+        assertEquals("King", Contact.getContactById(contact.getId()).getLastName());
+
+        assertTrue(contact.delete());
+        assertEquals(contacts, Contact.count());
+        try {
+            Contact.getContactById(contact.getId());
+            fail("A deleted contact should not be found");
+        } catch (ResourceNotFoundException e) {
+            assertEquals(404, e.getResponseCode());
+        }
+
+        Message message = new Message();
+        message.setFromNumber("+19132597591");
+        message.setToNumber("+11234567890");
+        message.setBody("Hello, from the stub!");
+        message.send();
+
+        List<Message> messages = Message.getMessages();
+        assertEquals(30, messages.size());
+        assertEquals("Hello, from the stub!", Message.getMessageById(message.getId()).getBody());
+    }
+
+    @Test
+    public void test_injected_latency_and_throttling() throws VivialConnectException {
+        stub.setLatency(50, 50, TimeUnit.MILLISECONDS).setThrottledRatio(1);
+
+        long start = System.nanoTime();
+        try {
+            Account.getAccount();
+            fail("Every request should be throttled");
+        } catch (RateLimitException e) {
+            assertEquals(429, e.getResponseCode());
+        }
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1, stub.getThrottledCount());
+
+        stub.setThrottledRatio(0);
+        assertEquals(ClientInitTest.ACCOUNT_ID, Account.getAccount().getId());
+    }
+
+
+    private static Map<String, String> withLimitOf(int limit) {
+        Map<String, String> filters = new HashMap<String, String>();
+        filters.put("limit", String.valueOf(limit));
+
+        return filters;
+    }
+}
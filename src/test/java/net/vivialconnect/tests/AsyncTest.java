@@ -0,0 +1,101 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.account.Contact;
+import net.vivialconnect.model.error.ApiRequestException;
+import net.vivialconnect.model.error.ResourceNotFoundException;
+import net.vivialconnect.model.message.Message;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class AsyncTest {
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    private ExecutorService executor;
+    private final AtomicInteger tasks = new AtomicInteger();
+
+    @Before
+    public void setExecutor() {
+        executor = Executors.newFixedThreadPool(2);
+        VivialConnectClient.setExecutor(command -> {
+            tasks.incrementAndGet();
+            executor.execute(command);
+        });
+    }
+
+    @After
+    public void stopExecutor() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void test_async_request_runs_on_configured_executor() throws Exception {
+        CompletableFuture<Account> account = Account.getAccountAsync();
+        CompletableFuture<List<Message>> messages = Message.getMessagesAsync();
+
+        assertTrue(account.get(5, TimeUnit.SECONDS).getId() > 0);
+        assertTrue(messages.get(5, TimeUnit.SECONDS).size() > 0);
+        assertEquals(2, tasks.get());
+    }
+
+    @Test
+    public void test_async_error_completes_exceptionally() throws Exception {
+        CompletableFuture<Message> message = Message.getMessageByIdAsync(404);
+
+        try {
+            message.get(5, TimeUnit.SECONDS);
+            fail("404 response should complete the future exceptionally");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ResourceNotFoundException);
+            assertEquals(404, ((ResourceNotFoundException) e.getCause()).getResponseCode());
+        }
+
+        assertTrue(message.isCompletedExceptionally());
+    }
+
+    @Test
+    public void test_async_delete_maps_no_content_to_true() throws Exception {
+        Contact contact = new Contact();
+        contact.setId(1);
+
+        assertTrue(contact.deleteAsync().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void test_rejected_operation_completes_exceptionally() throws Exception {
+        VivialConnectClient.setExecutor(command -> {
+            throw new RejectedExecutionException("Queue is full");
+        });
+
+        CompletableFuture<Account> account = Account.getAccountAsync();
+
+        try {
+            account.get(5, TimeUnit.SECONDS);
+            fail("Rejected operation should complete the future exceptionally");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ApiRequestException);
+            assertTrue(e.getCause().getCause() instanceof RejectedExecutionException);
+        }
+        assertEquals(0, api.getServer().getRequestCount());
+    }
+}
@@ -0,0 +1,153 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.ApiRoute;
+import net.vivialconnect.http.CircuitBreaker;
+import net.vivialconnect.http.CircuitBreakers;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.error.CircuitBreakerOpenException;
+import net.vivialconnect.model.error.ServerErrorException;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import net.vivialconnect.tests.stub.ApiStubServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+
+    private static final ApiRoute MESSAGES = new ApiRoute(10130, "POST", "messages");
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    @Before
+    public void disableRetries() {
+        VivialConnectClient.setRetryPolicy(RetryPolicy.none());
+    }
+
+    @Test
+    public void test_opens_after_consecutive_failures() {
+        CircuitBreaker circuitBreaker = CircuitBreakers.builder().failureThreshold(3).build().getCircuitBreaker(MESSAGES);
+
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getConsecutiveFailures());
+
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(-1, circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void test_half_open_probes_close_or_reopen_circuit() throws InterruptedException {
+        CircuitBreaker circuitBreaker = CircuitBreakers.builder()
+                .failureThreshold(1)
+                .openDuration(Duration.ofMillis(20))
+                .halfOpenProbes(2)
+                .build()
+                .getCircuitBreaker(MESSAGES);
+
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        Thread.sleep(30);
+
+        long firstProbe = circuitBreaker.tryAcquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        long secondProbe = circuitBreaker.tryAcquire();
+        assertTrue(secondProbe >= 0);
+        assertEquals(-1, circuitBreaker.tryAcquire());
+
+        circuitBreaker.onFailure(secondProbe);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        /* Belongs to the previous half-open period */
+        circuitBreaker.onSuccess(firstProbe);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        Thread.sleep(30);
+        circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void test_ignored_probe_frees_its_slot() throws InterruptedException {
+        CircuitBreaker circuitBreaker = CircuitBreakers.builder()
+                .failureThreshold(1)
+                .openDuration(Duration.ofMillis(1))
+                .halfOpenProbes(1)
+                .build()
+                .getCircuitBreaker(MESSAGES);
+
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        Thread.sleep(5);
+
+        long probe = circuitBreaker.tryAcquire();
+        assertEquals(-1, circuitBreaker.tryAcquire());
+        circuitBreaker.onIgnored(probe);
+        assertTrue(circuitBreaker.tryAcquire() >= 0);
+    }
+
+    @Test
+    public void test_open_circuit_fails_fast_without_sending() throws VivialConnectException {
+        VivialConnectClient.setCircuitBreakers(CircuitBreakers.builder().failureThreshold(2).build());
+        api.getServer().enqueue(ApiStubServer.Response.error(500, "Internal error"));
+        api.getServer().enqueue(ApiStubServer.Response.error(500, "Internal error"));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                Account.getAccount();
+                fail("500 response should be thrown");
+            } catch (ServerErrorException e) {
+                assertEquals(500, e.getResponseCode());
+            }
+        }
+
+        try {
+            Account.getAccount();
+            fail("Open circuit should refuse the request");
+        } catch (CircuitBreakerOpenException e) {
+            assertEquals(0, e.getResponseCode());
+        }
+
+        assertEquals(2, api.getServer().getRequestCount());
+        assertEquals(CircuitBreaker.State.OPEN, VivialConnectClient.getCircuitBreakers().getStates()
+                .get(new ApiRoute(ClientInitTest.ACCOUNT_ID, "*", "account")));
+    }
+
+    @Test
+    public void test_circuit_closes_after_successful_probe() throws Exception {
+        VivialConnectClient.setCircuitBreakers(CircuitBreakers.builder()
+                .failureThreshold(1)
+                .openDuration(Duration.ofMillis(50))
+                .halfOpenProbes(1)
+                .build());
+        api.getServer().enqueue(ApiStubServer.Response.error(503, "Unavailable"));
+
+        try {
+            Account.getAccountAsync().get(5, TimeUnit.SECONDS);
+            fail("503 response should be thrown");
+        } catch (ExecutionException e) {
+            assertEquals(503, ((VivialConnectException) e.getCause()).getResponseCode());
+        }
+
+        Thread.sleep(60);
+
+        assertTrue(Account.getAccount().getId() > 0);
+        assertEquals(CircuitBreaker.State.CLOSED, VivialConnectClient.getCircuitBreakers()
+                .getCircuitBreaker(new ApiRoute(ClientInitTest.ACCOUNT_ID, "GET", "account")).getState());
+    }
+}
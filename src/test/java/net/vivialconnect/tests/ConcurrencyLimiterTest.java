@@ -0,0 +1,185 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.ConcurrencyLimiter;
+import net.vivialconnect.http.RateLimits;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.error.RateLimitException;
+import net.vivialconnect.model.error.ResourceNotFoundException;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.model.message.Message;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import net.vivialconnect.tests.stub.ApiStubServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ConcurrencyLimiterTest {
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    @Before
+    public void disableRetries() {
+        VivialConnectClient.setRetryPolicy(RetryPolicy.none());
+    }
+
+    @Test
+    public void test_limit_grows_while_latency_is_flat() throws InterruptedException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+                .initialLimit(2)
+                .latencyTolerance(1000)
+                .build();
+
+        for (int i = 0; i < 20; i++) {
+            ConcurrencyLimiter.Permit first = limiter.acquire();
+            ConcurrencyLimiter.Permit second = limiter.acquire();
+            first.succeeded();
+            second.succeeded();
+        }
+
+        assertTrue("Limit is " + limiter.getLimit(), limiter.getLimit() > 2);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void test_overload_cuts_limit_once_per_burst() throws InterruptedException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(10).build();
+
+        ConcurrencyLimiter.Permit first = limiter.acquire();
+        ConcurrencyLimiter.Permit second = limiter.acquire();
+        first.dropped();
+        assertEquals(5, limiter.getLimit());
+
+        /* Started before the cut, so it reports the same overload */
+        second.dropped();
+        assertEquals(5, limiter.getLimit());
+
+        limiter.acquire().dropped();
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void test_rising_latency_cuts_limit() throws InterruptedException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(10).build();
+
+        ConcurrencyLimiter.Permit fast = limiter.acquire();
+        Thread.sleep(1);
+        fast.succeeded();
+
+        ConcurrencyLimiter.Permit slow = limiter.acquire();
+        Thread.sleep(100);
+        slow.succeeded();
+
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    public void test_reported_attempt_latency_leaves_out_waits() throws InterruptedException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(10).build();
+
+        ConcurrencyLimiter.Permit fast = limiter.acquire();
+        Thread.sleep(1);
+        fast.succeeded();
+
+        /* Waited on a rate limit before an attempt as fast as the first request */
+        ConcurrencyLimiter.Permit waited = limiter.acquire();
+        Thread.sleep(100);
+        waited.attempted(TimeUnit.MILLISECONDS.toNanos(1));
+        waited.succeeded();
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    public void test_rate_limit_waits_do_not_cut_limit() throws VivialConnectException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(8).build();
+        VivialConnectClient.setConcurrencyLimiter(limiter);
+        VivialConnectClient.setRateLimits(RateLimits.builder()
+                .limit("GET", "account", 10, 1)
+                .build());
+
+        for (int i = 0; i < 4; i++) {
+            Account.getAccount();
+        }
+
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    public void test_fails_fast_when_limit_is_reached() throws InterruptedException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+                .initialLimit(1)
+                .maxWait(Duration.ZERO)
+                .build();
+
+        ConcurrencyLimiter.Permit permit = limiter.acquire();
+        assertNull(limiter.acquire());
+
+        permit.ignored();
+        assertNotNull(limiter.acquire());
+    }
+
+    @Test
+    public void test_waiting_request_gets_released_slot() throws InterruptedException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+                .initialLimit(1)
+                .maxWait(Duration.ofSeconds(5))
+                .build();
+
+        final ConcurrencyLimiter.Permit permit = limiter.acquire();
+        new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            permit.ignored();
+        }).start();
+
+        assertNotNull(limiter.acquire());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    public void test_rate_limited_response_cuts_limit() throws VivialConnectException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(8).build();
+        VivialConnectClient.setConcurrencyLimiter(limiter);
+
+        Account.getAccount();
+        api.getServer().enqueue(ApiStubServer.Response.error(429, "Slow down"));
+        try {
+            Account.getAccount();
+            fail("429 response should be thrown");
+        } catch (RateLimitException e) {
+            assertEquals(4, limiter.getLimit());
+        }
+
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void test_client_errors_do_not_cut_limit() throws VivialConnectException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(8).build();
+        VivialConnectClient.setConcurrencyLimiter(limiter);
+
+        try {
+            Message.getMessageById(404);
+            fail("404 response should be thrown");
+        } catch (ResourceNotFoundException e) {
+            assertEquals(8, limiter.getLimit());
+        }
+
+        assertEquals(0, limiter.getInFlight());
+    }
+}
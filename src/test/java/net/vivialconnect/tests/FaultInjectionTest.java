@@ -0,0 +1,158 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.EOFException;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.FaultInjectingTransport;
+import net.vivialconnect.http.FaultInjectingTransport.Fault;
+import net.vivialconnect.http.FaultInjectingTransport.Faults;
+import net.vivialconnect.http.PooledTransport;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.error.ApiRequestException;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.model.message.Message;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class FaultInjectionTest {
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    @Test
+    public void test_same_seed_injects_the_same_faults() {
+        Faults faults = Faults.builder().serverErrors(0.3).throttlingBursts(0.1, 2).build();
+        VivialConnectClient.setRetryPolicy(RetryPolicy.none());
+
+        List<String> first = outcomesOfAccountRequests(FaultInjectingTransport.builder(new PooledTransport())
+                .seed(7).route("account", faults).build(), 30);
+        List<String> second = outcomesOfAccountRequests(FaultInjectingTransport.builder(new PooledTransport())
+                .seed(7).route("account", faults).build(), 30);
+
+        assertEquals(first, second);
+        assertTrue(first.contains("ServerErrorException"));
+        assertTrue(first.contains("RateLimitException"));
+        assertTrue(first.contains("ok"));
+    }
+
+    @Test
+    public void test_throttling_burst_is_retried_through() throws VivialConnectException {
+        FaultInjectingTransport transport = FaultInjectingTransport.builder(new PooledTransport())
+                .route("GET", "account", Faults.builder().throttlingBursts(1, 3).build())
+                .build();
+        VivialConnectClient.setTransport(transport);
+        VivialConnectClient.setRetryPolicy(RetryPolicy.builder()
+                .maxAttempts(4)
+                .backoff(Duration.ofMillis(1), Duration.ofMillis(5))
+                .build());
+
+        try {
+            Account.getAccount();
+            fail("Every attempt should be throttled");
+        } catch (VivialConnectException e) {
+            assertEquals(429, e.getResponseCode());
+        }
+
+        /* Each 429 starts a new burst, all answered before reaching the API */
+        assertEquals(4, transport.getInjectedCount(Fault.TOO_MANY_REQUESTS));
+        assertEquals(0, api.getServer().getRequestCount());
+    }
+
+    @Test
+    public void test_reset_after_sending_is_retried_for_get_only() throws VivialConnectException {
+        FaultInjectingTransport transport = FaultInjectingTransport.builder(new PooledTransport())
+                .defaultFaults(Faults.builder().connectionResets(1).build())
+                .build();
+        VivialConnectClient.setTransport(transport);
+        VivialConnectClient.setRetryPolicy(RetryPolicy.builder()
+                .maxAttempts(2)
+                .backoff(Duration.ofMillis(1), Duration.ofMillis(5))
+                .build());
+
+        Message message = new Message();
+        message.setFromNumber("+19132597591");
+        message.setToNumber("+11234567890");
+        message.setBody("Sent once");
+        try {
+            message.send();
+            fail("The reset should fail the request");
+        } catch (ApiRequestException e) {
+            assertTrue(e.getCause() instanceof SocketException);
+        }
+        assertEquals(1, api.getServer().getRequestCount());
+
+        try {
+            Account.getAccount();
+            fail("The reset should fail the request");
+        } catch (ApiRequestException e) {
+            assertTrue(e.getCause() instanceof SocketException);
+        }
+        assertEquals(3, api.getServer().getRequestCount());
+        assertEquals(3, transport.getInjectedCount(Fault.CONNECTION_RESET));
+    }
+
+    @Test
+    public void test_truncated_bodies_and_latency() throws VivialConnectException {
+        FaultInjectingTransport transport = FaultInjectingTransport.builder(new PooledTransport())
+                .route("messages", Faults.builder()
+                        .latency(Duration.ofMillis(20), Duration.ofMillis(20))
+                        .truncatedBodies(1)
+                        .build())
+                .build();
+        VivialConnectClient.setTransport(transport);
+        VivialConnectClient.setRetryPolicy(RetryPolicy.none());
+
+        long start = System.nanoTime();
+        try {
+            Message.getMessages();
+            fail("A truncated body should fail the request");
+        } catch (ApiRequestException e) {
+            assertTrue(isCausedBy(e, EOFException.class));
+        }
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(20).toNanos());
+        assertEquals(1, transport.getInjectedCount(Fault.LATENCY));
+        assertEquals(1, transport.getInjectedCount(Fault.TRUNCATED_BODY));
+
+        /* Other routes are left alone */
+        assertEquals(ClientInitTest.ACCOUNT_ID, Account.getAccount().getId());
+    }
+
+
+    private static List<String> outcomesOfAccountRequests(FaultInjectingTransport transport, int requests) {
+        VivialConnectClient.setTransport(transport);
+
+        List<String> outcomes = new ArrayList<String>();
+        for (int i = 0; i < requests; i++) {
+            try {
+                Account.getAccount();
+                outcomes.add("ok");
+            } catch (VivialConnectException e) {
+                outcomes.add(e.getClass().getSimpleName());
+            }
+        }
+
+        return outcomes;
+    }
+
+
+    private static boolean isCausedBy(Throwable failure, Class<? extends Throwable> type) {
+        for (Throwable cause = failure.getCause(); cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,130 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.ApiRoute;
+import net.vivialconnect.http.ConnectionPool;
+import net.vivialconnect.http.HedgePolicy;
+import net.vivialconnect.http.PooledTransport;
+import net.vivialconnect.http.RetryBudget;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class HedgingTest {
+
+    private static final int WARM_UP = 5;
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    private ConnectionPool pool;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch stall = new CountDownLatch(1);
+
+    @Before
+    public void stallFirstRequestAfterWarmUp() {
+        api.getServer().onRequest(request -> {
+            if (requests.incrementAndGet() == WARM_UP + 1) {
+                try {
+                    stall.await(3, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        pool = new ConnectionPool();
+        VivialConnectClient.setTransport(new PooledTransport(pool));
+    }
+
+    @After
+    public void releaseStall() {
+        stall.countDown();
+    }
+
+    @Test
+    public void test_slow_request_is_hedged() throws Exception {
+        VivialConnectClient.setHedgePolicy(HedgePolicy.builder()
+                .resources("account")
+                .minSamples(WARM_UP)
+                .minDelay(Duration.ofMillis(20))
+                .build());
+
+        for (int i = 0; i < WARM_UP; i++) {
+            Account.getAccount();
+        }
+
+        long start = System.nanoTime();
+        assertTrue(Account.getAccount().getId() > 0);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue("Took " + elapsedMillis + " ms", elapsedMillis < 2000);
+        assertEquals(WARM_UP + 2, requests.get());
+
+        /* The losing response is discarded once it arrives, giving its connection back */
+        stall.countDown();
+        for (int i = 0; i < 100 && pool.getTotalStats().getLeased() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, pool.getTotalStats().getLeased());
+    }
+
+    @Test
+    public void test_exhausted_budget_prevents_hedge() throws VivialConnectException {
+        VivialConnectClient.setHedgePolicy(HedgePolicy.builder()
+                .minSamples(WARM_UP)
+                .minDelay(Duration.ofMillis(20))
+                .budget(new RetryBudget(0, 0, 0))
+                .build());
+
+        for (int i = 0; i < WARM_UP; i++) {
+            Account.getAccount();
+        }
+
+        new Thread(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stall.countDown();
+        }).start();
+
+        Account.getAccount();
+        assertEquals(WARM_UP + 1, requests.get());
+    }
+
+    @Test
+    public void test_hedge_delay_follows_percentile() {
+        HedgePolicy hedgePolicy = HedgePolicy.builder()
+                .resources("messages")
+                .percentile(90)
+                .minSamples(10)
+                .minDelay(Duration.ZERO)
+                .build();
+        ApiRoute messages = new ApiRoute(10130, "GET", "messages");
+
+        assertTrue(hedgePolicy.appliesTo(messages));
+        assertFalse(hedgePolicy.appliesTo(new ApiRoute(10130, "POST", "messages")));
+        assertFalse(hedgePolicy.appliesTo(new ApiRoute(10130, "GET", "logs")));
+
+        assertEquals(-1, hedgePolicy.getHedgeDelay(messages));
+        for (int i = 1; i <= 10; i++) {
+            hedgePolicy.recordLatency(messages, i * 1000);
+        }
+        assertEquals(9000, hedgePolicy.getHedgeDelay(messages));
+    }
+}
@@ -0,0 +1,31 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.format.JsonMapperRegistry;
+import org.junit.Test;
+
+public class JsonMapperRegistryTest {
+
+    @Test
+    public void test_readers_are_cached_per_type_and_root_mode() {
+        assertSame(JsonMapperRegistry.getReader(Account.class, true), JsonMapperRegistry.getReader(Account.class, true));
+        assertNotSame(JsonMapperRegistry.getReader(Account.class, true), JsonMapperRegistry.getReader(Account.class, false));
+    }
+
+    @Test
+    public void test_readers_honour_root_mode_and_ignore_unknown_properties() throws IOException {
+        Account wrapped = JsonMapperRegistry.getReader(Account.class, true)
+                .readValue("{\"account\": {\"id\": 7, \"unknown_property\": true}}");
+        Account plain = JsonMapperRegistry.getReader(Account.class, false)
+                .readValue("{\"id\": 8, \"unknown_property\": true}");
+
+        assertEquals(7, wrapped.getId());
+        assertEquals(8, plain.getId());
+    }
+}
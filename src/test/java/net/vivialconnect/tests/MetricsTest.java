@@ -0,0 +1,140 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.ApiRoute;
+import net.vivialconnect.http.InMemoryMetrics;
+import net.vivialconnect.http.LatencyHistogram;
+import net.vivialconnect.http.RequestEvent;
+import net.vivialconnect.http.RequestListener;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.error.ResourceNotFoundException;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.model.message.Message;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import net.vivialconnect.tests.stub.ApiStubServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class MetricsTest {
+
+    private static final String NOT_FOUND = "{\"message\": \"Message not found\"}";
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    @Before
+    public void disableRetries() {
+        VivialConnectClient.setRetryPolicy(RetryPolicy.none());
+    }
+
+    @Test
+    public void test_route_templates_replace_ids() {
+        assertEquals("messages/{id}.json", ApiRoute.templateOf("https://api.vivialconnect.net/api/v1.0/accounts/10130/messages/42.json"));
+        assertEquals("messages.json", ApiRoute.templateOf("https://api.vivialconnect.net/api/v1.0/accounts/10130/messages.json?limit=5"));
+        assertEquals("messages/{id}/attachments/{id}.json",
+                ApiRoute.templateOf("https://api.vivialconnect.net/api/v1.0/accounts/10130/messages/42/attachments/7.json"));
+        assertEquals("account.json", ApiRoute.templateOf("https://api.vivialconnect.net/api/v1.0/accounts/10130.json"));
+    }
+
+    @Test
+    public void test_histogram_percentiles_within_bucket_precision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        histogram.record(-1);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1), snapshot.getMin());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), snapshot.getMax());
+
+        assertWithin(TimeUnit.MILLISECONDS.toNanos(500), snapshot.getValueAtPercentile(50), 0.04);
+        assertWithin(TimeUnit.MILLISECONDS.toNanos(990), snapshot.getValueAtPercentile(99), 0.04);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void test_in_memory_metrics_record_calls_by_route() throws VivialConnectException {
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        VivialConnectClient.setRequestListener(metrics);
+
+        Account.getAccount();
+        Account.getAccount();
+        api.getServer().enqueue(ApiStubServer.Response.json(404, NOT_FOUND));
+        try {
+            Message.getMessageById(42);
+            fail("Message should not be found");
+        } catch (ResourceNotFoundException e) {
+            assertEquals(404, e.getResponseCode());
+        }
+
+        Map<String, InMemoryMetrics.RouteMetrics> snapshot = metrics.snapshot();
+
+        InMemoryMetrics.RouteMetrics account = snapshot.get("GET account.json");
+        assertEquals(2, account.getCalls());
+        assertEquals(Long.valueOf(2), account.getStatusCodes().get(200));
+        assertTrue(account.getExceptions().isEmpty());
+        assertTrue(account.getResponseBytes() > 0);
+        assertEquals(2, account.getTotal().getCount());
+        assertEquals(2, account.getSign().getCount());
+        assertEquals(2, account.getConnect().getCount());
+        assertEquals(2, account.getParse().getCount());
+
+        InMemoryMetrics.RouteMetrics message = snapshot.get("GET messages/{id}.json");
+        assertEquals(1, message.getCalls());
+        assertEquals(Long.valueOf(1), message.getStatusCodes().get(404));
+        assertEquals(Long.valueOf(1), message.getExceptions().get("ResourceNotFoundException"));
+        assertEquals(NOT_FOUND.getBytes(StandardCharsets.UTF_8).length, message.getResponseBytes());
+    }
+
+    @Test
+    public void test_events_split_call_phases() throws Exception {
+        final List<RequestEvent> events = new CopyOnWriteArrayList<RequestEvent>();
+        VivialConnectClient.setRequestListener(new RequestListener() {
+            @Override
+            public void onRequestCompleted(RequestEvent event) {
+                events.add(event);
+                throw new IllegalStateException("Listener failures are ignored");
+            }
+        });
+
+        Account.getAccountAsync().get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, events.size());
+        RequestEvent event = events.get(0);
+        assertEquals("GET", event.getMethod());
+        assertEquals("account.json", event.getRouteTemplate());
+        assertEquals(ClientInitTest.ACCOUNT_ID, event.getRoute().getAccountId());
+        assertEquals(200, event.getStatusCode());
+        assertNull(event.getExceptionType());
+        assertEquals(1, event.getAttempts());
+        assertEquals(0, event.getRequestBytes());
+
+        assertTrue(event.getQueueNanos() >= 0);
+        assertTrue(event.getSignNanos() > 0);
+        assertTrue(event.getConnectNanos() >= 0);
+        assertTrue(event.getTimeToFirstByteNanos() > 0);
+        assertTrue(event.getParseNanos() > 0);
+        assertTrue(event.getTotalNanos() >= event.getQueueNanos() + event.getSignNanos() + event.getTimeToFirstByteNanos());
+    }
+
+
+    private static void assertWithin(long expected, long actual, double tolerance) {
+        assertTrue(String.format("%d not within %.0f%% of %d", actual, tolerance * 100, expected),
+                Math.abs(actual - expected) <= expected * tolerance);
+    }
+}
@@ -0,0 +1,109 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import net.vivialconnect.tests.stub.ApiStubServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class MultiClientTest {
+
+    private static final int OTHER_ACCOUNT_ID = ClientInitTest.ACCOUNT_ID + 1;
+    private static final String OTHER_API_KEY = "__other_test_key__";
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    /* Serves the other account only: requests signed with another key, or for another account, fail */
+    private ApiStubServer otherStub;
+
+    @Before
+    public void startOtherStub() throws IOException {
+        otherStub = new ApiStubServer(OTHER_ACCOUNT_ID, OTHER_API_KEY, ClientInitTest.API_SECRET).start();
+    }
+
+    @After
+    public void stopOtherStub() {
+        otherStub.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_builder_requires_credentials() {
+        VivialConnectClient.builder().build();
+    }
+
+    @Test
+    public void test_clients_serve_accounts_in_parallel() throws Exception {
+        VivialConnectClient other = VivialConnectClient.builder()
+                .credentials(OTHER_ACCOUNT_ID, OTHER_API_KEY, ClientInitTest.API_SECRET)
+                .apiBaseUrl(otherStub.getBaseUrl())
+                .build();
+
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Account>> accounts = new ArrayList<Future<Account>>();
+            for (int i = 0; i < 40; i++) {
+                final VivialConnectClient client = i % 2 == 0 ? other : VivialConnectClient.defaultClient();
+                accounts.add(threads.submit(new Callable<Account>() {
+                    @Override
+                    public Account call() throws Exception {
+                        try (VivialConnectClient.Scope scope = client.use()) {
+                            return Account.getAccount();
+                        }
+                    }
+                }));
+            }
+
+            for (Future<Account> account : accounts) {
+                account.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            threads.shutdownNow();
+            other.close();
+        }
+
+        assertEquals(20, otherStub.getRequestCount());
+        assertEquals(20, api.getServer().getRequestCount());
+    }
+
+    @Test
+    public void test_scope_restores_default_client() throws Exception {
+        VivialConnectClient other = VivialConnectClient.builder()
+                .credentials(OTHER_ACCOUNT_ID, OTHER_API_KEY, ClientInitTest.API_SECRET)
+                .apiBaseUrl(otherStub.getBaseUrl())
+                .build();
+
+        try {
+            assertNotSame(VivialConnectClient.getTransport(), other.transport());
+
+            try (VivialConnectClient.Scope scope = other.use()) {
+                assertSame(other, VivialConnectClient.current());
+                Account.getAccountAsync().get(10, TimeUnit.SECONDS);
+            }
+
+            assertSame(VivialConnectClient.defaultClient(), VivialConnectClient.current());
+            Account.getAccount();
+        } finally {
+            other.close();
+        }
+
+        assertEquals(1, otherStub.getRequestCount());
+        assertEquals(1, api.getServer().getRequestCount());
+    }
+}
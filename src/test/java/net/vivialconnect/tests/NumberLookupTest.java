@@ -0,0 +1,157 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.model.number.NumberInfo;
+import net.vivialconnect.model.number.NumberLookupService;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import net.vivialconnect.util.LongLruCache;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class NumberLookupTest {
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    @Test
+    public void test_lookups_of_the_same_number_are_sent_once() throws VivialConnectException {
+        NumberLookupService lookups = NumberLookupService.builder().build();
+
+        NumberInfo info = lookups.lookup("+1 (330) 555-1234");
+        assertEquals("13305551234", info.getPhoneNumber());
+        assertSame(info, lookups.lookup("330.555.1234"));
+        assertSame(info, lookups.lookup("13305551234"));
+
+        assertEquals(1, api.getServer().getRequestCount());
+        assertEquals(2, lookups.getHitCount());
+    }
+
+    @Test
+    public void test_lookup_all_sends_each_unknown_number_once() throws VivialConnectException {
+        NumberLookupService lookups = NumberLookupService.builder().concurrency(2).build();
+        lookups.lookup("+13305551234");
+
+        List<String> phoneNumbers = Arrays.asList("+13305551234", "3305551235", "(330) 555-1235", "+13305551236",
+                "13305551236", "+1 (130) 555-0000", "not a number", "3305551237");
+        Map<String, NumberInfo> infos = lookups.lookupAll(phoneNumbers);
+
+        assertEquals(6, infos.size());
+        assertSame(infos.get("3305551235"), infos.get("(330) 555-1235"));
+        assertEquals("13305551237", infos.get("3305551237").getPhoneNumber());
+        assertFalse(infos.containsKey("+1 (130) 555-0000"));
+        assertFalse(infos.containsKey("not a number"));
+
+        /* The first lookup, then 11305550000, 13305551235, 13305551236 and 13305551237 */
+        assertEquals(5, api.getServer().getRequestCount());
+    }
+
+    @Test
+    public void test_international_numbers_are_not_given_the_north_american_code() throws VivialConnectException {
+        NumberLookupService lookups = NumberLookupService.builder().build();
+
+        assertNotNull(lookups.lookup("3305551234"));
+        assertNull(lookups.lookup("+3305551234"));
+        assertNull(lookups.lookup("+33 0555 1234"));
+
+        /* 13305551234, then 3305551234 */
+        assertEquals(2, api.getServer().getRequestCount());
+        assertEquals(1, lookups.getHitCount());
+    }
+
+    @Test
+    public void test_invalid_numbers_are_remembered() throws VivialConnectException {
+        NumberLookupService lookups = NumberLookupService.builder().build();
+
+        assertNull(lookups.lookup("+1 (130) 555-0000"));
+        assertNull(lookups.lookup("1305550000"));
+        assertNull(lookups.lookup("555-01"));
+
+        assertEquals(1, api.getServer().getRequestCount());
+    }
+
+    @Test
+    public void test_lookups_are_persisted() throws IOException, VivialConnectException {
+        Path file = Files.createTempFile("number-lookups", ".txt");
+        Files.delete(file);
+        try {
+            NumberLookupService lookups = NumberLookupService.builder().persistence(file).build();
+            NumberInfo saved = lookups.lookup("+13305551234");
+            lookups.lookup("+11305550000");
+            lookups.close();
+
+            NumberLookupService reloaded = NumberLookupService.builder().persistence(file).build();
+            assertEquals(2, reloaded.size());
+
+            NumberInfo info = reloaded.lookup("+13305551234");
+            assertEquals(saved.getPhoneNumber(), info.getPhoneNumber());
+            assertEquals(saved.getCarrier().getName(), info.getCarrier().getName());
+            assertEquals(saved.getDevice().getError(), info.getDevice().getError());
+            assertNull(reloaded.lookup("+11305550000"));
+
+            assertEquals(2, api.getServer().getRequestCount());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void test_long_lru_cache_evicts_the_least_recently_used() {
+        LongLruCache<String> cache = new LongLruCache<String>(3);
+        cache.put(1, "one", 100);
+        cache.put(2, "two", 100);
+        cache.put(3, "three", 100);
+        assertEquals("one", cache.get(1, 0));
+
+        cache.put(4, "four", 100);
+        assertNull(cache.get(2, 0));
+        assertNotNull(cache.get(1, 0));
+        assertNotNull(cache.get(3, 0));
+        assertEquals("four", cache.get(4, 0));
+
+        /* Expired values are dropped */
+        assertNull(cache.get(4, 100));
+        assertEquals(2, cache.size());
+
+        for (long key = 10; key < 10_000; key++) {
+            cache.put(key, Long.toString(key), 100);
+            assertEquals(Long.toString(key), cache.get(key, 0));
+        }
+        assertEquals(3, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_zero_ttl_is_rejected() {
+        NumberLookupService.builder().ttl(Duration.ZERO);
+    }
+
+    @Test
+    public void test_long_lru_cache_visitor_may_use_the_cache() {
+        LongLruCache<String> cache = new LongLruCache<String>(3);
+        cache.put(1, "one", 100);
+        cache.put(2, "two", 100);
+
+        List<Long> visited = new ArrayList<Long>();
+        cache.forEach((key, value, expiresAt) -> {
+            visited.add(key);
+            cache.remove(key);
+        });
+
+        assertEquals(Arrays.asList(1L, 2L), visited);
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,157 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.ApiRoute;
+import net.vivialconnect.http.RateLimits;
+import net.vivialconnect.http.TokenBucket;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.error.ClientRateLimitException;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class RateLimitTest {
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    @Test
+    public void test_route_of_request_urls() {
+        ApiRoute message = ApiRoute.of("GET", "https://api.vivialconnect.net/api/v1.0/accounts/10130/messages/42.json?limit=5");
+        assertEquals(new ApiRoute(10130, "GET", "messages"), message);
+
+        ApiRoute messages = ApiRoute.of("GET", "https://api.vivialconnect.net/api/v1.0/accounts/10130/messages.json");
+        assertEquals(message, messages);
+
+        ApiRoute account = ApiRoute.of("GET", "https://api.vivialconnect.net/api/v1.0/accounts/10130.json");
+        assertEquals(new ApiRoute(10130, "GET", "account"), account);
+    }
+
+    @Test
+    public void test_token_bucket_allows_burst_then_refuses() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+
+        assertEquals(3, bucket.getAvailablePermits());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        assertEquals(0, bucket.getAvailablePermits());
+
+        long wait = bucket.reserve(TimeUnit.SECONDS.toNanos(2));
+        assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void test_fail_fast_does_not_send_request() throws VivialConnectException {
+        VivialConnectClient.setRateLimits(RateLimits.builder()
+                .limit("GET", "account", 0.1, 1)
+                .failFast()
+                .build());
+
+        Account.getAccount();
+        try {
+            Account.getAccount();
+            fail("Second request should exceed the rate limit");
+        } catch (ClientRateLimitException e) {
+            assertEquals(0, e.getResponseCode());
+        }
+
+        assertEquals(1, api.getServer().getRequestCount());
+    }
+
+    @Test
+    public void test_blocking_waits_for_permits() throws VivialConnectException {
+        VivialConnectClient.setRateLimits(RateLimits.builder()
+                .limit("GET", "account", 20, 1)
+                .blocking()
+                .build());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            Account.getAccount();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(4, api.getServer().getRequestCount());
+        assertTrue("Took " + elapsedMillis + " ms", elapsedMillis >= 140);
+    }
+
+    @Test
+    public void test_timeout_gives_up_when_wait_is_too_long() throws VivialConnectException {
+        VivialConnectClient.setRateLimits(RateLimits.builder()
+                .defaultLimit(1, 1)
+                .timeout(Duration.ofMillis(50))
+                .build());
+
+        Account.getAccount();
+        try {
+            Account.getAccount();
+            fail("Permit is a second away, beyond the timeout");
+        } catch (ClientRateLimitException e) {
+            assertEquals(1, api.getServer().getRequestCount());
+        }
+    }
+
+    @Test
+    public void test_routes_and_accounts_are_limited_separately() throws VivialConnectException {
+        RateLimits rateLimits = RateLimits.builder()
+                .limit("POST", "messages", 0.1, 1)
+                .limit(10130, "GET", "numbers", 0.1, 2)
+                .failFast()
+                .build();
+        VivialConnectClient.setRateLimits(rateLimits);
+
+        assertEquals(0, rateLimits.reserve(new ApiRoute(10130, "POST", "messages")));
+        assertEquals(-1, rateLimits.reserve(new ApiRoute(10130, "POST", "messages")));
+        assertEquals(0, rateLimits.reserve(new ApiRoute(20260, "POST", "messages")));
+
+        assertEquals(2, rateLimits.getTokenBucket(new ApiRoute(10130, "GET", "numbers")).getAvailablePermits());
+        assertNull(rateLimits.getTokenBucket(new ApiRoute(20260, "GET", "numbers")));
+
+        for (int i = 0; i < 5; i++) {
+            Account.getAccount();
+        }
+        assertEquals(5, api.getServer().getRequestCount());
+    }
+
+    @Test
+    public void test_account_limit_for_any_method_takes_precedence() {
+        RateLimits rateLimits = RateLimits.builder()
+                .limit(10130, "*", "messages", 0.1, 1)
+                .limit("POST", "messages", 0.1, 5)
+                .build();
+
+        assertEquals(1, rateLimits.getTokenBucket(new ApiRoute(10130, "POST", "messages")).getAvailablePermits());
+        assertEquals(1, rateLimits.getTokenBucket(new ApiRoute(10130, "GET", "messages")).getAvailablePermits());
+        assertEquals(5, rateLimits.getTokenBucket(new ApiRoute(20260, "POST", "messages")).getAvailablePermits());
+        assertNull(rateLimits.getTokenBucket(new ApiRoute(20260, "GET", "messages")));
+    }
+
+    @Test
+    public void test_async_request_fails_with_client_rate_limit() throws Exception {
+        VivialConnectClient.setRateLimits(RateLimits.builder()
+                .limit("GET", "account", 0.1, 1)
+                .failFast()
+                .build());
+
+        Account.getAccountAsync().get(5, TimeUnit.SECONDS);
+        try {
+            Account.getAccountAsync().get(5, TimeUnit.SECONDS);
+            fail("Second request should exceed the rate limit");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ClientRateLimitException);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.PooledTransport;
+import net.vivialconnect.http.RecordingTransport;
+import net.vivialconnect.http.ReplayTransport;
+import net.vivialconnect.http.TrafficArchive;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.error.ApiRequestException;
+import net.vivialconnect.model.error.ResourceNotFoundException;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.model.message.Message;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ReplayTest {
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    private Path archive;
+
+    @Before
+    public void createArchive() throws IOException {
+        archive = Files.createTempFile("traffic", ".vcta");
+    }
+
+    @After
+    public void deleteArchive() throws IOException {
+        VivialConnectClient.init(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+        Files.deleteIfExists(archive);
+    }
+
+    @Test
+    public void test_recorded_traffic_replays_without_the_api() throws IOException, VivialConnectException {
+        RecordingTransport recorder = new RecordingTransport(new PooledTransport(), archive);
+        VivialConnectClient.setTransport(recorder);
+
+        Account.getAccount();
+        Message.getMessages(withLimitOf(5));
+        try {
+            Message.getMessageById(1);
+            fail("Message 1 is not a fixture");
+        } catch (ResourceNotFoundException e) {
+            assertEquals(404, e.getResponseCode());
+        }
+        recorder.close();
+
+        TrafficArchive recorded = TrafficArchive.read(archive);
+        assertEquals(3, recorded.getExchanges().size());
+        for (TrafficArchive.Exchange exchange : recorded.getExchanges()) {
+            assertTrue(exchange.getKey().contains("/accounts/{account}"));
+            assertFalse(exchange.getRequestHeaders().containsKey("Authorization"));
+            assertFalse(exchange.getRequestHeaders().containsKey("X-Auth-Date"));
+        }
+
+        /* Another account, other credentials and no server: only the recording answers */
+        api.getServer().close();
+        VivialConnectClient.init(ClientInitTest.ACCOUNT_ID + 1, "other-key", "other-secret");
+        VivialConnectClient.setTransport(new ReplayTransport(recorded));
+
+        assertEquals(ClientInitTest.ACCOUNT_ID, Account.getAccount().getId());
+        assertEquals(5, Message.getMessages(withLimitOf(5)).size());
+        try {
+            Message.getMessageById(1);
+            fail("The recorded 404 should be replayed");
+        } catch (ResourceNotFoundException e) {
+            assertEquals(404, e.getResponseCode());
+        }
+
+        try {
+            Message.getMessages();
+            fail("A request that was not recorded should fail");
+        } catch (ApiRequestException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void test_replay_follows_the_scaled_recorded_latency() throws IOException, VivialConnectException {
+        api.getServer().setLatency(100, 100, TimeUnit.MILLISECONDS);
+        RecordingTransport recorder = new RecordingTransport(new PooledTransport(), archive);
+        VivialConnectClient.setTransport(recorder);
+        Account.getAccount();
+        recorder.close();
+
+        TrafficArchive recorded = TrafficArchive.read(archive);
+        assertTrue(recorded.getExchanges().get(0).getLatencyNanos() >= TimeUnit.MILLISECONDS.toNanos(100));
+
+        VivialConnectClient.setTransport(new ReplayTransport(recorded, 0.5));
+        long start = System.nanoTime();
+        Account.getAccount();
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+
+    private static Map<String, String> withLimitOf(int limit) {
+        Map<String, String> filters = new HashMap<String, String>();
+        filters.put("limit", String.valueOf(limit));
+
+        return filters;
+    }
+}
@@ -0,0 +1,86 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Locale;
+import java.util.SimpleTimeZone;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.vivialconnect.http.RequestClock;
+import org.junit.Test;
+
+public class RequestClockTest {
+
+    private final AtomicLong millis = new AtomicLong(1499294773250L); /* Wed, 05 Jul 2017 22:46:13.250 GMT */
+
+    private final RequestClock requestClock = new RequestClock(new Clock() {
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    });
+
+    @Test
+    public void test_formats_match_signed_headers() {
+        RequestClock.Stamp stamp = requestClock.now();
+
+        assertEquals("20170705T224613Z", stamp.getTimestamp());
+        assertEquals("Wed, 05 Jul 2017 22:46:13 GMT", stamp.getDate());
+    }
+
+    @Test
+    public void test_formats_match_previous_date_formats() {
+        DateFormat iso8601 = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
+        iso8601.setTimeZone(new SimpleTimeZone(0, "GMT"));
+        DateFormat httpDate = new SimpleDateFormat("E, dd MMM yyyy HH:mm:ss z", Locale.US);
+        httpDate.setTimeZone(new SimpleTimeZone(0, "GMT"));
+
+        for (long time = 0; time < 4000000000000L; time += 7777777777L) {
+            millis.set(time);
+            RequestClock.Stamp stamp = requestClock.now();
+
+            assertEquals(iso8601.format(new Date(time)), stamp.getTimestamp());
+            assertEquals(httpDate.format(new Date(time)), stamp.getDate());
+            assertEquals(iso8601.format(new Date(time)), RequestClock.formatTimestamp(new Date(time)));
+        }
+    }
+
+    @Test
+    public void test_stamp_is_reused_within_a_second() {
+        RequestClock.Stamp first = requestClock.now();
+
+        millis.addAndGet(700);
+        assertSame(first, requestClock.now());
+
+        millis.addAndGet(100);
+        assertNotSame(first, requestClock.now());
+        assertEquals("20170705T224614Z", requestClock.now().getTimestamp());
+    }
+
+    @Test
+    public void test_clock_skew_is_applied() {
+        requestClock.setClockSkew(-13250);
+
+        assertEquals("20170705T224600Z", requestClock.now().getTimestamp());
+        assertEquals("Wed, 05 Jul 2017 22:46:00 GMT", requestClock.now().getDate());
+    }
+}
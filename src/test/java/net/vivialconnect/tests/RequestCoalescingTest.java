@@ -0,0 +1,152 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.RequestCoalescer;
+import net.vivialconnect.http.RequestOptions;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.error.DeadlineExceededException;
+import net.vivialconnect.model.error.ResourceNotFoundException;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.model.message.Message;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class RequestCoalescingTest {
+
+    private static final int CALLERS = 8;
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    private RequestCoalescer coalescer;
+    private ExecutorService callers;
+
+    @Before
+    public void setCoalescer() {
+        callers = Executors.newFixedThreadPool(CALLERS);
+
+        coalescer = RequestCoalescer.create();
+        VivialConnectClient.setRequestCoalescer(coalescer);
+    }
+
+    @After
+    public void stopCallers() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void test_identical_concurrent_requests_are_sent_once() throws Exception {
+        api.getServer().setLatency(500, 500, TimeUnit.MILLISECONDS);
+
+        List<Account> accounts = callAtOnce(Account::getAccount);
+
+        assertEquals(1, api.getServer().getRequestCount());
+        assertEquals(CALLERS - 1, coalescer.getCoalescedCount());
+        assertEquals(0, coalescer.getInFlightCount());
+        for (Account account : accounts.subList(1, CALLERS)) {
+            assertEquals(accounts.get(0).getCompanyName(), account.getCompanyName());
+            assertNotSame(accounts.get(0), account);
+        }
+    }
+
+    @Test
+    public void test_every_caller_gets_its_own_error() throws Exception {
+        api.getServer().setLatency(500, 500, TimeUnit.MILLISECONDS);
+
+        List<Throwable> failures = new ArrayList<Throwable>();
+        for (Future<Message> call : startAtOnce(() -> Message.getMessageById(1))) {
+            try {
+                call.get();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ResourceNotFoundException);
+                failures.add(e.getCause());
+            }
+        }
+
+        assertEquals(CALLERS, failures.size());
+        assertNotSame(failures.get(0), failures.get(1));
+        assertEquals(1, api.getServer().getRequestCount());
+    }
+
+    @Test
+    public void test_followers_outlive_the_deadline_of_the_leader() throws Exception {
+        api.getServer().setLatency(500, 500, TimeUnit.MILLISECONDS);
+        CountDownLatch sent = new CountDownLatch(1);
+        api.getServer().onRequest(request -> sent.countDown());
+
+        Future<Account> leader = callers.submit(() -> {
+            try (RequestOptions.Scope scope = RequestOptions.builder().timeout(Duration.ofMillis(200)).build().apply()) {
+                return Account.getAccount();
+            }
+        });
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        Future<Account> follower = callers.submit(() -> {
+            try (RequestOptions.Scope scope = RequestOptions.builder().timeout(Duration.ofSeconds(5)).build().apply()) {
+                return Account.getAccount();
+            }
+        });
+
+        try {
+            leader.get();
+            fail("Leader should exceed its deadline");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof DeadlineExceededException);
+        }
+        assertTrue(follower.get().getId() > 0);
+        assertEquals(1, coalescer.getCoalescedCount());
+        assertEquals(2, api.getServer().getRequestCount());
+    }
+
+    @Test
+    public void test_requests_are_not_served_once_answered() throws VivialConnectException {
+        Account.getAccount();
+        Account.getAccount();
+
+        assertEquals(2, api.getServer().getRequestCount());
+        assertEquals(0, coalescer.getCoalescedCount());
+    }
+
+
+    private <T> List<T> callAtOnce(Callable<T> call) throws InterruptedException, ExecutionException {
+        List<T> results = new ArrayList<T>();
+        for (Future<T> future : startAtOnce(call)) {
+            results.add(future.get());
+        }
+
+        return results;
+    }
+
+
+    private <T> List<Future<T>> startAtOnce(Callable<T> call) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<Future<T>>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(callers.submit(() -> {
+                start.await();
+                return call.call();
+            }));
+        }
+
+        start.countDown();
+        return futures;
+    }
+}
@@ -0,0 +1,145 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.RequestOptions;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.http.UrlConnectionTransport;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.error.DeadlineExceededException;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import net.vivialconnect.tests.stub.ApiStubServer;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class RequestOptionsTest {
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    @Test
+    public void test_stalled_response_fails_at_deadline() throws VivialConnectException {
+        stall();
+        RequestOptions options = RequestOptions.builder().timeout(Duration.ofMillis(300)).build();
+
+        long start = System.nanoTime();
+        try (RequestOptions.Scope scope = options.apply()) {
+            Account.getAccount();
+            fail("Stalled response should exceed the deadline");
+        } catch (DeadlineExceededException e) {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue("Took " + elapsedMillis + " ms", elapsedMillis < 2000);
+        }
+
+        assertNull(RequestOptions.current());
+    }
+
+    @Test
+    public void test_url_connection_transport_applies_deadline() throws VivialConnectException {
+        VivialConnectClient.setTransport(new UrlConnectionTransport());
+        stall();
+
+        try (RequestOptions.Scope scope = RequestOptions.builder().timeout(Duration.ofMillis(300)).build().apply()) {
+            Account.getAccount();
+            fail("Stalled response should exceed the deadline");
+        } catch (DeadlineExceededException e) {
+            assertEquals(0, e.getResponseCode());
+        }
+    }
+
+    @Test
+    public void test_retries_stop_at_deadline() throws VivialConnectException {
+        VivialConnectClient.setRetryPolicy(RetryPolicy.builder()
+                .maxAttempts(10)
+                .backoff(Duration.ofMillis(1), Duration.ofMillis(5))
+                .build());
+        for (int i = 0; i < 10; i++) {
+            api.getServer().enqueue(ApiStubServer.Response.error(503, "Unavailable"));
+        }
+
+        /* The first response arrives 100 ms before the deadline, and the retry runs out of time waiting for the next */
+        api.getServer().setLatency(200, 200, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        try (RequestOptions.Scope scope = RequestOptions.builder().timeout(Duration.ofMillis(300)).build().apply()) {
+            Account.getAccount();
+            fail("Retry should exceed the deadline");
+        } catch (DeadlineExceededException e) {
+            assertEquals(0, e.getResponseCode());
+        }
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertTrue(api.getServer().getRequestCount() < 10);
+    }
+
+    @Test
+    public void test_expired_deadline_sends_nothing() throws Exception {
+        try (RequestOptions.Scope scope = RequestOptions.builder().timeout(Duration.ofMillis(1)).build().apply()) {
+            Thread.sleep(5);
+            Account.getAccount();
+            fail("Deadline already passed");
+        } catch (DeadlineExceededException e) {
+            assertEquals(0, api.getServer().getRequestCount());
+        }
+    }
+
+    @Test
+    public void test_async_request_carries_deadline() throws Exception {
+        stall();
+
+        try (RequestOptions.Scope scope = RequestOptions.builder().timeout(Duration.ofMillis(300)).build().apply()) {
+            Account.getAccountAsync().get(5, TimeUnit.SECONDS);
+            fail("Stalled response should exceed the deadline");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof DeadlineExceededException);
+        }
+    }
+
+    @Test
+    public void test_nested_scope_keeps_earlier_deadline() {
+        RequestOptions shortTimeout = RequestOptions.builder().timeout(Duration.ofMillis(100)).build();
+        RequestOptions longTimeout = RequestOptions.builder().timeout(Duration.ofMinutes(1)).build();
+
+        try (RequestOptions.Scope outer = shortTimeout.apply()) {
+            try (RequestOptions.Scope inner = longTimeout.apply()) {
+                assertTrue(inner.remainingNanos() <= TimeUnit.MILLISECONDS.toNanos(100));
+                assertTrue(inner.getReadTimeout() <= 100);
+                assertSame(inner, RequestOptions.current());
+            }
+
+            assertSame(outer, RequestOptions.current());
+            assertFalse(outer.isExpired());
+        }
+
+        assertNull(RequestOptions.current());
+    }
+
+    @Test
+    public void test_timeouts_capped_by_options() {
+        RequestOptions options = RequestOptions.builder()
+                .timeout(Duration.ofSeconds(30))
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+
+        try (RequestOptions.Scope scope = options.apply()) {
+            assertEquals(2000, scope.getConnectTimeout());
+            assertTrue(scope.getReadTimeout() > 29000);
+        }
+    }
+
+
+    private void stall() {
+        api.getServer().setLatency(10, 10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,161 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import net.vivialconnect.http.CanonicalRequestBuilder;
+import net.vivialconnect.http.RequestSigner;
+import net.vivialconnect.util.CryptoUtils;
+import net.vivialconnect.util.UrlEncoding;
+import org.junit.Test;
+
+/**
+ * Signatures below were produced by the original signing code and must never change: the API rejects any request
+ * whose canonical form differs from its own.
+ */
+public class RequestSignerTest {
+
+    private static final String TIMESTAMP = "20170705T224613Z";
+    private static final String DATE = "Wed, 05 Jul 2017 22:46:13 GMT";
+
+    @Test
+    public void test_get_with_query_params() throws Exception {
+        Map<String, String> queryParams = new HashMap<String, String>();
+        queryParams.put("limit", "5");
+        queryParams.put("order", "sent desc");
+        queryParams.put("start_time", "2017-07-05T22:46:13Z");
+        queryParams.put("page", "2");
+
+        assertSignature("GET", "https://api.vivialconnect.net/api/v1.0/accounts/10130/messages.json", null, queryParams, false,
+                "GET\n20170705T224613Z\n/api/v1.0/accounts/10130/messages.json\n"
+                        + "limit=5&order=sent+desc&page=2&start_time=2017-07-05T22%3A46%3A13Z\n"
+                        + "accept:application/json\ndate:Wed, 05 Jul 2017 22:46:13 GMT\nhost:api.vivialconnect.net\n"
+                        + "accept;date;host\ne3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                "accept;date;host",
+                "ae273923e5226e77c754725bb898f23d4ac6b6e9881668a1f1cf21b085cec737");
+    }
+
+    @Test
+    public void test_post_with_non_ascii_body() throws Exception {
+        assertSignature("POST", "https://api.vivialconnect.net/api/v1.0/accounts/10130/messages.json",
+                "{\"message\":{\"body\":\"Señal – 東京\",\"to_number\":\"+13025551234\"}}", null, true,
+                "POST\n20170705T224613Z\n/api/v1.0/accounts/10130/messages.json\n\n"
+                        + "accept:application/json\ncontent-type:application/json\ndate:Wed, 05 Jul 2017 22:46:13 GMT\nhost:api.vivialconnect.net\n"
+                        + "accept;content-type;date;host\n9d4ff0738075934e524441d9c832fe4c3c8f7affc248ff050804876b758650f2",
+                "accept;content-type;date;host",
+                "848ccff49403f468568e69ce086114334293cbf1a17d9e3587de4ecab6fb7cbe");
+    }
+
+    @Test
+    public void test_put_with_query_params_needing_escapes() throws Exception {
+        Map<String, String> queryParams = new HashMap<String, String>();
+        queryParams.put("tag key", "a&b=c/d");
+        queryParams.put("été", "ü~*");
+
+        assertSignature("PUT", "https://api.vivialconnect.net/api/v1.0/accounts/10130/numbers/42.json",
+                "{\"number\":{\"name\":\"x\"}}", queryParams, true,
+                "PUT\n20170705T224613Z\n/api/v1.0/accounts/10130/numbers/42.json\n"
+                        + "%C3%A9t%C3%A9=%C3%BC%7E*&tag+key=a%26b%3Dc%2Fd\n"
+                        + "accept:application/json\ncontent-type:application/json\ndate:Wed, 05 Jul 2017 22:46:13 GMT\nhost:api.vivialconnect.net\n"
+                        + "accept;content-type;date;host\n06c7514192aae6259716a221048dbdfcee3a99a761021f11423956b887654cc0",
+                "accept;content-type;date;host",
+                "b301db0c745876989b87a4f25bf276693eb1da5cd1271a15dc45bae9b66be59e");
+    }
+
+    @Test
+    public void test_delete_with_path_needing_escapes() throws Exception {
+        assertSignature("DELETE", "http://127.0.0.1:8080/api/v1.0/accounts/10130/numbers/42/tags/a b+c.json", null, null, false,
+                "DELETE\n20170705T224613Z\n/api/v1.0/accounts/10130/numbers/42/tags/a+b%2Bc.json\n\n"
+                        + "accept:application/json\ndate:Wed, 05 Jul 2017 22:46:13 GMT\nhost:127.0.0.1\n"
+                        + "accept;date;host\ne3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                "accept;date;host",
+                "e68ba26dea1855ba7591d61aac9930b0e1b5cd19f6cd9250a3f5cde15cdd465c");
+    }
+
+    @Test
+    public void test_get_with_empty_body_and_query_params() throws Exception {
+        assertSignature("GET", "https://api.vivialconnect.net/api/v1.0/accounts/10130.json", "", new HashMap<String, String>(), false,
+                "GET\n20170705T224613Z\n/api/v1.0/accounts/10130.json\n\n"
+                        + "accept:application/json\ndate:Wed, 05 Jul 2017 22:46:13 GMT\nhost:api.vivialconnect.net\n"
+                        + "accept;date;host\ne3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                "accept;date;host",
+                "fa3a8cc3c444fc54295e14c71d071978ae47055699bc6374879315779160a64e");
+    }
+
+    @Test
+    public void test_signer_is_reusable_across_requests() throws Exception {
+        RequestSigner signer = new RequestSigner("fake-api-key", "fake-api-secret");
+        String canonicalRequest = "GET\n" + TIMESTAMP + "\n/\n";
+
+        assertEquals(signer.createSignature(canonicalRequest), signer.createSignature(new StringBuilder(canonicalRequest)));
+        assertEquals("HMAC fake-api-key:abc", signer.createAuthorizationHeader("abc"));
+    }
+
+    @Test
+    public void test_url_encoding_matches_url_encoder() throws Exception {
+        Random random = new Random(42);
+        String alphabet = "aZ09.-*_ ~!/?#&=+%:éü–東😀";
+
+        for (int i = 0; i < 1000; i++) {
+            StringBuilder value = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                int index = random.nextInt(alphabet.length());
+                char c = alphabet.charAt(index);
+                value.append(c);
+                if (Character.isHighSurrogate(c)) {
+                    value.append(alphabet.charAt(index + 1));
+                }
+            }
+
+            assertEquals(URLEncoder.encode(value.toString(), "UTF-8"), UrlEncoding.encode(value.toString()));
+        }
+    }
+
+    @Test
+    public void test_hex_encoding() {
+        byte[] content = new byte[256];
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+            expected.append(String.format("%02x", i));
+        }
+
+        assertEquals(expected.toString(), CryptoUtils.toHex(content));
+        assertEquals(expected.toString(), CryptoUtils.appendHex(new StringBuilder(), content).toString());
+    }
+
+
+    private static void assertSignature(String method, String url, String body, Map<String, String> queryParams, boolean hasBody,
+                                        String expectedCanonicalRequest, String expectedSignedHeaders, String expectedSignature) throws Exception {
+        URL endpoint = new URL(url);
+
+        Map<String, String> headers = new HashMap<String, String>();
+        headers.put("Date", DATE);
+        headers.put("Host", endpoint.getHost());
+        headers.put("Accept", "application/json");
+        if (hasBody) {
+            headers.put("Content-Type", "application/json");
+        }
+
+        CanonicalRequestBuilder builder = new CanonicalRequestBuilder()
+                .endpoint(endpoint)
+                .requestTimestamp(TIMESTAMP)
+                .body(body)
+                .method(method)
+                .headers(headers)
+                .queryParams(queryParams);
+
+        assertEquals(expectedCanonicalRequest, builder.build());
+        assertEquals(expectedSignedHeaders, builder.getCanonicalizedHeaderNames());
+
+        RequestSigner signer = new RequestSigner("fake-api-key", "fake-api-secret");
+        assertEquals(expectedSignature, signer.sign(builder));
+        assertEquals(expectedSignature, signer.createSignature(expectedCanonicalRequest));
+    }
+}
@@ -0,0 +1,99 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.time.Duration;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.ResponseCache;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.account.Contact;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.model.number.Number;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ResponseCacheTest {
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    @Test
+    public void test_fresh_responses_are_served_without_request() throws VivialConnectException {
+        ResponseCache cache = ResponseCache.builder().ttl("account", Duration.ofMinutes(1)).build();
+        VivialConnectClient.setResponseCache(cache);
+
+        Account first = Account.getAccount();
+        Account second = Account.getAccount();
+
+        assertEquals(first.getCompanyName(), second.getCompanyName());
+        assertNotSame(first, second);
+        assertEquals(1, api.getServer().getRequestCount());
+        assertEquals(1, cache.getHitCount());
+
+        /* Other resources are not cached */
+        Number.count();
+        Number.count();
+        assertEquals(3, api.getServer().getRequestCount());
+    }
+
+    @Test
+    public void test_changes_made_by_the_client_invalidate_the_resource() throws VivialConnectException {
+        VivialConnectClient.setResponseCache(ResponseCache.builder()
+                .ttl("account", Duration.ofMinutes(1))
+                .ttl("contacts", Duration.ofMinutes(1))
+                .build());
+
+        Account account = Account.getAccount();
+        account.setCompanyName("Renamed Inc.");
+        account.update();
+        assertEquals("Renamed Inc.", Account.getAccount().getCompanyName());
+
+        int contacts = Contact.count();
+        assertEquals(contacts, Contact.count());
+
+        Contact contact = new Contact();
+        contact.setFirstName("Grace");
+        contact.setLastName("Hopper");
+        contact.setEmail("grace@example.com");
+        contact.setContactType("main");
+        contact.setMobilePhone("+13305551235");
+        contact.create();
+
+        assertEquals(contacts + 1, Contact.count());
+        assertEquals(6, api.getServer().getRequestCount());
+    }
+
+    @Test
+    public void test_stale_responses_are_revalidated() throws VivialConnectException {
+        ResponseCache cache = ResponseCache.builder().ttl("numbers", Duration.ZERO).build();
+        VivialConnectClient.setResponseCache(cache);
+
+        int numbers = Number.getAssociatedNumbers().size();
+        assertEquals(numbers, Number.getAssociatedNumbers().size());
+        assertEquals(numbers, Number.getAssociatedNumbers().size());
+
+        assertEquals(3, api.getServer().getRequestCount());
+        assertEquals(2, cache.getRevalidationCount());
+    }
+
+    @Test
+    public void test_least_recently_used_responses_are_evicted() throws VivialConnectException {
+        ResponseCache cache = ResponseCache.builder().ttl("numbers", Duration.ofMinutes(1)).maxEntries(2).build();
+        VivialConnectClient.setResponseCache(cache);
+
+        Number.getNumberById(131);
+        Number.getNumberById(137);
+        Number.getNumberById(131);
+        Number.count();
+        assertEquals(2, cache.size());
+        assertEquals(3, api.getServer().getRequestCount());
+
+        /* 137 was the least recently used */
+        Number.getNumberById(131);
+        Number.getNumberById(137);
+        assertEquals(4, api.getServer().getRequestCount());
+    }
+}
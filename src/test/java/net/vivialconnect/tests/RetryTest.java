@@ -0,0 +1,180 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.RetryBudget;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.account.Contact;
+import net.vivialconnect.model.error.RateLimitException;
+import net.vivialconnect.model.error.ServerErrorException;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import net.vivialconnect.tests.stub.ApiStubServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class RetryTest {
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    private final List<String> authDates = new CopyOnWriteArrayList<String>();
+
+    @Before
+    public void recordAuthDates() {
+        api.getServer().onRequest(request -> {
+            authDates.add(request.getHeader("X-Auth-Date"));
+
+            /* Move the client clock, so that a re-signed retry carries a different timestamp */
+            VivialConnectClient.getRequestClock().setClockSkew(authDates.size() * 1000L);
+        });
+        VivialConnectClient.setRetryPolicy(policy().build());
+    }
+
+    @Test
+    public void test_get_is_retried_and_signed_again() throws VivialConnectException {
+        enqueue(503);
+        enqueue(500);
+
+        assertTrue(Account.getAccount().getId() > 0);
+        assertEquals(3, authDates.size());
+        assertNotEquals(authDates.get(0), authDates.get(1));
+        assertNotEquals(authDates.get(1), authDates.get(2));
+    }
+
+    @Test
+    public void test_gives_up_after_max_attempts() throws VivialConnectException {
+        enqueue(503);
+        enqueue(503);
+        enqueue(500);
+
+        try {
+            Account.getAccount();
+            fail("Last 500 response should be thrown");
+        } catch (ServerErrorException e) {
+            assertEquals(500, e.getResponseCode());
+        }
+
+        assertEquals(3, authDates.size());
+    }
+
+    @Test
+    public void test_post_is_not_retried_on_server_error() throws VivialConnectException {
+        enqueue(500);
+
+        try {
+            newContact().create();
+            fail("500 response to a POST should not be retried");
+        } catch (ServerErrorException e) {
+            assertEquals(1, authDates.size());
+        }
+    }
+
+    @Test
+    public void test_post_is_retried_on_too_many_requests() throws VivialConnectException {
+        enqueue(429);
+
+        newContact().create();
+        assertEquals(2, authDates.size());
+    }
+
+    @Test
+    public void test_retry_after_is_honoured() throws VivialConnectException {
+        api.getServer().enqueue(tryAgain(429).withHeader("Retry-After", "1"));
+
+        long start = System.nanoTime();
+        Account.getAccount();
+
+        assertTrue(System.nanoTime() - start >= 1000000000L);
+        assertEquals(2, authDates.size());
+    }
+
+    @Test
+    public void test_retry_after_above_limit_fails_fast() throws VivialConnectException {
+        api.getServer().enqueue(tryAgain(429).withHeader("Retry-After", "3600"));
+
+        try {
+            Account.getAccount();
+            fail("Retry-After above the limit should not be waited for");
+        } catch (RateLimitException e) {
+            assertEquals(1, authDates.size());
+        }
+    }
+
+    @Test
+    public void test_exhausted_budget_stops_retries() throws VivialConnectException {
+        VivialConnectClient.setRetryPolicy(policy().budget(new RetryBudget(0, 0, 0)).build());
+        enqueue(503);
+
+        try {
+            Account.getAccount();
+            fail("No retry should be allowed by an empty budget");
+        } catch (VivialConnectException e) {
+            assertEquals(503, e.getResponseCode());
+            assertEquals(1, authDates.size());
+        }
+    }
+
+    @Test
+    public void test_budget_earns_retries_from_requests() {
+        RetryBudget budget = new RetryBudget(0.5, 0, 10);
+        assertFalse(budget.tryAcquire());
+
+        for (int i = 0; i < 4; i++) {
+            budget.recordRequest();
+        }
+
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    public void test_budget_allows_retries_per_second() {
+        RetryBudget budget = new RetryBudget(0, 2, 0);
+
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+    }
+
+
+    private void enqueue(int status) {
+        api.getServer().enqueue(tryAgain(status));
+    }
+
+
+    private static ApiStubServer.Response tryAgain(int status) {
+        return ApiStubServer.Response.error(status, "Try again");
+    }
+
+
+    private static RetryPolicy.Builder policy() {
+        return RetryPolicy.builder()
+                .maxAttempts(3)
+                .backoff(Duration.ofMillis(1), Duration.ofMillis(5))
+                .maxRetryAfter(Duration.ofSeconds(5));
+    }
+
+
+    private static Contact newContact() {
+        Contact contact = new Contact();
+        contact.setFirstName("Carlos");
+        contact.setLastName("Gonzalez");
+        contact.setEmail("carlos.gonzalez@newtechsa.com");
+        contact.setMobilePhone("+13025551234");
+        contact.setContactType("main");
+
+        return contact;
+    }
+}
@@ -0,0 +1,204 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Authenticator;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.Proxy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpServer;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.ConnectionPool;
+import net.vivialconnect.http.HttpRequest;
+import net.vivialconnect.http.HttpResponse;
+import net.vivialconnect.http.PoolStats;
+import net.vivialconnect.http.PooledTransport;
+import net.vivialconnect.http.UrlConnectionTransport;
+import net.vivialconnect.model.VivialConnectResource;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.error.ResourceNotFoundException;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import net.vivialconnect.tests.stub.ApiStubServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class TransportTest {
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    private PooledTransport transport;
+
+    @Before
+    public void setTransport() {
+        transport = new PooledTransport(new ConnectionPool(2, 30, TimeUnit.SECONDS));
+        VivialConnectClient.setTransport(transport);
+    }
+
+    @Test
+    public void test_pooled_transport_reuses_connection() throws VivialConnectException {
+        for (int i = 0; i < 5; i++) {
+            Account account = Account.getAccount();
+            assertTrue(account.getId() > 0);
+        }
+
+        PoolStats stats = transport.getConnectionPool().getTotalStats();
+        assertEquals(5, api.getServer().getRequestCount());
+        assertEquals(1, stats.getCreated());
+        assertEquals(1, stats.getIdle());
+        assertEquals(0, stats.getLeased());
+        assertEquals(0, stats.getPending());
+    }
+
+    @Test
+    public void test_pooled_transport_reads_chunked_responses() throws Exception {
+        api.getServer().setChunked(true);
+
+        for (int i = 0; i < 3; i++) {
+            Account account = Account.getAccount();
+            assertTrue(account.getId() > 0);
+        }
+
+        assertEquals(1, transport.getConnectionPool().getTotalStats().getCreated());
+    }
+
+    @Test
+    public void test_error_response_keeps_connection() throws VivialConnectException {
+        try {
+            RawResource.fetchMissing();
+            fail("404 response should throw ResourceNotFoundException");
+        } catch (ResourceNotFoundException e) {
+            assertEquals(404, e.getResponseCode());
+        }
+
+        Account.getAccount();
+
+        PoolStats stats = transport.getConnectionPool().getTotalStats();
+        assertEquals(1, stats.getCreated());
+        assertEquals(1, stats.getIdle());
+    }
+
+    @Test
+    public void test_response_body_decoded_as_utf8() throws VivialConnectException {
+        api.getServer().enqueue(ApiStubServer.Response.json(200,
+                "{\"account\": {\"id\": 1, \"company_name\": \"Señal S.R.L. – 東京\"}}"));
+
+        Account account = Account.getAccount();
+
+        assertEquals("Señal S.R.L. – 東京", account.getCompanyName());
+        assertEquals(1, transport.getConnectionPool().getTotalStats().getIdle());
+    }
+
+    @Test
+    public void test_url_connection_transport() throws VivialConnectException {
+        VivialConnectClient.setTransport(new UrlConnectionTransport());
+
+        Account account = Account.getAccount();
+        assertTrue(account.getId() > 0);
+    }
+
+    @Test
+    public void test_routes_without_connections_are_forgotten() throws Exception {
+        PooledTransport shortLived = new PooledTransport(new ConnectionPool(2, 50, TimeUnit.MILLISECONDS));
+        VivialConnectClient.setTransport(shortLived);
+        ConnectionPool pool = shortLived.getConnectionPool();
+
+        Account.getAccount();
+        assertEquals(1, pool.getRouteStats().size());
+
+        Thread.sleep(100);
+        pool.closeExpiredConnections();
+
+        assertTrue(pool.getRouteStats().isEmpty());
+        assertEquals(1, pool.getTotalStats().getCreated());
+        assertEquals(2, pool.getTotalStats().getMax());
+
+        /* A route whose connection fails is not kept either */
+        try {
+            shortLived.execute(new HttpRequest("GET", new URL("http://localhost:1/"), Collections.<String, String>emptyMap(), null));
+            fail("Connection should be refused");
+        } catch (IOException e) {
+            assertTrue(pool.getRouteStats().isEmpty());
+        }
+    }
+
+    @Test
+    public void test_authenticating_proxy_is_answered_with_the_default_authenticator() throws Exception {
+        String credentials = "Basic " + Base64.getEncoder().encodeToString("user:secret".getBytes(StandardCharsets.UTF_8));
+        AtomicInteger challenges = new AtomicInteger();
+        HttpServer proxy = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        proxy.createContext("/", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                while (body.read() != -1) {
+                    /* Drained so that the connection can be reused */
+                }
+            }
+
+            if (!credentials.equals(exchange.getRequestHeaders().getFirst("Proxy-Authorization"))) {
+                challenges.incrementAndGet();
+                exchange.getResponseHeaders().set("Proxy-Authenticate", "Basic realm=\"proxy\"");
+                exchange.sendResponseHeaders(407, -1);
+                exchange.close();
+                return;
+            }
+
+            byte[] answer = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, answer.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(answer);
+            }
+        });
+        proxy.start();
+
+        Authenticator.setDefault(new Authenticator() {
+            @Override
+            protected PasswordAuthentication getPasswordAuthentication() {
+                return getRequestorType() == RequestorType.PROXY ? new PasswordAuthentication("user", "secret".toCharArray()) : null;
+            }
+        });
+        try {
+            HttpRequest request = new HttpRequest("GET", new URL("http://api.example.invalid/ping"), Collections.<String, String>emptyMap(),
+                    null, new Proxy(Proxy.Type.HTTP, proxy.getAddress()));
+
+            for (int i = 0; i < 2; i++) {
+                HttpResponse response = transport.execute(request);
+                assertEquals(200, response.getStatusCode());
+                response.close();
+            }
+
+            /* Challenged once by the pooled connection and once by HttpURLConnection, which then keeps the credentials */
+            assertEquals(2, challenges.get());
+            assertEquals(1, transport.getConnectionPool().getTotalStats().getCreated());
+        } finally {
+            Authenticator.setDefault(null);
+            proxy.stop(0);
+        }
+    }
+
+    /**
+     * Exposes the protected request method to reach URLs no resource class maps to.
+     */
+    private static class RawResource extends VivialConnectResource {
+
+        private static final long serialVersionUID = 1L;
+
+        static Account fetchMissing() throws VivialConnectException {
+            return request(RequestMethod.GET, unmappedURL("missing"), null, null, Account.class);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.PooledTransport;
+import net.vivialconnect.model.WarmUp;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.error.VivialConnectException;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class WarmUpTest {
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    private PooledTransport transport;
+
+    @Before
+    public void setTransport() {
+        transport = new PooledTransport();
+        VivialConnectClient.setTransport(transport);
+    }
+
+    @Test
+    public void test_warm_up_opens_connections_without_requests() throws VivialConnectException {
+        WarmUp warmUp = VivialConnectClient.defaultClient().warmUp(3);
+
+        assertTrue(warmUp.toString(), warmUp.isSucceeded());
+        assertEquals(5, warmUp.getSteps().size());
+        assertNotNull(warmUp.getStep("dns"));
+        assertEquals(0, api.getServer().getRequestCount());
+        assertEquals(3, transport.getConnectionPool().getTotalStats().getIdle());
+
+        /* The first request reuses a warm connection */
+        Account.getAccount();
+        assertEquals(3, transport.getConnectionPool().getTotalStats().getCreated());
+
+        /* Warm connections count towards the number */
+        VivialConnectClient.defaultClient().warmUp(3);
+        assertEquals(3, transport.getConnectionPool().getTotalStats().getCreated());
+    }
+
+    @Test
+    public void test_failed_steps_are_reported() {
+        VivialConnectClient.overrideApiBaseUrl("http://localhost:1/api/v1.0");
+
+        WarmUp warmUp = VivialConnectClient.warmUp();
+
+        assertFalse(warmUp.isSucceeded());
+        assertNull(warmUp.getStep("json").getFailure());
+        assertNotNull(warmUp.getStep("connections").getFailure());
+    }
+
+    @Test
+    public void test_built_client_is_warmed_up() throws IOException {
+        PooledTransport ownTransport = new PooledTransport();
+        try (VivialConnectClient client = VivialConnectClient.builder()
+                .credentials(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET)
+                .apiBaseUrl(api.getServer().getBaseUrl())
+                .transport(ownTransport)
+                .warmUp(2)
+                .build()) {
+            assertEquals(2, ownTransport.getConnectionPool().getTotalStats().getIdle());
+            assertEquals(0, transport.getConnectionPool().getTotalStats().getCreated());
+            assertSame(VivialConnectClient.defaultClient(), VivialConnectClient.current());
+
+            client.warmUp(3);
+            assertEquals(3, ownTransport.getConnectionPool().getTotalStats().getCreated());
+            assertEquals(0, api.getServer().getRequestCount());
+        }
+    }
+}
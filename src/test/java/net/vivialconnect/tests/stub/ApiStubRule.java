@@ -0,0 +1,111 @@
+package net.vivialconnect.tests.stub;
+
+import java.util.concurrent.Executor;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.CircuitBreakers;
+import net.vivialconnect.http.ConcurrencyLimiter;
+import net.vivialconnect.http.HedgePolicy;
+import net.vivialconnect.http.PooledTransport;
+import net.vivialconnect.http.RateLimits;
+import net.vivialconnect.http.RequestCoalescer;
+import net.vivialconnect.http.RequestListener;
+import net.vivialconnect.http.ResponseCache;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.http.Transport;
+import org.junit.rules.ExternalResource;
+
+/**
+ * Runs an {@link ApiStubServer} around each test, with the default client initialized and pointed at it. Once the
+ * test is done, the stub is stopped and the settings of the default client are restored, so that tests can change
+ * them freely:
+ * <pre>
+ * &#64;Rule
+ * public final ApiStubRule api = new ApiStubRule(accountId, apiKey, apiSecret);
+ *
+ * &#64;Test
+ * public void test_server_error_is_thrown() {
+ *     api.getServer().enqueue(ApiStubServer.Response.error(500, "Internal error"));
+ *     ...
+ * }
+ * </pre>
+ */
+public class ApiStubRule extends ExternalResource {
+
+    private final int accountId;
+    private final String apiKey;
+    private final String apiSecret;
+
+    private ApiStubServer server;
+
+    private String apiBaseUrl;
+    private Transport transport;
+    private Executor executor;
+    private RetryPolicy retryPolicy;
+    private RateLimits rateLimits;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private CircuitBreakers circuitBreakers;
+    private HedgePolicy hedgePolicy;
+    private ResponseCache responseCache;
+    private RequestCoalescer requestCoalescer;
+    private RequestListener requestListener;
+    private long clockSkew;
+
+
+    public ApiStubRule(int accountId, String apiKey, String apiSecret) {
+        this.accountId = accountId;
+        this.apiKey = apiKey;
+        this.apiSecret = apiSecret;
+    }
+
+
+    @Override
+    protected void before() throws Throwable {
+        server = new ApiStubServer(accountId, apiKey, apiSecret).start();
+
+        apiBaseUrl = VivialConnectClient.getApiBaseUrl();
+        transport = VivialConnectClient.getTransport();
+        executor = VivialConnectClient.getExecutor();
+        retryPolicy = VivialConnectClient.getRetryPolicy();
+        rateLimits = VivialConnectClient.getRateLimits();
+        concurrencyLimiter = VivialConnectClient.getConcurrencyLimiter();
+        circuitBreakers = VivialConnectClient.getCircuitBreakers();
+        hedgePolicy = VivialConnectClient.getHedgePolicy();
+        responseCache = VivialConnectClient.getResponseCache();
+        requestCoalescer = VivialConnectClient.getRequestCoalescer();
+        requestListener = VivialConnectClient.getRequestListener();
+        clockSkew = VivialConnectClient.getRequestClock().getClockSkew();
+
+        VivialConnectClient.init(accountId, apiKey, apiSecret);
+        VivialConnectClient.overrideApiBaseUrl(server.getBaseUrl());
+    }
+
+
+    @Override
+    protected void after() {
+        VivialConnectClient.overrideApiBaseUrl(apiBaseUrl);
+        if (VivialConnectClient.getTransport() != transport) {
+            /* Setting a transport closes the previous one */
+            VivialConnectClient.setTransport(new PooledTransport());
+        }
+        VivialConnectClient.setExecutor(executor);
+        VivialConnectClient.setRetryPolicy(retryPolicy);
+        VivialConnectClient.setRateLimits(rateLimits);
+        VivialConnectClient.setConcurrencyLimiter(concurrencyLimiter);
+        VivialConnectClient.setCircuitBreakers(circuitBreakers);
+        VivialConnectClient.setHedgePolicy(hedgePolicy);
+        VivialConnectClient.setResponseCache(responseCache);
+        VivialConnectClient.setRequestCoalescer(requestCoalescer);
+        VivialConnectClient.setRequestListener(requestListener);
+        VivialConnectClient.getRequestClock().setClockSkew(clockSkew);
+
+        server.close();
+    }
+
+    /**
+     * @return the stub of the running test
+     */
+    public ApiStubServer getServer() {
+        return server;
+    }
+}
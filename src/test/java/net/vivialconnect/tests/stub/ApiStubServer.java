@@ -0,0 +1,636 @@
+package net.vivialconnect.tests.stub;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Stand-in for the Vivial Connect API, served in process on the loopback interface, so that the SDK can be tested and
+ * load tested end to end, through signing, the transport and unmarshalling, with no network and no account.
+ * <p>
+ * Requests are authenticated as the API does it: the <code>Authorization</code>, <code>X-Auth-Date</code> and
+ * <code>X-Auth-SignedHeaders</code> headers must be present, the timestamp recent and the HMAC signature must match
+ * the request received, otherwise the response is a 401. Requests for another account get a 403.
+ * <p>
+ * Messages, contacts, connectors, numbers and users are stateful: they are seeded from the fixtures of
+ * <code>src/test/resources</code>, and the resources created, updated and deleted are reflected in the lists, counts
+ * and lookups that follow. The other routes serve their fixture as it is.
+ * <p>
+ * Successful reads carry an <code>ETag</code>, and are answered with 304 Not Modified when the request sends it back
+ * in <code>If-None-Match</code>.
+ * <p>
+ * For load tests, responses can be delayed by a latency drawn between two bounds, and a share of the requests can be
+ * answered with a 429 as the API does when an account exceeds its rate limit.
+ * <p>
+ * Tests can script the responses to the next authenticated requests with {@link #enqueue(Response)}, and see each
+ * request as it is received with {@link #onRequest(Consumer)}. {@link ApiStubRule} runs a stub for each test.
+ * <pre>
+ * try (ApiStubServer stub = new ApiStubServer(accountId, apiKey, apiSecret).start()) {
+ *     VivialConnectClient.init(accountId, apiKey, apiSecret);
+ *     VivialConnectClient.overrideApiBaseUrl(stub.getBaseUrl());
+ *     ...
+ * }
+ * </pre>
+ */
+public class ApiStubServer implements Closeable {
+
+    private static final String API_PATH = "/api/v1.0";
+    private static final String ACCOUNTS_PATH = API_PATH + "/accounts/";
+    private static final String JSON_SUFFIX = ".json";
+
+    private static final Pattern ID = Pattern.compile("\\d+");
+
+    /* Numbers the lookup knows of: North American numbers, without the '+' */
+    private static final Pattern LOOKUP_NUMBER = Pattern.compile("1[2-9]\\d{9}");
+
+    /* Routes without state, matched before the stateful collections, paths relative to the account */
+    private static final List<FixtureRoute> FIXTURE_ROUTES = new ArrayList<FixtureRoute>();
+
+    static {
+        FIXTURE_ROUTES.add(new FixtureRoute("GET", "messages/bulk", "bulks.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("POST", "messages/bulk", "bulk-created.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("GET", "messages/bulk/[^/]+", "bulk.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("GET", "messages/\\d+/attachments", "attachments.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("GET", "messages/\\d+/attachments/count", "attachment-count.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("DELETE", "messages/\\d+/attachments/\\d+", null));
+        FIXTURE_ROUTES.add(new FixtureRoute("GET", "logs", "logs.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("GET", "logs/aggregate", "logs-aggregate-hours.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("GET", "transactions", "transactions.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("GET", "numbers/available/US/local", "available-numbers.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("GET", "numbers/available/US/tollfree", "available-toll-free-numbers.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("GET", "connectors/\\d+/phone_numbers/count", "phone-number-count.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("GET", "connectors/\\d+/phone_numbers", "connector-numbers-pg1.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("POST|PUT|DELETE", "connectors/\\d+/phone_numbers", "connector.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("GET|POST|PUT|DELETE", "connectors/\\d+/callbacks", "connector.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("GET", "users/\\d+/profile/credentials", "list-credentials.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("POST", "users/\\d+/profile/credentials", "create-credential.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("PUT", "users/\\d+/profile/credentials/\\d+", "single-credential.json"));
+        FIXTURE_ROUTES.add(new FixtureRoute("DELETE", "users/\\d+/profile/credentials/\\d+", null));
+    }
+
+    private final int accountId;
+    private final SignatureVerifier verifier;
+    private final ResourceStore store;
+    private final Map<String, byte[]> fixtures = new ConcurrentHashMap<String, byte[]>();
+    private final Queue<Response> scripted = new ConcurrentLinkedQueue<Response>();
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong throttledCount = new AtomicLong();
+
+    private volatile long minLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile double throttledRatio;
+    private volatile boolean chunked;
+    private volatile Consumer<Request> requestAction;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+
+    public ApiStubServer(int accountId, String apiKey, String apiSecret) throws IOException {
+        this.accountId = accountId;
+        this.verifier = new SignatureVerifier(apiKey, apiSecret);
+        this.store = new ResourceStore(accountId);
+    }
+
+    /**
+     * Starts listening on an ephemeral port of the loopback interface.
+     *
+     * @return this server
+     * @throws IOException if the server cannot be bound
+     */
+    public ApiStubServer start() throws IOException {
+        /* The server writes headers and body separately, which would otherwise wait on delayed acknowledgements */
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "vivialconnect-api-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        return this;
+    }
+
+    /**
+     * Delays every response by a duration drawn uniformly between the bounds.
+     *
+     * @param min  shortest delay
+     * @param max  longest delay, at least <code>min</code>
+     * @param unit unit of the bounds
+     * @return this server
+     */
+    public ApiStubServer setLatency(long min, long max, TimeUnit unit) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Latency bounds must satisfy 0 <= min <= max");
+        }
+
+        this.minLatencyNanos = unit.toNanos(min);
+        this.maxLatencyNanos = unit.toNanos(max);
+        return this;
+    }
+
+    /**
+     * Answers a share of the authenticated requests with a 429, at random.
+     *
+     * @param throttledRatio share of the requests throttled, between 0 and 1
+     * @return this server
+     */
+    public ApiStubServer setThrottledRatio(double throttledRatio) {
+        if (throttledRatio < 0 || throttledRatio > 1) {
+            throw new IllegalArgumentException("The throttled ratio must be between 0 and 1");
+        }
+
+        this.throttledRatio = throttledRatio;
+        return this;
+    }
+
+    /**
+     * Sends the response bodies in chunks, without a <code>Content-Length</code>.
+     *
+     * @param chunked whether the bodies are chunked
+     * @return this server
+     */
+    public ApiStubServer setChunked(boolean chunked) {
+        this.chunked = chunked;
+        return this;
+    }
+
+    /**
+     * Answers the next authenticated request with a response, instead of the one its route gives. Responses queued
+     * this way are served in order, one per request.
+     *
+     * @param response response to serve
+     * @return this server
+     */
+    public ApiStubServer enqueue(Response response) {
+        scripted.add(response);
+        return this;
+    }
+
+    /**
+     * Runs an action on each request as it is received, before it is authenticated and answered. The action runs on
+     * the thread of the request, so blocking in it stalls the response.
+     *
+     * @param action action to run, or null for none
+     * @return this server
+     */
+    public ApiStubServer onRequest(Consumer<Request> action) {
+        this.requestAction = action;
+        return this;
+    }
+
+    /**
+     * @return the URL to pass to <code>VivialConnectClient.overrideApiBaseUrl</code>
+     */
+    public String getBaseUrl() {
+        return String.format("http://127.0.0.1:%d%s", server.getAddress().getPort(), API_PATH);
+    }
+
+    /**
+     * @return requests received, rejected ones included
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return requests rejected because their authentication failed
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * @return requests answered with a 429 by {@link #setThrottledRatio(double)}
+     */
+    public long getThrottledCount() {
+        return throttledCount.get();
+    }
+
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            byte[] body = IOUtils.toByteArray(exchange.getRequestBody());
+            requestCount.incrementAndGet();
+
+            URI uri = exchange.getRequestURI();
+            String method = exchange.getRequestMethod();
+
+            Consumer<Request> action = requestAction;
+            if (action != null) {
+                action.accept(new Request(method, uri.getPath(), exchange.getRequestHeaders()));
+            }
+
+            delay();
+
+            Response response;
+            String rejection = verifier.verify(method, uri.getPath(), uri.getRawQuery(), exchange.getRequestHeaders(), body);
+            if (rejection != null) {
+                rejectedCount.incrementAndGet();
+                response = Response.error(401, rejection);
+            } else {
+                response = answer(method, uri, body);
+            }
+
+            send(exchange, response);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Answers an authenticated request: with the next scripted response if any, else with a 429 when throttled, else
+     * from its route.
+     */
+    private Response answer(String method, URI uri, byte[] body) throws IOException {
+        Response response = scripted.poll();
+        if (response != null) {
+            return response;
+        }
+
+        if (throttledRatio > 0 && ThreadLocalRandom.current().nextDouble() < throttledRatio) {
+            throttledCount.incrementAndGet();
+            return Response.error(429, "Too many requests");
+        }
+
+        return route(method, uri.getPath(), parseQuery(uri.getRawQuery()), body);
+    }
+
+
+    private void delay() {
+        long min = minLatencyNanos;
+        long max = maxLatencyNanos;
+        if (max == 0) {
+            return;
+        }
+
+        long latency = min == max ? min : ThreadLocalRandom.current().nextLong(min, max + 1);
+        try {
+            TimeUnit.NANOSECONDS.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private Response route(String method, String path, Map<String, String> query, byte[] body) throws IOException {
+        if (!path.startsWith(ACCOUNTS_PATH) || !path.endsWith(JSON_SUFFIX)) {
+            return Response.error(404, "Not found");
+        }
+
+        String resource = path.substring(ACCOUNTS_PATH.length(), path.length() - JSON_SUFFIX.length());
+        int slash = resource.indexOf('/');
+        if (!String.valueOf(accountId).equals(slash < 0 ? resource : resource.substring(0, slash))) {
+            return Response.error(403, "Forbidden");
+        }
+
+        if (slash < 0) {
+            return routeAccount(method, body);
+        }
+
+        String relativePath = resource.substring(slash + 1);
+        if (relativePath.equals("numbers/lookup") && method.equals("GET")) {
+            return routeLookup(query.get("phone_number"));
+        }
+
+        for (FixtureRoute route : FIXTURE_ROUTES) {
+            if (route.matches(method, relativePath)) {
+                return serveFixture(route, query);
+            }
+        }
+
+        return routeCollection(method, relativePath.split("/"), query, body);
+    }
+
+
+    private Response routeAccount(String method, byte[] body) throws IOException {
+        if (method.equals("GET")) {
+            return Response.json(200, store.getAccount());
+        }
+
+        if (method.equals("PUT")) {
+            ObjectNode fields = readFields(body, "account");
+            return fields == null ? Response.error(400, "Malformed body") : Response.json(200, store.updateAccount(fields));
+        }
+
+        return Response.error(405, "Method not allowed");
+    }
+
+
+    private Response routeLookup(String phoneNumber) throws IOException {
+        if (phoneNumber == null || !LOOKUP_NUMBER.matcher(phoneNumber).matches()) {
+            return Response.error(400, "Invalid phone number");
+        }
+
+        JsonNode info = ResourceStore.readFixture("number-info.json");
+        ((ObjectNode) info.get("number_info")).put("phone_number", phoneNumber);
+
+        return Response.json(200, info);
+    }
+
+
+    private Response serveFixture(FixtureRoute route, Map<String, String> query) throws IOException {
+        if (route.fixture == null) {
+            return Response.NO_CONTENT;
+        }
+
+        String fixture = route.fixture;
+        if (fixture.equals("connector-numbers-pg1.json") && "2".equals(query.get("page"))) {
+            fixture = "connector-numbers-pg2.json";
+        }
+
+        byte[] body = fixtures.get(fixture);
+        if (body == null) {
+            body = ResourceStore.loadFixture(fixture);
+            fixtures.put(fixture, body);
+        }
+
+        return new Response(200, body);
+    }
+
+
+    private Response routeCollection(String method, String[] segments, Map<String, String> query, byte[] body) throws IOException {
+        ResourceStore.Collection collection = store.collection(segments[0]);
+        if (collection == null) {
+            return Response.error(404, "Not found");
+        }
+
+        /* Local numbers are the numbers of the account, under another path */
+        int next = segments[0].equals("numbers") && segments.length > 1 && segments[1].equals("local") ? 2 : 1;
+
+        if (segments.length == next) {
+            if (method.equals("GET")) {
+                return new Response(200, collection.list(parseInt(query.get("limit")), parseInt(query.get("page"))));
+            }
+
+            if (method.equals("POST")) {
+                ObjectNode fields = readFields(body, collection.getRootField());
+                return fields == null ? Response.error(400, "Malformed body") : Response.json(200, collection.create(fields));
+            }
+        } else if (segments.length == next + 1 && segments[next].equals("count") && method.equals("GET")) {
+            ObjectNode count = ResourceStore.MAPPER.createObjectNode().put("count", collection.count());
+            return Response.json(200, count);
+        } else if (segments.length == next + 1 && ID.matcher(segments[next]).matches()) {
+            long id = Long.parseLong(segments[next]);
+            ObjectNode result = null;
+
+            if (method.equals("GET")) {
+                result = collection.get(id);
+            } else if (method.equals("PUT")) {
+                ObjectNode fields = readFields(body, collection.getRootField());
+                if (fields == null) {
+                    return Response.error(400, "Malformed body");
+                }
+                result = collection.update(id, fields);
+            } else if (method.equals("DELETE")) {
+                return collection.delete(id) ? Response.NO_CONTENT : Response.error(404, "Not found");
+            }
+
+            return result == null ? Response.error(404, "Not found") : Response.json(200, result);
+        }
+
+        return Response.error(404, "Not found");
+    }
+
+    /**
+     * @return the fields of a request body, under its root property if it has one, null if the body is not an object
+     */
+    private static ObjectNode readFields(byte[] body, String rootField) {
+        if (body.length == 0) {
+            return ResourceStore.MAPPER.createObjectNode();
+        }
+
+        JsonNode json;
+        try {
+            json = ResourceStore.MAPPER.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+
+        if (json != null && json.get(rootField) instanceof ObjectNode) {
+            return (ObjectNode) json.get(rootField);
+        }
+
+        return json instanceof ObjectNode ? (ObjectNode) json : null;
+    }
+
+
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> query = new HashMap<String, String>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, equals), "UTF-8"), URLDecoder.decode(pair.substring(equals + 1), "UTF-8"));
+            }
+        }
+
+        return query;
+    }
+
+
+    private static int parseInt(String value) {
+        if (value == null || !ID.matcher(value).matches()) {
+            return 0;
+        }
+
+        return Integer.parseInt(value);
+    }
+
+
+    private void send(HttpExchange exchange, Response response) throws IOException {
+        for (Map.Entry<String, String> header : response.headers.entrySet()) {
+            exchange.getResponseHeaders().set(header.getKey(), header.getValue());
+        }
+
+        if (response.body == null) {
+            exchange.sendResponseHeaders(response.status, -1);
+            return;
+        }
+
+        if (response.status == 200 && "GET".equals(exchange.getRequestMethod())) {
+            String etag = String.format("\"%08x\"", Arrays.hashCode(response.body));
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status, chunked ? 0 : response.body.length);
+
+        OutputStream responseBody = exchange.getResponseBody();
+        responseBody.write(response.body);
+        responseBody.close();
+    }
+
+
+    private static final class FixtureRoute {
+
+        private final Pattern method;
+        private final Pattern path;
+        private final String fixture;
+
+
+        private FixtureRoute(String method, String path, String fixture) {
+            this.method = Pattern.compile(method);
+            this.path = Pattern.compile(path);
+            this.fixture = fixture;
+        }
+
+
+        private boolean matches(String requestMethod, String relativePath) {
+            return method.matcher(requestMethod).matches() && path.matcher(relativePath).matches();
+        }
+    }
+
+
+    /**
+     * A request received by the stub.
+     */
+    public static final class Request {
+
+        private final String method;
+        private final String path;
+        private final Headers headers;
+
+
+        private Request(String method, String path, Headers headers) {
+            this.method = method;
+            this.path = path;
+            this.headers = headers;
+        }
+
+
+        public String getMethod() {
+            return method;
+        }
+
+        /**
+         * @return the path of the URL, like <code>/api/v1.0/accounts/10130.json</code>
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @param name name of a header
+         * @return its first value, or null if the request does not have it
+         */
+        public String getHeader(String name) {
+            return headers.getFirst(name);
+        }
+    }
+
+    /**
+     * A response of the stub, which tests can script with {@link ApiStubServer#enqueue(Response)}.
+     */
+    public static final class Response {
+
+        private static final Response NO_CONTENT = new Response(204, null);
+
+        private final int status;
+        private final byte[] body;
+        private final Map<String, String> headers;
+
+
+        private Response(int status, byte[] body) {
+            this(status, body, Collections.<String, String>emptyMap());
+        }
+
+
+        private Response(int status, byte[] body, Map<String, String> headers) {
+            this.status = status;
+            this.body = body;
+            this.headers = headers;
+        }
+
+        /**
+         * @param status status of the response
+         * @param body   JSON body
+         * @return the response
+         */
+        public static Response json(int status, String body) {
+            return new Response(status, body.getBytes(StandardCharsets.UTF_8));
+        }
+
+
+        private static Response json(int status, JsonNode body) throws IOException {
+            return new Response(status, ResourceStore.MAPPER.writeValueAsBytes(body));
+        }
+
+        /**
+         * @param status  status of the response
+         * @param message message of the error, as the API words it in the body
+         * @return the response
+         */
+        public static Response error(int status, String message) {
+            try {
+                return json(status, ResourceStore.MAPPER.createObjectNode().put("message", message));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * @param name  name of a header
+         * @param value its value
+         * @return a copy of this response with the header
+         */
+        public Response withHeader(String name, String value) {
+            Map<String, String> withHeader = new LinkedHashMap<String, String>(headers);
+            withHeader.put(name, value);
+
+            return new Response(status, body, withHeader);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package net.vivialconnect.tests.stub;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * State of the stub: the account and the collections that can be created, updated and deleted, seeded from the
+ * fixtures.
+ */
+final class ResourceStore {
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /* Resources per page when the request sets no limit */
+    static final int DEFAULT_LIMIT = 50;
+
+    /* Resources kept per collection, the oldest are dropped beyond it so that long load tests run in bounded memory */
+    static final int MAX_RESOURCES = 10000;
+
+    private final Map<String, Collection> collections = new HashMap<String, Collection>();
+    private ObjectNode account;
+
+
+    ResourceStore(int accountId) throws IOException {
+        account = (ObjectNode) readFixture("account.json").get("account");
+        account.put("id", accountId);
+
+        ObjectNode messageDefaults = MAPPER.createObjectNode()
+                .put("direction", "outbound-api")
+                .put("status", "accepted")
+                .put("message_type", "local_sms")
+                .put("num_media", 0)
+                .put("num_segments", 1);
+
+        add("messages", "messages.json", "messages", "message", accountId, messageDefaults);
+        add("contacts", "contacts.json", "contacts", "contact", accountId, null);
+        add("connectors", "connectors.json", "connectors", "connector", accountId, null);
+        add("numbers", "associated-numbers.json", "phone_numbers", "phone_number", accountId, null);
+        add("users", "users.json", "users", "user", accountId, null);
+    }
+
+
+    private void add(String name, String fixture, String listField, String rootField, int accountId, ObjectNode defaults) throws IOException {
+        ArrayNode items = (ArrayNode) readFixture(fixture).get(listField);
+        collections.put(name, new Collection(listField, rootField, items, accountId, defaults));
+    }
+
+
+    static JsonNode readFixture(String name) throws IOException {
+        return MAPPER.readTree(loadFixture(name));
+    }
+
+
+    static byte[] loadFixture(String name) throws IOException {
+        InputStream fixture = ResourceStore.class.getClassLoader().getResourceAsStream(name);
+        if (fixture == null) {
+            throw new FileNotFoundException(name);
+        }
+
+        try {
+            return IOUtils.toByteArray(fixture);
+        } finally {
+            fixture.close();
+        }
+    }
+
+    /**
+     * @return the collection of the resource, null if it is not stateful
+     */
+    Collection collection(String name) {
+        return collections.get(name);
+    }
+
+
+    synchronized ObjectNode getAccount() {
+        return wrap("account", account);
+    }
+
+
+    synchronized ObjectNode updateAccount(ObjectNode fields) {
+        account.setAll(fields);
+        account.put("date_modified", now());
+
+        return wrap("account", account);
+    }
+
+
+    static ObjectNode wrap(String rootField, JsonNode value) {
+        ObjectNode wrapper = MAPPER.createObjectNode();
+        wrapper.set(rootField, value.deepCopy());
+
+        return wrapper;
+    }
+
+
+    static String now() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'+00:00'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        return format.format(new Date());
+    }
+
+    /**
+     * Resources of one type, in creation order. Lists are paginated as by the API. The first page is kept serialized
+     * until the next change, so that reading an unchanged collection under load does not serialize it again.
+     */
+    static final class Collection {
+
+        private final String listField;
+        private final String rootField;
+        private final int accountId;
+        private final ObjectNode defaults;
+        private final Map<Long, ObjectNode> items = new LinkedHashMap<Long, ObjectNode>();
+        private long nextId;
+        private byte[] firstPage;
+
+
+        private Collection(String listField, String rootField, ArrayNode seed, int accountId, ObjectNode defaults) {
+            this.listField = listField;
+            this.rootField = rootField;
+            this.accountId = accountId;
+            this.defaults = defaults;
+
+            for (JsonNode item : seed) {
+                long id = item.path("id").asLong();
+                items.put(id, (ObjectNode) item);
+                nextId = Math.max(nextId, id + 1);
+            }
+        }
+
+
+        String getRootField() {
+            return rootField;
+        }
+
+
+        /**
+         * @param limit resources per page, the API default if 0
+         * @param page  page to list, starting at 1
+         */
+        synchronized byte[] list(int limit, int page) throws IOException {
+            boolean firstDefaultPage = (limit == 0 || limit == DEFAULT_LIMIT) && page <= 1;
+            if (firstDefaultPage && firstPage != null) {
+                return firstPage;
+            }
+
+            int pageSize = limit == 0 ? DEFAULT_LIMIT : limit;
+            int first = (Math.max(page, 1) - 1) * pageSize;
+
+            ArrayNode list = MAPPER.createArrayNode();
+            int index = 0;
+            for (ObjectNode item : items.values()) {
+                if (index >= first + pageSize) {
+                    break;
+                }
+                if (index >= first) {
+                    list.add(item);
+                }
+                index++;
+            }
+
+            ObjectNode response = MAPPER.createObjectNode();
+            response.set(listField, list);
+            byte[] body = MAPPER.writeValueAsBytes(response);
+
+            if (firstDefaultPage) {
+                firstPage = body;
+            }
+
+            return body;
+        }
+
+
+        synchronized int count() {
+            return items.size();
+        }
+
+        /**
+         * @return the resource under its root property, null if there is none with this id
+         */
+        synchronized ObjectNode get(long id) {
+            ObjectNode item = items.get(id);
+            return item == null ? null : wrap(rootField, item);
+        }
+
+
+        synchronized ObjectNode create(ObjectNode fields) {
+            long id = nextId++;
+            String now = now();
+
+            ObjectNode item = MAPPER.createObjectNode();
+            if (defaults != null) {
+                item.setAll(defaults);
+            }
+            item.setAll(fields);
+            item.put("id", id);
+            item.put("account_id", accountId);
+            item.put("date_created", now);
+            item.put("date_modified", now);
+
+            items.put(id, item);
+            if (items.size() > MAX_RESOURCES) {
+                items.remove(items.keySet().iterator().next());
+                firstPage = null;
+            } else if (items.size() <= DEFAULT_LIMIT) {
+                /* Past the first page, new resources do not change it */
+                firstPage = null;
+            }
+
+            return wrap(rootField, item);
+        }
+
+        /**
+         * @return the updated resource under its root property, null if there is none with this id
+         */
+        synchronized ObjectNode update(long id, ObjectNode fields) {
+            ObjectNode item = items.get(id);
+            if (item == null) {
+                return null;
+            }
+
+            Iterator<Map.Entry<String, JsonNode>> changes = fields.fields();
+            while (changes.hasNext()) {
+                Map.Entry<String, JsonNode> change = changes.next();
+                if (!change.getKey().equals("id")) {
+                    item.set(change.getKey(), change.getValue());
+                }
+            }
+            item.put("date_modified", now());
+            firstPage = null;
+
+            return wrap(rootField, item);
+        }
+
+
+        synchronized boolean delete(long id) {
+            boolean deleted = items.remove(id) != null;
+            if (deleted) {
+                firstPage = null;
+            }
+
+            return deleted;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package net.vivialconnect.tests.stub;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.sun.net.httpserver.Headers;
+
+/**
+ * Checks the HMAC signature of a request the way the API does, from what was received on the wire only: the canonical
+ * request is rebuilt from the method, path, query, signed headers and body, and signed again with the secret.
+ * <p>
+ * It deliberately shares no code with the SDK signer, so that a change to the signing code that the API would reject
+ * is rejected here too.
+ */
+final class SignatureVerifier {
+
+    /* Requests whose X-Auth-Date is further than this from the server clock are expired */
+    private static final long MAX_CLOCK_SKEW = TimeUnit.MINUTES.toMillis(5);
+
+    private static final String AUTHORIZATION_PREFIX = "HMAC ";
+
+    private final String apiKey;
+    private final SecretKeySpec secret;
+
+
+    SignatureVerifier(String apiKey, String apiSecret) {
+        this.apiKey = apiKey;
+        this.secret = new SecretKeySpec(apiSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    /**
+     * @return null if the request is authentic, the reason it is rejected otherwise
+     */
+    String verify(String method, String path, String rawQuery, Headers headers, byte[] body) {
+        String authorization = headers.getFirst("Authorization");
+        String timestamp = headers.getFirst("X-Auth-Date");
+        String signedHeaders = headers.getFirst("X-Auth-SignedHeaders");
+
+        if (authorization == null || timestamp == null || signedHeaders == null) {
+            return "Missing authentication headers";
+        }
+
+        if (!authorization.startsWith(AUTHORIZATION_PREFIX) || authorization.indexOf(':') < 0) {
+            return "Malformed Authorization header";
+        }
+
+        int separator = authorization.lastIndexOf(':');
+        if (!apiKey.equals(authorization.substring(AUTHORIZATION_PREFIX.length(), separator))) {
+            return "Invalid API key";
+        }
+
+        String timestampError = checkTimestamp(timestamp);
+        if (timestampError != null) {
+            return timestampError;
+        }
+
+        StringBuilder canonicalRequest = new StringBuilder();
+        canonicalRequest.append(method).append('\n')
+                .append(timestamp).append('\n')
+                .append(encode(path).replace("%2F", "/")).append('\n')
+                .append(canonicalQuery(rawQuery)).append('\n');
+
+        for (String name : signedHeaders.split(";")) {
+            String value = headers.getFirst(name);
+            if (value == null) {
+                return "Signed header " + name + " is missing";
+            }
+
+            /* Clients send the ephemeral port of the stub in Host, where the API listens on the default port */
+            if (name.equalsIgnoreCase("Host") && value.lastIndexOf(':') > 0) {
+                value = value.substring(0, value.lastIndexOf(':'));
+            }
+
+            canonicalRequest.append(name.toLowerCase(Locale.ROOT)).append(':').append(value).append('\n');
+        }
+
+        canonicalRequest.append(signedHeaders).append('\n');
+
+        try {
+            canonicalRequest.append(toHex(MessageDigest.getInstance("SHA-256").digest(body)));
+
+            Mac hmac = Mac.getInstance("HmacSHA256");
+            hmac.init(secret);
+            byte[] expected = toHex(hmac.doFinal(canonicalRequest.toString().getBytes(StandardCharsets.UTF_8)))
+                    .getBytes(StandardCharsets.US_ASCII);
+            byte[] actual = authorization.substring(separator + 1).getBytes(StandardCharsets.US_ASCII);
+
+            return MessageDigest.isEqual(expected, actual) ? null : "Invalid signature";
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    private static String checkTimestamp(String timestamp) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        format.setLenient(false);
+
+        try {
+            long skew = Math.abs(format.parse(timestamp).getTime() - System.currentTimeMillis());
+            return skew > MAX_CLOCK_SKEW ? "Request has expired" : null;
+        } catch (ParseException e) {
+            return "Malformed X-Auth-Date header";
+        }
+    }
+
+    /**
+     * Query parameters decoded, encoded again and sorted by name, as the client is expected to sign them.
+     */
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+
+        List<String[]> pairs = new ArrayList<String[]>();
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+
+            pairs.add(new String[]{encode(decode(name)), encode(decode(value))});
+        }
+
+        Collections.sort(pairs, (first, second) -> first[0].compareTo(second[0]));
+
+        StringBuilder builder = new StringBuilder();
+        for (String[] pair : pairs) {
+            if (builder.length() > 0) {
+                builder.append('&');
+            }
+
+            builder.append(pair[0]).append('=').append(pair[1]);
+        }
+
+        return builder.toString();
+    }
+
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+
+        return hex.toString();
+    }
+}
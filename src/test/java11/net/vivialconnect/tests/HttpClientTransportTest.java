@@ -0,0 +1,177 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.HttpClientTransport;
+import net.vivialconnect.http.RateLimits;
+import net.vivialconnect.http.RequestCoalescer;
+import net.vivialconnect.http.ResponseCache;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.model.account.Contact;
+import net.vivialconnect.model.error.ResourceNotFoundException;
+import net.vivialconnect.model.message.Message;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import net.vivialconnect.tests.stub.ApiStubServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class HttpClientTransportTest {
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    private final AtomicInteger tasks = new AtomicInteger();
+
+    @Before
+    public void setTransport() {
+        VivialConnectClient.setTransport(new HttpClientTransport());
+
+        Executor executor = VivialConnectClient.getExecutor();
+        VivialConnectClient.setExecutor(command -> {
+            tasks.incrementAndGet();
+            executor.execute(command);
+        });
+    }
+
+    @Test
+    public void test_sync_request_through_http_client() throws Exception {
+        assertTrue(Account.getAccount().getId() > 0);
+    }
+
+    @Test
+    public void test_signed_date_header_is_sent() throws Exception {
+        AtomicInteger dated = new AtomicInteger();
+        api.getServer().onRequest(request -> {
+            if (request.getHeader("Date") != null) {
+                dated.incrementAndGet();
+            }
+        });
+
+        Account.getAccount();
+
+        assertEquals(1, dated.get());
+    }
+
+    @Test
+    public void test_async_request_does_not_use_executor() throws Exception {
+        CompletableFuture<Account> account = Account.getAccountAsync();
+
+        assertTrue(account.get(5, TimeUnit.SECONDS).getId() > 0);
+        assertEquals(0, tasks.get());
+    }
+
+    @Test
+    public void test_async_error_completes_exceptionally() throws Exception {
+        try {
+            Message.getMessageByIdAsync(404).get(5, TimeUnit.SECONDS);
+            fail("404 response should complete the future exceptionally");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ResourceNotFoundException);
+        }
+    }
+
+    @Test
+    public void test_async_request_is_retried() throws Exception {
+        VivialConnectClient.setRetryPolicy(RetryPolicy.builder()
+                .backoff(Duration.ofMillis(1), Duration.ofMillis(5))
+                .build());
+        api.getServer().enqueue(ApiStubServer.Response.error(503, "Service unavailable"));
+        api.getServer().enqueue(ApiStubServer.Response.error(503, "Service unavailable"));
+
+        assertTrue(Account.getAccountAsync().get(5, TimeUnit.SECONDS).getId() > 0);
+        assertEquals(3, api.getServer().getRequestCount());
+        assertEquals(0, tasks.get());
+    }
+
+    @Test
+    public void test_cancelled_request_waiting_for_rate_limit_is_not_sent() throws Exception {
+        VivialConnectClient.setRateLimits(RateLimits.builder()
+                .limit("GET", "account", 2, 1)
+                .build());
+
+        Account.getAccountAsync().get(5, TimeUnit.SECONDS);
+        CompletableFuture<Account> waiting = Account.getAccountAsync();
+        waiting.cancel(true);
+        Thread.sleep(700);
+
+        assertEquals(1, api.getServer().getRequestCount());
+    }
+
+    @Test
+    public void test_async_read_is_served_from_response_cache() throws Exception {
+        ResponseCache cache = ResponseCache.builder().ttl("account", Duration.ofMinutes(1)).build();
+        VivialConnectClient.setResponseCache(cache);
+
+        Account.getAccountAsync().get(5, TimeUnit.SECONDS);
+        assertTrue(Account.getAccountAsync().get(5, TimeUnit.SECONDS).getId() > 0);
+
+        assertEquals(1, api.getServer().getRequestCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void test_stale_async_read_is_revalidated() throws Exception {
+        ResponseCache cache = ResponseCache.builder().ttl("account", Duration.ZERO).build();
+        VivialConnectClient.setResponseCache(cache);
+
+        Account.getAccountAsync().get(5, TimeUnit.SECONDS);
+        assertTrue(Account.getAccountAsync().get(5, TimeUnit.SECONDS).getId() > 0);
+
+        assertEquals(2, api.getServer().getRequestCount());
+        assertEquals(1, cache.getRevalidationCount());
+    }
+
+    @Test
+    public void test_identical_async_reads_are_sent_once() throws Exception {
+        RequestCoalescer coalescer = RequestCoalescer.create();
+        VivialConnectClient.setRequestCoalescer(coalescer);
+        api.getServer().setLatency(300, 300, TimeUnit.MILLISECONDS);
+
+        List<CompletableFuture<Account>> accounts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            accounts.add(Account.getAccountAsync());
+        }
+        for (CompletableFuture<Account> account : accounts) {
+            assertTrue(account.get(5, TimeUnit.SECONDS).getId() > 0);
+        }
+
+        assertEquals(1, api.getServer().getRequestCount());
+        assertEquals(3, coalescer.getCoalescedCount());
+        assertEquals(0, coalescer.getInFlightCount());
+        assertEquals(0, tasks.get());
+    }
+
+    @Test
+    public void test_async_follower_sends_the_read_once_the_leader_is_cancelled() throws Exception {
+        VivialConnectClient.setRequestCoalescer(RequestCoalescer.create());
+        api.getServer().setLatency(300, 300, TimeUnit.MILLISECONDS);
+
+        CompletableFuture<Account> leader = Account.getAccountAsync();
+        CompletableFuture<Account> follower = Account.getAccountAsync();
+        leader.cancel(true);
+
+        assertTrue(follower.get(5, TimeUnit.SECONDS).getId() > 0);
+    }
+
+    @Test
+    public void test_async_delete_maps_no_content_to_true() throws Exception {
+        Contact contact = new Contact();
+        contact.setId(1);
+
+        assertTrue(contact.deleteAsync().get(5, TimeUnit.SECONDS));
+    }
+}
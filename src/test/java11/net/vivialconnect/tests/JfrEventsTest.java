@@ -0,0 +1,89 @@
+package net.vivialconnect.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.vivialconnect.client.VivialConnectClient;
+import net.vivialconnect.http.RequestTracer;
+import net.vivialconnect.http.RetryPolicy;
+import net.vivialconnect.model.account.Account;
+import net.vivialconnect.tests.stub.ApiStubRule;
+import net.vivialconnect.tests.stub.ApiStubServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class JfrEventsTest {
+
+    @Rule
+    public final ApiStubRule api = new ApiStubRule(ClientInitTest.ACCOUNT_ID, ClientInitTest.API_KEY, ClientInitTest.API_SECRET);
+
+    @Before
+    public void setRetryPolicy() {
+        VivialConnectClient.setRetryPolicy(RetryPolicy.builder()
+                .backoff(Duration.ofMillis(1), Duration.ofMillis(1))
+                .build());
+    }
+
+    @Test
+    public void test_stages_of_a_retried_call_are_recorded() throws Exception {
+        assertEquals("JfrRequestTracer", RequestTracer.get().getClass().getSimpleName());
+
+        api.getServer().enqueue(ApiStubServer.Response.error(503, "Service unavailable"));
+        Path file = Files.createTempFile("vivialconnect", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : new String[]{"Request", "Sign", "Connect", "Write", "Read", "Unmarshal", "Retry"}) {
+                recording.enable("net.vivialconnect." + event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+
+            Account.getAccount();
+
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+            List<RecordedEvent> requests = named(events, "Request");
+            assertEquals(1, requests.size());
+            assertEquals("GET", requests.get(0).getString("method"));
+            assertEquals("account.json", requests.get(0).getString("route"));
+            assertEquals(200, requests.get(0).getInt("statusCode"));
+
+            assertEquals(2, named(events, "Sign").size());
+            assertEquals(2, named(events, "Connect").size());
+            assertEquals(2, named(events, "Write").size());
+            assertEquals(1, named(events, "Unmarshal").size());
+
+            List<Integer> readStatuses = named(events, "Read").stream()
+                    .map(event -> event.getInt("statusCode"))
+                    .sorted()
+                    .collect(Collectors.toList());
+            assertEquals(List.of(200, 503), readStatuses);
+
+            List<RecordedEvent> retries = named(events, "Retry");
+            assertEquals(1, retries.size());
+            assertEquals(1, retries.get(0).getInt("attempt"));
+            assertEquals(503, retries.get(0).getInt("statusCode"));
+            assertTrue(retries.get(0).getDuration("delay").toNanos() >= 0);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals("net.vivialconnect." + name))
+                .collect(Collectors.toList());
+    }
+}